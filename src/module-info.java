@@ -23,8 +23,12 @@ module jetuml {
 	requires javafx.swing;
 	requires java.desktop;
 	requires java.prefs;
+	requires java.management;
+	requires jdk.httpserver;
+	requires static jdk.management;
 	requires transitive javafx.graphics;
 	requires static org.junit.jupiter.api;
 	requires static org.junit.jupiter.params;
 	exports org.jetuml;
+	exports org.jetuml.rendering to java.management;
 }
\ No newline at end of file
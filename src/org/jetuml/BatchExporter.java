@@ -0,0 +1,526 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.jetuml.application.FileExtensions;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.gui.PngExporter;
+import org.jetuml.gui.SvgExporter;
+import org.jetuml.persistence.PersistenceService;
+import org.jetuml.rendering.RenderingBackend;
+
+/**
+ * Exports diagram files to images from the command line, without a user interface:
+ * 
+ * BatchExporter [-format png|svg] [-threads n] [-output directory] [-cache directory [-cache-size MB]] 
+ *     file-or-directory...
+ * 
+ * Directories are searched recursively for diagram files. Each image has the name of 
+ * its diagram file, with the extension of the format instead of the application extension, 
+ * and is written next to the diagram file unless an output directory is given. 
+ * Only the first of several diagrams with the same name is exported to an output directory:
+ * the others are reported as failures, so that no image overwrites another.
+ * The diagrams are read, drawn, and encoded in parallel on a pool of worker threads,
+ * by default one per processor. Each task loads its own diagram and creates its own 
+ * renderer, so the tasks do not share any diagram or renderer. The time taken for each 
+ * diagram is reported as soon as it is exported.
+ * 
+ * If a cache directory is given, the images are kept in a RenderCache, keyed by the 
+ * contents of the diagram files. The image of a diagram that is already in the cache is 
+ * copied from the cache, without reading the diagram.
+ * 
+ * Unless the rendering backend is specified with the system property jetuml.rendering,
+ * the Java2D backend is selected, so that no display or JavaFX toolkit is required.
+ */
+public final class BatchExporter
+{
+	private static final String EXTENSION_JET = ".jet";
+	private static final long NANOS_PER_MILLI = 1_000_000;
+	private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+	private static final int DEFAULT_CACHE_SIZE = 256; // Megabytes
+	private static final double SCALE = 1; // The images are exported at the actual size of the diagrams
+	
+	/**
+	 * The image formats supported.
+	 */
+	public enum Format
+	{
+		PNG, SVG;
+		
+		/**
+		 * @return The file extension for this format, including the dot.
+		 */
+		public String extension()
+		{
+			return "." + name().toLowerCase();
+		}
+		
+		/**
+		 * Writes an image of pDiagram to pOutput in this format. The output is not closed.
+		 * 
+		 * @param pDiagram The diagram to export.
+		 * @param pOutput The destination of the image.
+		 * @throws IOException If the image cannot be written.
+		 * @pre pDiagram != null && pOutput != null
+		 */
+		public void write(Diagram pDiagram, OutputStream pOutput) throws IOException
+		{
+			assert pDiagram != null && pOutput != null;
+			if( this == SVG )
+			{
+				try
+				{
+					SvgExporter.export(pDiagram, new OutputStreamWriter(pOutput, StandardCharsets.UTF_8));
+				}
+				catch(UncheckedIOException exception)
+				{
+					throw exception.getCause();
+				}
+			}
+			else
+			{
+				PngExporter.export(pDiagram, pOutput);
+			}
+		}
+	}
+	
+	/**
+	 * The outcome of the export of one diagram.
+	 */
+	public static final class Result
+	{
+		private final File aDiagram;
+		private final File aImage;
+		private final long aMillis;
+		private final boolean aCached;
+		private final Optional<Exception> aError;
+		
+		private Result(File pDiagram, File pImage, long pMillis, boolean pCached, Optional<Exception> pError)
+		{
+			aDiagram = pDiagram;
+			aImage = pImage;
+			aMillis = pMillis;
+			aCached = pCached;
+			aError = pError;
+		}
+		
+		/**
+		 * @return The diagram file.
+		 */
+		public File diagram()
+		{
+			return aDiagram;
+		}
+		
+		/**
+		 * @return The image file.
+		 */
+		public File image()
+		{
+			return aImage;
+		}
+		
+		/**
+		 * @return The time taken to read, draw, encode, and write the diagram, in milliseconds.
+		 */
+		public long millis()
+		{
+			return aMillis;
+		}
+		
+		/**
+		 * @return True if the image was copied from the cache instead of being drawn.
+		 */
+		public boolean cached()
+		{
+			return aCached;
+		}
+		
+		/**
+		 * @return The reason why the diagram could not be exported, if any.
+		 */
+		public Optional<Exception> error()
+		{
+			return aError;
+		}
+		
+		@Override
+		public String toString()
+		{
+			if( aError.isPresent() )
+			{
+				return String.format("%s: failed after %d ms: %s", aDiagram, aMillis, aError.get());
+			}
+			return String.format("%s -> %s (%d ms%s)", aDiagram, aImage, aMillis, aCached ? ", cached" : "");
+		}
+	}
+	
+	private final Format aFormat;
+	private final Optional<File> aOutputDirectory;
+	private final int aThreads;
+	private final Optional<RenderCache> aCache;
+	
+	/**
+	 * Creates an exporter that draws every image.
+	 * 
+	 * @param pFormat The format of the images.
+	 * @param pOutputDirectory The directory in which to write the images. If absent,
+	 *     each image is written in the directory of its diagram.
+	 * @param pThreads The number of worker threads.
+	 * @pre pFormat != null && pOutputDirectory != null && pThreads > 0
+	 */
+	public BatchExporter(Format pFormat, Optional<File> pOutputDirectory, int pThreads)
+	{
+		this(pFormat, pOutputDirectory, pThreads, Optional.empty());
+	}
+	
+	/**
+	 * @param pFormat The format of the images.
+	 * @param pOutputDirectory The directory in which to write the images. If absent,
+	 *     each image is written in the directory of its diagram.
+	 * @param pThreads The number of worker threads.
+	 * @param pCache The cache from which to copy the images of unchanged diagrams, if any.
+	 * @pre pFormat != null && pOutputDirectory != null && pThreads > 0 && pCache != null
+	 */
+	public BatchExporter(Format pFormat, Optional<File> pOutputDirectory, int pThreads, Optional<RenderCache> pCache)
+	{
+		assert pFormat != null && pOutputDirectory != null && pThreads > 0 && pCache != null;
+		aFormat = pFormat;
+		aOutputDirectory = pOutputDirectory;
+		aThreads = pThreads;
+		aCache = pCache;
+	}
+	
+	/**
+	 * Exports each diagram in pDiagrams and blocks until they are all exported.
+	 * A diagram that cannot be exported does not prevent the others from
+	 * being exported. A diagram whose image would have the same file as the image of 
+	 * an earlier diagram in pDiagrams, which can happen when diagrams from different directories 
+	 * are exported to the same output directory, is not exported, and its result is an error.
+	 * 
+	 * @param pDiagrams The diagram files.
+	 * @param pListener Receives the result of each diagram as soon as it is exported,
+	 *     on the calling thread.
+	 * @return The results, in the order of pDiagrams.
+	 * @throws InterruptedException If the calling thread is interrupted while waiting.
+	 * @pre pDiagrams != null && pListener != null
+	 */
+	public List<Result> export(List<File> pDiagrams, Consumer<Result> pListener) throws InterruptedException
+	{
+		assert pDiagrams != null && pListener != null;
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(aThreads, pDiagrams.size())));
+		try
+		{
+			CompletionService<Result> completion = new ExecutorCompletionService<>(executor);
+			List<Future<Result>> futures = new ArrayList<>();
+			Map<File, File> exportedTo = new HashMap<>(); // The diagram exported to each image file
+			for( File diagram : pDiagrams )
+			{
+				File image = imageFileFor(diagram).getAbsoluteFile();
+				File other = exportedTo.putIfAbsent(image, diagram);
+				if( other == null )
+				{
+					futures.add(completion.submit(() -> export(diagram)));
+				}
+				else
+				{
+					futures.add(completion.submit(() -> conflict(diagram, image, other)));
+				}
+			}
+			for( int i = 0; i < futures.size(); i++ )
+			{
+				pListener.accept(result(completion.take()));
+			}
+			List<Result> results = new ArrayList<>();
+			for( Future<Result> future : futures )
+			{
+				results.add(result(future));
+			}
+			return results;
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+	
+	/*
+	 * The result of a diagram that is not exported because the image of another diagram
+	 * has the same file. The image file belongs to the other diagram, so it is left alone.
+	 */
+	private static Result conflict(File pDiagram, File pImage, File pOther)
+	{
+		return new Result(pDiagram, pImage, 0, false, Optional.of(new FileAlreadyExistsException(pImage.toString(), 
+				pOther.toString(), "The image of the other diagram has the same file")));
+	}
+	
+	private static Result result(Future<Result> pFuture) throws InterruptedException
+	{
+		try
+		{
+			return pFuture.get();
+		}
+		catch(ExecutionException exception)
+		{
+			// Cannot happen: the tasks report their failures in their result
+			throw new IllegalStateException(exception.getCause());
+		}
+	}
+	
+	/**
+	 * @param pDiagram A diagram file.
+	 * @return The file in which the image of pDiagram is written.
+	 * @pre pDiagram != null
+	 */
+	public File imageFileFor(File pDiagram)
+	{
+		assert pDiagram != null;
+		String name = FileExtensions.clipApplicationExtension(pDiagram).getName() + aFormat.extension();
+		return new File(aOutputDirectory.orElse(pDiagram.getAbsoluteFile().getParentFile()), name);
+	}
+	
+	private Result export(File pDiagram)
+	{
+		long start = System.nanoTime();
+		File image = imageFileFor(pDiagram);
+		try
+		{
+			boolean cached = false;
+			if( aCache.isPresent() )
+			{
+				cached = exportWithCache(pDiagram, image, aCache.get());
+			}
+			else
+			{
+				Diagram diagram = PersistenceService.read(pDiagram).diagram();
+				try( OutputStream out = new BufferedOutputStream(new FileOutputStream(image)) )
+				{
+					aFormat.write(diagram, out);
+				}
+			}
+			return new Result(pDiagram, image, elapsedMillis(start), cached, Optional.empty());
+		}
+		catch(IOException | RuntimeException exception)
+		{
+			image.delete(); // Leaves no partial image behind
+			return new Result(pDiagram, image, elapsedMillis(start), false, Optional.of(exception));
+		}
+	}
+	
+	/*
+	 * Writes the image of pDiagram from pCache, or draws it and adds it to pCache.
+	 * The key is computed from the first line of the file, which is the diagram 
+	 * as encoded by JsonEncoder when the file was saved. Returns true if the image 
+	 * was found in the cache.
+	 */
+	private boolean exportWithCache(File pDiagram, File pImage, RenderCache pCache) throws IOException
+	{
+		String encoded;
+		try( BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new FileInputStream(pDiagram), StandardCharsets.UTF_8)) )
+		{
+			encoded = reader.readLine();
+		}
+		if( encoded == null )
+		{
+			encoded = "";
+		}
+		String key = RenderCache.key(encoded, aFormat, SCALE);
+		Optional<byte[]> cached = pCache.get(key);
+		byte[] bytes;
+		if( cached.isPresent() )
+		{
+			bytes = cached.get();
+		}
+		else
+		{
+			Diagram diagram = PersistenceService.read(new StringReader(encoded)).diagram();
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			aFormat.write(diagram, out);
+			bytes = out.toByteArray();
+			pCache.put(key, bytes);
+		}
+		try( OutputStream out = new FileOutputStream(pImage) )
+		{
+			out.write(bytes);
+		}
+		return cached.isPresent();
+	}
+	
+	private static long elapsedMillis(long pStart)
+	{
+		return (System.nanoTime() - pStart) / NANOS_PER_MILLI;
+	}
+	
+	/**
+	 * @param pFiles Diagram files and directories.
+	 * @return The files in pFiles, followed by the diagram files found in 
+	 *     the directories of pFiles and their subdirectories, in name order.
+	 * @pre pFiles != null
+	 */
+	public static List<File> findDiagrams(List<File> pFiles)
+	{
+		assert pFiles != null;
+		List<File> result = new ArrayList<>();
+		for( File file : pFiles )
+		{
+			if( file.isDirectory() )
+			{
+				File[] children = file.listFiles();
+				if( children != null )
+				{
+					Arrays.sort(children);
+					for( File child : children )
+					{
+						if( child.isDirectory() || child.getName().endsWith(EXTENSION_JET) )
+						{
+							result.addAll(findDiagrams(List.of(child)));
+						}
+					}
+				}
+			}
+			else
+			{
+				result.add(file);
+			}
+		}
+		return result;
+	}
+	
+	/*
+	 * Selects the Java2D rendering backend, unless another one is specified, 
+	 * and AWT's headless mode. Must be called before any diagram is rendered.
+	 */
+	static void useHeadlessRendering()
+	{
+		if( System.getProperty(RenderingBackend.PROPERTY) == null )
+		{
+			// A string, because the backend is selected when RenderingBackend is initialized
+			System.setProperty(RenderingBackend.PROPERTY, "java2d");
+		}
+		System.setProperty("java.awt.headless", "true");
+	}
+	
+	/**
+	 * @param pArgs The options and the diagram files and directories to export.
+	 * @throws InterruptedException If the main thread is interrupted.
+	 */
+	public static void main(String[] pArgs) throws InterruptedException
+	{
+		useHeadlessRendering();
+		Format format = Format.PNG;
+		Optional<File> output = Optional.empty();
+		int threads = Runtime.getRuntime().availableProcessors();
+		Optional<File> cacheDirectory = Optional.empty();
+		long cacheSize = DEFAULT_CACHE_SIZE;
+		List<File> files = new ArrayList<>();
+		try
+		{
+			for( int i = 0; i < pArgs.length; i++ )
+			{
+				if( "-format".equals(pArgs[i]) )
+				{
+					format = Format.valueOf(pArgs[++i].toUpperCase());
+				}
+				else if( "-threads".equals(pArgs[i]) )
+				{
+					threads = Integer.parseInt(pArgs[++i]);
+				}
+				else if( "-output".equals(pArgs[i]) )
+				{
+					output = Optional.of(new File(pArgs[++i]));
+				}
+				else if( "-cache".equals(pArgs[i]) )
+				{
+					cacheDirectory = Optional.of(new File(pArgs[++i]));
+				}
+				else if( "-cache-size".equals(pArgs[i]) )
+				{
+					cacheSize = Long.parseLong(pArgs[++i]);
+				}
+				else
+				{
+					files.add(new File(pArgs[i]));
+				}
+			}
+		}
+		catch(IllegalArgumentException | ArrayIndexOutOfBoundsException exception)
+		{
+			files.clear();
+		}
+		if( files.isEmpty() || threads < 1 || cacheSize < 0 )
+		{
+			System.err.println("Usage: BatchExporter [-format png|svg] [-threads n] [-output directory] " + 
+					"[-cache directory [-cache-size MB]] file-or-directory...");
+			System.exit(2);
+		}
+		output.ifPresent(File::mkdirs);
+		Optional<RenderCache> cache = Optional.empty();
+		if( cacheDirectory.isPresent() )
+		{
+			try
+			{
+				cache = Optional.of(new RenderCache(cacheDirectory.get().toPath(), cacheSize * BYTES_PER_MEGABYTE));
+			}
+			catch(IOException exception)
+			{
+				System.err.println("Cannot open the cache: " + exception);
+				System.exit(2);
+			}
+		}
+		
+		long start = System.nanoTime();
+		List<File> diagrams = findDiagrams(files);
+		List<Result> results = new BatchExporter(format, output, threads, cache).export(diagrams, System.out::println);
+		long failures = results.stream().filter(result -> result.error().isPresent()).count();
+		System.out.printf("Exported %d of %d diagrams in %d ms with %d threads%n", 
+				results.size() - failures, results.size(), elapsedMillis(start), threads);
+		System.exit(failures == 0 ? 0 : 1);
+	}
+}
@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.jetuml.BatchExporter.Format;
+import org.jetuml.application.UserPreferences;
+import org.jetuml.application.UserPreferences.IntegerPreference;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.persistence.JsonEncoder;
+import org.jetuml.rendering.RenderingBackend;
+
+/**
+ * A cache of encoded images of diagrams, stored as files in a directory so that
+ * it survives from one export to the next. An image is keyed by a hash of the 
+ * encoded diagram, as produced by JsonEncoder, together with the format and scale 
+ * of the image. The diagram files saved by JetUML contain exactly this encoding, 
+ * so the key of a diagram file can be computed without decoding the diagram.
+ * The key also covers what else determines the image: the version of the application, 
+ * the rendering backend, and the font size, so that images drawn by a previous 
+ * version or with other settings are not reused.
+ * 
+ * When the total size of the images exceeds the capacity of the cache, the least 
+ * recently used images are deleted. The time an image was last used is stored as the
+ * modification time of its file, so the order is kept between runs. The cache can be 
+ * used by several threads at once. Images are written to a temporary file then moved, 
+ * so a reader never sees a partial image.
+ * 
+ * The directory can contain other files: the cache only reads, writes, and deletes
+ * files whose names are keys, and temporary files with its own prefix.
+ */
+public final class RenderCache
+{
+	private static final String TEMPORARY_PREFIX = ".jetuml-render-cache-";
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+	private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}(" + Arrays.stream(Format.values())
+			.map(format -> Pattern.quote(format.extension()))
+			.collect(Collectors.joining("|")) + ")");
+	private static final char SEPARATOR = '\n';
+	
+	private final Path aDirectory;
+	private final long aCapacity;
+	private final LinkedHashMap<String, Long> aSizes = new LinkedHashMap<>(16, 0.75f, true); // In least recently used order
+	private long aSize = 0;
+	
+	/**
+	 * Opens the cache stored in pDirectory, creating the directory if necessary.
+	 * 
+	 * @param pDirectory The directory that contains the images.
+	 * @param pCapacity The maximum total size of the images, in bytes.
+	 * @throws IOException If the directory cannot be created or read.
+	 * @pre pDirectory != null && pCapacity >= 0
+	 */
+	public RenderCache(Path pDirectory, long pCapacity) throws IOException
+	{
+		assert pDirectory != null && pCapacity >= 0;
+		aDirectory = pDirectory;
+		aCapacity = pCapacity;
+		Files.createDirectories(pDirectory);
+		List<Path> files = new ArrayList<>();
+		try( DirectoryStream<Path> stream = Files.newDirectoryStream(pDirectory) )
+		{
+			stream.forEach(files::add);
+		}
+		files.sort(Comparator.comparing(RenderCache::lastModified));
+		for( Path file : files )
+		{
+			String name = file.getFileName().toString();
+			if( name.startsWith(TEMPORARY_PREFIX) && name.endsWith(TEMPORARY_SUFFIX) )
+			{
+				Files.deleteIfExists(file); // Left by an interrupted write
+			}
+			else if( isKey(name) && Files.isRegularFile(file) )
+			{
+				long size = Files.size(file);
+				aSizes.put(name, size);
+				aSize += size;
+			}
+		}
+		evict();
+	}
+	
+	/**
+	 * @param pName A file name.
+	 * @return True if pName can be the key of an image.
+	 * @pre pName != null
+	 */
+	public static boolean isKey(String pName)
+	{
+		assert pName != null;
+		return KEY.matcher(pName).matches();
+	}
+	
+	private static FileTime lastModified(Path pFile)
+	{
+		try
+		{
+			return Files.getLastModifiedTime(pFile);
+		}
+		catch(IOException exception)
+		{
+			return FileTime.fromMillis(0);
+		}
+	}
+	
+	/**
+	 * @param pEncodedDiagram A diagram encoded by JsonEncoder, as a string.
+	 * @param pFormat The format of the image.
+	 * @param pScale The scale of the image.
+	 * @return The key of the image of the diagram in the format and at the scale.
+	 * @pre pEncodedDiagram != null && pFormat != null && pScale > 0
+	 */
+	public static String key(String pEncodedDiagram, Format pFormat, double pScale)
+	{
+		assert pEncodedDiagram != null && pFormat != null && pScale > 0;
+		try
+		{
+			String settings = new StringBuilder()
+					.append(JetUML.VERSION).append(SEPARATOR)
+					.append(RenderingBackend.selected()).append(SEPARATOR)
+					.append(UserPreferences.instance().getInteger(IntegerPreference.fontSize)).append(SEPARATOR)
+					.append(pScale).append(SEPARATOR)
+					.toString();
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(settings.getBytes(StandardCharsets.UTF_8));
+			digest.update(pEncodedDiagram.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest.digest()) + pFormat.extension();
+		}
+		catch(NoSuchAlgorithmException exception)
+		{
+			// Cannot happen: every Java platform supports SHA-256
+			throw new IllegalStateException(exception);
+		}
+	}
+	
+	/**
+	 * @param pDiagram A diagram.
+	 * @param pFormat The format of the image.
+	 * @param pScale The scale of the image.
+	 * @return The key of the image of pDiagram in the format and at the scale.
+	 * @pre pDiagram != null && pFormat != null && pScale > 0
+	 */
+	public static String key(Diagram pDiagram, Format pFormat, double pScale)
+	{
+		assert pDiagram != null;
+		return key(JsonEncoder.encode(pDiagram).toString(), pFormat, pScale);
+	}
+	
+	/**
+	 * @param pKey The key of an image.
+	 * @return The image, if it is in the cache.
+	 * @throws IOException If the image cannot be read.
+	 * @pre pKey != null && isKey(pKey)
+	 */
+	public Optional<byte[]> get(String pKey) throws IOException
+	{
+		assert pKey != null && isKey(pKey);
+		synchronized(this)
+		{
+			if( aSizes.get(pKey) == null )
+			{
+				return Optional.empty();
+			}
+		}
+		Path file = aDirectory.resolve(pKey);
+		try
+		{
+			byte[] image = Files.readAllBytes(file);
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			return Optional.of(image);
+		}
+		catch(NoSuchFileException exception)
+		{
+			// Evicted by another thread, or deleted from outside
+			remove(pKey);
+			return Optional.empty();
+		}
+	}
+	
+	/**
+	 * Stores an image, and evicts the least recently used images if the
+	 * cache exceeds its capacity.
+	 * 
+	 * @param pKey The key of the image.
+	 * @param pImage The encoded image.
+	 * @throws IOException If the image cannot be written.
+	 * @pre pKey != null && isKey(pKey) && pImage != null
+	 */
+	public void put(String pKey, byte[] pImage) throws IOException
+	{
+		assert pKey != null && isKey(pKey) && pImage != null;
+		if( pImage.length > aCapacity )
+		{
+			return;
+		}
+		Path temporary = Files.createTempFile(aDirectory, TEMPORARY_PREFIX, TEMPORARY_SUFFIX);
+		try
+		{
+			Files.write(temporary, pImage);
+			Files.move(temporary, aDirectory.resolve(pKey), StandardCopyOption.REPLACE_EXISTING, 
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally
+		{
+			Files.deleteIfExists(temporary);
+		}
+		synchronized(this)
+		{
+			Long previous = aSizes.put(pKey, (long) pImage.length);
+			aSize += pImage.length - (previous == null ? 0 : previous);
+		}
+		evict();
+	}
+	
+	/**
+	 * @return The total size of the images in the cache, in bytes.
+	 */
+	public synchronized long size()
+	{
+		return aSize;
+	}
+	
+	private synchronized void remove(String pKey)
+	{
+		Long size = aSizes.remove(pKey);
+		if( size != null )
+		{
+			aSize -= size;
+		}
+	}
+	
+	private void evict() throws IOException
+	{
+		List<String> evicted = new ArrayList<>();
+		synchronized(this)
+		{
+			Iterator<Map.Entry<String, Long>> oldest = aSizes.entrySet().iterator();
+			while( aSize > aCapacity )
+			{
+				Map.Entry<String, Long> entry = oldest.next();
+				aSize -= entry.getValue();
+				evicted.add(entry.getKey());
+				oldest.remove();
+			}
+		}
+		for( String key : evicted )
+		{
+			Files.deleteIfExists(aDirectory.resolve(key));
+		}
+	}
+}
@@ -0,0 +1,487 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetuml.BatchExporter.Format;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.persistence.DeserializationException;
+import org.jetuml.persistence.PersistenceService;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local HTTP service that renders diagrams, for tools such as wikis and 
+ * continuous integration jobs:
+ * 
+ * RenderServer [-port n] [-threads n] [-queue n] [-cache megabytes]
+ * 
+ * A POST request to /render?format=png or /render?format=svg, with the content of 
+ * a diagram file as its body, returns an image of the diagram. Bodies larger than
+ * MAX_BODY_BYTES are refused with status 413 without being read. A GET request to 
+ * /metrics returns the request counters and latencies, as plain text.
+ * 
+ * The server only listens on the loopback interface. Requests are handled by a fixed
+ * pool of worker threads. When all the workers are busy and the queue of waiting requests
+ * is full, further requests are answered immediately with status 503, so the server stays
+ * responsive under load. Images are cached in memory, keyed by a hash of the request body 
+ * and the format, and the least recently used images are evicted when the cache exceeds 
+ * its capacity. Unless the rendering backend is specified with the system property 
+ * jetuml.rendering, diagrams are rendered with Java2D, so no display is required.
+ */
+public final class RenderServer
+{
+	private static final int DEFAULT_PORT = 8086;
+	private static final int DEFAULT_QUEUE = 64;
+	private static final int DEFAULT_CACHE_MEGABYTES = 64;
+	private static final long BYTES_PER_MEGABYTE = 1 << 20;
+	
+	/**
+	 * The size of the largest diagram file accepted in a request, in bytes.
+	 */
+	public static final int MAX_BODY_BYTES = 8 << 20;
+	
+	private static final int STATUS_OK = 200;
+	private static final int STATUS_BAD_REQUEST = 400;
+	private static final int STATUS_NOT_FOUND = 404;
+	private static final int STATUS_METHOD_NOT_ALLOWED = 405;
+	private static final int STATUS_TOO_LARGE = 413;
+	private static final int STATUS_SERVER_ERROR = 500;
+	private static final int STATUS_UNAVAILABLE = 503;
+	
+	private static final String PATH_RENDER = "/render";
+	private static final String PATH_METRICS = "/metrics";
+	private static final String FORMAT_PARAMETER = "format=";
+	private static final String TEXT = "text/plain; charset=utf-8";
+	
+	// True while a request is answered by the thread that rejects requests when the server is overloaded
+	private static final ThreadLocal<Boolean> OVERLOADED = ThreadLocal.withInitial(() -> false);
+	
+	private final HttpServer aServer;
+	private final ExecutorService aWorkers;
+	private final ExecutorService aRejections = Executors.newSingleThreadExecutor();
+	private final Semaphore aAdmissions;
+	private final ImageCache aCache;
+	private final Metrics aMetrics = new Metrics();
+	
+	/**
+	 * Creates a server on the loopback interface. The server does not 
+	 * handle requests until it is started.
+	 * 
+	 * @param pPort The port to listen on, or 0 for any free port.
+	 * @param pThreads The number of worker threads.
+	 * @param pQueueCapacity The number of requests that can wait for a worker.
+	 * @param pCacheBytes The capacity of the image cache, in bytes.
+	 * @throws IOException If the server cannot listen on pPort.
+	 * @pre pPort >= 0 && pThreads > 0 && pQueueCapacity >= 0 && pCacheBytes >= 0
+	 */
+	public RenderServer(int pPort, int pThreads, int pQueueCapacity, long pCacheBytes) throws IOException
+	{
+		assert pPort >= 0 && pThreads > 0 && pQueueCapacity >= 0 && pCacheBytes >= 0;
+		aWorkers = Executors.newFixedThreadPool(pThreads);
+		aAdmissions = new Semaphore(pThreads + pQueueCapacity);
+		aCache = new ImageCache(pCacheBytes);
+		aServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), pPort), 0);
+		aServer.createContext("/", this::handle);
+		aServer.setExecutor(this::dispatch);
+	}
+	
+	/**
+	 * Starts handling requests.
+	 */
+	public void start()
+	{
+		aServer.start();
+	}
+	
+	/**
+	 * Stops handling requests and releases the threads. Requests being handled are abandoned.
+	 */
+	public void stop()
+	{
+		aServer.stop(0);
+		aWorkers.shutdownNow();
+		aRejections.shutdownNow();
+	}
+	
+	/**
+	 * @return The port the server listens on.
+	 */
+	public int port()
+	{
+		return aServer.getAddress().getPort();
+	}
+	
+	/*
+	 * Hands a request to a worker, unless too many requests are already waiting.
+	 */
+	private void dispatch(Runnable pRequest)
+	{
+		if( aAdmissions.tryAcquire() )
+		{
+			aWorkers.execute(() -> 
+			{
+				try
+				{
+					pRequest.run();
+				}
+				finally
+				{
+					aAdmissions.release();
+				}
+			});
+		}
+		else
+		{
+			aRejections.execute(() -> 
+			{
+				OVERLOADED.set(true);
+				try
+				{
+					pRequest.run();
+				}
+				finally
+				{
+					OVERLOADED.set(false);
+				}
+			});
+		}
+	}
+	
+	private void handle(HttpExchange pExchange) throws IOException
+	{
+		long start = System.nanoTime();
+		try
+		{
+			String path = pExchange.getRequestURI().getPath();
+			if( OVERLOADED.get() )
+			{
+				aMetrics.aRejected.increment();
+				send(pExchange, STATUS_UNAVAILABLE, TEXT, "The server is busy".getBytes(StandardCharsets.UTF_8));
+			}
+			else if( PATH_RENDER.equals(path) )
+			{
+				render(pExchange);
+			}
+			else if( PATH_METRICS.equals(path) )
+			{
+				send(pExchange, STATUS_OK, TEXT, aMetrics.report(aCache).getBytes(StandardCharsets.UTF_8));
+			}
+			else
+			{
+				send(pExchange, STATUS_NOT_FOUND, TEXT, "Not found".getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		finally
+		{
+			pExchange.close();
+			aMetrics.record(System.nanoTime() - start);
+		}
+	}
+	
+	private void render(HttpExchange pExchange) throws IOException
+	{
+		if( !"POST".equals(pExchange.getRequestMethod()) )
+		{
+			pExchange.getResponseHeaders().set("Allow", "POST");
+			send(pExchange, STATUS_METHOD_NOT_ALLOWED, TEXT, "Post a diagram file".getBytes(StandardCharsets.UTF_8));
+			return;
+		}
+		Optional<Format> format = format(pExchange.getRequestURI().getQuery());
+		if( format.isEmpty() )
+		{
+			send(pExchange, STATUS_BAD_REQUEST, TEXT, "Specify format=png or format=svg".getBytes(StandardCharsets.UTF_8));
+			return;
+		}
+		// Reads one byte more than the limit, to detect larger bodies without reading them entirely
+		byte[] body = pExchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+		if( body.length > MAX_BODY_BYTES )
+		{
+			aMetrics.aErrors.increment();
+			send(pExchange, STATUS_TOO_LARGE, TEXT, 
+					("Diagram files are limited to " + MAX_BODY_BYTES + " bytes").getBytes(StandardCharsets.UTF_8));
+			return;
+		}
+		String key = hash(body) + format.get().extension();
+		Optional<byte[]> image = aCache.get(key);
+		if( image.isPresent() )
+		{
+			aMetrics.aCacheHits.increment();
+		}
+		else
+		{
+			aMetrics.aCacheMisses.increment();
+			try
+			{
+				Diagram diagram = PersistenceService.read(
+						new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8)).diagram();
+				ByteArrayOutputStream output = new ByteArrayOutputStream();
+				format.get().write(diagram, output);
+				image = Optional.of(output.toByteArray());
+				aCache.put(key, image.get());
+			}
+			catch(DeserializationException exception)
+			{
+				aMetrics.aErrors.increment();
+				send(pExchange, STATUS_BAD_REQUEST, TEXT, exception.getMessage().getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+			catch(RuntimeException exception)
+			{
+				aMetrics.aErrors.increment();
+				send(pExchange, STATUS_SERVER_ERROR, TEXT, exception.toString().getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+		}
+		send(pExchange, STATUS_OK, format.get() == Format.SVG ? "image/svg+xml" : "image/png", image.get());
+	}
+	
+	private static Optional<Format> format(String pQuery)
+	{
+		if( pQuery != null )
+		{
+			for( String parameter : pQuery.split("&") )
+			{
+				for( Format format : Format.values() )
+				{
+					if( parameter.equalsIgnoreCase(FORMAT_PARAMETER + format.name()) )
+					{
+						return Optional.of(format);
+					}
+				}
+			}
+		}
+		return Optional.empty();
+	}
+	
+	private static String hash(byte[] pContent)
+	{
+		try
+		{
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(pContent));
+		}
+		catch(NoSuchAlgorithmException exception)
+		{
+			// Cannot happen: every Java platform supports SHA-256
+			throw new IllegalStateException(exception);
+		}
+	}
+	
+	private static void send(HttpExchange pExchange, int pStatus, String pContentType, byte[] pContent) throws IOException
+	{
+		pExchange.getResponseHeaders().set("Content-Type", pContentType);
+		pExchange.sendResponseHeaders(pStatus, pContent.length);
+		try( OutputStream output = pExchange.getResponseBody() )
+		{
+			output.write(pContent);
+		}
+	}
+	
+	/*
+	 * The encoded images, in least recently used order.
+	 */
+	private static final class ImageCache
+	{
+		private final long aCapacity;
+		private final LinkedHashMap<String, byte[]> aImages = new LinkedHashMap<>(16, 0.75f, true);
+		private long aSize = 0;
+		
+		ImageCache(long pCapacity)
+		{
+			aCapacity = pCapacity;
+		}
+		
+		synchronized Optional<byte[]> get(String pKey)
+		{
+			return Optional.ofNullable(aImages.get(pKey));
+		}
+		
+		synchronized void put(String pKey, byte[] pImage)
+		{
+			if( pImage.length > aCapacity )
+			{
+				return;
+			}
+			byte[] previous = aImages.put(pKey, pImage);
+			aSize += pImage.length - (previous == null ? 0 : previous.length);
+			Iterator<Map.Entry<String, byte[]>> oldest = aImages.entrySet().iterator();
+			while( aSize > aCapacity )
+			{
+				aSize -= oldest.next().getValue().length;
+				oldest.remove();
+			}
+		}
+		
+		synchronized int entries()
+		{
+			return aImages.size();
+		}
+		
+		synchronized long size()
+		{
+			return aSize;
+		}
+	}
+	
+	/*
+	 * Counters, and a histogram of the time taken to answer requests.
+	 */
+	private static final class Metrics
+	{
+		private static final long[] BUCKET_LIMITS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+		private static final double NANOS_PER_MILLI = 1_000_000;
+		private static final double[] PERCENTILES = {50, 95, 99};
+		
+		private final LongAdder aRejected = new LongAdder();
+		private final LongAdder aErrors = new LongAdder();
+		private final LongAdder aCacheHits = new LongAdder();
+		private final LongAdder aCacheMisses = new LongAdder();
+		private final LongAdder aTotalNanos = new LongAdder();
+		private final AtomicLong aMaxNanos = new AtomicLong();
+		private final AtomicLongArray aBuckets = new AtomicLongArray(BUCKET_LIMITS_MILLIS.length + 1);
+		
+		void record(long pNanos)
+		{
+			aTotalNanos.add(pNanos);
+			aMaxNanos.accumulateAndGet(pNanos, Math::max);
+			int bucket = 0;
+			while( bucket < BUCKET_LIMITS_MILLIS.length && pNanos > BUCKET_LIMITS_MILLIS[bucket] * NANOS_PER_MILLI )
+			{
+				bucket++;
+			}
+			aBuckets.incrementAndGet(bucket);
+		}
+		
+		/*
+		 * The percentiles are the upper limits of the buckets they fall in, 
+		 * or the maximum latency for the last bucket.
+		 */
+		String report(ImageCache pCache)
+		{
+			long[] buckets = new long[aBuckets.length()];
+			long requests = 0;
+			for( int i = 0; i < buckets.length; i++ )
+			{
+				buckets[i] = aBuckets.get(i);
+				requests += buckets[i];
+			}
+			double max = aMaxNanos.get() / NANOS_PER_MILLI;
+			StringBuilder report = new StringBuilder()
+					.append("requests ").append(requests).append('\n')
+					.append("rejected ").append(aRejected.sum()).append('\n')
+					.append("errors ").append(aErrors.sum()).append('\n')
+					.append("cache_hits ").append(aCacheHits.sum()).append('\n')
+					.append("cache_misses ").append(aCacheMisses.sum()).append('\n')
+					.append("cache_entries ").append(pCache.entries()).append('\n')
+					.append("cache_bytes ").append(pCache.size()).append('\n')
+					.append(String.format("latency_mean_ms %.3f%n", requests == 0 ? 0 : aTotalNanos.sum() / NANOS_PER_MILLI / requests))
+					.append(String.format("latency_max_ms %.3f%n", max));
+			for( double percentile : PERCENTILES )
+			{
+				long rank = (long) Math.ceil(requests * percentile / 100);
+				long count = 0;
+				int bucket = 0;
+				while( bucket < BUCKET_LIMITS_MILLIS.length && count + buckets[bucket] < rank )
+				{
+					count += buckets[bucket];
+					bucket++;
+				}
+				double limit = bucket < BUCKET_LIMITS_MILLIS.length ? Math.min(BUCKET_LIMITS_MILLIS[bucket], max) : max;
+				report.append(String.format("latency_p%d_ms %.3f%n", (int) percentile, limit));
+			}
+			return report.toString();
+		}
+	}
+	
+	/**
+	 * @param pArgs The options of the server.
+	 * @throws IOException If the server cannot listen on its port.
+	 */
+	public static void main(String[] pArgs) throws IOException
+	{
+		BatchExporter.useHeadlessRendering();
+		int port = DEFAULT_PORT;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int queue = DEFAULT_QUEUE;
+		long cache = DEFAULT_CACHE_MEGABYTES;
+		try
+		{
+			for( int i = 0; i < pArgs.length; i += 2 )
+			{
+				int value = Integer.parseInt(pArgs[i + 1]);
+				if( "-port".equals(pArgs[i]) )
+				{
+					port = value;
+				}
+				else if( "-threads".equals(pArgs[i]) )
+				{
+					threads = value;
+				}
+				else if( "-queue".equals(pArgs[i]) )
+				{
+					queue = value;
+				}
+				else if( "-cache".equals(pArgs[i]) )
+				{
+					cache = value;
+				}
+				else
+				{
+					throw new IllegalArgumentException(pArgs[i]);
+				}
+			}
+		}
+		catch(IllegalArgumentException | ArrayIndexOutOfBoundsException exception)
+		{
+			threads = 0;
+		}
+		if( port < 0 || threads < 1 || queue < 0 || cache < 0 )
+		{
+			System.err.println("Usage: RenderServer [-port n] [-threads n] [-queue n] [-cache megabytes]");
+			System.exit(2);
+		}
+		RenderServer server = new RenderServer(port, threads, queue, cache * BYTES_PER_MEGABYTE);
+		server.start();
+		System.out.printf("Rendering diagrams at http://localhost:%d%s with %d threads%n", server.port(), PATH_RENDER, threads);
+	}
+}
@@ -25,7 +25,10 @@ import static java.util.stream.Collectors.toSet;
 import static java.util.stream.StreamSupport.stream;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -54,6 +57,13 @@ import org.jetuml.geom.Point;
  * 
  * The clipboard is a singleton. This is necessary to allow copying elements
  * between diagrams of the same type.
+ * 
+ * Copying and retrieving elements takes time linear in the number of elements: 
+ * the correspondence between original nodes and their clones, and the membership 
+ * of nodes in the clipboard, are tracked with identity-based maps and sets.
+ * 
+ * The clipboard is not thread-safe. It must only be used on the JavaFX 
+ * application thread, where the user copies and pastes elements.
  */
 @Singleton
 public final class Clipboard 
@@ -109,6 +119,20 @@ public final class Clipboard
 		return result;
 	}
 	
+	/**
+	 * Moves every node in the clipboard by the specified amounts. Pasting
+	 * the clipboard after translating it has the same effect as copying 
+	 * elements just pasted after moving them by the same amounts, without 
+	 * cloning the elements again.
+	 * 
+	 * @param pDeltaX The amount to move the nodes in the x direction.
+	 * @param pDeltaY The amount to move the nodes in the y direction.
+	 */
+	public void translate(int pDeltaX, int pDeltaY)
+	{
+		aNodes.forEach(node -> node.translate(pDeltaX, pDeltaY));
+	}
+	
 	/*
 	 * Empties the clipboard
 	 */
@@ -140,12 +164,21 @@ public final class Clipboard
 	 */
 	public boolean overlapsWithElementOf(Diagram pDiagram)
 	{
+		if( aNodes.isEmpty() )
+		{
+			return false;
+		}
 		Set<Point> positions = aNodes.stream()
 				.map(Node::position)
 				.collect(toSet());
-		return pDiagram.allNodes().stream()
-				.map(Node::position)
-				.anyMatch(positions::contains);
+		for( Node node : pDiagram.allNodes() )
+		{
+			if( positions.contains(node.position()) )
+			{
+				return true;
+			}
+		}
+		return false;
 	}
 	
 	/*
@@ -154,89 +187,71 @@ public final class Clipboard
 	 */
 	private List<Node> copyNodes(List<Edge> pEdges, Iterable<DiagramElement> pSelection)
 	{
+		Set<Node> clipboardNodes = identitySet();
+		clipboardNodes.addAll(aNodes);
 		List<Node> result = new ArrayList<>();
+		Map<Node, Node> clones = new IdentityHashMap<>();
 		for( DiagramElement element : pSelection )
 		{
 			if( element instanceof Node )
 			{
-				if( missingParent( (Node)element ))
+				if( missingParent( (Node)element, clipboardNodes ))
 				{
 					continue;
 				}
 				Node cloned = ((Node) element).clone();
 				result.add(cloned);
-				reassignEdges(pEdges, (Node)element, cloned);
+				mapClones((Node)element, cloned, clones);
 			}
 		}
+		reassignEdges(pEdges, clones);
 		return result;
 	}
 	
 	private void removeDanglingEdges()
 	{
-		List<Edge> toDelete = new ArrayList<>();
-		for( Edge edge : aEdges )
-		{
-			if( !recursivelyContains(edge.getStart()) || !recursivelyContains(edge.getEnd()))
-			{
-				toDelete.add(edge);
-			}
-		}
-		for( Edge edge : toDelete )
-		{
-			aEdges.remove(edge);
-		}
+		Set<Node> allNodes = identitySet();
+		aNodes.forEach(node -> addWithDescendants(node, allNodes));
+		aEdges.removeIf(edge -> !allNodes.contains(edge.getStart()) || !allNodes.contains(edge.getEnd()));
 	}
 	
-	private boolean recursivelyContains(Node pNode)
+	private static void addWithDescendants(Node pNode, Set<Node> pNodes)
 	{
-		for( Node node : aNodes )
+		pNodes.add(pNode);
+		for( Node child : pNode.getChildren() )
 		{
-			if( node == pNode )
-			{
-				return true;
-			}
-			else if( recursivelyContains(pNode, node.getChildren()) )
-			{
-				return true;
-			}
+			addWithDescendants(child, pNodes);
 		}
-		return false;
 	}
 	
-	private boolean recursivelyContains(Node pNode, List<Node> pNodes)
+	/*
+	 * Maps pOld to pNew, and recursively all the children of pOld to the 
+	 * children of pNew, which is assumed to have the same topology.
+	 */
+	private static void mapClones(Node pOld, Node pNew, Map<Node, Node> pClones)
 	{
-		for( Node node : pNodes )
+		pClones.put(pOld, pNew);
+		List<Node> oldChildren = pOld.getChildren();
+		List<Node> newChildren = pNew.getChildren();
+		for( int i = 0; i < oldChildren.size(); i++ )
 		{
-			if( node == pNode )
-			{
-				return true;
-			}
-			else if( recursivelyContains(pNode, node.getChildren()) )
-			{
-				return true;
-			}
+			mapClones(oldChildren.get(i), newChildren.get(i), pClones);
 		}
-		return false;
 	}
 	
-	private void reassignEdges(List<Edge> pEdges, Node pOld, Node pNew)
+	/*
+	 * Reconnects every edge attached to a node in pClones to the clone of that node.
+	 */
+	private static void reassignEdges(List<Edge> pEdges, Map<Node, Node> pClones)
 	{
 		for( Edge edge : pEdges )
 		{
-			if( edge.getStart() == pOld )
+			Node start = pClones.getOrDefault(edge.getStart(), edge.getStart());
+			Node end = pClones.getOrDefault(edge.getEnd(), edge.getEnd());
+			if( start != edge.getStart() || end != edge.getEnd() )
 			{
-				edge.connect(pNew, edge.getEnd(), edge.getDiagram());
+				edge.connect(start, end, edge.getDiagram());
 			}
-			if( edge.getEnd() == pOld)
-			{
-				edge.connect(edge.getStart(), pNew, edge.getDiagram());
-			}
-		}
-		List<Node> oldChildren = pOld.getChildren();
-		List<Node> newChildren = pNew.getChildren();
-		for( int i = 0; i < oldChildren.size(); i++ )
-		{
-			reassignEdges(pEdges, oldChildren.get(i), newChildren.get(i));
 		}
 	}
 	
@@ -244,9 +259,14 @@ public final class Clipboard
 	 * Returns true if pNode needs a parent that isn't in 
 	 * the clipboard.
 	 */
-	private boolean missingParent(Node pNode)
+	private static boolean missingParent(Node pNode, Set<Node> pClipboardNodes)
+	{
+		return pNode.requiresParent() && !pClipboardNodes.contains(pNode.getParent()) ;
+	}
+	
+	private static Set<Node> identitySet()
 	{
-		return pNode.requiresParent() && !aNodes.contains(pNode.getParent()) ;
+		return Collections.newSetFromMap(new IdentityHashMap<>());
 	}
 	
 	/*
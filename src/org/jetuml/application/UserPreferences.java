@@ -22,9 +22,10 @@ package org.jetuml.application;
 
 import static org.jetuml.rendering.FontMetrics.DEFAULT_FONT_SIZE;
 
-import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.prefs.Preferences;
 
 import org.jetuml.JetUML;
@@ -32,6 +33,11 @@ import org.jetuml.JetUML;
 /**
  * A Singleton that manages all user preferences global to
  * the application.
+ * 
+ * The preferences can be read and set, and handlers added and removed, 
+ * from any thread. For example, the rendering classes read the font size 
+ * and register handlers on the threads that draw diagrams. Handlers are 
+ * notified on the thread that sets the preference.
  */
 public final class UserPreferences
 {
@@ -41,7 +47,7 @@ public final class UserPreferences
 	public enum BooleanPreference
 	{	
 		showGrid(true), showToolHints(false), autoEditNode(false), verboseToolTips(false),
-		showTips(true);
+		showTips(true), dragPreview(false), showMinimap(false);
 		
 		private boolean aDefault;
 		
@@ -104,10 +110,10 @@ public final class UserPreferences
 	
 	private static final UserPreferences INSTANCE = new UserPreferences();
 	
-	private EnumMap<BooleanPreference, Boolean> aBooleanPreferences = new EnumMap<>(BooleanPreference.class);
-	private final List<BooleanPreferenceChangeHandler> aBooleanPreferenceChangeHandlers = new ArrayList<>();
-	private EnumMap<IntegerPreference, Integer> aIntegerPreferences = new EnumMap<>(IntegerPreference.class);
-	private final List<IntegerPreferenceChangeHandler> aIntegerPreferenceChangeHandlers = new ArrayList<>();
+	private final Map<BooleanPreference, Boolean> aBooleanPreferences = new ConcurrentHashMap<>();
+	private final List<BooleanPreferenceChangeHandler> aBooleanPreferenceChangeHandlers = new CopyOnWriteArrayList<>();
+	private final Map<IntegerPreference, Integer> aIntegerPreferences = new ConcurrentHashMap<>();
+	private final List<IntegerPreferenceChangeHandler> aIntegerPreferenceChangeHandlers = new CopyOnWriteArrayList<>();
 	
 	private UserPreferences()
 	{
@@ -28,7 +28,10 @@ package org.jetuml.diagram;
  */
 public abstract class AbstractDiagramElement implements DiagramElement
 {
+	private static final int UNKNOWN_TYPE_ID = -1;
+	
 	private Properties aProperties;
+	private int aTypeId = UNKNOWN_TYPE_ID; // Looked up on first use, because elements are created by DiagramType
 	
 	/**
 	 * Initializes the properties for this object.
@@ -62,6 +65,16 @@ public abstract class AbstractDiagramElement implements DiagramElement
 		return aProperties;
 	}
 	
+	@Override
+	public final int typeId()
+	{
+		if( aTypeId == UNKNOWN_TYPE_ID )
+		{
+			aTypeId = DiagramType.typeIdOf(getClass());
+		}
+		return aTypeId;
+	}
+	
 	/**
 	 * Builds the properties object associated with this object.
 	 * Must be outside the constructor because of cloning.
@@ -70,6 +83,6 @@ public abstract class AbstractDiagramElement implements DiagramElement
 	 */
 	protected void buildProperties()
 	{
-		aProperties = new Properties();
+		aProperties = new Properties(this);
 	}
 }
@@ -23,8 +23,12 @@ package org.jetuml.diagram;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import org.jetuml.diagram.DiagramChange.Kind;
 import org.jetuml.diagram.nodes.CallNode;
 import org.jetuml.diagram.nodes.FieldNode;
 
@@ -35,6 +39,12 @@ import org.jetuml.diagram.nodes.FieldNode;
  * of diagrams (handled by DiagramBuilder), or of computing the geometry of a diagram
  * (handled by DiagramView). DiagramData provides immutable access to the information
  * stored in the diagram.
+ * 
+ * Changes to the diagram, its nodes, and the properties of its elements are reported 
+ * to registered DiagramChangeHandler objects. Changes made between calls to startBatch()
+ * and endBatch() are coalesced and reported once, when the outermost batch ends.
+ * Call endBatch() in a finally block, so that an exception in a batch does not
+ * stop the notifications for good.
  */
 public final class Diagram implements DiagramData
 {
@@ -45,6 +55,22 @@ public final class Diagram implements DiagramData
 	private final ArrayList<Node> aRootNodes;
 	private final ArrayList<Edge> aEdges;
 	private final DiagramType aType;
+	
+	/*
+	 * Depth-first list of all the nodes in the diagram, computed lazily and
+	 * discarded whenever the tree of nodes changes. Null when it must be recomputed.
+	 */
+	private List<Node> aAllNodes;
+	
+	private final List<DiagramChangeHandler> aChangeHandlers = new ArrayList<>();
+	private int aBatchDepth = 0;
+	private DiagramChange aPendingChange; // Only used in batches
+	
+	/* Incremented for each change, to detect whether the last snapshot or other cached 
+	 * computations are still valid. */
+	private long aModificationCount = 0;
+	private Diagram aSnapshot;
+	private long aSnapshotModificationCount;
 
 	/**
 	 * Creates an empty diagram.
@@ -60,30 +86,63 @@ public final class Diagram implements DiagramData
 
 	/**
 	 * Creates a copy of the current diagram. The copy is a completely distinct graph of nodes and edges with the same
-	 * topology as this diagram.
+	 * topology as this diagram. The time to create the copy is linear in the number of nodes and edges.
 	 * 
 	 * @return A copy of this diagram. Never null.
 	 */
 	public Diagram duplicate()
 	{
 		Diagram copy = new Diagram(this.aType);
-		aEdges.forEach(edge -> copy.aEdges.add(edge.clone()));
-
+		Map<Node, Node> copies = new IdentityHashMap<>();
 		for( Node node : aRootNodes )
 		{
 			Node nodeCopy = node.clone();
 			copy.aRootNodes.add(nodeCopy);
-			reassignEdges(copy.aEdges, node, nodeCopy);
+			mapCopies(node, nodeCopy, copies);
+		}
+		for( Edge edge : aEdges )
+		{
+			assert copies.containsKey(edge.getStart()) && copies.containsKey(edge.getEnd());
+			Edge edgeCopy = edge.clone();
+			edgeCopy.connect(copies.get(edge.getStart()), copies.get(edge.getEnd()), copy);
+			copy.aEdges.add(edgeCopy);
 		}
-
-		// Reassign diagram
-		copy.aEdges.forEach(edge -> edge.connect(edge.getStart(), edge.getEnd(), copy));
 		for( Node node : copy.aRootNodes )
 		{
 			copy.attachNode(node);
 		}
 		return copy;
 	}
+	
+	/**
+	 * @return A number that changes each time a change to this diagram is reported
+	 *     to its change handlers. Two equal values obtained at different times 
+	 *     indicate that no change was reported in between.
+	 */
+	public long modificationCount()
+	{
+		return aModificationCount;
+	}
+	
+	/**
+	 * Returns a copy of this diagram intended to be read, for example to save or export 
+	 * the diagram without blocking further changes to it. Snapshots must not be modified. 
+	 * As long as this diagram does not change, consecutive calls return the same snapshot, 
+	 * so that taking a snapshot of an unchanged diagram is free. Changes are detected through 
+	 * the same mechanism as change notifications: changes made to an element without going 
+	 * through its properties or the methods of Node and Diagram are not detected.
+	 * 
+	 * @return A copy of this diagram. Never null.
+	 */
+	public Diagram snapshot()
+	{
+		if( aSnapshot == null || aSnapshotModificationCount != aModificationCount )
+		{
+			aSnapshot = duplicate();
+			aSnapshotModificationCount = aModificationCount;
+		}
+		return aSnapshot;
+	}
 
 	/*
 	 * Recursively attach the node and all its children to this diagram.
@@ -98,27 +157,17 @@ public final class Diagram implements DiagramData
 	}
 
 	/*
-	 * For node pOriginal, go through all edges that refer to it and replace it with pCopy in the edge. Do this
-	 * recursively for all children of pOriginal, assuming the same topology for pCopy.
+	 * Maps pOriginal to pCopy, then recursively all the children of pOriginal 
+	 * to the children of pCopy, assuming the same topology for pCopy.
 	 */
-	private static void reassignEdges(List<Edge> pEdges, Node pOriginal, Node pCopy)
+	private static void mapCopies(Node pOriginal, Node pCopy, Map<Node, Node> pCopies)
 	{
-		for( Edge edge : pEdges )
-		{
-			if( edge.getStart() == pOriginal )
-			{
-				edge.connect(pCopy, edge.getEnd(), edge.getDiagram());
-			}
-			if( edge.getEnd() == pOriginal )
-			{
-				edge.connect(edge.getStart(), pCopy, edge.getDiagram());
-			}
-		}
+		pCopies.put(pOriginal, pCopy);
 		List<Node> oldChildren = pOriginal.getChildren();
 		List<Node> newChildren = pCopy.getChildren();
 		for( int i = 0; i < oldChildren.size(); i++ )
 		{
-			reassignEdges(pEdges, oldChildren.get(i), newChildren.get(i));
+			mapCopies(oldChildren.get(i), newChildren.get(i), pCopies);
 		}
 	}
 
@@ -130,13 +179,37 @@ public final class Diagram implements DiagramData
 	
 	/**
 	 * @return All the nodes in the diagram: both the root nodes
-	 * and their children.
+	 * and their children, in depth-first order. The returned list is 
+	 * unmodifiable and is shared between calls until the tree of nodes
+	 * changes.
 	 */
 	public List<Node> allNodes()
 	{
-		List<Node> allNodes = new ArrayList<>();
-		rootNodes().forEach(node -> collectNodes(node, allNodes));
-		return allNodes;
+		if( aAllNodes == null )
+		{
+			List<Node> allNodes = new ArrayList<>();
+			aRootNodes.forEach(node -> collectNodes(node, allNodes));
+			aAllNodes = Collections.unmodifiableList(allNodes);
+		}
+		return aAllNodes;
+	}
+	
+	/**
+	 * Applies pAction to all the nodes in the diagram, in the same order
+	 * as allNodes(). This method does not allocate any iterator, and should be 
+	 * preferred for callers that only need to visit the nodes.
+	 * 
+	 * @param pAction The action to apply to each node.
+	 * @pre pAction != null
+	 */
+	public void forEachNode(Consumer<? super Node> pAction)
+	{
+		assert pAction != null;
+		List<Node> allNodes = allNodes();
+		for( int i = 0; i < allNodes.size(); i++ )
+		{
+			pAction.accept(allNodes.get(i));
+		}
 	}
 	
 	/*
@@ -147,6 +220,104 @@ public final class Diagram implements DiagramData
 		pNodes.add(pParent);
 		pParent.getChildren().forEach(child -> collectNodes(child, pNodes));
 	}
+	
+	/**
+	 * Registers pHandler to be notified of changes to this diagram.
+	 * 
+	 * @param pHandler The handler to add.
+	 * @pre pHandler != null
+	 */
+	public void addChangeHandler(DiagramChangeHandler pHandler)
+	{
+		assert pHandler != null;
+		aChangeHandlers.add(pHandler);
+	}
+	
+	/**
+	 * Stops notifying pHandler of changes to this diagram.
+	 * 
+	 * @param pHandler The handler to remove.
+	 */
+	public void removeChangeHandler(DiagramChangeHandler pHandler)
+	{
+		aChangeHandlers.remove(pHandler);
+	}
+	
+	/**
+	 * Starts a batch of changes. Until the matching call to endBatch(), 
+	 * changes to this diagram are accumulated instead of being reported. 
+	 * Batches can be nested.
+	 */
+	public void startBatch()
+	{
+		aBatchDepth++;
+	}
+	
+	/**
+	 * Ends a batch of changes. If this ends the outermost batch and
+	 * any change was made during the batch, handlers are notified once
+	 * of all the changes.
+	 * 
+	 * @pre a batch was started.
+	 */
+	public void endBatch()
+	{
+		assert aBatchDepth > 0;
+		aBatchDepth--;
+		if( aBatchDepth == 0 && aPendingChange != null )
+		{
+			DiagramChange change = aPendingChange;
+			aPendingChange = null;
+			notifyHandlers(change);
+		}
+	}
+	
+	/**
+	 * Informs this diagram that pElement was affected by a change of kind pKind.
+	 * Nodes, edges, and properties call this method when they are modified, so 
+	 * that the diagram can keep information derived from its elements valid and 
+	 * notify its handlers. Nodes that manage children must report a NODE_ADDED
+	 * or NODE_REMOVED change for each child they add or remove.
+	 * 
+	 * @param pKind The kind of change.
+	 * @param pElement The element affected.
+	 * @pre pKind != null && pElement != null
+	 */
+	public void elementChanged(Kind pKind, DiagramElement pElement)
+	{
+		assert pKind != null && pElement != null;
+		aModificationCount++;
+		if( pKind == Kind.NODE_ADDED || pKind == Kind.NODE_REMOVED || pKind == Kind.CHILDREN_REORDERED )
+		{
+			aAllNodes = null;
+		}
+		if( aChangeHandlers.isEmpty() )
+		{
+			return; // Nothing to allocate or report
+		}
+		if( aBatchDepth > 0 )
+		{
+			if( aPendingChange == null )
+			{
+				aPendingChange = new DiagramChange(this);
+			}
+			aPendingChange.record(pKind, pElement);
+		}
+		else
+		{
+			DiagramChange change = new DiagramChange(this);
+			change.record(pKind, pElement);
+			notifyHandlers(change);
+		}
+	}
+	
+	private void notifyHandlers(DiagramChange pChange)
+	{
+		for( int i = 0; i < aChangeHandlers.size(); i++ )
+		{
+			aChangeHandlers.get(i).diagramChanged(pChange);
+		}
+	}
 
 	@Override
 	public List<Edge> edges()
@@ -273,6 +444,7 @@ public final class Diagram implements DiagramData
 		assert pNode != null;
 		recursiveAttach(pNode);
 		aRootNodes.add(pNode);
+		elementChanged(Kind.NODE_ADDED, pNode);
 	}
 
 	private void recursiveAttach(Node pNode)
@@ -299,6 +471,7 @@ public final class Diagram implements DiagramData
 		assert pNode != null && aRootNodes.contains(pNode);
 		recursiveDetach(pNode);
 		aRootNodes.remove(pNode);
+		elementChanged(Kind.NODE_REMOVED, pNode);
 	}
 
 	/**
@@ -312,6 +485,7 @@ public final class Diagram implements DiagramData
 	{
 		assert pEdge != null && pEdge.getStart() != null && pEdge.getEnd() != null && pEdge.getDiagram() != null;
 		aEdges.add(pEdge);
+		elementChanged(Kind.EDGE_ADDED, pEdge);
 	}
 	
 	/**
@@ -325,6 +499,7 @@ public final class Diagram implements DiagramData
 	{
 		assert pEdge != null && pIndex >= 0 && pIndex <= aEdges.size();
 		aEdges.add(pIndex, pEdge);
+		elementChanged(Kind.EDGE_ADDED, pEdge);
 	}
 
 
@@ -350,6 +525,7 @@ public final class Diagram implements DiagramData
 	{
 		assert pEdge != null && aEdges.contains(pEdge);
 		aEdges.remove(pEdge);
+		elementChanged(Kind.EDGE_REMOVED, pEdge);
 	}
 
 	/**
@@ -367,18 +543,26 @@ public final class Diagram implements DiagramData
 		{
 			return;
 		}
-		if( pNode.hasParent() )
+		startBatch();
+		try
 		{
-			Node parent = pNode.getParent();
-			// Move the child node to the top of all other children
-			parent.placeLast(pNode);
-			// Recursively reorder the node's parent
-			placeOnTop(parent);
+			if( pNode.hasParent() )
+			{
+				Node parent = pNode.getParent();
+				// Move the child node to the top of all other children
+				parent.placeLast(pNode);
+				// Recursively reorder the node's parent
+				placeOnTop(parent);
+			}
+			else if( containsAsRoot(pNode) )
+			{
+				removeRootNode(pNode);
+				addRootNode(pNode);
+			}
 		}
-		else if( containsAsRoot(pNode) )
+		finally
 		{
-			removeRootNode(pNode);
-			addRootNode(pNode);
+			endBatch();
 		}
 	}
 }
\ No newline at end of file
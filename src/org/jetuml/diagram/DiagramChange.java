@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.diagram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Describes the changes made to a diagram, either by a single mutation
+ * or by a batch of mutations. Each element affected by the change is recorded 
+ * once, together with the set of kinds of changes that affected it, in the order
+ * in which elements were first affected. 
+ * 
+ * An element can be reported as affected by more than one kind of change. 
+ * For example, a node that is moved from the root of the diagram to a package
+ * in the same batch is reported as both removed and added. Handlers that need 
+ * the final state of the element should query the diagram.
+ * 
+ * To keep the cost of notifications low, the first affected element is stored
+ * in a field and a map is only created for changes that affect more than one element.
+ */
+public final class DiagramChange
+{
+	/**
+	 * The kinds of changes that can be made to a diagram.
+	 */
+	public enum Kind
+	{
+		NODE_ADDED, NODE_REMOVED, EDGE_ADDED, EDGE_REMOVED, NODE_MOVED, PROPERTY_CHANGED, CHILDREN_REORDERED;
+		
+		private int mask()
+		{
+			return 1 << ordinal();
+		}
+	}
+	
+	private static final int STRUCTURAL = Kind.NODE_ADDED.mask() | Kind.NODE_REMOVED.mask() | 
+			Kind.EDGE_ADDED.mask() | Kind.EDGE_REMOVED.mask() | Kind.CHILDREN_REORDERED.mask();
+	
+	private final Diagram aDiagram;
+	private int aKinds = 0;
+	private DiagramElement aFirstElement;
+	private int aFirstElementKinds = 0;
+	private Map<DiagramElement, Integer> aOtherElements; // Created lazily
+	
+	/**
+	 * Creates an empty change for pDiagram.
+	 * 
+	 * @param pDiagram The diagram that changed.
+	 * @pre pDiagram != null
+	 */
+	DiagramChange(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		aDiagram = pDiagram;
+	}
+	
+	/**
+	 * Records that pElement was affected by a change of kind pKind.
+	 * 
+	 * @param pKind The kind of change.
+	 * @param pElement The element affected.
+	 * @pre pKind != null && pElement != null
+	 */
+	void record(Kind pKind, DiagramElement pElement)
+	{
+		assert pKind != null && pElement != null;
+		aKinds |= pKind.mask();
+		if( aFirstElement == null || aFirstElement == pElement )
+		{
+			aFirstElement = pElement;
+			aFirstElementKinds |= pKind.mask();
+			return;
+		}
+		if( aOtherElements == null )
+		{
+			aOtherElements = new LinkedHashMap<>();
+		}
+		aOtherElements.merge(pElement, pKind.mask(), (pOld, pNew) -> pOld | pNew);
+	}
+	
+	/**
+	 * @return The diagram that changed.
+	 */
+	public Diagram diagram()
+	{
+		return aDiagram;
+	}
+	
+	/**
+	 * @return True if no change was recorded.
+	 */
+	public boolean isEmpty()
+	{
+		return aKinds == 0;
+	}
+	
+	/**
+	 * @param pKind The kind of change to check.
+	 * @return True if at least one element was affected by a change of kind pKind.
+	 * @pre pKind != null
+	 */
+	public boolean contains(Kind pKind)
+	{
+		assert pKind != null;
+		return (aKinds & pKind.mask()) != 0;
+	}
+	
+	/**
+	 * @return True if nodes or edges were added, removed, or reordered, as opposed
+	 *     to only moved or edited.
+	 */
+	public boolean isStructural()
+	{
+		return (aKinds & STRUCTURAL) != 0;
+	}
+	
+	/**
+	 * @param pElement The element to check.
+	 * @return True if pElement was affected by any kind of change.
+	 * @pre pElement != null
+	 */
+	public boolean affects(DiagramElement pElement)
+	{
+		assert pElement != null;
+		return kindsOf(pElement) != 0;
+	}
+	
+	/**
+	 * @param pElement The element to check.
+	 * @param pKind The kind of change to check.
+	 * @return True if pElement was affected by a change of kind pKind.
+	 * @pre pElement != null && pKind != null
+	 */
+	public boolean affects(DiagramElement pElement, Kind pKind)
+	{
+		assert pElement != null && pKind != null;
+		return (kindsOf(pElement) & pKind.mask()) != 0;
+	}
+	
+	/**
+	 * Applies pAction to each element affected by a change of kind pKind, 
+	 * in the order in which elements were first affected.
+	 * 
+	 * @param pKind The kind of change.
+	 * @param pAction The action to apply.
+	 * @pre pKind != null && pAction != null
+	 */
+	public void forEach(Kind pKind, Consumer<? super DiagramElement> pAction)
+	{
+		assert pKind != null && pAction != null;
+		if( !contains(pKind) )
+		{
+			return;
+		}
+		if( (aFirstElementKinds & pKind.mask()) != 0 )
+		{
+			pAction.accept(aFirstElement);
+		}
+		if( aOtherElements != null )
+		{
+			for( Map.Entry<DiagramElement, Integer> entry : aOtherElements.entrySet() )
+			{
+				if( (entry.getValue() & pKind.mask()) != 0 )
+				{
+					pAction.accept(entry.getKey());
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @param pKind The kind of change.
+	 * @return A new list of the elements affected by a change of kind pKind.
+	 * @pre pKind != null
+	 */
+	public List<DiagramElement> elements(Kind pKind)
+	{
+		List<DiagramElement> result = new ArrayList<>();
+		forEach(pKind, result::add);
+		return result;
+	}
+	
+	private int kindsOf(DiagramElement pElement)
+	{
+		if( pElement == aFirstElement )
+		{
+			return aFirstElementKinds;
+		}
+		if( aOtherElements != null )
+		{
+			return aOtherElements.getOrDefault(pElement, 0);
+		}
+		return 0;
+	}
+	
+	@Override
+	public String toString()
+	{
+		StringBuilder result = new StringBuilder("[DiagramChange:");
+		for( Kind kind : Kind.values() )
+		{
+			if( contains(kind) )
+			{
+				result.append(' ').append(kind);
+			}
+		}
+		return result.append(']').toString();
+	}
+}
@@ -29,4 +29,10 @@ public interface DiagramElement extends Cloneable
 	 * @return A set of properties that define this object.
 	 */
 	Properties properties();
+	
+	/**
+	 * @return The type id of the class of this element.
+	 * @see DiagramType#typeIdOf(Class)
+	 */
+	int typeId();
 }
@@ -23,7 +23,9 @@ package org.jetuml.diagram;
 import static org.jetuml.application.ApplicationResources.RESOURCES;
 
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 import org.jetuml.diagram.builder.ClassDiagramBuilder;
@@ -32,6 +34,35 @@ import org.jetuml.diagram.builder.ObjectDiagramBuilder;
 import org.jetuml.diagram.builder.SequenceDiagramBuilder;
 import org.jetuml.diagram.builder.StateDiagramBuilder;
 import org.jetuml.diagram.builder.UseCaseDiagramBuilder;
+import org.jetuml.diagram.edges.AggregationEdge;
+import org.jetuml.diagram.edges.AssociationEdge;
+import org.jetuml.diagram.edges.CallEdge;
+import org.jetuml.diagram.edges.ConstructorEdge;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.edges.GeneralizationEdge;
+import org.jetuml.diagram.edges.NoteEdge;
+import org.jetuml.diagram.edges.ObjectCollaborationEdge;
+import org.jetuml.diagram.edges.ObjectReferenceEdge;
+import org.jetuml.diagram.edges.ReturnEdge;
+import org.jetuml.diagram.edges.StateTransitionEdge;
+import org.jetuml.diagram.edges.UseCaseAssociationEdge;
+import org.jetuml.diagram.edges.UseCaseDependencyEdge;
+import org.jetuml.diagram.edges.UseCaseGeneralizationEdge;
+import org.jetuml.diagram.nodes.ActorNode;
+import org.jetuml.diagram.nodes.CallNode;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.diagram.nodes.FieldNode;
+import org.jetuml.diagram.nodes.FinalStateNode;
+import org.jetuml.diagram.nodes.ImplicitParameterNode;
+import org.jetuml.diagram.nodes.InitialStateNode;
+import org.jetuml.diagram.nodes.InterfaceNode;
+import org.jetuml.diagram.nodes.NoteNode;
+import org.jetuml.diagram.nodes.ObjectNode;
+import org.jetuml.diagram.nodes.PackageDescriptionNode;
+import org.jetuml.diagram.nodes.PackageNode;
+import org.jetuml.diagram.nodes.PointNode;
+import org.jetuml.diagram.nodes.StateNode;
+import org.jetuml.diagram.nodes.UseCaseNode;
 import org.jetuml.rendering.ClassDiagramRenderer;
 import org.jetuml.rendering.DiagramRenderer;
 import org.jetuml.rendering.ObjectDiagramRenderer;
@@ -216,4 +247,55 @@ public enum DiagramType
 	{
 		return aName;
 	}
+	
+	/**
+	 * Type ids are small consecutive integers that identify the concrete
+	 * classes of diagram elements, so that renderers can be found by indexing
+	 * an array instead of looking up the class in a map.
+	 * 
+	 * @param pClass A concrete class of diagram element.
+	 * @return The type id of pClass, between 0 and numberOfElementTypes() - 1.
+	 * @pre pClass is one of the element classes known to this application.
+	 */
+	public static int typeIdOf(Class<? extends DiagramElement> pClass)
+	{
+		assert pClass != null && ElementTypes.TYPE_IDS.containsKey(pClass);
+		return ElementTypes.TYPE_IDS.get(pClass);
+	}
+	
+	/**
+	 * @return The number of concrete classes of diagram elements.
+	 */
+	public static int numberOfElementTypes()
+	{
+		return ElementTypes.TYPE_IDS.size();
+	}
+	
+	/*
+	 * In a separate class so that the ids do not depend on the 
+	 * initialization of the enumerated values, which creates elements.
+	 */
+	private static final class ElementTypes
+	{
+		private static final Map<Class<? extends DiagramElement>, Integer> TYPE_IDS = createTypeIds(
+				NoteNode.class, PointNode.class, NoteEdge.class,
+				ClassNode.class, InterfaceNode.class, PackageNode.class, PackageDescriptionNode.class,
+				DependencyEdge.class, GeneralizationEdge.class, AssociationEdge.class, AggregationEdge.class,
+				ImplicitParameterNode.class, CallNode.class, CallEdge.class, ConstructorEdge.class, ReturnEdge.class,
+				StateNode.class, InitialStateNode.class, FinalStateNode.class, StateTransitionEdge.class,
+				ObjectNode.class, FieldNode.class, ObjectReferenceEdge.class, ObjectCollaborationEdge.class,
+				ActorNode.class, UseCaseNode.class, UseCaseAssociationEdge.class, UseCaseGeneralizationEdge.class, 
+				UseCaseDependencyEdge.class);
+		
+		@SafeVarargs
+		private static Map<Class<? extends DiagramElement>, Integer> createTypeIds(Class<? extends DiagramElement>... pClasses)
+		{
+			Map<Class<? extends DiagramElement>, Integer> typeIds = new IdentityHashMap<>();
+			for( Class<? extends DiagramElement> elementClass : pClasses )
+			{
+				typeIds.put(elementClass, typeIds.size());
+			}
+			return typeIds;
+		}
+	}
 }
@@ -27,6 +27,7 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -41,10 +42,34 @@ import java.util.function.Supplier;
  * allows client code to insert a property at a specific index. Keeping properties in order
  * allows for uses such as displaying properties in a predictable order, for instance 
  * in GUI forms.
+ * 
+ * When a Properties object is created for a diagram element, the properties it
+ * contains report their changes to the diagram containing the element.
  */
 public class Properties implements Iterable<Property>
 {
 	private final Map<PropertyName, Property> aProperties = new LinkedHashMap<>();
+	private final Optional<DiagramElement> aOwner;
+	
+	/**
+	 * Creates an empty set of properties that is not owned by any element.
+	 */
+	public Properties()
+	{
+		aOwner = Optional.empty();
+	}
+	
+	/**
+	 * Creates an empty set of properties for pOwner.
+	 * 
+	 * @param pOwner The element described by these properties.
+	 * @pre pOwner != null
+	 */
+	public Properties(DiagramElement pOwner)
+	{
+		assert pOwner != null;
+		aOwner = Optional.of(pOwner);
+	}
 	
 	/**
 	 * Adds a property to the end of the list.
@@ -57,7 +82,7 @@ public class Properties implements Iterable<Property>
 	public void add(PropertyName pName, Supplier<Object> pGetter, Consumer<Object> pSetter)
 	{
 		assert pName != null && pGetter != null && pSetter != null && !aProperties.containsKey(pName);
-		aProperties.put(pName, new Property(pName, pGetter, pSetter));
+		aProperties.put(pName, new Property(pName, pGetter, pSetter, aOwner));
 	}
 	
 	/**
@@ -88,7 +113,7 @@ public class Properties implements Iterable<Property>
 		assert pName != null && pGetter != null && pSetter != null && !aProperties.containsKey(pName);
 		assert pIndex >=0 && pIndex <= aProperties.size();
 		List<Property> properties = aProperties.values().stream().collect(toList());
-		properties.add(pIndex, new Property(pName, pGetter, pSetter));
+		properties.add(pIndex, new Property(pName, pGetter, pSetter, aOwner));
 		aProperties.clear();
 		properties.stream().forEach(property -> aProperties.put(property.name(), property));
 	}
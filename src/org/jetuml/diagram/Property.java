@@ -20,22 +20,28 @@
  *******************************************************************************/
 package org.jetuml.diagram;
 
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import org.jetuml.diagram.DiagramChange.Kind;
+
 /**
  * Represents a property of an object as a tuple that 
  * consists of a name, a getter for a value, and a setter
  * for that value. The values managed by a property should only be of immutable types.
+ * A property can optionally know the element that owns it, in which case setting
+ * the property reports a change to the diagram that contains the element.
  */
 public class Property
 {
 	private final PropertyName aName;
 	private final Supplier<Object> aGetter;
 	private final Consumer<Object> aSetter;
+	private final Optional<DiagramElement> aOwner;
 	
 	/**
-	 * Creates a new property.
+	 * Creates a new property that is not owned by any element.
 	 * 
 	 * @param pName The name of the property.
 	 * @param pGetter The getter for the property.
@@ -44,10 +50,25 @@ public class Property
 	 */
 	public Property(PropertyName pName, Supplier<Object> pGetter, Consumer<Object> pSetter)
 	{
-		assert pName != null && pGetter != null && pSetter != null;
+		this(pName, pGetter, pSetter, Optional.empty());
+	}
+	
+	/**
+	 * Creates a new property owned by pOwner.
+	 * 
+	 * @param pName The name of the property.
+	 * @param pGetter The getter for the property.
+	 * @param pSetter The setter for the property.
+	 * @param pOwner The element this property describes, if any.
+	 * @pre pName != null && pGetter != null && pSetter != null && pOwner != null.
+	 */
+	public Property(PropertyName pName, Supplier<Object> pGetter, Consumer<Object> pSetter, Optional<DiagramElement> pOwner)
+	{
+		assert pName != null && pGetter != null && pSetter != null && pOwner != null;
 		aName = pName;
 		aGetter = pGetter;
 		aSetter = pSetter;
+		aOwner = pOwner;
 	}
 	
 	/**
@@ -76,5 +97,22 @@ public class Property
 	{
 		assert pValue != null;
 		aSetter.accept(pValue);
+		if( aOwner.isPresent() )
+		{
+			diagramOf(aOwner.get()).ifPresent(diagram -> diagram.elementChanged(Kind.PROPERTY_CHANGED, aOwner.get()));
+		}
+	}
+	
+	private static Optional<Diagram> diagramOf(DiagramElement pElement)
+	{
+		if( pElement instanceof Node )
+		{
+			return ((Node) pElement).getDiagram();
+		}
+		else if( pElement instanceof Edge )
+		{
+			return Optional.ofNullable(((Edge) pElement).getDiagram());
+		}
+		return Optional.empty();
 	}
 }
@@ -25,16 +25,44 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import org.jetuml.diagram.Diagram;
+
 /**
  * Responsible for executing and undoing operations, and managing the collection 
  * of previously executed and undone operations. Can also compute whether a 
  * diagram has unsaved modifications.
+ * 
+ * If the processor is created for a specific diagram, each operation is executed 
+ * or undone as a batch of changes to that diagram, so that all the changes made by 
+ * a compound operation are reported to the diagram's change handlers at once.
  */
 public class DiagramOperationProcessor
 {
 	private final List<DiagramOperation> aExecutedOperations = new ArrayList<>();
 	private final List<DiagramOperation> aUndoneOperations = new ArrayList<>();
 	private Optional<DiagramOperation> aLastSavedOperation = Optional.empty();
+	private final Optional<Diagram> aDiagram;
+	
+	/**
+	 * Creates a processor that does not batch the changes made by operations.
+	 */
+	public DiagramOperationProcessor()
+	{
+		aDiagram = Optional.empty();
+	}
+	
+	/**
+	 * Creates a processor whose operations are executed as batches of 
+	 * changes to pDiagram.
+	 * 
+	 * @param pDiagram The diagram changed by the operations.
+	 * @pre pDiagram != null
+	 */
+	public DiagramOperationProcessor(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		aDiagram = Optional.of(pDiagram);
+	}
 	
 	/**
 	 * Executes pOperation and adds it to the list of executed
@@ -46,10 +74,23 @@ public class DiagramOperationProcessor
 	public void executeNewOperation(DiagramOperation pOperation)
 	{
 		assert pOperation != null;
-		pOperation.execute();
+		execute(pOperation);
 		aExecutedOperations.add(pOperation);
 	}
 	
+	private void execute(DiagramOperation pOperation)
+	{
+		aDiagram.ifPresent(Diagram::startBatch);
+		try
+		{
+			pOperation.execute();
+		}
+		finally
+		{
+			aDiagram.ifPresent(Diagram::endBatch);
+		}
+	}
+	
 	/**
 	 * @return True if the diagram has operations that have not been saved yet.
 	 */
@@ -111,7 +152,15 @@ public class DiagramOperationProcessor
 	{
 		assert canUndo();
 		DiagramOperation operation = aExecutedOperations.remove(aExecutedOperations.size() - 1);
-		operation.undo();
+		aDiagram.ifPresent(Diagram::startBatch);
+		try
+		{
+			operation.undo();
+		}
+		finally
+		{
+			aDiagram.ifPresent(Diagram::endBatch);
+		}
 		aUndoneOperations.add(operation);
 	}
 	
@@ -124,7 +173,7 @@ public class DiagramOperationProcessor
 	{
 		assert canRedo();
 		DiagramOperation operation = aUndoneOperations.remove(aUndoneOperations.size() - 1);
-		operation.execute();
+		execute(operation);
 		aExecutedOperations.add(operation);
 	}
 
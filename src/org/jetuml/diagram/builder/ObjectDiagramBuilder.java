@@ -27,6 +27,8 @@ import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.DiagramType;
 import org.jetuml.diagram.Edge;
 import org.jetuml.diagram.Node;
+import org.jetuml.diagram.Property;
+import org.jetuml.diagram.PropertyName;
 import org.jetuml.diagram.builder.constraints.ConstraintSet;
 import org.jetuml.diagram.builder.constraints.EdgeConstraints;
 import org.jetuml.diagram.builder.constraints.ObjectDiagramEdgeConstraints;
@@ -73,10 +75,10 @@ public class ObjectDiagramBuilder extends DiagramBuilder
 		super.completeEdgeAdditionOperation(pOperation, pEdge, pStartNode, pEndNode, pStartPoint, pEndPoint);
 		if( pStartNode.getClass() == FieldNode.class )
 		{
-			final FieldNode node = (FieldNode) pStartNode;
-			final String oldValue = node.getValue();
-			pOperation.add(new SimpleOperation(()-> node.setValue(""),
-					()-> node.setValue(oldValue)));
+			final Property value = pStartNode.properties().get(PropertyName.VALUE);
+			final Object oldValue = value.get();
+			pOperation.add(new SimpleOperation(()-> value.set(""),
+					()-> value.set(oldValue)));
 		}
 	}
 	
@@ -27,6 +27,8 @@ import java.util.Optional;
 
 import org.jetuml.diagram.AbstractDiagramElement;
 import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramChange.Kind;
+import org.jetuml.diagram.DiagramElement;
 import org.jetuml.diagram.Node;
 import org.jetuml.geom.Point;
 
@@ -42,6 +44,10 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	public void translate(int pDeltaX, int pDeltaY)
 	{
 		aPosition = new Point( aPosition.getX() + pDeltaX, aPosition.getY() + pDeltaY );
+		if( aDiagram.isPresent() )
+		{
+			aDiagram.get().elementChanged(Kind.NODE_MOVED, this);
+		}
 	}
 	
 	@Override
@@ -54,6 +60,10 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	public final void moveTo(Point pPoint)
 	{
 		aPosition = pPoint;
+		if( aDiagram.isPresent() )
+		{
+			aDiagram.get().elementChanged(Kind.NODE_MOVED, this);
+		}
 	}
 
 	@Override
@@ -89,6 +99,35 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 		return aDiagram;
 	}
 	
+	/**
+	 * Informs the diagram that contains this node that pElement was affected
+	 * by a change of kind pKind. If this node is not attached to a diagram, the 
+	 * diagram is looked up through its ancestors. Subclasses that manage 
+	 * children must call this method after adding or removing a child.
+	 * 
+	 * @param pKind The kind of change.
+	 * @param pElement The element affected, typically this node or one of its children.
+	 * @pre pKind != null && pElement != null
+	 */
+	protected final void notifyChange(Kind pKind, DiagramElement pElement)
+	{
+		Optional<Diagram> diagram = findDiagram();
+		if( diagram.isPresent() )
+		{
+			diagram.get().elementChanged(pKind, pElement);
+		}
+	}
+	
+	private Optional<Diagram> findDiagram()
+	{
+		Node node = this;
+		while( node.getDiagram().isEmpty() && node.hasParent() )
+		{
+			node = node.getParent();
+		}
+		return node.getDiagram();
+	}
+	
 	@Override
 	public boolean hasParent()
 	{
@@ -157,7 +196,17 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	{
 		assert pNode != null;
 		assert getChildren().contains(pNode);
-		removeChild(pNode);
-		addChild(pNode);
+		Optional<Diagram> diagram = findDiagram();
+		diagram.ifPresent(Diagram::startBatch);
+		try
+		{
+			removeChild(pNode);
+			addChild(pNode);
+			notifyChange(Kind.CHILDREN_REORDERED, this);
+		}
+		finally
+		{
+			diagram.ifPresent(Diagram::endBatch);
+		}
 	}
 }
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.jetuml.diagram.DiagramChange.Kind;
 import org.jetuml.diagram.Node;
 
 /**
@@ -75,6 +76,7 @@ public final class ImplicitParameterNode extends NamedNode
 		}
 		aCallNodes.add(pNode);
 		pNode.link(this);
+		notifyChange(Kind.NODE_ADDED, pNode);
 	}
 
 	@Override
@@ -84,6 +86,7 @@ public final class ImplicitParameterNode extends NamedNode
 		assert pNode.getParent() == this;
 		aCallNodes.remove(pNode);
 		pNode.unlink();
+		notifyChange(Kind.NODE_REMOVED, pNode);
 	}
 	
 	@Override
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.jetuml.diagram.DiagramChange.Kind;
 import org.jetuml.diagram.Node;
 
 /**
@@ -77,6 +78,7 @@ public final class ObjectNode extends NamedNode
 		}
 		aFields.add(pIndex, pNode);
 		pNode.link(this);
+		notifyChange(Kind.NODE_ADDED, pNode);
 	}
 
 	@Override
@@ -92,6 +94,7 @@ public final class ObjectNode extends NamedNode
 		assert pNode.getParent() == this;
 		aFields.remove(pNode);
 		pNode.unlink();
+		notifyChange(Kind.NODE_REMOVED, pNode);
 	}
 	
 	@Override
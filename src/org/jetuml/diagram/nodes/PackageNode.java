@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.jetuml.diagram.DiagramChange.Kind;
 import org.jetuml.diagram.Node;
 
 /**
@@ -73,6 +74,7 @@ public final class PackageNode extends AbstractPackageNode
 		}
 		aContainedNodes.add(pIndex, pNode);
 		pNode.link(this);
+		notifyChange(Kind.NODE_ADDED, pNode);
 	}
 
 	@Override
@@ -89,6 +91,7 @@ public final class PackageNode extends AbstractPackageNode
 		assert pNode.getParent() == this;
 		aContainedNodes.remove(pNode);
 		pNode.unlink();
+		notifyChange(Kind.NODE_REMOVED, pNode);
 	}
 	
 	@Override
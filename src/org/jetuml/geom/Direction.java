@@ -22,9 +22,6 @@ import static java.lang.Math.acos;
 import static java.lang.Math.round;
 import static java.lang.Math.toDegrees;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.jetuml.annotations.Flyweight;
 import org.jetuml.annotations.Immutable;
 
@@ -34,12 +31,15 @@ import org.jetuml.annotations.Immutable;
  * 0 and 359 inclusively, where 0 represents "up" or "north", and where
  * an increase in the angle moves the direction clockwise. A direction
  * can be expressed with a precision of a maximum of one degree.
+ * 
+ * All the directions are created when the class is initialized,
+ * so they can be obtained from any thread without synchronization.
  */
 @Immutable 
 @Flyweight
 public final class Direction
 {
-	private static final Map<Integer, Direction> DIRECTIONS = new HashMap<>();
+	private static final Direction[] DIRECTIONS = createDirections();
 	
 	// CSOFF: These need to be below the DIRECTION fields to avoid initialization errors
 	public static final Direction NORTH = fromAngle(0);
@@ -78,7 +78,17 @@ public final class Direction
 	public static Direction fromAngle(int pAngle)
 	{
 		assert pAngle >= 0 && pAngle < DEGREES_IN_CIRCLE;
-		return DIRECTIONS.computeIfAbsent(pAngle, Direction::new);
+		return DIRECTIONS[pAngle];
+	}
+	
+	private static Direction[] createDirections()
+	{
+		Direction[] directions = new Direction[DEGREES_IN_CIRCLE];
+		for( int angle = 0; angle < DEGREES_IN_CIRCLE; angle++ )
+		{
+			directions[angle] = new Direction(angle);
+		}
+		return directions;
 	}
 
 	/**
@@ -167,6 +167,19 @@ public class Rectangle
 				pRectangle.getMaxY() <= aY + aHeight;
 	}
 	
+	/**
+	 * @param pRectangle The rectangle to check.
+	 * @return True iif pRectangle and this rectangle have at least one point in common,
+	 *     including points on their boundaries.
+	 * @pre pRectangle != null.
+	 */
+	public boolean intersects(Rectangle pRectangle)
+	{
+		assert pRectangle != null;
+		return pRectangle.aX <= getMaxX() && aX <= pRectangle.getMaxX() &&
+				pRectangle.aY <= getMaxY() && aY <= pRectangle.getMaxY();
+	}
+	
 	/**
 	 * @return A point in the center of this rectangle.
 	 */
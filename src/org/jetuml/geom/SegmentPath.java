@@ -0,0 +1,512 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.geom;
+
+import java.util.Arrays;
+
+/**
+ * A path made of straight and quadratic curve segments, in the coordinate 
+ * space of a diagram. The path supports the geometric queries needed to 
+ * hit-test and lay out the shape of an edge, without creating scene graph 
+ * objects. 
+ * 
+ * The path is a sequence of operations, each with an end point. A MOVE
+ * starts a new sub-path at its end point, a LINE adds a straight segment 
+ * from the previous end point to its end point, and a QUAD adds a quadratic
+ * curve segment from the previous end point to its end point, with a 
+ * control point. 
+ * 
+ * Paths are meant to be reused: the queries work in buffers owned by the
+ * path, so that hit-testing and measuring a path does not allocate memory.
+ * As a consequence, a path must not be used by several threads at once,
+ * even for queries.
+ */
+public final class SegmentPath
+{
+	/**
+	 * The kinds of operations that define a path.
+	 */
+	public enum Operation
+	{ MOVE, LINE, QUAD }
+	
+	private static final int INITIAL_CAPACITY = 8;
+	private static final int COORDINATES_PER_OPERATION = 4;
+	private static final double EPSILON = 1e-9;
+	
+	private Operation[] aOperations = new Operation[INITIAL_CAPACITY];
+	// For each operation: the control point, if any, followed by the end point
+	private double[] aCoordinates = new double[INITIAL_CAPACITY * COORDINATES_PER_OPERATION];
+	private int aSize = 0;
+	private final double[] aRoots = new double[3]; // Buffer for the roots of the equations solved by the queries
+	private final double[] aExtent = new double[4]; // Buffer for the minimum x, minimum y, maximum x, maximum y
+	
+	/**
+	 * Starts a new sub-path.
+	 * 
+	 * @param pX The x-coordinate of the start of the sub-path.
+	 * @param pY The y-coordinate of the start of the sub-path.
+	 * @return This path.
+	 */
+	public SegmentPath moveTo(double pX, double pY)
+	{
+		return add(Operation.MOVE, pX, pY, pX, pY);
+	}
+	
+	/**
+	 * Adds a straight segment to the current sub-path.
+	 * 
+	 * @param pX The x-coordinate of the end of the segment.
+	 * @param pY The y-coordinate of the end of the segment.
+	 * @return This path.
+	 * @pre size() > 0
+	 */
+	public SegmentPath lineTo(double pX, double pY)
+	{
+		assert aSize > 0;
+		return add(Operation.LINE, pX, pY, pX, pY);
+	}
+	
+	/**
+	 * Adds a quadratic curve segment to the current sub-path.
+	 * 
+	 * @param pControlX The x-coordinate of the control point.
+	 * @param pControlY The y-coordinate of the control point.
+	 * @param pX The x-coordinate of the end of the segment.
+	 * @param pY The y-coordinate of the end of the segment.
+	 * @return This path.
+	 * @pre size() > 0
+	 */
+	public SegmentPath quadTo(double pControlX, double pControlY, double pX, double pY)
+	{
+		assert aSize > 0;
+		return add(Operation.QUAD, pControlX, pControlY, pX, pY);
+	}
+	
+	private SegmentPath add(Operation pOperation, double pControlX, double pControlY, double pX, double pY)
+	{
+		if( aSize == aOperations.length )
+		{
+			aOperations = Arrays.copyOf(aOperations, aSize * 2);
+			aCoordinates = Arrays.copyOf(aCoordinates, aSize * 2 * COORDINATES_PER_OPERATION);
+		}
+		aOperations[aSize] = pOperation;
+		int offset = aSize * COORDINATES_PER_OPERATION;
+		aCoordinates[offset] = pControlX;
+		aCoordinates[offset + 1] = pControlY;
+		aCoordinates[offset + 2] = pX;
+		aCoordinates[offset + 3] = pY;
+		aSize++;
+		return this;
+	}
+	
+	/**
+	 * Removes all the operations of this path, keeping its storage so that
+	 * the path can be rebuilt without allocating.
+	 */
+	public void clear()
+	{
+		aSize = 0;
+	}
+	
+	/**
+	 * @return The number of operations in this path.
+	 */
+	public int size()
+	{
+		return aSize;
+	}
+	
+	/**
+	 * @return True if this path has no operations.
+	 */
+	public boolean isEmpty()
+	{
+		return aSize == 0;
+	}
+	
+	/**
+	 * @param pIndex The index of an operation.
+	 * @return The kind of operation at pIndex.
+	 * @pre pIndex >= 0 && pIndex < size()
+	 */
+	public Operation getOperation(int pIndex)
+	{
+		assert pIndex >= 0 && pIndex < aSize;
+		return aOperations[pIndex];
+	}
+	
+	/**
+	 * @param pIndex The index of an operation.
+	 * @return The x-coordinate of the end point of the operation at pIndex.
+	 * @pre pIndex >= 0 && pIndex < size()
+	 */
+	public double getX(int pIndex)
+	{
+		assert pIndex >= 0 && pIndex < aSize;
+		return aCoordinates[pIndex * COORDINATES_PER_OPERATION + 2];
+	}
+	
+	/**
+	 * @param pIndex The index of an operation.
+	 * @return The y-coordinate of the end point of the operation at pIndex.
+	 * @pre pIndex >= 0 && pIndex < size()
+	 */
+	public double getY(int pIndex)
+	{
+		assert pIndex >= 0 && pIndex < aSize;
+		return aCoordinates[pIndex * COORDINATES_PER_OPERATION + 3];
+	}
+	
+	/**
+	 * @param pIndex The index of a QUAD operation.
+	 * @return The x-coordinate of the control point of the operation at pIndex.
+	 * @pre getOperation(pIndex) == Operation.QUAD
+	 */
+	public double getControlX(int pIndex)
+	{
+		assert getOperation(pIndex) == Operation.QUAD;
+		return aCoordinates[pIndex * COORDINATES_PER_OPERATION];
+	}
+	
+	/**
+	 * @param pIndex The index of a QUAD operation.
+	 * @return The y-coordinate of the control point of the operation at pIndex.
+	 * @pre getOperation(pIndex) == Operation.QUAD
+	 */
+	public double getControlY(int pIndex)
+	{
+		assert getOperation(pIndex) == Operation.QUAD;
+		return aCoordinates[pIndex * COORDINATES_PER_OPERATION + 1];
+	}
+	
+	/**
+	 * @param pPoint The point to test.
+	 * @param pMaxDistance The maximum distance.
+	 * @return True if any segment of the path is at most pMaxDistance away from pPoint.
+	 * @pre pPoint != null
+	 */
+	public boolean isNear(Point pPoint, double pMaxDistance)
+	{
+		assert pPoint != null;
+		return distance(pPoint.getX(), pPoint.getY()) <= pMaxDistance;
+	}
+	
+	/**
+	 * @param pX The x-coordinate of a point.
+	 * @param pY The y-coordinate of a point.
+	 * @return The shortest distance between the point and any segment of this path, 
+	 *     or the distance to the start of the path if it has no segment, 
+	 *     or positive infinity if it is empty.
+	 */
+	public double distance(double pX, double pY)
+	{
+		double result = Double.POSITIVE_INFINITY;
+		for( int i = 0; i < aSize; i++ )
+		{
+			int offset = i * COORDINATES_PER_OPERATION;
+			double x = aCoordinates[offset + 2];
+			double y = aCoordinates[offset + 3];
+			if( aOperations[i] == Operation.MOVE )
+			{
+				result = Math.min(result, Math.hypot(pX - x, pY - y));
+				continue;
+			}
+			double startX = aCoordinates[offset - 2];
+			double startY = aCoordinates[offset - 1];
+			if( aOperations[i] == Operation.LINE )
+			{
+				result = Math.min(result, segmentDistance(pX, pY, startX, startY, x, y));
+			}
+			else
+			{
+				result = Math.min(result, curveDistance(pX, pY, startX, startY, 
+						aCoordinates[offset], aCoordinates[offset + 1], x, y));
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * @return The smallest rectangle with integer coordinates that contains 
+	 *     all the points of the path, including the extremities of its curves.
+	 * @pre !isEmpty()
+	 */
+	public Rectangle getBounds()
+	{
+		assert aSize > 0;
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for( int i = 0; i < aSize; i++ )
+		{
+			int offset = i * COORDINATES_PER_OPERATION;
+			double x = aCoordinates[offset + 2];
+			double y = aCoordinates[offset + 3];
+			minX = Math.min(minX, x);
+			maxX = Math.max(maxX, x);
+			minY = Math.min(minY, y);
+			maxY = Math.max(maxY, y);
+			if( aOperations[i] == Operation.QUAD )
+			{
+				double extremumX = curveExtremum(aCoordinates[offset - 2], aCoordinates[offset], x);
+				double extremumY = curveExtremum(aCoordinates[offset - 1], aCoordinates[offset + 1], y);
+				minX = Math.min(minX, extremumX);
+				maxX = Math.max(maxX, extremumX);
+				minY = Math.min(minY, extremumY);
+				maxY = Math.max(maxY, extremumY);
+			}
+		}
+		int x = (int) Math.floor(minX);
+		int y = (int) Math.floor(minY);
+		return new Rectangle(x, y, (int) Math.ceil(maxX) - x, (int) Math.ceil(maxY) - y);
+	}
+	
+	/**
+	 * @param pLineWidth The width of a line.
+	 * @return The bounds of the area covered by the path when stroked with a line of 
+	 *     width pLineWidth with square ends, converted to integers by truncation, 
+	 *     as for the bounds of JavaFX shapes. The ends of each segment are extended
+	 *     by half the line width, which covers the joins between segments. 
+	 * @pre !isEmpty() && pLineWidth >= 0
+	 */
+	public Rectangle getStrokeBounds(double pLineWidth)
+	{
+		assert aSize > 0 && pLineWidth >= 0;
+		final double half = pLineWidth / 2;
+		double[] extent = aExtent;
+		extent[0] = Double.POSITIVE_INFINITY;
+		extent[1] = Double.POSITIVE_INFINITY;
+		extent[2] = Double.NEGATIVE_INFINITY;
+		extent[3] = Double.NEGATIVE_INFINITY;
+		for( int i = 0; i < aSize; i++ )
+		{
+			int offset = i * COORDINATES_PER_OPERATION;
+			double x = aCoordinates[offset + 2];
+			double y = aCoordinates[offset + 3];
+			if( aOperations[i] == Operation.MOVE )
+			{
+				if( i == aSize - 1 || aOperations[i + 1] == Operation.MOVE )
+				{
+					addSquare(extent, x, y, half); // An isolated point
+				}
+				continue;
+			}
+			double startX = aCoordinates[offset - 2];
+			double startY = aCoordinates[offset - 1];
+			double startTangentX = x - startX;
+			double startTangentY = y - startY;
+			double endTangentX = startTangentX;
+			double endTangentY = startTangentY;
+			if( aOperations[i] == Operation.QUAD )
+			{
+				double controlX = aCoordinates[offset];
+				double controlY = aCoordinates[offset + 1];
+				if( controlX != startX || controlY != startY )
+				{
+					startTangentX = controlX - startX;
+					startTangentY = controlY - startY;
+				}
+				if( controlX != x || controlY != y )
+				{
+					endTangentX = x - controlX;
+					endTangentY = y - controlY;
+				}
+				addSquare(extent, curveExtremum(startX, controlX, x), curve(startY, controlY, y, 
+						extremumParameter(startX, controlX, x)), half);
+				addSquare(extent, curve(startX, controlX, x, extremumParameter(startY, controlY, y)), 
+						curveExtremum(startY, controlY, y), half);
+			}
+			addCap(extent, startX, startY, -startTangentX, -startTangentY, half);
+			addCap(extent, x, y, endTangentX, endTangentY, half);
+		}
+		return new Rectangle((int) extent[0], (int) extent[1], (int) (extent[2] - extent[0]), (int) (extent[3] - extent[1]));
+	}
+	
+	/*
+	 * Adds to pExtent (minX, minY, maxX, maxY) the square end of a line of half-width pHalf 
+	 * that ends at pX, pY in direction (pDirectionX, pDirectionY).
+	 */
+	private static void addCap(double[] pExtent, double pX, double pY, double pDirectionX, double pDirectionY, double pHalf)
+	{
+		double length = Math.hypot(pDirectionX, pDirectionY);
+		if( length < EPSILON )
+		{
+			addSquare(pExtent, pX, pY, pHalf);
+			return;
+		}
+		double dx = pDirectionX / length * pHalf;
+		double dy = pDirectionY / length * pHalf;
+		addPoint(pExtent, pX + dx - dy, pY + dy + dx);
+		addPoint(pExtent, pX + dx + dy, pY + dy - dx);
+	}
+	
+	private static void addSquare(double[] pExtent, double pX, double pY, double pHalf)
+	{
+		addPoint(pExtent, pX - pHalf, pY - pHalf);
+		addPoint(pExtent, pX + pHalf, pY + pHalf);
+	}
+	
+	private static void addPoint(double[] pExtent, double pX, double pY)
+	{
+		pExtent[0] = Math.min(pExtent[0], pX);
+		pExtent[1] = Math.min(pExtent[1], pY);
+		pExtent[2] = Math.max(pExtent[2], pX);
+		pExtent[3] = Math.max(pExtent[3], pY);
+	}
+	
+	/*
+	 * The parameter where the derivative of the quadratic curve p0, p1, p2 is zero, 
+	 * clamped to the end of the curve if the extremum is not strictly inside the curve. 
+	 */
+	private static double extremumParameter(double pStart, double pControl, double pEnd)
+	{
+		double denominator = pStart - 2 * pControl + pEnd;
+		if( Math.abs(denominator) < EPSILON )
+		{
+			return 1;
+		}
+		double t = (pStart - pControl) / denominator;
+		if( t <= 0 || t >= 1 )
+		{
+			return 1;
+		}
+		return t;
+	}
+	
+	/*
+	 * The value of the quadratic curve p0, p1, p2 where its derivative is zero, 
+	 * or p2 if the extremum is not strictly inside the curve. 
+	 */
+	private static double curveExtremum(double pStart, double pControl, double pEnd)
+	{
+		return curve(pStart, pControl, pEnd, extremumParameter(pStart, pControl, pEnd));
+	}
+	
+	private static double curve(double pStart, double pControl, double pEnd, double pT)
+	{
+		double u = 1 - pT;
+		return u * u * pStart + 2 * u * pT * pControl + pT * pT * pEnd;
+	}
+	
+	private static double segmentDistance(double pX, double pY, double pX1, double pY1, double pX2, double pY2)
+	{
+		double dx = pX2 - pX1;
+		double dy = pY2 - pY1;
+		double lengthSquared = dx * dx + dy * dy;
+		double t = 0;
+		if( lengthSquared > EPSILON )
+		{
+			t = Math.max(0, Math.min(1, ((pX - pX1) * dx + (pY - pY1) * dy) / lengthSquared));
+		}
+		return Math.hypot(pX - (pX1 + t * dx), pY - (pY1 + t * dy));
+	}
+	
+	/*
+	 * The closest point of the curve B(t) = P0 + 2tA + t^2 B, with A = P1 - P0 and B = P0 - 2P1 + P2, 
+	 * is at one of the ends or where (B(t) - P) . B'(t) = 0, which is the cubic equation 
+	 * (B.B) t^3 + 3(A.B) t^2 + (2A.A + M.B) t + M.A = 0, with M = P0 - P.
+	 */
+	private double curveDistance(double pX, double pY, double pX0, double pY0, 
+			double pX1, double pY1, double pX2, double pY2)
+	{
+		double ax = pX1 - pX0;
+		double ay = pY1 - pY0;
+		double bx = pX0 - 2 * pX1 + pX2;
+		double by = pY0 - 2 * pY1 + pY2;
+		double mx = pX0 - pX;
+		double my = pY0 - pY;
+		double result = Math.min(Math.hypot(mx, my), Math.hypot(pX2 - pX, pY2 - pY));
+		int count = solveCubic(bx * bx + by * by, 3 * (ax * bx + ay * by), 
+				2 * (ax * ax + ay * ay) + mx * bx + my * by, mx * ax + my * ay, aRoots);
+		for( int i = 0; i < count; i++ )
+		{
+			double t = aRoots[i];
+			if( t > 0 && t < 1 )
+			{
+				result = Math.min(result, Math.hypot(curve(pX0, pX1, pX2, t) - pX, curve(pY0, pY1, pY2, t) - pY));
+			}
+		}
+		return result;
+	}
+	
+	/*
+	 * Stores the real roots of a t^3 + b t^2 + c t + d = 0 in pRoots and returns how many there are.
+	 * Degenerates to the quadratic and linear equations when the leading coefficients are zero.
+	 */
+	static int solveCubic(double pA, double pB, double pC, double pD, double[] pRoots)
+	{
+		if( Math.abs(pA) < EPSILON )
+		{
+			return solveQuadratic(pB, pC, pD, pRoots);
+		}
+		double b = pB / pA;
+		double c = pC / pA;
+		double d = pD / pA;
+		// Substitution t = s - b/3 gives the depressed cubic s^3 + p s + q = 0
+		double p = c - b * b / 3;
+		double q = 2 * b * b * b / 27 - b * c / 3 + d;
+		double shift = -b / 3;
+		double discriminant = q * q / 4 + p * p * p / 27;
+		if( discriminant > EPSILON )
+		{
+			double root = Math.sqrt(discriminant);
+			pRoots[0] = Math.cbrt(-q / 2 + root) + Math.cbrt(-q / 2 - root) + shift;
+			return 1;
+		}
+		if( discriminant > -EPSILON )
+		{
+			double u = Math.cbrt(-q / 2);
+			pRoots[0] = 2 * u + shift;
+			pRoots[1] = -u + shift;
+			return 2;
+		}
+		double radius = 2 * Math.sqrt(-p / 3);
+		double angle = Math.acos(Math.max(-1, Math.min(1, 3 * q / (p * radius)))) / 3;
+		for( int k = 0; k < 3; k++ )
+		{
+			pRoots[k] = radius * Math.cos(angle - 2 * Math.PI * k / 3) + shift;
+		}
+		return 3;
+	}
+	
+	private static int solveQuadratic(double pA, double pB, double pC, double[] pRoots)
+	{
+		if( Math.abs(pA) < EPSILON )
+		{
+			if( Math.abs(pB) < EPSILON )
+			{
+				return 0;
+			}
+			pRoots[0] = -pC / pB;
+			return 1;
+		}
+		double discriminant = pB * pB - 4 * pA * pC;
+		if( discriminant < 0 )
+		{
+			return 0;
+		}
+		double root = Math.sqrt(discriminant);
+		pRoots[0] = (-pB + root) / (2 * pA);
+		pRoots[1] = (-pB - root) / (2 * pA);
+		return 2;
+	}
+}
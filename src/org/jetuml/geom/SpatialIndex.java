@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.geom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * An index of objects by their bounds, which supports finding the objects 
+ * whose bounds intersect a given rectangle without examining all the objects.
+ * 
+ * The plane is divided into square cells of a fixed size, and each object 
+ * is recorded in every cell its bounds overlap. A query only examines the objects 
+ * recorded in the cells overlapped by the query rectangle. Objects are compared 
+ * by identity.
+ *
+ * @param <T> The type of the objects to index.
+ */
+public final class SpatialIndex<T>
+{
+	private final int aCellSize;
+	private final Map<Long, List<T>> aCells = new HashMap<>();
+	private final Map<T, Rectangle> aBounds = new IdentityHashMap<>();
+	
+	/**
+	 * Creates an empty index.
+	 * 
+	 * @param pCellSize The width and height of a cell.
+	 * @pre pCellSize > 0
+	 */
+	public SpatialIndex(int pCellSize)
+	{
+		assert pCellSize > 0;
+		aCellSize = pCellSize;
+	}
+	
+	/**
+	 * Records pObject with the bounds pBounds.
+	 * 
+	 * @param pObject The object to index.
+	 * @param pBounds The bounds of the object.
+	 * @pre pObject != null && pBounds != null
+	 * @pre pObject is not already in the index.
+	 */
+	public void add(T pObject, Rectangle pBounds)
+	{
+		assert pObject != null && pBounds != null;
+		assert !aBounds.containsKey(pObject);
+		aBounds.put(pObject, pBounds);
+		for( int x = cell(pBounds.getX()); x <= cell(pBounds.getMaxX()); x++ )
+		{
+			for( int y = cell(pBounds.getY()); y <= cell(pBounds.getMaxY()); y++ )
+			{
+				aCells.computeIfAbsent(key(x, y), key -> new ArrayList<>()).add(pObject);
+			}
+		}
+	}
+	
+	/**
+	 * @param pObject The object whose bounds to obtain.
+	 * @return The bounds pObject was recorded with.
+	 * @pre pObject is in the index.
+	 */
+	public Rectangle boundsOf(T pObject)
+	{
+		assert aBounds.containsKey(pObject);
+		return aBounds.get(pObject);
+	}
+	
+	/**
+	 * @return The number of objects in the index.
+	 */
+	public int size()
+	{
+		return aBounds.size();
+	}
+	
+	/**
+	 * Calls pAction exactly once for each object whose bounds intersect pRectangle, 
+	 * boundaries included. The order in which objects are visited is unspecified.
+	 * 
+	 * @param pRectangle The area to query.
+	 * @param pAction The action to apply to each object found.
+	 * @pre pRectangle != null && pAction != null
+	 */
+	public void forEachIntersecting(Rectangle pRectangle, Consumer<? super T> pAction)
+	{
+		assert pRectangle != null && pAction != null;
+		Set<T> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		for( int x = cell(pRectangle.getX()); x <= cell(pRectangle.getMaxX()); x++ )
+		{
+			for( int y = cell(pRectangle.getY()); y <= cell(pRectangle.getMaxY()); y++ )
+			{
+				for( T object : aCells.getOrDefault(key(x, y), Collections.emptyList()) )
+				{
+					if( aBounds.get(object).intersects(pRectangle) && visited.add(object) )
+					{
+						pAction.accept(object);
+					}
+				}
+			}
+		}
+	}
+	
+	private int cell(int pCoordinate)
+	{
+		return Math.floorDiv(pCoordinate, aCellSize);
+	}
+	
+	private static long key(int pX, int pY)
+	{
+		return ((long) pX << Integer.SIZE) | (pY & 0xFFFFFFFFL);
+	}
+}
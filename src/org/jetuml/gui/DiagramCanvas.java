@@ -19,14 +19,12 @@
  * along with this program.  If not, see http://www.gnu.org/licenses.
  *******************************************************************************/
 package org.jetuml.gui;
-import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Consumer;
 
 import org.jetuml.application.Clipboard;
 import org.jetuml.application.UserPreferences;
@@ -49,11 +47,19 @@ import org.jetuml.geom.Dimension;
 import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.CanvasRenderingContext;
 import org.jetuml.rendering.Grid;
+import org.jetuml.rendering.Instrumentation;
+import org.jetuml.rendering.Instrumentation.Phase;
+import org.jetuml.rendering.RenderingContext;
 import org.jetuml.rendering.ToolGraphics;
 
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Parent;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.image.Image;
 import javafx.scene.image.WritableImage;
 import javafx.scene.input.MouseEvent;
@@ -71,11 +77,15 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	 * preferred size. */
 	private static final int DIMENSION_BUFFER = 20;
 	private static final int GRID_SIZE = 10;
-	private static final int DIAGRAM_PADDING = 4;
+	/* Below this zoom factor, the diagram is drawn without details. */
+	private static final double OVERVIEW_ZOOM_THRESHOLD = 0.6;
 	
-	private DiagramOperationProcessor aProcessor = new DiagramOperationProcessor();
+	private final DiagramOperationProcessor aProcessor;
 	private final DiagramBuilder aDiagramBuilder;
 	private final DiagramTabToolBar aToolBar;
+	private final RepaintScheduler aRepaintScheduler = new RepaintScheduler(this::render);
+	private final RenderingContext aRenderingContext = new CanvasRenderingContext(getGraphicsContext2D());
+	private boolean aOverview = false;
 	private MouseDraggedGestureHandler aHandler;
 	
 	private enum DragMode 
@@ -99,7 +109,9 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 		assert pDiagramBuilder != null;
 		aToolBar = pToolBar;
 		aDiagramBuilder = pDiagramBuilder;
+		aProcessor = new DiagramOperationProcessor(pDiagramBuilder.diagram());
 		aMoveTracker = new MoveTracker(aDiagramBuilder.renderer()::getBounds);
+		aSelected = new SelectionModel(pDiagramBuilder.diagram());
 		Dimension dimension = getDiagramCanvasWidth(pDiagramBuilder.diagram());
 		setWidth(dimension.width());
 		setHeight(dimension.height());
@@ -112,23 +124,6 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 		setOnMouseDragged(this::mouseDragged);
 	}
 	
-	/**
-	 * Removes any element in the selection model that is not in the diagram.
-	 * TODO a hack which will hopefully be factored out.
-	 */
-	public void synchronizeSelectionModel()
-	{
-		Set<DiagramElement> toBeRemoved = new HashSet<>();
-		for(DiagramElement selected : aSelected )
-		{
-			if(!diagram().contains(selected)) 
-			{
-				toBeRemoved.add(selected);
-			}
-		}
-		toBeRemoved.forEach( element -> removeFromSelection(element));            
-	}
-	
 	/**
 	 * Notify the controller that its diagram has been saved.
 	 */
@@ -151,6 +146,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	 */
 	public void paste()
 	{
+		SystemClipboard.instance().importFragment();
 		if( !Clipboard.instance().validPaste(aDiagramBuilder.diagram()))
 		{
 			return;
@@ -159,6 +155,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 		if(Clipboard.instance().overlapsWithElementOf(aDiagramBuilder.diagram()))
 		{
 			shiftElements(newElements, GRID_SIZE);
+			Clipboard.instance().translate(GRID_SIZE, GRID_SIZE);
 		}
 		aProcessor.executeNewOperation(aDiagramBuilder.createAddElementsOperation(newElements));
 		List<DiagramElement> newElementList = new ArrayList<>();
@@ -167,7 +164,6 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 			newElementList.add(element);
 		}
 		setSelectionTo(newElementList);
-		Clipboard.instance().copy(newElements);
 		paintPanel();
 	}
 	
@@ -220,23 +216,90 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	}
 	
 	/**
-	 * Paints the panel and all the graph elements in aDiagramView.
-	 * Called after the panel is resized.
+	 * Requests that the panel and all the graph elements in aDiagramView be
+	 * painted. The painting is done at the next JavaFX pulse, so any number of 
+	 * requests made before then result in a single rendering.
 	 */
 	public void paintPanel()
 	{
-		GraphicsContext context = getGraphicsContext2D();
-		context.setFill(Color.WHITE); 
-		context.fillRect(0, 0, getWidth(), getHeight());
+		aRepaintScheduler.requestRepaint();
+	}
+	
+	/**
+	 * @return The scheduler that coalesces requests to paint this canvas.
+	 */
+	public RepaintScheduler repaintScheduler()
+	{
+		return aRepaintScheduler;
+	}
+	
+	/*
+	 * Paints the panel and all the graph elements in aDiagramView.
+	 */
+	private void render()
+	{
+		long start = Instrumentation.start();
+		if( aDragPreview.isPresent() )
+		{
+			DragPreview preview = aDragPreview.get();
+			Rectangle visible = visibleBounds();
+			if( !preview.backgroundBounds().contains(visible) )
+			{
+				preview.setBackground(snapshotDiagram(visible), visible);
+			}
+			preview.draw(getGraphicsContext2D());
+		}
+		else
+		{
+			renderDiagram();
+			long handlesStart = Instrumentation.start();
+			aSelected.forEach( selected -> aDiagramBuilder.renderer().drawSelectionHandles(selected, aRenderingContext));
+			Instrumentation.stop(Phase.SELECTION_HANDLES, handlesStart);
+			aRubberband.ifPresent( rubberband -> ToolGraphics.drawRubberband(aRenderingContext, rubberband));
+			aLasso.ifPresent( lasso -> ToolGraphics.drawLasso(aRenderingContext, lasso));
+		}
+		Instrumentation.stop(Phase.PAINT, start);
+	}
+	
+	/*
+	 * Paints the panel and all the graph elements, without any selection feedback.
+	 */
+	private void renderDiagram()
+	{
+		aRenderingContext.setFill(Color.WHITE); 
+		aRenderingContext.fillRect(0, 0, getWidth(), getHeight());
 		if(UserPreferences.instance().getBoolean(BooleanPreference.showGrid)) 
 		{
-			Grid.draw(context, new Rectangle(0, 0, (int) getWidth(), (int) getHeight()));
+			Grid.draw(getGraphicsContext2D(), new Rectangle(0, 0, (int) getWidth(), (int) getHeight()));
+		}
+		if( aOverview )
+		{
+			aDiagramBuilder.renderer().drawOverview(aRenderingContext);
+		}
+		else
+		{
+			aDiagramBuilder.renderer().draw(aRenderingContext);
+		}
+	}
+	
+	/**
+	 * Informs the canvas of the zoom factor at which it is displayed. Below 
+	 * a threshold, the diagram is drawn without details. The canvas is only 
+	 * painted again if this changes the level of detail: otherwise the scaled 
+	 * image of the canvas is already correct.
+	 * 
+	 * @param pZoom The zoom factor.
+	 * @pre pZoom > 0
+	 */
+	public void setZoom(double pZoom)
+	{
+		assert pZoom > 0;
+		boolean overview = pZoom < OVERVIEW_ZOOM_THRESHOLD;
+		if( overview != aOverview )
+		{
+			aOverview = overview;
+			paintPanel();
 		}
-		aDiagramBuilder.renderer().draw(context);
-		synchronizeSelectionModel();
-		aSelected.forEach( selected -> aDiagramBuilder.renderer().drawSelectionHandles(selected, context));
-		aRubberband.ifPresent( rubberband -> ToolGraphics.drawRubberband(context, rubberband));
-		aLasso.ifPresent( lasso -> ToolGraphics.drawLasso(context, lasso));
 	}
 	
 	/**
@@ -279,6 +342,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	public void copy()
 	{
 		Clipboard.instance().copy(aSelected);
+		SystemClipboard.instance().publish(aDiagramBuilder.diagram().getType());
 	}
 	
 	/**
@@ -297,7 +361,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	 */
 	public void cut()
 	{
-		Clipboard.instance().copy(aSelected);
+		copy();
 		removeSelected();
 	}
 	
@@ -322,7 +386,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 		{
 			return;
 		}
-		List<Node> selectedNodes = selectedNodes();
+		List<Node> selectedNodes = aSelected.getSelectedNodes();
 		if(((ClassDiagramBuilder)aDiagramBuilder).canLinkToPackage(selectedNodes))
 		{
 			aProcessor.executeNewOperation(((ClassDiagramBuilder)aDiagramBuilder).createLinkToPackageOperation(selectedNodes));
@@ -452,7 +516,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 				setSelection(element.get());
 			}
 			// Reorder the selected nodes to ensure that they appear on the top
-			for(Node pSelected: selectedNodes()) 
+			for(Node pSelected: aSelected.getSelectedNodes()) 
 			{
 				diagram().placeOnTop(pSelected);
 			}
@@ -466,6 +530,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 				clearSelection();
 			}
 			aDragMode = DragMode.DRAG_LASSO;
+			aLassoTracker = Optional.of(new LassoTracker(diagram(), aDiagramBuilder.renderer()::getBounds));
 		}
 	}
 		
@@ -575,6 +640,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 		}
 		else if(aDragMode == DragMode.DRAG_MOVE)
 		{
+			completeDragPreview();
 			alignMoveToGrid();
 			releaseMove();
 		}
@@ -590,7 +656,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	 */
 	private void alignMoveToGrid()
 	{
-		Iterator<Node> selectedNodes = selectedNodes().iterator();
+		Iterator<Node> selectedNodes = aSelected.getSelectedNodes().iterator();
 		Rectangle entireBounds = aDiagramBuilder.renderer().getBoundsIncludingParents(aSelected);
 		
 		if( selectedNodes.hasNext() )
@@ -621,7 +687,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 				dy += GRID_SIZE;
 			}
 			
-			for(Node selected : selectedNodes())
+			for(Node selected : aSelected.getSelectedNodes())
 			{
 				selected.translate(dx, dy);
 			}
@@ -664,17 +730,24 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 			// The second condition in the if is necessary in the case where a single 
 			// element is selected with the Ctrl button is down, which immediately deselects it.
 			Point pointToReveal = computePointToReveal(mousePoint);
-			moveSelection(mousePoint);
+			if( aDragPreview.isEmpty() && UserPreferences.instance().getBoolean(BooleanPreference.dragPreview) )
+			{
+				startDragPreview();
+			}
+			if( aDragPreview.isPresent() )
+			{
+				movePreview(mousePoint);
+			}
+			else
+			{
+				moveSelection(mousePoint);
+			}
 			aHandler.interactionTo(pointToReveal);
 		}
 		else if(aDragMode == DragMode.DRAG_LASSO)
 		{
 			aLastMousePoint = mousePoint;
-			if( !pEvent.isControlDown() )
-			{
-				clearSelection();
-			}
-			activateLasso();
+			activateLasso(!pEvent.isControlDown());
 		}
 		else if(aDragMode == DragMode.DRAG_RUBBERBAND)
 		{
@@ -686,7 +759,8 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	// finds the point to reveal based on the entire selection
 	private Point computePointToReveal(Point pMousePoint)
 	{
-		Rectangle bounds = aDiagramBuilder.renderer().getBoundsIncludingParents(aSelected);
+		Rectangle bounds = aDragPreview.map(DragPreview::bounds)
+				.orElseGet(() -> aDiagramBuilder.renderer().getBoundsIncludingParents(aSelected));
 		int x = bounds.getMaxX();
 		int y = bounds.getMaxY();
 		
@@ -711,87 +785,169 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 		int dy = pMousePoint.getY() - aLastMousePoint.getY();
 		
 		// Perform the move without painting it
-		selectedNodes().forEach(selected -> selected.translate(dx, dy));
-		
-		// If this translation results in exceeding the canvas bounds, roll back.
-		Rectangle bounds = aDiagramBuilder.renderer().getBoundsIncludingParents(aSelected);
-		int dxCorrection = Math.max(-bounds.getX(), 0) 
-				+ Math.min((int)getWidth() - bounds.getMaxX(), 0);
-		int dyCorrection = Math.max(-bounds.getY(), 0) 
-				+ Math.min((int)getHeight() - bounds.getMaxY(), 0);
-		selectedNodes().forEach(selected -> selected.translate(dxCorrection, dyCorrection));
+		diagram().startBatch();
+		try
+		{
+			aSelected.getSelectedNodes().forEach(selected -> selected.translate(dx, dy));
+			
+			// If this translation results in exceeding the canvas bounds, roll back.
+			Rectangle bounds = aDiagramBuilder.renderer().getBoundsIncludingParents(aSelected);
+			int dxCorrection = Math.max(-bounds.getX(), 0) 
+					+ Math.min((int)getWidth() - bounds.getMaxX(), 0);
+			int dyCorrection = Math.max(-bounds.getY(), 0) 
+					+ Math.min((int)getHeight() - bounds.getMaxY(), 0);
+			aSelected.getSelectedNodes().forEach(selected -> selected.translate(dxCorrection, dyCorrection));
+		}
+		finally
+		{
+			diagram().endBatch();
+		}
 		
 		aLastMousePoint = pMousePoint; 
 		paintPanel();
 	}
 	
-	/**
-	 * Creates an image of an entire diagram, with a white border around.
-	 * @return An image of the diagram.
+	/*
+	 * Renders the diagram without selection feedback and keeps an image of its 
+	 * visible part as the background of a preview of the selection being dragged.
 	 */
-	public Image createImage()
+	private void startDragPreview()
 	{
-		Rectangle bounds = aDiagramBuilder.renderer().getBounds();
-		Canvas canvas = new Canvas(bounds.getWidth() + DIAGRAM_PADDING * 2, 
-				bounds.getHeight() + DIAGRAM_PADDING *2);
-		GraphicsContext context = canvas.getGraphicsContext2D();
-		context.setLineWidth(LINE_WIDTH);
-		context.setFill(Color.WHITE);
-		context.translate(-bounds.getX()+DIAGRAM_PADDING, -bounds.getY()+DIAGRAM_PADDING);
-		aDiagramBuilder.renderer().draw(context);
-		WritableImage image = new WritableImage(bounds.getWidth() + DIAGRAM_PADDING * 2, 
-				bounds.getHeight() + DIAGRAM_PADDING *2);
-		canvas.snapshot(null, image);
-		return image;
+		Rectangle visible = visibleBounds();
+		aDragPreview = Optional.of(new DragPreview(snapshotDiagram(visible), visible, diagram(), aSelected, 
+				aDiagramBuilder.renderer()::getBounds, aDiagramBuilder.renderer().getBoundsIncludingParents(aSelected)));
 	}
 	
-	// ==================== Selection Model ==============================
+	/*
+	 * Renders the diagram without selection feedback and returns an image
+	 * of the part of the canvas within pArea.
+	 */
+	private Image snapshotDiagram(Rectangle pArea)
+	{
+		renderDiagram();
+		SnapshotParameters parameters = new SnapshotParameters();
+		parameters.setViewport(new Rectangle2D(pArea.getX(), pArea.getY(), pArea.getWidth(), pArea.getHeight()));
+		return snapshot(parameters, new WritableImage(pArea.getWidth(), pArea.getHeight()));
+	}
 	
-	private List<DiagramElement> aSelected = new ArrayList<>();
-	private Optional<Line> aRubberband = Optional.empty();
-	private Optional<Rectangle> aLasso = Optional.empty();
+	/*
+	 * Returns the part of the canvas visible in the scroll pane that contains it,
+	 * or the entire canvas if it is not in a scroll pane. The result is never 
+	 * empty, so that it can be the size of an image.
+	 */
+	private Rectangle visibleBounds()
+	{
+		double minX = 0;
+		double minY = 0;
+		double maxX = getWidth();
+		double maxY = getHeight();
+		Parent parent = getParent();
+		while( parent != null && !(parent instanceof ScrollPane) )
+		{
+			parent = parent.getParent();
+		}
+		if( parent != null )
+		{
+			Bounds viewport = sceneToLocal(parent.localToScene(parent.getLayoutBounds()));
+			minX = Math.max(minX, viewport.getMinX());
+			minY = Math.max(minY, viewport.getMinY());
+			maxX = Math.min(maxX, viewport.getMaxX());
+			maxY = Math.min(maxY, viewport.getMaxY());
+		}
+		int x = (int) Math.floor(minX);
+		int y = (int) Math.floor(minY);
+		return new Rectangle(x, y, Math.max((int) Math.ceil(maxX) - x, 1), Math.max((int) Math.ceil(maxY) - y, 1));
+	}
 	
-	/**
-	 * @return A list of all the selected nodes. 
+	/*
+	 * Moves the preview of the selection as moveSelection would move the 
+	 * selection, without changing the diagram.
 	 */
-	private List<Node> selectedNodes()
+	private void movePreview(Point pMousePoint)
 	{
-		return aSelected.stream()
-				.filter(e -> Node.class.isAssignableFrom(e.getClass()))
-				.map(Node.class::cast)
-				.collect(toList());
+		DragPreview preview = aDragPreview.get();
+		int dx = preview.offsetX() + pMousePoint.getX() - aLastMousePoint.getX();
+		int dy = preview.offsetY() + pMousePoint.getY() - aLastMousePoint.getY();
+		
+		// Do not move the preview beyond the canvas bounds.
+		Rectangle bounds = preview.originalBounds().translated(dx, dy);
+		dx += Math.max(-bounds.getX(), 0) + Math.min((int)getWidth() - bounds.getMaxX(), 0);
+		dy += Math.max(-bounds.getY(), 0) + Math.min((int)getHeight() - bounds.getMaxY(), 0);
+		preview.setOffset(dx, dy);
+		
+		aLastMousePoint = pMousePoint; 
+		paintPanel();
+	}
+	
+	/*
+	 * Moves the selected nodes to the position shown by the drag preview, if any, 
+	 * and removes the preview.
+	 */
+	private void completeDragPreview()
+	{
+		if( aDragPreview.isEmpty() )
+		{
+			return;
+		}
+		int dx = aDragPreview.get().offsetX();
+		int dy = aDragPreview.get().offsetY();
+		aDragPreview = Optional.empty();
+		diagram().startBatch();
+		try
+		{
+			aSelected.getSelectedNodes().forEach(selected -> selected.translate(dx, dy));
+		}
+		finally
+		{
+			diagram().endBatch();
+		}
 	}
 	
+	// ==================== Selection Model ==============================
+	
+	private final SelectionModel aSelected;
+	private Optional<Line> aRubberband = Optional.empty();
+	private Optional<Rectangle> aLasso = Optional.empty();
+	private Optional<LassoTracker> aLassoTracker = Optional.empty();
+	private Optional<DragPreview> aDragPreview = Optional.empty();
+	
 	/**
-	 * Records information about an active lasso selection tool, select all elements
-	 * in the lasso, and triggers a notification.
+	 * Records information about an active lasso selection tool, selects the elements
+	 * that entered the lasso since the last call, and triggers a notification.
 	 * 
-	 * @param pLasso The bounds of the current lasso.
-	 * @pre pLasso != null;
+	 * @param pDeselectExited Whether to deselect the elements that left the lasso.
 	 */
-	private void activateLasso()
+	private void activateLasso(boolean pDeselectExited)
 	{
 		aLasso = Optional.of(computeLasso());
-		aDiagramBuilder.diagram().rootNodes().forEach( node -> selectNode(node, aLasso.get()));
-		aDiagramBuilder.diagram().edges().forEach( edge -> selectEdge(edge, aLasso.get()));
+		Consumer<DiagramElement> exited = pDeselectExited ? this::deselectLassoElement : element -> {};
+		aLassoTracker.get().update(aLasso.get(), this::internalAddToSelection, exited);
 		paintPanel();
 	}
 	
-	private void selectNode(Node pNode, Rectangle pLasso)
+	/*
+	 * Removes pElement from the selection. Descendants of pElement that are still
+	 * in the lasso were not selected because pElement was, so they are selected.
+	 */
+	private void deselectLassoElement(DiagramElement pElement)
 	{
-		if(pLasso.contains(aDiagramBuilder.renderer().getBounds(pNode)))
+		aSelected.remove(pElement);
+		if( pElement instanceof Node )
 		{
-			internalAddToSelection(pNode);
+			((Node) pElement).getChildren().forEach(this::selectLassoDescendants);
 		}
-		pNode.getChildren().forEach(child -> selectNode(child, pLasso));
 	}
 	
-	private void selectEdge(Edge pEdge, Rectangle pLasso )
+	private void selectLassoDescendants(Node pNode)
 	{
-		if(pLasso.contains(aDiagramBuilder.renderer().getBounds(pEdge)))
+		if( aLassoTracker.get().isInside(pNode) )
 		{
-			internalAddToSelection(pEdge);
-		}		
+			internalAddToSelection(pNode);
+		}
+		else
+		{
+			pNode.getChildren().forEach(this::selectLassoDescendants);
+		}
 	}
 	
 	/**
@@ -800,6 +956,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	private void deactivateLasso()
 	{
 		aLasso = Optional.empty();
+		aLassoTracker = Optional.empty();
 		paintPanel();
 	}
 	
@@ -858,56 +1015,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	
 	private void internalAddToSelection(DiagramElement pElement)
 	{
-		if( !containsParent( pElement ))
-		{
-			aSelected.remove(pElement);
-			aSelected.add(pElement);
-			
-			// Remove children in case a parent was added.
-			ArrayList<DiagramElement> toRemove = new ArrayList<>();
-			for( DiagramElement element : aSelected )
-			{
-				if( containsParent(element) )
-				{
-					toRemove.add(element);
-				}
-			}
-			for( DiagramElement element : toRemove )
-			{
-				// Do no use removeFromSelection because it notifies the observer
-				aSelected.remove(element); 
-			}
-		}
-	}
-	
-	/*
-	 * Returns true if any of the parents of pElement is contained
-	 * (transitively).
-	 * @param pElement The element to test
-	 * @return true if any of the parents of pElement are included in the 
-	 * selection.
-	 */
-	private boolean containsParent(DiagramElement pElement)
-	{
-		if( pElement instanceof Node )
-		{
-			if( !((Node) pElement).hasParent() )
-			{
-				return false;
-			}
-			else if( aSelected.contains(((Node) pElement).getParent()))
-			{
-				return true;
-			}
-			else
-			{
-				return containsParent(((Node) pElement).getParent());
-			}
-		}
-		else
-		{
-			return false;
-		}
+		aSelected.add(pElement);
 	}
 	
 	/**
@@ -924,14 +1032,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	 */
 	private Optional<DiagramElement> getLastSelected()
 	{
-		if( aSelected.isEmpty() )
-		{
-			return Optional.empty();
-		}
-		else
-		{
-			return Optional.of(aSelected.get(aSelected.size()-1));
-		}
+		return aSelected.getLastSelected();
 	}
 	
 	/**
@@ -966,8 +1067,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	private void setSelection(DiagramElement pElement)
 	{
 		assert pElement != null;
-		aSelected.clear();
-		aSelected.add(pElement);
+		aSelected.set(pElement);
 		paintPanel();
 	}
 }
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.DoubleConsumer;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.CanvasRenderingContext;
+import org.jetuml.rendering.DiagramRenderer;
+
+import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Affine;
+
+/**
+ * Renders an image of an entire diagram, with a white border around, 
+ * without blocking the JavaFX application thread for the duration of the rendering.
+ * 
+ * The rasterizer works on a snapshot of the diagram taken when it is created, 
+ * so the diagram can be edited while the image is rendered. The image is rendered 
+ * in square tiles, one at a time. Drawing and taking a snapshot of a tile must be done 
+ * on the JavaFX application thread, which remains free to process events between tiles. 
+ * The tiles are assembled by the thread that requested the image into bands that 
+ * span the width of the image and the height of a tile. The bands can be assembled 
+ * into an image, or processed one at a time so that the memory required does not 
+ * depend on the height of the image.
+ */
+public final class DiagramRasterizer
+{
+	private static final int TILE_SIZE = 1024;
+	private static final int DIAGRAM_PADDING = 4;
+	private static final double LINE_WIDTH = 0.6;
+	
+	/**
+	 * Objects that process the image one band at a time.
+	 */
+	public interface BandHandler
+	{
+		/**
+		 * Called for each band of the image, from top to bottom.
+		 * 
+		 * @param pPixels The pixels of the band, in ARGB format, row by row. The array
+		 *     is reused for the next band, and can be longer than the band.
+		 * @param pY The y-coordinate of the first row of the band in the image.
+		 * @param pHeight The number of rows in the band.
+		 * @throws IOException If the band cannot be processed. 
+		 */
+		void handleBand(int[] pPixels, int pY, int pHeight) throws IOException;
+	}
+	
+	private final DiagramRenderer aRenderer;
+	private final Rectangle aBounds;
+	private final double aScale;
+	private Canvas aTile; // Created on the JavaFX application thread, when the first tile is rendered
+	private WritableImage aTileImage;
+	
+	/**
+	 * Creates a rasterizer for the current state of pDiagram, at its actual size.
+	 * 
+	 * @param pDiagram The diagram to render.
+	 * @pre pDiagram != null
+	 * @pre This method is called on the JavaFX application thread.
+	 */
+	public DiagramRasterizer(Diagram pDiagram)
+	{
+		this(pDiagram, 1);
+	}
+	
+	/**
+	 * Creates a rasterizer for the current state of pDiagram, scaled by pScale.
+	 * 
+	 * @param pDiagram The diagram to render.
+	 * @param pScale The scale factor of the image.
+	 * @pre pDiagram != null && pScale > 0
+	 * @pre This method is called on the JavaFX application thread.
+	 */
+	public DiagramRasterizer(Diagram pDiagram, double pScale)
+	{
+		assert pDiagram != null && pScale > 0 && Platform.isFxApplicationThread();
+		aRenderer = DiagramType.newRendererInstanceFor(pDiagram.snapshot());
+		aBounds = aRenderer.getBounds();
+		aScale = pScale;
+	}
+	
+	/**
+	 * @return The width of the image, in pixels.
+	 */
+	public int width()
+	{
+		return Math.max(1, (int) Math.ceil((aBounds.getWidth() + DIAGRAM_PADDING * 2) * aScale));
+	}
+	
+	/**
+	 * @return The height of the image, in pixels.
+	 */
+	public int height()
+	{
+		return Math.max(1, (int) Math.ceil((aBounds.getHeight() + DIAGRAM_PADDING * 2) * aScale));
+	}
+	
+	/**
+	 * Renders the image into a BufferedImage. This method blocks until all the 
+	 * tiles have been rendered.
+	 * 
+	 * @param pProgress Receives the fraction of the image rendered so far, after each tile.
+	 * @return An image of the diagram.
+	 * @throws InterruptedException If the thread is interrupted while waiting for a tile. 
+	 * @pre pProgress != null
+	 * @pre This method is not called on the JavaFX application thread.
+	 */
+	public BufferedImage rasterize(DoubleConsumer pProgress) throws InterruptedException
+	{
+		BufferedImage image = new BufferedImage(width(), height(), BufferedImage.TYPE_INT_ARGB);
+		try
+		{
+			rasterize((pPixels, pY, pHeight) -> image.setRGB(0, pY, width(), pHeight, pPixels, 0, width()), pProgress);
+		}
+		catch(IOException exception)
+		{
+			// Cannot happen: the handler does not do any I/O
+			throw new IllegalStateException(exception);
+		}
+		return image;
+	}
+	
+	/**
+	 * Renders the image one band at a time. Only one band is in memory at 
+	 * any time. This method blocks until all the tiles have been rendered 
+	 * and all the bands handled.
+	 * 
+	 * @param pHandler Receives each band of the image, from top to bottom.
+	 * @param pProgress Receives the fraction of the image rendered so far, after each tile.
+	 * @throws InterruptedException If the thread is interrupted while waiting for a tile. 
+	 * @throws IOException If pHandler cannot process a band.
+	 * @pre pHandler != null && pProgress != null
+	 * @pre This method is not called on the JavaFX application thread.
+	 */
+	public void rasterize(BandHandler pHandler, DoubleConsumer pProgress) throws InterruptedException, IOException
+	{
+		assert pHandler != null && pProgress != null && !Platform.isFxApplicationThread();
+		int width = width();
+		int height = height();
+		int columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+		int rows = (height + TILE_SIZE - 1) / TILE_SIZE;
+		int[] band = new int[width * Math.min(TILE_SIZE, height)];
+		for( int row = 0; row < rows; row++ )
+		{
+			int bandHeight = Math.min(TILE_SIZE, height - row * TILE_SIZE);
+			for( int column = 0; column < columns; column++ )
+			{
+				Rectangle tile = new Rectangle(column * TILE_SIZE, row * TILE_SIZE, 
+						Math.min(TILE_SIZE, width - column * TILE_SIZE), bandHeight);
+				int[] pixels = onFxThread(() -> renderTile(tile));
+				for( int line = 0; line < bandHeight; line++ )
+				{
+					System.arraycopy(pixels, line * tile.getWidth(), band, line * width + tile.getX(), tile.getWidth());
+				}
+				pProgress.accept((row * columns + column + 1) / (double) (rows * columns));
+			}
+			pHandler.handleBand(band, row * TILE_SIZE, bandHeight);
+		}
+	}
+	
+	/*
+	 * Draws the part of the image covered by pTile, and returns its pixels in ARGB format.
+	 */
+	private int[] renderTile(Rectangle pTile)
+	{
+		if( aTile == null )
+		{
+			aTile = new Canvas(TILE_SIZE, TILE_SIZE);
+			aTileImage = new WritableImage(TILE_SIZE, TILE_SIZE);
+		}
+		GraphicsContext context = aTile.getGraphicsContext2D();
+		context.setTransform(new Affine());
+		context.clearRect(0, 0, TILE_SIZE, TILE_SIZE);
+		context.setLineWidth(LINE_WIDTH);
+		context.setFill(Color.WHITE);
+		context.translate(-pTile.getX(), -pTile.getY());
+		context.scale(aScale, aScale);
+		context.translate(-aBounds.getX() + DIAGRAM_PADDING, -aBounds.getY() + DIAGRAM_PADDING);
+		aRenderer.draw(new CanvasRenderingContext(context));
+		SnapshotParameters parameters = new SnapshotParameters();
+		parameters.setViewport(new Rectangle2D(0, 0, pTile.getWidth(), pTile.getHeight()));
+		aTile.snapshot(parameters, aTileImage);
+		int[] pixels = new int[pTile.getWidth() * pTile.getHeight()];
+		aTileImage.getPixelReader().getPixels(0, 0, pTile.getWidth(), pTile.getHeight(), 
+				PixelFormat.getIntArgbInstance(), pixels, 0, pTile.getWidth());
+		return pixels;
+	}
+	
+	private static <T> T onFxThread(Callable<T> pCallable) throws InterruptedException
+	{
+		FutureTask<T> task = new FutureTask<>(pCallable);
+		Platform.runLater(task);
+		try
+		{
+			return task.get();
+		}
+		catch(ExecutionException exception)
+		{
+			throw new IllegalStateException(exception.getCause());
+		}
+	}
+}
@@ -32,15 +32,20 @@ import org.jetuml.application.UserPreferences;
 import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.DiagramType;
 import org.jetuml.diagram.builder.DiagramBuilder;
+import org.jetuml.geom.Dimension;
 import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
 
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
+import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
+import javafx.geometry.Insets;
+import javafx.geometry.Point2D;
+import javafx.geometry.Pos;
 import javafx.scene.Group;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Tab;
-import javafx.scene.image.Image;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.StackPane;
 
@@ -51,11 +56,12 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 {
 	private static final double DEFAULT_SCALE = 1.0;
 	private static final double SCALE_MULTIPLIER = 1.25;
-	private static final double ZOOM_MIN = DEFAULT_SCALE / (SCALE_MULTIPLIER * SCALE_MULTIPLIER);
+	private static final double ZOOM_MIN = DEFAULT_SCALE / (SCALE_MULTIPLIER * SCALE_MULTIPLIER * SCALE_MULTIPLIER * SCALE_MULTIPLIER);
 	private static final double ZOOM_MAX = DEFAULT_SCALE * SCALE_MULTIPLIER * SCALE_MULTIPLIER;
 	
 	private final DoubleProperty aZoom;
 	private DiagramCanvas aDiagramCanvas;
+	private final Minimap aMinimap;
 	private Optional<File> aFile = Optional.empty(); // The file associated with this diagram
 	
 	/**
@@ -90,6 +96,7 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		aZoom = new SimpleDoubleProperty(DEFAULT_SCALE);
 		pane.scaleXProperty().bind(aZoom);
 		pane.scaleYProperty().bind(aZoom);
+		aZoom.addListener((pObservable, pOldValue, pNewValue) -> aDiagramCanvas.setZoom(pNewValue.doubleValue()));
 		
 		// First, wrap the StackPane in a Group to allow the scrolling to be based around the visual bounds
 		// of the canvas rather than its layout bounds.
@@ -103,7 +110,19 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 
 		scroll.setFitToWidth(true);
 		scroll.setFitToHeight(true);
-		layout.setCenter(scroll);
+		
+		// The minimap floats over the bottom right corner of the scroll pane.
+		aMinimap = new Minimap(pDiagram, builder.renderer(), 
+				new Dimension((int) aDiagramCanvas.getWidth(), (int) aDiagramCanvas.getHeight()), this::centerOn);
+		UserPreferences.instance().addBooleanPreferenceChangeHandler(aMinimap);
+		UserPreferences.instance().addIntegerPreferenceChangeHandler(aMinimap);
+		StackPane.setAlignment(aMinimap, Pos.BOTTOM_RIGHT);
+		StackPane.setMargin(aMinimap, new Insets(0, 24, 24, 0));
+		scroll.hvalueProperty().addListener(pObservable -> updateMinimapViewport());
+		scroll.vvalueProperty().addListener(pObservable -> updateMinimapViewport());
+		scroll.viewportBoundsProperty().addListener(pObservable -> updateMinimapViewport());
+		scroll.getContent().layoutBoundsProperty().addListener(pObservable -> updateMinimapViewport());
+		layout.setCenter(new StackPane(scroll, aMinimap));
 		
 		setTitle();
 		setContent(layout);
@@ -122,6 +141,12 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		return (DiagramTabToolBar)((BorderPane)getContent()).getRight();
 	}
 	
+	/* retrieves the scroll pane from the component graph */
+	private ScrollPane scrollPane()
+	{
+		return (ScrollPane)((StackPane)((BorderPane)getContent()).getCenter()).getChildren().get(0);
+	}
+	
 	/**
 	 * This method should be called immediately before closing the tab.
 	 */
@@ -130,6 +155,9 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		UserPreferences.instance().removeBooleanPreferenceChangeHandler(aDiagramCanvas);
 		UserPreferences.instance().removeBooleanPreferenceChangeHandler((DiagramTabToolBar)((BorderPane)getContent()).getRight());
 		UserPreferences.instance().removeIntegerPreferenceChangeHandler(aDiagramCanvas);
+		UserPreferences.instance().removeBooleanPreferenceChangeHandler(aMinimap);
+		UserPreferences.instance().removeIntegerPreferenceChangeHandler(aMinimap);
+		aMinimap.close();
 	}
 
 	/**
@@ -287,13 +315,55 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 	public void interactionTo(Point pTo)
 	{
 		ViewportProjection projection = getViewportProjection();
-		((ScrollPane)((BorderPane)getContent()).getCenter()).setHvalue(projection.getAdjustedHValueToRevealX(pTo.getX()));
-		((ScrollPane)((BorderPane)getContent()).getCenter()).setVvalue(projection.getAdjustedVValueToRevealY(pTo.getY()));
+		scrollPane().setHvalue(projection.getAdjustedHValueToRevealX(pTo.getX()));
+		scrollPane().setVvalue(projection.getAdjustedVValueToRevealY(pTo.getY()));
+	}
+	
+	/*
+	 * Scrolls so that pPoint, in diagram coordinates, is in the center of the viewport,
+	 * or as close to it as possible.
+	 */
+	private void centerOn(Point pPoint)
+	{
+		ScrollPane scrollPane = scrollPane();
+		Bounds viewport = scrollPane.getViewportBounds();
+		Bounds content = scrollPane.getContent().getLayoutBounds();
+		Point2D target = scrollPane.getContent().sceneToLocal(aDiagramCanvas.localToScene(pPoint.getX(), pPoint.getY()));
+		if( content.getWidth() > viewport.getWidth() )
+		{
+			double hValue = (target.getX() - viewport.getWidth() / 2) / (content.getWidth() - viewport.getWidth());
+			scrollPane.setHvalue(max(0, min(1, hValue)));
+		}
+		if( content.getHeight() > viewport.getHeight() )
+		{
+			double vValue = (target.getY() - viewport.getHeight() / 2) / (content.getHeight() - viewport.getHeight());
+			scrollPane.setVvalue(max(0, min(1, vValue)));
+		}
+	}
+	
+	/*
+	 * Shows on the minimap the part of the diagram visible in the viewport, 
+	 * accounting for the zoom factor.
+	 */
+	private void updateMinimapViewport()
+	{
+		ScrollPane scrollPane = scrollPane();
+		Bounds viewport = scrollPane.getViewportBounds();
+		Bounds content = scrollPane.getContent().getLayoutBounds();
+		double x = scrollPane.getHvalue() * max(0, content.getWidth() - viewport.getWidth());
+		double y = scrollPane.getVvalue() * max(0, content.getHeight() - viewport.getHeight());
+		Bounds visible = aDiagramCanvas.sceneToLocal(scrollPane.getContent().localToScene(
+				new BoundingBox(x, y, viewport.getWidth(), viewport.getHeight())));
+		int left = (int) max(0, min(aDiagramCanvas.getWidth(), Math.floor(visible.getMinX())));
+		int top = (int) max(0, min(aDiagramCanvas.getHeight(), Math.floor(visible.getMinY())));
+		int right = (int) max(left, min(aDiagramCanvas.getWidth(), Math.ceil(visible.getMaxX())));
+		int bottom = (int) max(top, min(aDiagramCanvas.getHeight(), Math.ceil(visible.getMaxY())));
+		aMinimap.setViewport(new Rectangle(left, top, right - left, bottom - top));
 	}
 	
 	private ViewportProjection getViewportProjection()
 	{
-		ScrollPane scrollPane = (ScrollPane)((BorderPane)getContent()).getCenter();
+		ScrollPane scrollPane = scrollPane();
 		Bounds bounds = scrollPane.getViewportBounds();
 		// Because, when the scrollbars are not displayed, the Scrollpane will increase
 		// the viewport size beyond the canvas size, it's necessary to max out the dimensions
@@ -348,9 +418,4 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 	{   // -1 because the input is 1-index and setSelectedTool is 0-indexed
 		toolBar().setSelectedTool(toolIndex(pChar)-1); 
 	}
-	
-	public Image createImage()
-	{
-		return aDiagramCanvas.createImage();
-	}
 }	        
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.Node;
+import org.jetuml.geom.Line;
+import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.CanvasRenderingContext;
+import org.jetuml.rendering.RenderingContext;
+import org.jetuml.rendering.ToolGraphics;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+/**
+ * Helper class for the DiagramCanvas that shows selected nodes being dragged 
+ * without moving them in the diagram. 
+ * 
+ * The preview draws an image of the visible part of the diagram, taken when the drag 
+ * started or when the visible part last changed, and on top of it the outline of each dragged node and a straight provisional line for each 
+ * edge attached to a dragged node. Because the diagram does not change until 
+ * the drag is completed, nothing needs to be laid out while dragging.
+ */
+public final class DragPreview
+{
+	private Image aBackground;
+	private Rectangle aBackgroundBounds;
+	private final List<Rectangle> aOutlines = new ArrayList<>();
+	private final List<ProvisionalEdge> aEdges = new ArrayList<>();
+	private final Rectangle aBounds;
+	private int aOffsetX = 0;
+	private int aOffsetY = 0;
+	
+	/**
+	 * Creates a preview of the selected nodes in pDiagram, initially not moved.
+	 * 
+	 * @param pBackground An image of part of the diagram when the drag started.
+	 * @param pBackgroundBounds The part of the diagram shown by pBackground.
+	 * @param pDiagram The diagram that contains the selection.
+	 * @param pSelection The selection to drag.
+	 * @param pBoundsCalculator A function to return the bounds of a diagram element.
+	 * @param pBounds The bounds of the selection, including the parents of selected nodes.
+	 * @pre pBackground != null && pBackgroundBounds != null && pDiagram != null && pSelection != null
+	 * @pre pBoundsCalculator != null && pBounds != null
+	 */
+	public DragPreview(Image pBackground, Rectangle pBackgroundBounds, Diagram pDiagram, SelectionModel pSelection,
+			Function<DiagramElement, Rectangle> pBoundsCalculator, Rectangle pBounds)
+	{
+		assert pDiagram != null && pSelection != null;
+		assert pBoundsCalculator != null && pBounds != null;
+		setBackground(pBackground, pBackgroundBounds);
+		aBounds = pBounds;
+		Set<Node> moved = Collections.newSetFromMap(new IdentityHashMap<>());
+		for( Node node : pSelection.getSelectedNodes() )
+		{
+			aOutlines.add(pBoundsCalculator.apply(node));
+			addWithDescendants(node, moved);
+		}
+		for( Edge edge : pDiagram.edges() )
+		{
+			boolean startMoves = moved.contains(edge.getStart());
+			boolean endMoves = moved.contains(edge.getEnd());
+			if( startMoves || endMoves )
+			{
+				aEdges.add(new ProvisionalEdge(pBoundsCalculator.apply(edge.getStart()).getCenter(), startMoves,
+						pBoundsCalculator.apply(edge.getEnd()).getCenter(), endMoves));
+			}
+		}
+	}
+	
+	private static void addWithDescendants(Node pNode, Set<Node> pNodes)
+	{
+		pNodes.add(pNode);
+		pNode.getChildren().forEach(child -> addWithDescendants(child, pNodes));
+	}
+	
+	/**
+	 * Replaces the image of the diagram drawn under the preview, for 
+	 * example when a different part of the diagram becomes visible.
+	 * 
+	 * @param pBackground An image of part of the diagram when the drag started.
+	 * @param pBackgroundBounds The part of the diagram shown by pBackground.
+	 * @pre pBackground != null && pBackgroundBounds != null
+	 */
+	public void setBackground(Image pBackground, Rectangle pBackgroundBounds)
+	{
+		assert pBackground != null && pBackgroundBounds != null;
+		aBackground = pBackground;
+		aBackgroundBounds = pBackgroundBounds;
+	}
+	
+	/**
+	 * @return The part of the diagram shown under the preview.
+	 */
+	public Rectangle backgroundBounds()
+	{
+		return aBackgroundBounds;
+	}
+	
+	/**
+	 * Sets the distance between the original and the previewed position of the selection.
+	 * 
+	 * @param pOffsetX The distance along the x axis.
+	 * @param pOffsetY The distance along the y axis.
+	 */
+	public void setOffset(int pOffsetX, int pOffsetY)
+	{
+		aOffsetX = pOffsetX;
+		aOffsetY = pOffsetY;
+	}
+	
+	/**
+	 * @return The distance along the x axis between the original and the previewed position.
+	 */
+	public int offsetX()
+	{
+		return aOffsetX;
+	}
+	
+	/**
+	 * @return The distance along the y axis between the original and the previewed position.
+	 */
+	public int offsetY()
+	{
+		return aOffsetY;
+	}
+	
+	/**
+	 * @return The bounds of the selection when the drag started.
+	 */
+	public Rectangle originalBounds()
+	{
+		return aBounds;
+	}
+	
+	/**
+	 * @return The bounds of the selection at its previewed position.
+	 */
+	public Rectangle bounds()
+	{
+		return aBounds.translated(aOffsetX, aOffsetY);
+	}
+	
+	/**
+	 * Draws the preview.
+	 * 
+	 * @param pGraphics The graphics context on which to draw the preview.
+	 * @pre pGraphics != null
+	 */
+	public void draw(GraphicsContext pGraphics)
+	{
+		assert pGraphics != null;
+		pGraphics.drawImage(aBackground, aBackgroundBounds.getX(), aBackgroundBounds.getY());
+		RenderingContext context = new CanvasRenderingContext(pGraphics);
+		aEdges.forEach(edge -> ToolGraphics.drawRubberband(context, edge.toLine(aOffsetX, aOffsetY)));
+		aOutlines.forEach(outline -> ToolGraphics.drawLasso(context, outline.translated(aOffsetX, aOffsetY)));
+	}
+	
+	/*
+	 * The end points of an edge attached to a dragged node, and whether 
+	 * each end point moves with the selection.
+	 */
+	private static final class ProvisionalEdge
+	{
+		private final Point aStart;
+		private final boolean aStartMoves;
+		private final Point aEnd;
+		private final boolean aEndMoves;
+		
+		ProvisionalEdge(Point pStart, boolean pStartMoves, Point pEnd, boolean pEndMoves)
+		{
+			aStart = pStart;
+			aStartMoves = pStartMoves;
+			aEnd = pEnd;
+			aEndMoves = pEndMoves;
+		}
+		
+		/*
+		 * Returns the line between the end points, after moving 
+		 * the end points that move with the selection.
+		 */
+		Line toLine(int pOffsetX, int pOffsetY)
+		{
+			return new Line(translated(aStart, aStartMoves, pOffsetX, pOffsetY), 
+					translated(aEnd, aEndMoves, pOffsetX, pOffsetY));
+		}
+		
+		private static Point translated(Point pPoint, boolean pMoves, int pOffsetX, int pOffsetY)
+		{
+			if( !pMoves )
+			{
+				return pPoint;
+			}
+			return new Point(pPoint.getX() + pOffsetX, pPoint.getY() + pOffsetY);
+		}
+	}
+}
@@ -26,10 +26,17 @@ import static org.jetuml.application.ApplicationResources.RESOURCES;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -53,6 +60,7 @@ import org.jetuml.persistence.DeserializationException;
 import org.jetuml.persistence.PersistenceService;
 import org.jetuml.persistence.VersionedDiagram;
 
+import javafx.concurrent.Task;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -64,7 +72,6 @@ import javafx.scene.control.MenuItem;
 import javafx.scene.control.SeparatorMenuItem;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
-import javafx.scene.image.Image;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
 import javafx.scene.layout.BorderPane;
@@ -82,7 +89,8 @@ public class EditorFrame extends BorderPane
 	private static final String KEY_LAST_IMAGE_FORMAT = "lastImageFormat";
 	private static final String USER_MANUAL_URL = "https://www.jetuml.org/docs/user-guide.html";
 	
-	private static final String[] IMAGE_FORMATS = validFormats("png", "jpg", "gif", "bmp");
+	private static final String SVG_FORMAT = "svg";
+	private static final String[] IMAGE_FORMATS = validFormats("png", "jpg", "gif", "bmp", SVG_FORMAT);
 	
 	private Stage aMainStage;
 	private RecentFilesQueue aRecentFiles = new RecentFilesQueue();
@@ -137,14 +145,15 @@ public class EditorFrame extends BorderPane
 	}
 	
 	/* Returns the subset of pDesiredFormats for which a registered image writer 
-	 * claims to recognized the format */
+	 * claims to recognized the format. SVG is always supported, since it does
+	 * not rely on an image writer. */
 	private static String[] validFormats(String... pDesiredFormats)
 	{
 		List<String> recognizedWriters = Arrays.asList(ImageIO.getWriterFormatNames());
 		List<String> validFormats = new ArrayList<>();
 		for( String format : pDesiredFormats )
 		{
-			if( recognizedWriters.contains(format))
+			if( recognizedWriters.contains(format) || SVG_FORMAT.equals(format))
 			{
 				validFormats.add(format);
 			}
@@ -238,6 +247,16 @@ public class EditorFrame extends BorderPane
 						UserPreferences.instance().getBoolean(BooleanPreference.autoEditNode),
 						event -> UserPreferences.instance().setBoolean(BooleanPreference.autoEditNode, 
 								((CheckMenuItem) event.getSource()).isSelected())),
+				
+				factory.createCheckMenuItem("view.drag_preview", false, 
+						UserPreferences.instance().getBoolean(BooleanPreference.dragPreview),
+						event -> UserPreferences.instance().setBoolean(BooleanPreference.dragPreview, 
+								((CheckMenuItem) event.getSource()).isSelected())),
+				
+				factory.createCheckMenuItem("view.show_minimap", false, 
+						UserPreferences.instance().getBoolean(BooleanPreference.showMinimap),
+						event -> UserPreferences.instance().setBoolean(BooleanPreference.showMinimap, 
+								((CheckMenuItem) event.getSource()).isSelected())),
 		
 				factory.createMenuItem("view.diagram_size", false, event -> new DiagramSizeDialog(aMainStage).show()),
 				factory.createMenuItem("view.font_size", false, event -> new FontSizeDialog(aMainStage).show()),
@@ -390,16 +409,39 @@ public class EditorFrame extends BorderPane
 	 */
 	public void copyToClipboard() 
 	{
-		DiagramTab frame = getSelectedDiagramTab();
-		final Image image = frame.createImage();
-		final Clipboard clipboard = Clipboard.getSystemClipboard();
-	    final ClipboardContent content = new ClipboardContent();
-	    content.putImage(image);
-	    clipboard.setContent(content);
-		Alert alert = new Alert(AlertType.INFORMATION, RESOURCES.getString("dialog.to_clipboard.message"), ButtonType.OK);
-		alert.initOwner(aMainStage);
-		alert.setHeaderText(RESOURCES.getString("dialog.to_clipboard.title"));
-		alert.showAndWait();
+		DiagramRasterizer rasterizer = new DiagramRasterizer(getSelectedDiagramTab().getDiagram());
+		Task<BufferedImage> task = new Task<>()
+		{
+			@Override
+			protected BufferedImage call() throws InterruptedException
+			{
+				return rasterizer.rasterize(pProgress -> updateProgress(pProgress, 1));
+			}
+		};
+		task.setOnSucceeded(pEvent -> 
+		{
+			final Clipboard clipboard = Clipboard.getSystemClipboard();
+		    final ClipboardContent content = new ClipboardContent();
+		    content.putImage(SwingFXUtils.toFXImage(task.getValue(), null));
+		    clipboard.setContent(content);
+			Alert alert = new Alert(AlertType.INFORMATION, RESOURCES.getString("dialog.to_clipboard.message"), ButtonType.OK);
+			alert.initOwner(aMainStage);
+			alert.setHeaderText(RESOURCES.getString("dialog.to_clipboard.title"));
+			alert.showAndWait();
+		});
+		runInBackground(task, RESOURCES.getString("dialog.to_clipboard.title"));
+	}
+	
+	/*
+	 * Runs pTask on a new background thread, and shows its progress
+	 * if it takes more than a moment.
+	 */
+	private void runInBackground(Task<?> pTask, String pTitle)
+	{
+		new ProgressDialog(aMainStage, pTitle, pTask).show();
+		Thread thread = new Thread(pTask, "JetUML Image Rendering");
+		thread.setDaemon(true);
+		thread.start();
 	}
 
 	/* @pre there is a selected diagram tab, not just the welcome tab */
@@ -574,32 +616,76 @@ public class EditorFrame extends BorderPane
 		{
 			setLastDir(KEY_LAST_EXPORT_DIR, dir);
 		}
-		DiagramTab frame = getSelectedDiagramTab();
-		try (OutputStream out = new FileOutputStream(file)) 
+		if( SVG_FORMAT.equalsIgnoreCase(format) )
 		{
-			BufferedImage image = getBufferedImage(frame); 
-			if("jpg".equals(format))	// to correct the display of JPEG/JPG images (removes red hue)
-			{
-				BufferedImage imageRGB = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.OPAQUE);
-				Graphics2D graphics = imageRGB.createGraphics();
-				graphics.drawImage(image, 0,  0, null);
-				ImageIO.write(imageRGB, format, out);
-				graphics.dispose();
-			}
-			else if("bmp".equals(format))	// to correct the BufferedImage type
+			exportSvg(file);
+			return;
+		}
+		DiagramRasterizer rasterizer = new DiagramRasterizer(getSelectedDiagramTab().getDiagram());
+		Task<Void> task = new Task<>()
+		{
+			@Override
+			protected Void call() throws InterruptedException, IOException
 			{
-				BufferedImage imageRGB = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
-				Graphics2D graphics = imageRGB.createGraphics();
-				graphics.drawImage(image, 0, 0, Color.WHITE, null);
-				ImageIO.write(imageRGB, format, out);
-				graphics.dispose();
+				// The image is written to a temporary file, which replaces the chosen file 
+				// only once the image is complete, so a failed or cancelled export leaves no trace.
+				Path temporary = Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(), 
+						file.getName(), ".tmp");
+				try
+				{
+					rasterizeTo(temporary);
+					if( !isCancelled() )
+					{
+						Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+					}
+				}
+				finally
+				{
+					Files.deleteIfExists(temporary);
+				}
+				return null;
 			}
-			else
+			
+			private void rasterizeTo(Path pFile) throws InterruptedException, IOException
 			{
-				ImageIO.write(image, format, out);
+				try (OutputStream out = new BufferedOutputStream(new FileOutputStream(pFile.toFile()))) 
+				{
+					if( "png".equalsIgnoreCase(format) )
+					{
+						// Encoded as it is rendered, so that the entire image is never in memory
+						PngEncoder encoder = new PngEncoder(out, rasterizer.width(), rasterizer.height());
+						rasterizer.rasterize((pPixels, pY, pHeight) -> encoder.writeRows(pPixels, pHeight), 
+								pProgress -> updateProgress(pProgress, 1));
+						encoder.finish();
+					}
+					else
+					{
+						writeImage(rasterizer.rasterize(pProgress -> updateProgress(pProgress, 1)), format, out);
+					}
+				}
 			}
-		} 
-		catch(IOException exception) 
+		};
+		task.setOnFailed(pEvent -> 
+		{
+			Alert alert = new Alert(AlertType.ERROR, RESOURCES.getString("error.save_file"), ButtonType.OK);
+			alert.initOwner(aMainStage);
+			alert.showAndWait();
+		});
+		runInBackground(task, RESOURCES.getString("dialog.export_image.title"));
+	}
+	
+	/*
+	 * Writes the current diagram to pFile as an SVG document. Vector output
+	 * is written as the diagram is drawn and does not require rasterizing 
+	 * the diagram, so it is fast enough to run directly.
+	 */
+	private void exportSvg(File pFile)
+	{
+		try( Writer writer = Files.newBufferedWriter(pFile.toPath(), StandardCharsets.UTF_8) )
+		{
+			SvgExporter.export(getSelectedDiagramTab().getDiagram(), writer);
+		}
+		catch( IOException | UncheckedIOException exception )
 		{
 			Alert alert = new Alert(AlertType.ERROR, RESOURCES.getString("error.save_file"), ButtonType.OK);
 			alert.initOwner(aMainStage);
@@ -607,6 +693,33 @@ public class EditorFrame extends BorderPane
 		}
 	}
 	
+	/*
+	 * Encodes pImage in pFormat and writes it to pOutput. 
+	 */
+	private static void writeImage(BufferedImage pImage, String pFormat, OutputStream pOutput) throws IOException
+	{
+		if("jpg".equals(pFormat))	// to correct the display of JPEG/JPG images (removes red hue)
+		{
+			BufferedImage imageRGB = new BufferedImage(pImage.getWidth(), pImage.getHeight(), BufferedImage.OPAQUE);
+			Graphics2D graphics = imageRGB.createGraphics();
+			graphics.drawImage(pImage, 0,  0, null);
+			ImageIO.write(imageRGB, pFormat, pOutput);
+			graphics.dispose();
+		}
+		else if("bmp".equals(pFormat))	// to correct the BufferedImage type
+		{
+			BufferedImage imageRGB = new BufferedImage(pImage.getWidth(), pImage.getHeight(), BufferedImage.TYPE_INT_RGB);
+			Graphics2D graphics = imageRGB.createGraphics();
+			graphics.drawImage(pImage, 0, 0, Color.WHITE, null);
+			ImageIO.write(imageRGB, pFormat, pOutput);
+			graphics.dispose();
+		}
+		else
+		{
+			ImageIO.write(pImage, pFormat, pOutput);
+		}
+	}
+	
 	private FileChooser getImageFileChooser(File pInitialDirectory, String pInitialFormat) 
 	{
 		assert pInitialDirectory.exists() && pInitialDirectory.isDirectory();
@@ -635,11 +748,6 @@ public class EditorFrame extends BorderPane
 		return fileChooser;
 	}
 
-	private BufferedImage getBufferedImage(DiagramTab pDiagramTab) 
-	{
-		return SwingFXUtils.fromFXImage(pDiagramTab.createImage(), null);
-	}
-	
 	private int getNumberOfUsavedDiagrams()
 	{
 		return (int) tabs().stream()
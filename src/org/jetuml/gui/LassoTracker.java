@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SpatialIndex;
+
+/**
+ * Helper class for the DiagramCanvas that tracks which diagram elements are 
+ * entirely inside a lasso as the lasso is dragged.
+ * 
+ * The bounds of all the elements are indexed once, when the tracker is created. 
+ * Each time the lasso changes, only the elements whose bounds intersect the 
+ * area between the previous and the current lasso are examined, because no other
+ * element can enter or leave the lasso.
+ */
+public final class LassoTracker
+{
+	private static final int CELL_SIZE = 100;
+	
+	private final SpatialIndex<DiagramElement> aIndex = new SpatialIndex<>(CELL_SIZE);
+	private final Set<DiagramElement> aInside = Collections.newSetFromMap(new IdentityHashMap<>());
+	private Optional<Rectangle> aLasso = Optional.empty();
+	
+	/**
+	 * Creates a tracker for the nodes and edges of pDiagram.
+	 * 
+	 * @param pDiagram The diagram whose elements can be selected with the lasso.
+	 * @param pBoundsCalculator A function to return the bounds of a diagram element.
+	 * @pre pDiagram != null && pBoundsCalculator != null
+	 */
+	public LassoTracker(Diagram pDiagram, Function<DiagramElement, Rectangle> pBoundsCalculator)
+	{
+		assert pDiagram != null && pBoundsCalculator != null;
+		pDiagram.forEachNode(node -> aIndex.add(node, pBoundsCalculator.apply(node)));
+		pDiagram.edges().forEach(edge -> aIndex.add(edge, pBoundsCalculator.apply(edge)));
+	}
+	
+	/**
+	 * Moves the lasso to pLasso. Calls pEntered for each element that is entirely 
+	 * inside pLasso but was not entirely inside the previous lasso, and pExited for 
+	 * each element for which the opposite is true.
+	 * 
+	 * @param pLasso The new bounds of the lasso.
+	 * @param pEntered The action to apply to elements that entered the lasso.
+	 * @param pExited The action to apply to elements that left the lasso.
+	 * @pre pLasso != null && pEntered != null && pExited != null
+	 */
+	public void update(Rectangle pLasso, Consumer<DiagramElement> pEntered, Consumer<DiagramElement> pExited)
+	{
+		assert pLasso != null && pEntered != null && pExited != null;
+		List<Rectangle> changedAreas = new ArrayList<>();
+		if( aLasso.isPresent() )
+		{
+			addDifference(aLasso.get(), pLasso, changedAreas);
+			addDifference(pLasso, aLasso.get(), changedAreas);
+		}
+		else
+		{
+			changedAreas.add(pLasso);
+		}
+		aLasso = Optional.of(pLasso);
+		
+		Set<DiagramElement> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+		changedAreas.forEach(area -> aIndex.forEachIntersecting(area, candidates::add));
+		for( DiagramElement element : candidates )
+		{
+			boolean inside = pLasso.contains(aIndex.boundsOf(element));
+			if( inside && aInside.add(element) )
+			{
+				pEntered.accept(element);
+			}
+			else if( !inside && aInside.remove(element) )
+			{
+				pExited.accept(element);
+			}
+		}
+	}
+	
+	/**
+	 * @param pElement The element to test.
+	 * @return True if pElement is entirely inside the current lasso.
+	 */
+	public boolean isInside(DiagramElement pElement)
+	{
+		return aInside.contains(pElement);
+	}
+	
+	/*
+	 * Adds to pResult rectangles that together cover every point of pRectangle 
+	 * outside of pRemoved. The rectangles include the boundary of pRemoved, 
+	 * so they can cover a little more than the difference.
+	 */
+	private static void addDifference(Rectangle pRectangle, Rectangle pRemoved, List<Rectangle> pResult)
+	{
+		if( !pRectangle.intersects(pRemoved) )
+		{
+			pResult.add(pRectangle);
+			return;
+		}
+		if( pRectangle.getX() < pRemoved.getX() )
+		{
+			pResult.add(new Rectangle(pRectangle.getX(), pRectangle.getY(), 
+					pRemoved.getX() - pRectangle.getX(), pRectangle.getHeight()));
+		}
+		if( pRectangle.getMaxX() > pRemoved.getMaxX() )
+		{
+			pResult.add(new Rectangle(pRemoved.getMaxX(), pRectangle.getY(), 
+					pRectangle.getMaxX() - pRemoved.getMaxX(), pRectangle.getHeight()));
+		}
+		if( pRectangle.getY() < pRemoved.getY() )
+		{
+			pResult.add(new Rectangle(pRectangle.getX(), pRectangle.getY(), 
+					pRectangle.getWidth(), pRemoved.getY() - pRectangle.getY()));
+		}
+		if( pRectangle.getMaxY() > pRemoved.getMaxY() )
+		{
+			pResult.add(new Rectangle(pRectangle.getX(), pRemoved.getMaxY(), 
+					pRectangle.getWidth(), pRectangle.getMaxY() - pRemoved.getMaxY()));
+		}
+	}
+}
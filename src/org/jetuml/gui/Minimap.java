@@ -0,0 +1,399 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.jetuml.application.UserPreferences;
+import org.jetuml.application.UserPreferences.BooleanPreference;
+import org.jetuml.application.UserPreferences.BooleanPreferenceChangeHandler;
+import org.jetuml.application.UserPreferences.IntegerPreference;
+import org.jetuml.application.UserPreferences.IntegerPreferenceChangeHandler;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramChange;
+import org.jetuml.diagram.DiagramChange.Kind;
+import org.jetuml.diagram.DiagramChangeHandler;
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.Node;
+import org.jetuml.geom.Dimension;
+import org.jetuml.geom.Line;
+import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.DiagramRenderer;
+
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+
+/**
+ * A thumbnail of the entire diagram that shows which part of the diagram 
+ * is visible in the viewport. Clicking or dragging in the minimap centers
+ * the viewport on the corresponding point of the diagram.
+ * 
+ * The thumbnail is a MinimapRaster painted on a background thread. At the first 
+ * pulse after the diagram changes, the minimap compares the bounds of the nodes 
+ * and the lines between connected nodes with those of the previous update, and only 
+ * paints again the region of the thumbnail where they differ. Only the bounds
+ * of the nodes affected by the change, and of their parents and children, are computed 
+ * again, except after structural changes and in sequence diagrams, where the 
+ * bounds of a node can depend on other nodes. The background thread receives 
+ * copies of the bounds and lines to paint and never accesses the diagram.
+ * 
+ * While the minimap is hidden, it does not track changes to the diagram.
+ */
+public final class Minimap extends Canvas implements DiagramChangeHandler, 
+	BooleanPreferenceChangeHandler, IntegerPreferenceChangeHandler
+{
+	private static final int SIZE = 180;
+	private static final Color VIEWPORT_COLOR = Color.rgb(77, 115, 153);
+	private static final ExecutorService PAINTER = Executors.newSingleThreadExecutor(pRunnable -> 
+	{
+		Thread thread = new Thread(pRunnable, "JetUML Minimap");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private final Diagram aDiagram;
+	private final DiagramRenderer aRenderer;
+	private final Consumer<Point> aNavigator;
+	private final MinimapRaster aRaster;
+	private final WritableImage aImage;
+	private final RepaintScheduler aScheduler = new RepaintScheduler(this::update);
+	private final Set<Node> aChangedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+	private Map<Node, Rectangle> aBoxes = new IdentityHashMap<>();
+	private Map<Edge, Line> aLines = new IdentityHashMap<>();
+	private boolean aAllChanged = true;
+	private Optional<Rectangle> aDirtyRegion = Optional.empty();
+	private boolean aPainting = false;
+	private boolean aTracking = false;
+	private Rectangle aViewport;
+	
+	/**
+	 * Creates a minimap for pDiagram, visible if the corresponding preference is set.
+	 * 
+	 * @param pDiagram The diagram to show.
+	 * @param pRenderer The renderer that computes the bounds of the nodes of pDiagram.
+	 * @param pCanvasSize The size of the canvas on which the diagram is drawn.
+	 * @param pNavigator The code to run to center the viewport on a point of the diagram.
+	 * @pre pDiagram != null && pRenderer != null && pCanvasSize != null && pNavigator != null
+	 * @pre pCanvasSize.width() > 0 && pCanvasSize.height() > 0
+	 */
+	public Minimap(Diagram pDiagram, DiagramRenderer pRenderer, Dimension pCanvasSize, Consumer<Point> pNavigator)
+	{
+		assert pDiagram != null && pRenderer != null && pCanvasSize != null && pNavigator != null;
+		assert pCanvasSize.width() > 0 && pCanvasSize.height() > 0;
+		aDiagram = pDiagram;
+		aRenderer = pRenderer;
+		aNavigator = pNavigator;
+		double scale = Math.min(SIZE / (double) pCanvasSize.width(), SIZE / (double) pCanvasSize.height());
+		int width = Math.max(1, (int) Math.ceil(pCanvasSize.width() * scale));
+		int height = Math.max(1, (int) Math.ceil(pCanvasSize.height() * scale));
+		setWidth(width);
+		setHeight(height);
+		aRaster = new MinimapRaster(width, height, scale);
+		aImage = new WritableImage(width, height);
+		aViewport = new Rectangle(0, 0, pCanvasSize.width(), pCanvasSize.height());
+		setOnMousePressed(this::navigate);
+		setOnMouseDragged(this::navigate);
+		setTracking(UserPreferences.instance().getBoolean(BooleanPreference.showMinimap));
+	}
+	
+	/**
+	 * Sets the part of the diagram visible in the viewport.
+	 * 
+	 * @param pViewport The visible part of the diagram, in diagram coordinates.
+	 * @pre pViewport != null
+	 */
+	public void setViewport(Rectangle pViewport)
+	{
+		assert pViewport != null;
+		if( !pViewport.equals(aViewport) )
+		{
+			aViewport = pViewport;
+			draw();
+		}
+	}
+	
+	/**
+	 * Stops tracking changes to the diagram. This method should be called 
+	 * when the minimap is discarded.
+	 */
+	public void close()
+	{
+		setTracking(false);
+	}
+	
+	@Override
+	public void diagramChanged(DiagramChange pChange)
+	{
+		if( pChange.isStructural() || aDiagram.getType() == DiagramType.SEQUENCE )
+		{
+			aAllChanged = true;
+		}
+		else
+		{
+			pChange.forEach(Kind.NODE_MOVED, this::nodeChanged);
+			pChange.forEach(Kind.PROPERTY_CHANGED, this::nodeChanged);
+		}
+		aScheduler.requestRepaint();
+	}
+	
+	@Override
+	public void booleanPreferenceChanged(BooleanPreference pPreference)
+	{
+		if( pPreference == BooleanPreference.showMinimap )
+		{
+			setTracking(UserPreferences.instance().getBoolean(BooleanPreference.showMinimap));
+		}
+	}
+	
+	@Override
+	public void integerPreferenceChanged(IntegerPreference pPreference)
+	{
+		if( pPreference == IntegerPreference.fontSize )
+		{
+			aAllChanged = true;
+			aScheduler.requestRepaint();
+		}
+	}
+	
+	/* 
+	 * When the minimap is hidden, its thumbnail is not kept up to date. 
+	 * When it is shown again, all the bounds are computed again, but only the
+	 * regions where they changed are painted.
+	 */
+	private void setTracking(boolean pTracking)
+	{
+		setVisible(pTracking);
+		setManaged(pTracking);
+		if( pTracking == aTracking )
+		{
+			return;
+		}
+		aTracking = pTracking;
+		if( pTracking )
+		{
+			aDiagram.addChangeHandler(this);
+			aAllChanged = true;
+			aScheduler.requestRepaint();
+		}
+		else
+		{
+			aDiagram.removeChangeHandler(this);
+		}
+	}
+	
+	private void nodeChanged(DiagramElement pElement)
+	{
+		if( pElement instanceof Node )
+		{
+			Node node = (Node) pElement;
+			aChangedNodes.add(node);
+			while( node.hasParent() )
+			{
+				node = node.getParent();
+				aChangedNodes.add(node);
+			}
+		}
+	}
+	
+	/*
+	 * Computes the bounds that changed since the last update, and 
+	 * paints the regions they cover.
+	 */
+	private void update()
+	{
+		if( !aTracking )
+		{
+			return;
+		}
+		Map<Node, Rectangle> boxes = new IdentityHashMap<>();
+		for( Node node : aDiagram.rootNodes() )
+		{
+			updateBoxes(node, aAllChanged, boxes);
+		}
+		aBoxes.forEach((pNode, pBox) -> 
+		{
+			if( !boxes.containsKey(pNode) )
+			{
+				addDirtyRegion(pBox);
+			}
+		});
+		Map<Edge, Line> lines = new IdentityHashMap<>();
+		for( Edge edge : aDiagram.edges() )
+		{
+			Rectangle start = boxes.get(edge.getStart());
+			Rectangle end = boxes.get(edge.getEnd());
+			if( start != null && end != null )
+			{
+				Line line = new Line(start.getCenter(), end.getCenter());
+				Line old = aLines.get(edge);
+				if( !line.equals(old) )
+				{
+					addDirtyRegion(line.spanning());
+					if( old != null )
+					{
+						addDirtyRegion(old.spanning());
+					}
+				}
+				lines.put(edge, line);
+			}
+		}
+		aLines.forEach((pEdge, pLine) -> 
+		{
+			if( !lines.containsKey(pEdge) )
+			{
+				addDirtyRegion(pLine.spanning());
+			}
+		});
+		aBoxes = boxes;
+		aLines = lines;
+		aChangedNodes.clear();
+		aAllChanged = false;
+		paintDirtyRegion();
+	}
+	
+	private void updateBoxes(Node pNode, boolean pParentChanged, Map<Node, Rectangle> pBoxes)
+	{
+		boolean changed = pParentChanged || aChangedNodes.contains(pNode);
+		Rectangle box = aBoxes.get(pNode);
+		if( changed || box == null )
+		{
+			Rectangle old = box;
+			box = aRenderer.getBounds(pNode);
+			if( !box.equals(old) )
+			{
+				addDirtyRegion(box);
+				if( old != null )
+				{
+					addDirtyRegion(old);
+				}
+			}
+		}
+		pBoxes.put(pNode, box);
+		for( Node child : pNode.getChildren() )
+		{
+			updateBoxes(child, changed, pBoxes);
+		}
+	}
+	
+	private void addDirtyRegion(Rectangle pRegion)
+	{
+		aDirtyRegion = Optional.of(aDirtyRegion.map(pDirty -> pDirty.add(pRegion)).orElse(pRegion));
+	}
+	
+	/*
+	 * Sends the boxes and lines that can overlap the dirty region to the painting 
+	 * thread, unless it is already painting, in which case the dirty region is 
+	 * painted when it completes. The region is extended by one pixel on each side 
+	 * to include shapes that only share pixels with it.
+	 */
+	private void paintDirtyRegion()
+	{
+		if( aPainting || aDirtyRegion.isEmpty() )
+		{
+			return;
+		}
+		Rectangle region = aDirtyRegion.get();
+		aDirtyRegion = Optional.empty();
+		int margin = (int) Math.ceil(1 / aRaster.scale());
+		Rectangle extended = new Rectangle(region.getX() - margin, region.getY() - margin, 
+				region.getWidth() + 2 * margin, region.getHeight() + 2 * margin);
+		List<Rectangle> boxes = new ArrayList<>();
+		for( Node node : aDiagram.allNodes() )
+		{
+			Rectangle box = aBoxes.get(node);
+			if( box != null && box.intersects(extended) )
+			{
+				boxes.add(box);
+			}
+		}
+		List<Line> lines = new ArrayList<>();
+		for( Line line : aLines.values() )
+		{
+			if( line.spanning().intersects(extended) )
+			{
+				lines.add(line);
+			}
+		}
+		aPainting = true;
+		PAINTER.execute(() -> 
+		{
+			aRaster.paint(region, boxes, lines);
+			Platform.runLater(() -> paintCompleted(region));
+		});
+	}
+	
+	/*
+	 * Copies the region of the raster that was painted to the thumbnail image.
+	 * Because no other painting is started until this method runs, the raster is 
+	 * not being modified while it is copied.
+	 */
+	private void paintCompleted(Rectangle pRegion)
+	{
+		aPainting = false;
+		Rectangle pixels = aRaster.toRaster(pRegion);
+		if( pixels.getWidth() > 0 && pixels.getHeight() > 0 )
+		{
+			aImage.getPixelWriter().setPixels(pixels.getX(), pixels.getY(), pixels.getWidth(), pixels.getHeight(), 
+					PixelFormat.getIntArgbInstance(), aRaster.pixels(), 
+					pixels.getY() * aRaster.width() + pixels.getX(), aRaster.width());
+		}
+		draw();
+		paintDirtyRegion();
+	}
+	
+	private void draw()
+	{
+		GraphicsContext context = getGraphicsContext2D();
+		context.drawImage(aImage, 0, 0);
+		context.setStroke(Color.GREY);
+		context.setLineWidth(1);
+		context.strokeRect(0.5, 0.5, getWidth() - 1, getHeight() - 1);
+		double scale = aRaster.scale();
+		context.setStroke(VIEWPORT_COLOR);
+		context.setLineWidth(1.5);
+		context.strokeRect(aViewport.getX() * scale + 0.5, aViewport.getY() * scale + 0.5, 
+				Math.max(1, aViewport.getWidth() * scale - 1), Math.max(1, aViewport.getHeight() * scale - 1));
+	}
+	
+	private void navigate(MouseEvent pEvent)
+	{
+		double scale = aRaster.scale();
+		aNavigator.accept(new Point((int) Math.round(pEvent.getX() / scale), (int) Math.round(pEvent.getY() / scale)));
+		pEvent.consume();
+	}
+}
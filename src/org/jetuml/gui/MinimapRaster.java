@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jetuml.geom.Line;
+import org.jetuml.geom.Rectangle;
+
+/**
+ * A raster image of a diagram at a reduced scale, for the minimap. Nodes 
+ * are painted as boxes and edges as straight lines. The raster can be painted
+ * one region at a time, which is how it is kept up to date after an edit 
+ * without painting the entire diagram again.
+ * 
+ * This class does not depend on JavaFX, so an instance can be painted on 
+ * a background thread, provided it is only accessed by one thread at a time.
+ */
+public final class MinimapRaster
+{
+	static final int BACKGROUND = 0xFFFFFFFF;
+	static final int NODE_FILL = 0xFFE8E8E8;
+	static final int NODE_BORDER = 0xFF7A7A7A;
+	static final int EDGE = 0xFF404040;
+	
+	private final int aWidth;
+	private final int aHeight;
+	private final double aScale;
+	private final int[] aPixels;
+	
+	/**
+	 * Creates a raster with a blank background.
+	 * 
+	 * @param pWidth The width of the raster, in pixels.
+	 * @param pHeight The height of the raster, in pixels.
+	 * @param pScale The number of pixels per unit of diagram coordinates.
+	 * @pre pWidth > 0 && pHeight > 0 && pScale > 0
+	 */
+	public MinimapRaster(int pWidth, int pHeight, double pScale)
+	{
+		assert pWidth > 0 && pHeight > 0 && pScale > 0;
+		aWidth = pWidth;
+		aHeight = pHeight;
+		aScale = pScale;
+		aPixels = new int[pWidth * pHeight];
+		Arrays.fill(aPixels, BACKGROUND);
+	}
+	
+	/**
+	 * @return The width of the raster, in pixels.
+	 */
+	public int width()
+	{
+		return aWidth;
+	}
+	
+	/**
+	 * @return The height of the raster, in pixels.
+	 */
+	public int height()
+	{
+		return aHeight;
+	}
+	
+	/**
+	 * @return The number of pixels per unit of diagram coordinates.
+	 */
+	public double scale()
+	{
+		return aScale;
+	}
+	
+	/**
+	 * @return The pixels of the raster, in ARGB format, row by row. 
+	 *     The array is not a copy.
+	 */
+	public int[] pixels()
+	{
+		return aPixels;
+	}
+	
+	/**
+	 * @param pX The x-coordinate of the pixel.
+	 * @param pY The y-coordinate of the pixel.
+	 * @return The color of the pixel, in ARGB format.
+	 * @pre pX >= 0 && pX < width() && pY >= 0 && pY < height()
+	 */
+	public int pixel(int pX, int pY)
+	{
+		assert pX >= 0 && pX < aWidth && pY >= 0 && pY < aHeight;
+		return aPixels[pY * aWidth + pX];
+	}
+	
+	/**
+	 * @param pRegion A region in diagram coordinates.
+	 * @return The smallest region of the raster, in pixels, that contains 
+	 *     every pixel to which a point of pRegion maps. The result
+	 *     is clipped to the raster, and has a width or height of zero if
+	 *     pRegion lies outside the raster.
+	 * @pre pRegion != null
+	 */
+	public Rectangle toRaster(Rectangle pRegion)
+	{
+		assert pRegion != null;
+		int x1 = Math.max(0, toPixel(pRegion.getX()));
+		int y1 = Math.max(0, toPixel(pRegion.getY()));
+		int x2 = Math.min(aWidth - 1, toPixel(pRegion.getMaxX()));
+		int y2 = Math.min(aHeight - 1, toPixel(pRegion.getMaxY()));
+		if( x2 < x1 || y2 < y1 )
+		{
+			return new Rectangle(x1, y1, 0, 0);
+		}
+		return new Rectangle(x1, y1, x2 - x1 + 1, y2 - y1 + 1);
+	}
+	
+	/**
+	 * Paints the part of the raster to which pRegion maps. Boxes and lines 
+	 * that extend outside this part are clipped, so the rest of the raster is not
+	 * affected. The boxes are painted in order, followed by the lines.
+	 * 
+	 * @param pRegion The region to paint, in diagram coordinates.
+	 * @param pBoxes The bounds of the nodes in or around pRegion.
+	 * @param pLines The edges in or around pRegion.
+	 * @pre pRegion != null && pBoxes != null && pLines != null
+	 */
+	public void paint(Rectangle pRegion, List<Rectangle> pBoxes, List<Line> pLines)
+	{
+		assert pRegion != null && pBoxes != null && pLines != null;
+		Rectangle clip = toRaster(pRegion);
+		if( clip.getWidth() == 0 || clip.getHeight() == 0 )
+		{
+			return;
+		}
+		for( int y = clip.getY(); y < clip.getMaxY(); y++ )
+		{
+			Arrays.fill(aPixels, y * aWidth + clip.getX(), y * aWidth + clip.getMaxX(), BACKGROUND);
+		}
+		for( Rectangle box : pBoxes )
+		{
+			paintBox(box, clip);
+		}
+		for( Line line : pLines )
+		{
+			paintLine(line, clip);
+		}
+	}
+	
+	private int toPixel(int pCoordinate)
+	{
+		return (int) Math.floor(pCoordinate * aScale);
+	}
+	
+	private void paintBox(Rectangle pBox, Rectangle pClip)
+	{
+		int left = toPixel(pBox.getX());
+		int top = toPixel(pBox.getY());
+		int right = toPixel(pBox.getMaxX());
+		int bottom = toPixel(pBox.getMaxY());
+		for( int y = Math.max(top, pClip.getY()); y <= Math.min(bottom, pClip.getMaxY() - 1); y++ )
+		{
+			for( int x = Math.max(left, pClip.getX()); x <= Math.min(right, pClip.getMaxX() - 1); x++ )
+			{
+				boolean border = x == left || x == right || y == top || y == bottom;
+				aPixels[y * aWidth + x] = border ? NODE_BORDER : NODE_FILL;
+			}
+		}
+	}
+	
+	/* Bresenham's algorithm, restricted to the pixels within pClip. */
+	private void paintLine(Line pLine, Rectangle pClip)
+	{
+		int x = toPixel(pLine.getX1());
+		int y = toPixel(pLine.getY1());
+		int x2 = toPixel(pLine.getX2());
+		int y2 = toPixel(pLine.getY2());
+		int deltaX = Math.abs(x2 - x);
+		int deltaY = -Math.abs(y2 - y);
+		int stepX = x < x2 ? 1 : -1;
+		int stepY = y < y2 ? 1 : -1;
+		int error = deltaX + deltaY;
+		while( true )
+		{
+			if( x >= pClip.getX() && x < pClip.getMaxX() && y >= pClip.getY() && y < pClip.getMaxY() )
+			{
+				aPixels[y * aWidth + x] = EDGE;
+			}
+			if( x == x2 && y == y2 )
+			{
+				return;
+			}
+			int doubleError = 2 * error;
+			if( doubleError >= deltaY )
+			{
+				error += deltaY;
+				x += stepX;
+			}
+			if( doubleError <= deltaX )
+			{
+				error += deltaX;
+				y += stepY;
+			}
+		}
+	}
+}
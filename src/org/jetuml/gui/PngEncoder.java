@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Encodes an image in the PNG format as its rows are produced, so that the 
+ * entire image never needs to be in memory. The image is encoded in 8-bit
+ * RGBA, without filtering or interlacing. The compressed data is written
+ * in chunks of bounded size as it is produced.
+ * 
+ * To use an encoder, write all the rows of the image, from top to bottom,
+ * in one or more calls to writeRows, then call finish.
+ */
+public final class PngEncoder
+{
+	private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+	private static final int CHUNK_SIZE = 1 << 16;
+	private static final int BIT_DEPTH = 8;
+	private static final int COLOR_TYPE_RGBA = 6;
+	private static final int FILTER_NONE = 0;
+	
+	private final DataOutputStream aOutput;
+	private final int aWidth;
+	private final int aHeight;
+	private final Deflater aDeflater = new Deflater();
+	private final DeflaterOutputStream aCompressor;
+	private final byte[] aRow;
+	private int aRowsWritten = 0;
+	
+	/**
+	 * Creates an encoder and writes the header of the image to pOutput.
+	 * The output is not closed by the encoder.
+	 * 
+	 * @param pOutput The stream on which to write the image.
+	 * @param pWidth The width of the image, in pixels.
+	 * @param pHeight The height of the image, in pixels.
+	 * @throws IOException If the header cannot be written.
+	 * @pre pOutput != null && pWidth > 0 && pHeight > 0
+	 */
+	public PngEncoder(OutputStream pOutput, int pWidth, int pHeight) throws IOException
+	{
+		assert pOutput != null && pWidth > 0 && pHeight > 0;
+		aOutput = new DataOutputStream(pOutput);
+		aWidth = pWidth;
+		aHeight = pHeight;
+		aRow = new byte[1 + pWidth * 4];
+		aRow[0] = FILTER_NONE;
+		aOutput.write(SIGNATURE);
+		ByteArrayOutputStream header = new ByteArrayOutputStream();
+		DataOutputStream headerData = new DataOutputStream(header);
+		headerData.writeInt(pWidth);
+		headerData.writeInt(pHeight);
+		headerData.writeByte(BIT_DEPTH);
+		headerData.writeByte(COLOR_TYPE_RGBA);
+		headerData.writeByte(0); // Compression method
+		headerData.writeByte(0); // Filter method
+		headerData.writeByte(0); // No interlacing
+		writeChunk("IHDR", header.toByteArray(), header.size());
+		aCompressor = new DeflaterOutputStream(new ChunkOutputStream(), aDeflater, CHUNK_SIZE);
+	}
+	
+	/**
+	 * Encodes the next rows of the image.
+	 * 
+	 * @param pPixels The pixels of the rows, in ARGB format, row by row.
+	 * @param pRows The number of rows in pPixels.
+	 * @throws IOException If the data cannot be written.
+	 * @pre pPixels != null && pRows >= 0 && pPixels.length >= pRows * width of the image
+	 * @pre the total number of rows written does not exceed the height of the image
+	 */
+	public void writeRows(int[] pPixels, int pRows) throws IOException
+	{
+		assert pPixels != null && pRows >= 0 && pPixels.length >= pRows * aWidth;
+		assert aRowsWritten + pRows <= aHeight;
+		for( int row = 0; row < pRows; row++ )
+		{
+			for( int column = 0; column < aWidth; column++ )
+			{
+				int pixel = pPixels[row * aWidth + column];
+				int index = 1 + column * 4;
+				aRow[index] = (byte) (pixel >> 16);
+				aRow[index + 1] = (byte) (pixel >> 8);
+				aRow[index + 2] = (byte) pixel;
+				aRow[index + 3] = (byte) (pixel >> 24);
+			}
+			aCompressor.write(aRow);
+		}
+		aRowsWritten += pRows;
+	}
+	
+	/**
+	 * Writes the remaining compressed data and the end of the image.
+	 * 
+	 * @throws IOException If the data cannot be written.
+	 * @pre all the rows of the image have been written
+	 */
+	public void finish() throws IOException
+	{
+		assert aRowsWritten == aHeight;
+		aCompressor.close(); // Flushes the last data chunk, without closing the output
+		aDeflater.end();
+		writeChunk("IEND", new byte[0], 0);
+		aOutput.flush();
+	}
+	
+	private void writeChunk(String pType, byte[] pData, int pLength) throws IOException
+	{
+		byte[] type = pType.getBytes(StandardCharsets.US_ASCII);
+		CRC32 crc = new CRC32();
+		crc.update(type);
+		crc.update(pData, 0, pLength);
+		aOutput.writeInt(pLength);
+		aOutput.write(type);
+		aOutput.write(pData, 0, pLength);
+		aOutput.writeInt((int) crc.getValue());
+	}
+	
+	/*
+	 * Collects the compressed data and writes it as IDAT chunks of at most 
+	 * CHUNK_SIZE bytes.
+	 */
+	private final class ChunkOutputStream extends OutputStream
+	{
+		private final byte[] aBuffer = new byte[CHUNK_SIZE];
+		private int aSize = 0;
+		
+		@Override
+		public void write(int pByte) throws IOException
+		{
+			write(new byte[] {(byte) pByte}, 0, 1);
+		}
+		
+		@Override
+		public void write(byte[] pBytes, int pOffset, int pLength) throws IOException
+		{
+			int offset = pOffset;
+			int remaining = pLength;
+			while( remaining > 0 )
+			{
+				int length = Math.min(remaining, CHUNK_SIZE - aSize);
+				System.arraycopy(pBytes, offset, aBuffer, aSize, length);
+				aSize += length;
+				offset += length;
+				remaining -= length;
+				if( aSize == CHUNK_SIZE )
+				{
+					flush();
+				}
+			}
+		}
+		
+		@Override
+		public void flush() throws IOException
+		{
+			if( aSize > 0 )
+			{
+				writeChunk("IDAT", aBuffer, aSize);
+				aSize = 0;
+			}
+		}
+		
+		@Override
+		public void close() throws IOException
+		{
+			flush();
+		}
+	}
+}
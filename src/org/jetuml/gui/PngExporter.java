@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.DiagramRenderer;
+import org.jetuml.rendering.Java2DRenderingContext;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Writes an entire diagram as a PNG image, with a white border around.
+ * The diagram is drawn with Java2D, so the export does not require the
+ * JavaFX toolkit and can run on any thread, several diagrams at a time. 
+ * The image is drawn and encoded in bands that span its width, so the 
+ * memory required does not depend on the height of the image.
+ * 
+ * For the text to fit in the nodes, the strings must be measured with
+ * the same toolkit, by selecting the Java2D rendering backend.
+ */
+public final class PngExporter
+{
+	private static final int BAND_HEIGHT = 1024;
+	private static final int DIAGRAM_PADDING = 4;
+	private static final double LINE_WIDTH = 0.6;
+	
+	private PngExporter() {}
+	
+	/**
+	 * Writes pDiagram to pOutput as a PNG image. The output is not closed.
+	 * 
+	 * @param pDiagram The diagram to export.
+	 * @param pOutput The destination of the image.
+	 * @throws IOException If the image cannot be written.
+	 * @pre pDiagram != null && pOutput != null
+	 */
+	public static void export(Diagram pDiagram, OutputStream pOutput) throws IOException
+	{
+		assert pDiagram != null && pOutput != null;
+		DiagramRenderer renderer = DiagramType.newRendererInstanceFor(pDiagram);
+		Rectangle bounds = renderer.getBounds();
+		int width = bounds.getWidth() + DIAGRAM_PADDING * 2;
+		int height = bounds.getHeight() + DIAGRAM_PADDING * 2;
+		BufferedImage band = new BufferedImage(width, Math.min(BAND_HEIGHT, height), BufferedImage.TYPE_INT_ARGB);
+		int[] pixels = ((DataBufferInt) band.getRaster().getDataBuffer()).getData();
+		PngEncoder encoder = new PngEncoder(pOutput, width, height);
+		for( int y = 0; y < height; y += BAND_HEIGHT )
+		{
+			Graphics2D graphics = band.createGraphics();
+			try
+			{
+				Java2DRenderingContext context = new Java2DRenderingContext(graphics);
+				context.setFill(Color.WHITE);
+				context.fillRect(0, 0, width, band.getHeight());
+				context.setLineWidth(LINE_WIDTH);
+				context.translate(-bounds.getX() + DIAGRAM_PADDING, -bounds.getY() + DIAGRAM_PADDING - y);
+				renderer.draw(context);
+			}
+			finally
+			{
+				graphics.dispose();
+			}
+			encoder.writeRows(pixels, Math.min(BAND_HEIGHT, height - y));
+		}
+		encoder.finish();
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import static org.jetuml.application.ApplicationResources.RESOURCES;
+
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.image.Image;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+/**
+ * A dialog that shows the progress of a task running in the background, 
+ * and lets users cancel it. The dialog is only shown if the task is still 
+ * running after a short delay, and closes when the task completes. It is not
+ * modal, so users can keep working while the task runs.
+ */
+public class ProgressDialog 
+{
+	private static final int SPACING = 10;
+	private static final int VSPACE = 20;
+	private static final int BAR_WIDTH = 300;
+	private static final Duration DELAY = Duration.millis(300);
+	
+	private final Stage aStage = new Stage();
+	private final Task<?> aTask;
+	
+	/**
+	 * Creates a new progress dialog.
+	 * 
+	 * @param pOwner The stage that owns this stage.
+	 * @param pTitle The title of the dialog.
+	 * @param pTask The task whose progress to show.
+	 * @pre pTask != null
+	 */
+	public ProgressDialog( Stage pOwner, String pTitle, Task<?> pTask )
+	{
+		assert pTask != null;
+		aTask = pTask;
+		aStage.setResizable(false);
+		aStage.initOwner(pOwner);
+		aStage.setTitle(pTitle);
+		aStage.getIcons().add(new Image(RESOURCES.getString("application.icon")));
+		aStage.setScene(createScene());
+		aStage.setOnCloseRequest(pEvent -> aTask.cancel());
+		aTask.runningProperty().addListener((pObservable, pOldValue, pNewValue) -> 
+		{
+			if( !pNewValue )
+			{
+				aStage.close();
+			}
+		});
+	}
+	
+	private Scene createScene() 
+	{
+		BorderPane layout = new BorderPane();
+		layout.setPadding(new Insets(SPACING));
+		
+		ProgressBar bar = new ProgressBar();
+		bar.setPrefWidth(BAR_WIDTH);
+		bar.progressProperty().bind(aTask.progressProperty());
+		layout.setCenter(bar);
+		
+		Button cancel = new Button(RESOURCES.getString("dialog.progress.cancel"));
+		cancel.setOnAction(pEvent -> aTask.cancel());
+		HBox box = new HBox(cancel);
+		box.setAlignment(Pos.CENTER_RIGHT);
+		box.setPadding(new Insets(VSPACE, 0, 0, 0));
+		layout.setBottom(box);
+		return new Scene(layout);
+	}
+	
+	/**
+	 * Shows the dialog after a short delay, unless the task has completed by then.
+	 */
+	public void show()
+	{
+		PauseTransition delay = new PauseTransition(DELAY);
+		delay.setOnFinished(pEvent -> 
+		{
+			if( !aTask.isDone() )
+			{
+				aStage.show();
+			}
+		});
+		delay.play();
+	}
+}
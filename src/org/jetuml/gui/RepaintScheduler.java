@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Coalesces requests to repaint a canvas so that it is rendered at most 
+ * once per JavaFX pulse. A request only marks the canvas as needing to be 
+ * rendered. The rendering happens at the next pulse, however many requests 
+ * were made in the meantime. The scheduler only listens to pulses while a 
+ * request is pending.
+ * 
+ * The scheduler counts the requests it receives and the frames it renders,
+ * which shows how much rendering work is saved.
+ * 
+ * Methods of this class must be called on the JavaFX application thread.
+ */
+public final class RepaintScheduler
+{
+	private final Runnable aRenderer;
+	private final AnimationTimer aTimer;
+	private boolean aDirty = false;
+	private long aRequestedFrames = 0;
+	private long aRenderedFrames = 0;
+	
+	/**
+	 * Creates a scheduler with no pending request.
+	 * 
+	 * @param pRenderer The code that renders the canvas.
+	 * @pre pRenderer != null
+	 */
+	public RepaintScheduler(Runnable pRenderer)
+	{
+		assert pRenderer != null;
+		aRenderer = pRenderer;
+		aTimer = new AnimationTimer()
+		{
+			@Override
+			public void handle(long pNow)
+			{
+				pulse();
+			}
+		};
+	}
+	
+	/**
+	 * Requests that the canvas be rendered at the next pulse.
+	 */
+	public void requestRepaint()
+	{
+		aRequestedFrames++;
+		if( !aDirty )
+		{
+			aDirty = true;
+			aTimer.start();
+		}
+	}
+	
+	/**
+	 * @return The number of times a repaint was requested.
+	 */
+	public long requestedFrames()
+	{
+		return aRequestedFrames;
+	}
+	
+	/**
+	 * @return The number of times the canvas was rendered.
+	 */
+	public long renderedFrames()
+	{
+		return aRenderedFrames;
+	}
+	
+	/*
+	 * Renders the canvas if a repaint was requested since the last pulse.
+	 */
+	void pulse()
+	{
+		aTimer.stop();
+		if( aDirty )
+		{
+			aDirty = false;
+			aRenderedFrames++;
+			aRenderer.run();
+		}
+	}
+}
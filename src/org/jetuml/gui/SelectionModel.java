@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramChange;
+import org.jetuml.diagram.DiagramChange.Kind;
+import org.jetuml.diagram.DiagramChangeHandler;
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.Node;
+
+/**
+ * The elements selected in a diagram. The selection preserves the order in which 
+ * elements were selected and never contains a node together with one of its 
+ * ancestors. Because diagram elements do not redefine equality, membership 
+ * in the selection is based on identity.
+ * 
+ * The selection is kept consistent with the diagram by listening to changes: 
+ * elements that are removed from the diagram are removed from the selection 
+ * when the change is reported. Only the removed elements that are selected are 
+ * examined. Each of them is looked up among the edges of the diagram or, for a node, 
+ * through its ancestors and the root nodes, so the cost of synchronization does not 
+ * depend on the size of the selection and nested nodes are never traversed.
+ */
+public final class SelectionModel implements Iterable<DiagramElement>, DiagramChangeHandler
+{
+	private final Diagram aDiagram;
+	private final Set<DiagramElement> aSelected = new LinkedHashSet<>();
+	private Optional<List<Node>> aSelectedNodes = Optional.empty();
+	private Optional<List<Edge>> aSelectedEdges = Optional.empty();
+	
+	/**
+	 * Creates an empty selection for pDiagram and registers it
+	 * to be notified of changes to pDiagram.
+	 * 
+	 * @param pDiagram The diagram whose elements are selected.
+	 * @pre pDiagram != null
+	 */
+	public SelectionModel(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		aDiagram = pDiagram;
+		aDiagram.addChangeHandler(this);
+	}
+	
+	/**
+	 * Adds an element to the selection and sets it as the last selected element. 
+	 * If the element is already selected, it becomes the last selected element. 
+	 * If any ancestor of the element is selected, the element is not added. 
+	 * If any descendant of the element is selected, it is removed from the selection.
+	 * 
+	 * @param pElement The element to add.
+	 * @pre pElement != null
+	 */
+	public void add(DiagramElement pElement)
+	{
+		assert pElement != null;
+		if( containsParent(pElement) )
+		{
+			return;
+		}
+		aSelected.remove(pElement);
+		aSelected.add(pElement);
+		if( pElement instanceof Node )
+		{
+			((Node) pElement).getChildren().forEach(this::removeWithDescendants);
+		}
+		invalidatePartitions();
+	}
+	
+	/**
+	 * Removes pElement from the selection, or does nothing if 
+	 * pElement is not selected.
+	 * 
+	 * @param pElement The element to remove.
+	 * @pre pElement != null
+	 */
+	public void remove(DiagramElement pElement)
+	{
+		assert pElement != null;
+		if( aSelected.remove(pElement) )
+		{
+			invalidatePartitions();
+		}
+	}
+	
+	/**
+	 * Makes pElement the single selected element.
+	 * 
+	 * @param pElement The element to select.
+	 * @pre pElement != null
+	 */
+	public void set(DiagramElement pElement)
+	{
+		assert pElement != null;
+		aSelected.clear();
+		aSelected.add(pElement);
+		invalidatePartitions();
+	}
+	
+	/**
+	 * Removes all elements from the selection.
+	 */
+	public void clear()
+	{
+		aSelected.clear();
+		invalidatePartitions();
+	}
+	
+	/**
+	 * @param pElement The element to test.
+	 * @return True if pElement is selected.
+	 * @pre pElement != null
+	 */
+	public boolean contains(DiagramElement pElement)
+	{
+		assert pElement != null;
+		return aSelected.contains(pElement);
+	}
+	
+	/**
+	 * @return True if no element is selected.
+	 */
+	public boolean isEmpty()
+	{
+		return aSelected.isEmpty();
+	}
+	
+	/**
+	 * @return The number of selected elements.
+	 */
+	public int size()
+	{
+		return aSelected.size();
+	}
+	
+	/**
+	 * @return The last element that was selected, if present.
+	 */
+	public Optional<DiagramElement> getLastSelected()
+	{
+		DiagramElement last = null;
+		for( DiagramElement element : aSelected )
+		{
+			last = element;
+		}
+		return Optional.ofNullable(last);
+	}
+	
+	/**
+	 * @return An unmodifiable list of the selected nodes, in the order they were selected.
+	 */
+	public List<Node> getSelectedNodes()
+	{
+		if( aSelectedNodes.isEmpty() )
+		{
+			partition();
+		}
+		return aSelectedNodes.get();
+	}
+	
+	/**
+	 * @return An unmodifiable list of the selected edges, in the order they were selected.
+	 */
+	public List<Edge> getSelectedEdges()
+	{
+		if( aSelectedEdges.isEmpty() )
+		{
+			partition();
+		}
+		return aSelectedEdges.get();
+	}
+	
+	@Override
+	public Iterator<DiagramElement> iterator()
+	{
+		return Collections.unmodifiableSet(aSelected).iterator();
+	}
+	
+	@Override
+	public void diagramChanged(DiagramChange pChange)
+	{
+		if( aSelected.isEmpty() || !(pChange.contains(Kind.NODE_REMOVED) || pChange.contains(Kind.EDGE_REMOVED)) )
+		{
+			return;
+		}
+		List<DiagramElement> candidates = new ArrayList<>();
+		pChange.forEach(Kind.EDGE_REMOVED, element -> addIfSelected(element, candidates));
+		pChange.forEach(Kind.NODE_REMOVED, element -> addSelectedInSubtree((Node) element, candidates));
+		if( candidates.isEmpty() )
+		{
+			return;
+		}
+		// A removed element can be added back in the same change, for example 
+		// when a node is moved out of a package, so the diagram is checked.
+		candidates.stream()
+			.filter(element -> !isInDiagram(element))
+			.forEach(this::remove);
+	}
+	
+	/*
+	 * Returns true if pElement is an edge of the diagram, or a node reachable
+	 * from a root node of the diagram. Nodes are checked from the bottom up, 
+	 * so that only the ancestors of pElement are visited.
+	 */
+	private boolean isInDiagram(DiagramElement pElement)
+	{
+		if( pElement instanceof Edge )
+		{
+			return aDiagram.edges().contains(pElement);
+		}
+		Node node = (Node) pElement;
+		while( node.hasParent() )
+		{
+			if( !node.getParent().getChildren().contains(node) )
+			{
+				return false;
+			}
+			node = node.getParent();
+		}
+		return aDiagram.containsAsRoot(node);
+	}
+	
+	private void addIfSelected(DiagramElement pElement, List<DiagramElement> pCandidates)
+	{
+		if( aSelected.contains(pElement) )
+		{
+			pCandidates.add(pElement);
+		}
+	}
+	
+	private void addSelectedInSubtree(Node pNode, List<DiagramElement> pCandidates)
+	{
+		addIfSelected(pNode, pCandidates);
+		pNode.getChildren().forEach(child -> addSelectedInSubtree(child, pCandidates));
+	}
+	
+	private void removeWithDescendants(Node pNode)
+	{
+		aSelected.remove(pNode);
+		pNode.getChildren().forEach(this::removeWithDescendants);
+	}
+	
+	/*
+	 * Returns true if any of the ancestors of pElement is selected.
+	 */
+	private boolean containsParent(DiagramElement pElement)
+	{
+		if( !(pElement instanceof Node) )
+		{
+			return false;
+		}
+		Node node = (Node) pElement;
+		while( node.hasParent() )
+		{
+			node = node.getParent();
+			if( aSelected.contains(node) )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private void partition()
+	{
+		List<Node> nodes = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for( DiagramElement element : aSelected )
+		{
+			if( element instanceof Node )
+			{
+				nodes.add((Node) element);
+			}
+			else
+			{
+				edges.add((Edge) element);
+			}
+		}
+		aSelectedNodes = Optional.of(Collections.unmodifiableList(nodes));
+		aSelectedEdges = Optional.of(Collections.unmodifiableList(edges));
+	}
+	
+	private void invalidatePartitions()
+	{
+		aSelectedNodes = Optional.empty();
+		aSelectedEdges = Optional.empty();
+	}
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import java.io.Writer;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.DiagramRenderer;
+import org.jetuml.rendering.SvgRenderingContext;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Writes an entire diagram as an SVG document, with a white border around.
+ * The document is written as the diagram is drawn. Because the elements 
+ * are vector shapes, the output is much smaller than a raster image of 
+ * a large diagram, and its size does not depend on a resolution.
+ */
+public final class SvgExporter
+{
+	private static final int DIAGRAM_PADDING = 4;
+	private static final double LINE_WIDTH = 0.6;
+	
+	private SvgExporter() {}
+	
+	/**
+	 * Writes pDiagram to pWriter as an SVG document. The writer is not closed.
+	 * 
+	 * @param pDiagram The diagram to export.
+	 * @param pWriter The destination of the document.
+	 * @throws java.io.UncheckedIOException If the document cannot be written.
+	 * @pre pDiagram != null && pWriter != null
+	 */
+	public static void export(Diagram pDiagram, Writer pWriter)
+	{
+		assert pDiagram != null && pWriter != null;
+		DiagramRenderer renderer = DiagramType.newRendererInstanceFor(pDiagram);
+		Rectangle bounds = renderer.getBounds();
+		int width = bounds.getWidth() + DIAGRAM_PADDING * 2;
+		int height = bounds.getHeight() + DIAGRAM_PADDING * 2;
+		SvgRenderingContext context = new SvgRenderingContext(pWriter, width, height);
+		context.setFill(Color.WHITE);
+		context.fillRect(0, 0, width, height);
+		context.setLineWidth(LINE_WIDTH);
+		context.translate(-bounds.getX() + DIAGRAM_PADDING, -bounds.getY() + DIAGRAM_PADDING);
+		renderer.draw(context);
+		context.finish();
+	}
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetuml.annotations.Singleton;
+import org.jetuml.application.Clipboard;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.Node;
+import org.jetuml.persistence.DeserializationException;
+import org.jetuml.persistence.JsonDecoder;
+import org.jetuml.persistence.JsonEncoder;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.DataFormat;
+
+/**
+ * Exchanges the content of the application clipboard with other running 
+ * instances of JetUML through the system clipboard.
+ * 
+ * When elements are copied, a fragment encoded in the same JSON notation as
+ * saved diagrams is published to the system clipboard. When pasting, a fragment 
+ * published by another instance is decoded into the application clipboard. 
+ * Each fragment is decoded at most once: fragments that were published or already 
+ * decoded by this instance are recognized and the application clipboard is used as is.
+ * 
+ * Methods of this class must be called on the JavaFX application thread.
+ */
+@Singleton
+final class SystemClipboard
+{
+	private static final SystemClipboard INSTANCE = new SystemClipboard();
+	private static final String FRAGMENT_MIME_TYPE = "application/x-jetuml-fragment";
+	
+	private final DataFormat aFragmentFormat;
+	private String aLastFragment = "";
+	
+	private SystemClipboard()
+	{
+		DataFormat format = DataFormat.lookupMimeType(FRAGMENT_MIME_TYPE);
+		if( format == null )
+		{
+			format = new DataFormat(FRAGMENT_MIME_TYPE);
+		}
+		aFragmentFormat = format;
+	}
+	
+	/**
+	 * @return The Singleton instance of the SystemClipboard.
+	 */
+	static SystemClipboard instance()
+	{
+		return INSTANCE;
+	}
+	
+	/**
+	 * Publishes the content of the application clipboard to the system clipboard.
+	 * No image of the elements is rendered.
+	 * 
+	 * @param pType The type of the diagram the elements were copied from.
+	 * @pre pType != null
+	 */
+	void publish(DiagramType pType)
+	{
+		assert pType != null;
+		aLastFragment = JsonEncoder.encode(createFragment(pType)).toString();
+		ClipboardContent content = new ClipboardContent();
+		content.put(aFragmentFormat, aLastFragment);
+		javafx.scene.input.Clipboard.getSystemClipboard().setContent(content);
+	}
+	
+	/**
+	 * Replaces the content of the application clipboard with the fragment in the 
+	 * system clipboard if this fragment was published by a different instance of 
+	 * JetUML and has not yet been decoded. Content that cannot be decoded is ignored.
+	 */
+	void importFragment()
+	{
+		javafx.scene.input.Clipboard systemClipboard = javafx.scene.input.Clipboard.getSystemClipboard();
+		if( !systemClipboard.hasContent(aFragmentFormat) )
+		{
+			return;
+		}
+		Object content = systemClipboard.getContent(aFragmentFormat);
+		if( !(content instanceof String) || content.equals(aLastFragment) )
+		{
+			return;
+		}
+		aLastFragment = (String) content;
+		try
+		{
+			Clipboard.instance().copy(elementsOf(JsonDecoder.decode(new JSONObject(aLastFragment))));
+		}
+		catch( JSONException | DeserializationException exception )
+		{
+			// Not a valid fragment: keep the content of the application clipboard.
+		}
+	}
+	
+	/*
+	 * Creates a diagram that contains clones of the elements in the application clipboard.
+	 */
+	private static Diagram createFragment(DiagramType pType)
+	{
+		Diagram fragment = new Diagram(pType);
+		List<Edge> edges = new ArrayList<>();
+		for( DiagramElement element : Clipboard.instance().getElements() )
+		{
+			if( element instanceof Node )
+			{
+				fragment.addRootNode((Node) element);
+			}
+			else
+			{
+				edges.add((Edge) element);
+			}
+		}
+		for( Edge edge : edges )
+		{
+			edge.connect(edge.getStart(), edge.getEnd(), fragment);
+			fragment.addEdge(edge);
+		}
+		return fragment;
+	}
+	
+	private static List<DiagramElement> elementsOf(Diagram pFragment)
+	{
+		List<DiagramElement> elements = new ArrayList<>();
+		pFragment.rootNodes().forEach(elements::add);
+		pFragment.edges().forEach(elements::add);
+		return elements;
+	}
+}
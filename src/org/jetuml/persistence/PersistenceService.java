@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 
 import org.jetuml.diagram.Diagram;
@@ -73,12 +74,35 @@ public final class PersistenceService
 	public static VersionedDiagram read(File pFile) throws IOException, DeserializationException
 	{
 		assert pFile != null;
-		try( BufferedReader in = new BufferedReader(
-				new InputStreamReader(new FileInputStream(pFile), StandardCharsets.UTF_8)))
+		try( Reader in = new InputStreamReader(new FileInputStream(pFile), StandardCharsets.UTF_8) )
+		{
+			return read(in);
+		}
+	}
+	
+	/**
+	 * Reads a diagram encoded as in a diagram file, for example from 
+	 * the body of a request. The reader is not closed.
+	 * 
+	 * @param pReader The source of the encoded diagram.
+	 * @return The diagram that is read in
+	 * @throws IOException if the diagram cannot be read.
+	 * @throws DeserializationException if there is a problem decoding the diagram.
+	 * @pre pReader != null
+	 */
+	public static VersionedDiagram read(Reader pReader) throws IOException, DeserializationException
+	{
+		assert pReader != null;
+		String line = new BufferedReader(pReader).readLine();
+		if( line == null )
+		{
+			throw new DeserializationException("Cannot decode an empty file");
+		}
+		try
 		{
 			// Extra wrapper to support backward compatibility. Eventually take down the migrator.
 			// Replace VersionMigrator.migrate with JSonDecoder.decode
-			return new VersionMigrator().migrate(new JSONObject(in.readLine())); 
+			return new VersionMigrator().migrate(new JSONObject(line)); 
 		}
 		catch( JSONException e )
 		{
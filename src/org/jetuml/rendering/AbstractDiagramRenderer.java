@@ -17,8 +17,9 @@
  ******************************************************************************/
 package org.jetuml.rendering;
 
-import java.util.IdentityHashMap;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
 import org.jetuml.diagram.Diagram;
@@ -34,6 +35,8 @@ import org.jetuml.geom.Direction;
 import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.Instrumentation.Counter;
+import org.jetuml.rendering.Instrumentation.Phase;
 import org.jetuml.rendering.edges.EdgeRenderer;
 import org.jetuml.rendering.edges.NoteEdgeRenderer;
 import org.jetuml.rendering.nodes.NodeRenderer;
@@ -41,14 +44,18 @@ import org.jetuml.rendering.nodes.NoteNodeRenderer;
 import org.jetuml.rendering.nodes.PointNodeRenderer;
 
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Default implementation of the rendering operations.
+ * 
+ * The renderers of the elements are stored in an array indexed by the type id
+ * of the element classes, and the renderers of nodes are also kept in a list, so 
+ * that the storages can be activated without searching all the renderers.
  */
 public abstract class AbstractDiagramRenderer implements DiagramRenderer
 {
-	private final IdentityHashMap<Class<? extends DiagramElement>, DiagramElementRenderer> aRenderers = new IdentityHashMap<>();
+	private final DiagramElementRenderer[] aRenderers = new DiagramElementRenderer[DiagramType.numberOfElementTypes()];
+	private final List<NodeRenderer> aNodeRenderers = new ArrayList<>();
 	private final Diagram aDiagram;
 
 	/*
@@ -65,33 +72,96 @@ public abstract class AbstractDiagramRenderer implements DiagramRenderer
 	protected void addElementRenderer(Class<? extends DiagramElement> pElementClass,
 			DiagramElementRenderer pElementRenderer)
 	{
-		aRenderers.put(pElementClass, pElementRenderer);
+		aRenderers[DiagramType.typeIdOf(pElementClass)] = pElementRenderer;
+		if( pElementRenderer instanceof NodeRenderer && !aNodeRenderers.contains(pElementRenderer) )
+		{
+			aNodeRenderers.add((NodeRenderer) pElementRenderer);
+		}
 	}
 	
 	@Override
 	public DiagramElementRenderer rendererFor(Class<? extends DiagramElement> pClass)
 	{
-		assert aRenderers.containsKey(pClass);
-		return aRenderers.get(pClass);
+		assert aRenderers[DiagramType.typeIdOf(pClass)] != null;
+		return aRenderers[DiagramType.typeIdOf(pClass)];
+	}
+	
+	/**
+	 * @param pElement A diagram element.
+	 * @return The renderer for the class of pElement.
+	 * @pre pElement != null
+	 */
+	protected final DiagramElementRenderer rendererFor(DiagramElement pElement)
+	{
+		return aRenderers[pElement.typeId()];
 	}
 
 	@Override
-	public void draw(GraphicsContext pGraphics)
+	public void draw(RenderingContext pGraphics)
 	{
 		assert pGraphics != null;
 		activateNodeStorages();
+		drawNodes(pGraphics);
+		drawEdges(pGraphics);
+		deactivateAndClearNodeStorages();
+	}
+	
+	/**
+	 * Draws all the nodes of the diagram, the children after their parent.
+	 * 
+	 * @param pGraphics The graphics context on which to draw.
+	 */
+	protected void drawNodes(RenderingContext pGraphics)
+	{
+		long start = Instrumentation.start();
 		aDiagram.rootNodes().forEach(node -> drawNode(node, pGraphics));
+		Instrumentation.stop(Phase.DRAW_NODES, start);
+	}
+	
+	/**
+	 * Draws all the edges of the diagram.
+	 * 
+	 * @param pGraphics The graphics context on which to draw.
+	 */
+	protected void drawEdges(RenderingContext pGraphics)
+	{
+		long start = Instrumentation.start();
 		aDiagram.edges().forEach(edge -> draw(edge, pGraphics));
+		Instrumentation.stop(Phase.DRAW_EDGES, start);
+	}
+
+	@Override
+	public void drawOverview(RenderingContext pGraphics)
+	{
+		assert pGraphics != null;
+		activateNodeStorages();
+		aDiagram.rootNodes().forEach(node -> drawNodeOverview(node, pGraphics));
+		for( Edge edge : aDiagram.edges() )
+		{
+			Point start = getBounds(edge.getStart()).getCenter();
+			Point end = getBounds(edge.getEnd()).getCenter();
+			ToolGraphics.strokeSharpLine(pGraphics, start.getX(), start.getY(), end.getX(), end.getY());
+		}
 		deactivateAndClearNodeStorages();
 	}
+	
+	private void drawNodeOverview(Node pNode, RenderingContext pGraphics)
+	{
+		Rectangle bounds = getBounds(pNode);
+		pGraphics.fillRect(bounds.getX() + 0.5, bounds.getY() + 0.5, bounds.getWidth(), bounds.getHeight());
+		pGraphics.strokeRect(bounds.getX() + 0.5, bounds.getY() + 0.5, bounds.getWidth(), bounds.getHeight());
+		pNode.getChildren().forEach(node -> drawNodeOverview(node, pGraphics));
+	}
 
 	/**
 	 * Activates all the NodeStorages of the NodeViewers present in the renderer.
 	 */
 	protected void activateNodeStorages()
 	{
-		aRenderers.values().stream().filter(renderer -> NodeRenderer.class.isAssignableFrom(renderer.getClass()))
-				.map(NodeRenderer.class::cast).forEach(NodeRenderer::activateNodeStorage);
+		for( NodeRenderer renderer : aNodeRenderers )
+		{
+			renderer.activateNodeStorage();
+		}
 	}
 
 	/**
@@ -99,20 +169,23 @@ public abstract class AbstractDiagramRenderer implements DiagramRenderer
 	 */
 	protected void deactivateAndClearNodeStorages()
 	{
-		aRenderers.values().stream().filter(renderer -> NodeRenderer.class.isAssignableFrom(renderer.getClass()))
-				.map(NodeRenderer.class::cast).forEach(NodeRenderer::deactivateAndClearNodeStorage);
+		for( NodeRenderer renderer : aNodeRenderers )
+		{
+			renderer.deactivateAndClearNodeStorage();
+		}
 	}
 
-	protected void drawNode(Node pNode, GraphicsContext pGraphics)
+	protected void drawNode(Node pNode, RenderingContext pGraphics)
 	{
 		draw(pNode, pGraphics);
 		pNode.getChildren().forEach(node -> drawNode(node, pGraphics));
 	}
 
 	@Override
-	public void draw(DiagramElement pElement, GraphicsContext pGraphics)
+	public void draw(DiagramElement pElement, RenderingContext pGraphics)
 	{
-		aRenderers.get(pElement.getClass()).draw(pElement, pGraphics);
+		Instrumentation.count(Counter.ELEMENTS_DRAWN);
+		rendererFor(pElement).draw(pElement, pGraphics);
 	}
 
 	@Override
@@ -179,42 +252,42 @@ public abstract class AbstractDiagramRenderer implements DiagramRenderer
 	@Override
 	public boolean contains(DiagramElement pElement, Point pPoint)
 	{
-		return aRenderers.get(pElement.getClass()).contains(pElement, pPoint);
+		return rendererFor(pElement).contains(pElement, pPoint);
 	}
 
 	@Override
 	public Canvas createIcon(DiagramElement pElement)
 	{
 		assert pElement != null;
-		return aRenderers.get(pElement.getClass()).createIcon(DiagramType.USECASE, pElement);
+		return rendererFor(pElement).createIcon(DiagramType.USECASE, pElement);
 	}
 
 	@Override
-	public void drawSelectionHandles(DiagramElement pElement, GraphicsContext pGraphics)
+	public void drawSelectionHandles(DiagramElement pElement, RenderingContext pGraphics)
 	{
 		assert pElement != null && pGraphics != null;
-		aRenderers.get(pElement.getClass()).drawSelectionHandles(pElement, pGraphics);
+		rendererFor(pElement).drawSelectionHandles(pElement, pGraphics);
 	}
 
 	@Override
 	public Rectangle getBounds(DiagramElement pElement)
 	{
 		assert pElement != null;
-		return aRenderers.get(pElement.getClass()).getBounds(pElement);
+		return rendererFor(pElement).getBounds(pElement);
 	}
 
 	@Override
 	public Line getConnectionPoints(Edge pEdge)
 	{
 		assert pEdge != null;
-		return ((EdgeRenderer) aRenderers.get(pEdge.getClass())).getConnectionPoints(pEdge);
+		return ((EdgeRenderer) rendererFor(pEdge)).getConnectionPoints(pEdge);
 	}
 
 	@Override
 	public Point getConnectionPoints(Node pNode, Direction pDirection)
 	{
 		assert pNode != null && pDirection != null;
-		return ((NodeRenderer) aRenderers.get(pNode.getClass())).getConnectionPoint(pNode, pDirection);
+		return ((NodeRenderer) rendererFor(pNode)).getConnectionPoint(pNode, pDirection);
 	}
 	
 	@Override
@@ -262,6 +335,6 @@ public abstract class AbstractDiagramRenderer implements DiagramRenderer
 	@Override
 	public Dimension getDefaultDimension(Node pNode)
 	{
-		return ((NodeRenderer)rendererFor(pNode.getClass())).getDefaultDimension(pNode);
+		return ((NodeRenderer) rendererFor(pNode)).getDefaultDimension(pNode);
 	}
 }
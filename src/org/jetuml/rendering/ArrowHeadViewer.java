@@ -29,12 +29,10 @@ import static org.jetuml.rendering.ArrowHead.TRIANGLE;
 import static org.jetuml.rendering.ArrowHead.V;
 
 import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
 
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
 
 /**
  * Defines how to draw arrow heads.
@@ -44,6 +42,9 @@ public final class ArrowHeadViewer
 	private static final double ARROW_ANGLE = Math.PI / 6; 
 	private static final double ARROW_LENGTH = 10;
 	
+	// Viewers are shared by all edges, so each drawing thread gets its own reusable path
+	private static final ThreadLocal<SegmentPath> BUFFER = ThreadLocal.withInitial(SegmentPath::new);
+	
 	private final ArrowHead aArrowHead;
 	
 	/**
@@ -62,64 +63,86 @@ public final class ArrowHeadViewer
 	 * @param pPoint1 a point on the axis of the arrow head
 	 * @param pEnd the end point of the arrow head
 	 */
-	public void draw(GraphicsContext pGraphics, Point pPoint1, Point pEnd)
+	public void draw(RenderingContext pGraphics, Point pPoint1, Point pEnd)
 	{
+		SegmentPath path = buffer(pPoint1, pEnd);
 		if(aArrowHead == ArrowHead.BLACK_DIAMOND || aArrowHead == BLACK_TRIANGLE) 
 		{
-			ToolGraphics.strokeAndFillSharpPath(pGraphics, getPath(pPoint1, pEnd), Color.BLACK, false);
+			ToolGraphics.strokeAndFillSharpPath(pGraphics, path, Color.BLACK, false);
 		}
 		else 
 		{
-			ToolGraphics.strokeAndFillSharpPath(pGraphics, getPath(pPoint1, pEnd), Color.WHITE, false);
+			ToolGraphics.strokeAndFillSharpPath(pGraphics, path, Color.WHITE, false);
 		}
 	}
 	
-   	/**
-     * Gets the path of the arrowhead.
-     * @param pPoint1 a point on the axis of the arrow head
-     * @param pEnd the end point of the arrow head
-     * @return the path
-     */
-   	public Path getPath(Point pPoint1, Point pEnd)
-   	{
-   		if(aArrowHead == NONE) 
-   		{
-   			return new Path();
-   		}
-   		
-   		int dx = pEnd.getX() - pPoint1.getX();
-   		int dy = pEnd.getY() - pPoint1.getY();
-   		final double angle = Math.atan2(dy, dx);
-   		int x1 = (int) Math.round(pEnd.getX() - ARROW_LENGTH * Math.cos(angle + ARROW_ANGLE));
-   		int y1 = (int) Math.round(pEnd.getY() - ARROW_LENGTH * Math.sin(angle + ARROW_ANGLE));
-   		int x2 = (int) Math.round(pEnd.getX() - ARROW_LENGTH * Math.cos(angle - ARROW_ANGLE));
-   		int y2 = (int) Math.round(pEnd.getY() - ARROW_LENGTH * Math.sin(angle - ARROW_ANGLE));
+	/**
+	 * Gets the area covered by the arrowhead when it is drawn.
+	 * 
+	 * @param pPoint1 a point on the axis of the arrow head
+	 * @param pEnd the end point of the arrow head
+	 * @return the bounds of the arrowhead
+	 * @pre this arrowhead is not NONE
+	 */
+	public Rectangle getBounds(Point pPoint1, Point pEnd)
+	{
+		assert aArrowHead != NONE;
+		return ToolGraphics.getStrokeBounds(buffer(pPoint1, pEnd));
+	}
+	
+	/*
+	 * Builds the shape of the arrowhead in the path reserved for the current thread.
+	 */
+	private SegmentPath buffer(Point pPoint1, Point pEnd)
+	{
+		SegmentPath path = BUFFER.get();
+		path.clear();
+		addShape(pPoint1, pEnd, path);
+		return path;
+	}
+	
+	/**
+	 * Gets the shape of the arrowhead.
+	 * @param pPoint1 a point on the axis of the arrow head
+	 * @param pEnd the end point of the arrow head
+	 * @return the path
+	 */
+	public SegmentPath getShape(Point pPoint1, Point pEnd)
+	{
+		SegmentPath path = new SegmentPath();
+		addShape(pPoint1, pEnd, path);
+		return path;
+	}
+	
+	private void addShape(Point pPoint1, Point pEnd, SegmentPath pPath)
+	{
+		if(aArrowHead == NONE) 
+		{
+			return;
+		}
+		
+		int dx = pEnd.getX() - pPoint1.getX();
+		int dy = pEnd.getY() - pPoint1.getY();
+		final double angle = Math.atan2(dy, dx);
+		int x1 = (int) Math.round(pEnd.getX() - ARROW_LENGTH * Math.cos(angle + ARROW_ANGLE));
+		int y1 = (int) Math.round(pEnd.getY() - ARROW_LENGTH * Math.sin(angle + ARROW_ANGLE));
+		int x2 = (int) Math.round(pEnd.getX() - ARROW_LENGTH * Math.cos(angle - ARROW_ANGLE));
+		int y2 = (int) Math.round(pEnd.getY() - ARROW_LENGTH * Math.sin(angle - ARROW_ANGLE));
 
-   		MoveTo moveToOrigin = new MoveTo(pEnd.getX(), pEnd.getY());
-   		LineTo lineTo1 = new LineTo(x1, y1);
-   		Path path = new Path();
-   		path.getElements().addAll(moveToOrigin, lineTo1);
-   		if(aArrowHead == V)
-   		{
-   			MoveTo moveTo2 = new MoveTo(x2, y2);
-   			LineTo lineTo2 = new LineTo(pEnd.getX(), pEnd.getY());
-   			path.getElements().addAll(moveTo2, lineTo2);
-   		}
-   		else if(aArrowHead == TRIANGLE || aArrowHead == BLACK_TRIANGLE)
-   		{
-   			LineTo lineTo3 = new LineTo(x2, y2); 
-   			LineTo lineTo4 = new LineTo(moveToOrigin.getX(), moveToOrigin.getY());
-   			path.getElements().addAll(lineTo3, lineTo4);
-   		}
-   		else if(aArrowHead == DIAMOND || aArrowHead == BLACK_DIAMOND)
-   		{
-   			final int x3 = (int) Math.round( x2 - ARROW_LENGTH * Math.cos(angle + ARROW_ANGLE));
-   			final int y3 = (int) Math.round( y2 - ARROW_LENGTH * Math.sin(angle + ARROW_ANGLE));
-   			LineTo lineTo5 = new LineTo(x3, y3);
-   			LineTo lineTo6 = new LineTo(x2, y2);
-   			LineTo lineTo7 = new LineTo(moveToOrigin.getX(), moveToOrigin.getY());
-   			path.getElements().addAll(lineTo5, lineTo6, lineTo7);
-   		}      
-   		return path;
-   	}
+		pPath.moveTo(pEnd.getX(), pEnd.getY()).lineTo(x1, y1);
+		if(aArrowHead == V)
+		{
+			pPath.moveTo(x2, y2).lineTo(pEnd.getX(), pEnd.getY());
+		}
+		else if(aArrowHead == TRIANGLE || aArrowHead == BLACK_TRIANGLE)
+		{
+			pPath.lineTo(x2, y2).lineTo(pEnd.getX(), pEnd.getY());
+		}
+		else if(aArrowHead == DIAMOND || aArrowHead == BLACK_DIAMOND)
+		{
+			final int x3 = (int) Math.round( x2 - ARROW_LENGTH * Math.cos(angle + ARROW_ANGLE));
+			final int y3 = (int) Math.round( y2 - ARROW_LENGTH * Math.sin(angle + ARROW_ANGLE));
+			pPath.lineTo(x3, y3).lineTo(x2, y2).lineTo(pEnd.getX(), pEnd.getY());
+		}
+	}
 }
@@ -49,6 +49,8 @@ import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
 import org.jetuml.geom.Side;
+import org.jetuml.rendering.Instrumentation.Phase;
+import org.jetuml.rendering.edges.EdgeRenderPlan;
 import org.jetuml.rendering.edges.EdgeStorage;
 import org.jetuml.rendering.edges.NodeIndex;
 import org.jetuml.rendering.edges.StoredEdgeRenderer;
@@ -58,7 +60,6 @@ import org.jetuml.rendering.nodes.PackageDescriptionNodeRenderer;
 import org.jetuml.rendering.nodes.PackageNodeRenderer;
 import org.jetuml.rendering.nodes.TypeNodeRenderer;
 
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * The renderer for class diagrams.
@@ -92,20 +93,34 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 	 * @pre pDiagram != null && pGraphics != null.
 	 */
 	@Override
-	public void draw(GraphicsContext pGraphics)
+	public void draw(RenderingContext pGraphics)
 	{
 		//draw and store nodes 
 		activateNodeStorages();
-		diagram().rootNodes().forEach(node -> drawNode(node, pGraphics));
+		drawNodes(pGraphics);
 		
 		//plan edge paths using Layouter
 		layout();
 		
 		//draw edges using plan from EdgeStorage
-		diagram().edges().forEach(edge -> draw(edge, pGraphics));
+		drawEdges(pGraphics);
 		deactivateAndClearNodeStorages();
 	}
 	
+	@Override
+	public void drawOverview(RenderingContext pGraphics)
+	{
+		//plan edge paths so that queries about edges remain accurate, 
+		//unless the diagram did not change since they were last planned
+		if( aLayoutModificationCount != diagram().modificationCount() )
+		{
+			activateNodeStorages();
+			layout();
+			deactivateAndClearNodeStorages();
+		}
+		super.drawOverview(pGraphics);
+	}
+	
 	@Override
 	public final Rectangle getBounds()
 	{
@@ -121,6 +136,7 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 	private static final int TEN_PIXELS = 10;
 	
 	private final EdgeStorage aEdgeStorage = new EdgeStorage();
+	private long aLayoutModificationCount = -1;
 
 	/**
 	 * Uses positional information of nodes and stored edges to layout and store 
@@ -131,6 +147,7 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 	public void layout()
 	{
 		assert diagram().getType() == DiagramType.CLASS;
+		long start = Instrumentation.start();
 		aEdgeStorage.clearStorage();
 		layoutSegmentedEdges(EdgePriority.INHERITANCE);	
 		layoutSegmentedEdges(EdgePriority.IMPLEMENTATION);
@@ -139,6 +156,8 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 		layoutSegmentedEdges(EdgePriority.ASSOCIATION);
 		layoutDependencyEdges();
 		layoutSelfEdges();
+		aLayoutModificationCount = diagram().modificationCount();
+		Instrumentation.stop(Phase.CLASS_LAYOUT, start);
 	}
 	
 	public boolean isEmpty()
@@ -802,7 +821,7 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 	
 	private Line getFace(Node pNode, Side pSide)
 	{
-		return ((NodeRenderer)rendererFor(pNode.getClass())).getFace(pNode, pSide);
+		return ((NodeRenderer)rendererFor(pNode)).getFace(pNode, pSide);
 	}
 	
 	/**
@@ -1366,6 +1385,28 @@ public final class ClassDiagramRenderer extends AbstractDiagramRenderer
 		}
 	}
 	
+	/**
+	 * Gets the last render plan stored for pEdge.
+	 * @param pEdge the edge of interest
+	 * @return the render plan of pEdge, if any
+	 * @pre pEdge != null
+	 */
+	public Optional<EdgeRenderPlan> getRenderPlan(Edge pEdge)
+	{
+		return aEdgeStorage.getRenderPlan(pEdge);
+	}
+	
+	/**
+	 * Stores the render plan of pEdge alongside its EdgePath.
+	 * @param pEdge the edge of interest
+	 * @param pPlan the render plan of pEdge
+	 * @pre the diagram's EdgeStorage contains pEdge
+	 */
+	public void storeRenderPlan(Edge pEdge, EdgeRenderPlan pPlan)
+	{
+		aEdgeStorage.storeRenderPlan(pEdge, pPlan);
+	}
+	
 	/**
 	 * Returns an array of [startPoint, endPoint] where a self-edge attached to the pCorner of pNode would connect.
 	 * @param pCorner the NodeCorner of interest
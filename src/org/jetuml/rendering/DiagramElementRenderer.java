@@ -26,7 +26,6 @@ import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
 
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * A wrapper around a Diagram object that is able to compute the geometry
@@ -68,7 +67,7 @@ public interface DiagramElementRenderer
      * @param pGraphics the graphics context
      * @pre pElement != null
 	 */
-   	void draw(DiagramElement pElement, GraphicsContext pGraphics);
+   	void draw(DiagramElement pElement, RenderingContext pGraphics);
    	
    	/**
      * Draw selection handles around the element.
@@ -76,5 +75,5 @@ public interface DiagramElementRenderer
      * @param pGraphics the graphics context
      * @pre pElement != null && pGraphics != null
 	 */
-   	void drawSelectionHandles(DiagramElement pElement, GraphicsContext pGraphics);  	
+   	void drawSelectionHandles(DiagramElement pElement, RenderingContext pGraphics);  	
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import java.util.Objects;
+
+import org.jetuml.annotations.Immutable;
+
+/**
+ * The description of a font used to draw the text of diagrams, independent 
+ * of any graphics toolkit. Each rendering context and font metrics 
+ * implementation converts it to a font of its own toolkit, so that 
+ * describing a font never requires a graphics toolkit to be started.
+ */
+@Immutable
+public final class DiagramFont
+{
+	public static final String SYSTEM_FAMILY = "System";
+	public static final DiagramFont DEFAULT = new DiagramFont(SYSTEM_FAMILY, FontMetrics.DEFAULT_FONT_SIZE, false);
+	
+	private final String aFamily;
+	private final double aSize;
+	private final boolean aBold;
+	
+	/**
+	 * @param pFamily The name of the font family.
+	 * @param pSize The size of the font, in points.
+	 * @param pBold True for a bold font.
+	 * @pre pFamily != null && pSize > 0
+	 */
+	public DiagramFont(String pFamily, double pSize, boolean pBold)
+	{
+		assert pFamily != null && pSize > 0;
+		aFamily = pFamily;
+		aSize = pSize;
+		aBold = pBold;
+	}
+	
+	/**
+	 * @return The name of the font family.
+	 */
+	public String getFamily()
+	{
+		return aFamily;
+	}
+	
+	/**
+	 * @return The size of the font, in points.
+	 */
+	public double getSize()
+	{
+		return aSize;
+	}
+	
+	/**
+	 * @return True if the font is bold.
+	 */
+	public boolean isBold()
+	{
+		return aBold;
+	}
+	
+	/**
+	 * @return A font of the same family and size, in bold.
+	 */
+	public DiagramFont bold()
+	{
+		return new DiagramFont(aFamily, aSize, true);
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(aFamily, aSize, aBold);
+	}
+	
+	@Override
+	public boolean equals(Object pObject)
+	{
+		if( this == pObject )
+		{
+			return true;
+		}
+		if( pObject == null || pObject.getClass() != getClass() )
+		{
+			return false;
+		}
+		DiagramFont other = (DiagramFont) pObject;
+		return aFamily.equals(other.aFamily) && aSize == other.aSize && aBold == other.aBold;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return String.format("[DiagramFont: %s %s%s]", aFamily, aSize, aBold ? " bold" : "");
+	}
+}
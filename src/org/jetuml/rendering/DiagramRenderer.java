@@ -33,7 +33,6 @@ import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
 
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * An object responsible for computing the geometry of a diagram. This class is 
@@ -46,6 +45,10 @@ import javafx.scene.canvas.GraphicsContext;
  * 
  * A single instance of each specialized renderer is needed as long as the geometry
  * is recomputed with a call to draw before any querying of the diagram geometry.
+ * 
+ * A renderer is confined to one thread at a time, because it caches the geometry
+ * of its diagram and reuses buffers between calls. Renderers of different diagrams 
+ * share no mutable state, and can be used on different threads at the same time.
  */
 public interface DiagramRenderer
 {
@@ -56,7 +59,18 @@ public interface DiagramRenderer
 	 * @param pGraphics The graphics context where the diagram should be drawn.
 	 * @pre pGraphics != null.
 	 */
-	void draw(GraphicsContext pGraphics);
+	void draw(RenderingContext pGraphics);
+	
+	/**
+	 * Draws a simplified view of the diagram onto the graphics context,
+	 * suitable for small scales. Nodes are drawn as plain boxes without text, and 
+	 * edges as straight lines between the centers of the nodes they connect, without 
+	 * labels or arrow heads. The geometry of the diagram is computed as for draw.
+	 * 
+	 * @param pGraphics The graphics context where the diagram should be drawn.
+	 * @pre pGraphics != null.
+	 */
+	void drawOverview(RenderingContext pGraphics);
 	
 	/**
      * Draws the element.
@@ -64,7 +78,7 @@ public interface DiagramRenderer
      * @param pGraphics the graphics context
      * @pre pElement != null
 	 */
-   	void draw(DiagramElement pElement, GraphicsContext pGraphics);
+   	void draw(DiagramElement pElement, RenderingContext pGraphics);
 	
 	/**
 	 * Returns the edge underneath the given point, if it exists.
@@ -116,7 +130,7 @@ public interface DiagramRenderer
 	 * @param pGraphics The graphics context
 	 * @pre pElement != null && pGraphics != null
 	 */
-	void drawSelectionHandles(DiagramElement pElement, GraphicsContext pGraphics);
+	void drawSelectionHandles(DiagramElement pElement, RenderingContext pGraphics);
 
 	/**
 	 * Gets the smallest rectangle that bounds the element. The bounding rectangle contains all labels.
@@ -22,65 +22,27 @@ package org.jetuml.rendering;
 
 import org.jetuml.geom.Dimension;
 
-import javafx.geometry.Bounds;
-import javafx.scene.text.Font;
-import javafx.scene.text.Text;
-
 /**
- * A utility class to determine various font position metrics
- * for the particular font.
+ * Measures the strings drawn in a given font. Each rendering backend
+ * provides an implementation that measures text the way its rendering 
+ * context draws it.
  * 
- * A visual diagram for why the bounds values are what they are
- * (with word "Thy"):   ____________________
- * getMinY() (ascent)  |*****  *           |
- *                     |  *    *           |
- *                     |  *    *****   *  *|
- *                     |  *    *   *   *  *|
- *                     |  *    *   *   ****|
- * (baseline)          |------------------*| x=getWidth()
- *                     |                  *|
- *                     |                  *| 
- * y = 0  (descent)    |                ***|
- *                     |                   |
- *                     |                   |
- * getMaxY() (leading) |-------------------|
- *
- * Hence, upon calling getHeight(), to get tight bounds, one should subtract
- * off the leading value (found by getting the max Y value of a one-lined text
- * box)
+ * The width of a string is the width of its longest line. Its height 
+ * extends from the top of the first line to the baseline of the last line
+ * plus the space above the following line, but excludes the descent below 
+ * the last line, so that the bounds are tight.
+ * 
+ * Implementations can be used by several threads at once.
  */
-public class FontMetrics 
+public interface FontMetrics 
 {
-	public static final int DEFAULT_FONT_SIZE = 12;
-	private static final String BLANK = "";
-	private Text aTextNode;
-
-	/**
-	 * Creates a new FontMetrics object.
-	 * @param pFont The font to use.
-	 */
-
-	public FontMetrics(Font pFont)
-	{
-		assert pFont != null;
-		
-		aTextNode = new Text();
-		aTextNode.setFont(pFont);
-	}
+	int DEFAULT_FONT_SIZE = 12;
 
 	/**
 	 * Returns the dimension of a given string.
 	 * @param pString The string to which the bounds pertain.
 	 * @return The dimension of the string
+	 * @pre pString != null
 	 */
-	public Dimension getDimension(String pString)
-	{
-		assert pString != null;
-		
-		aTextNode.setText(pString);
-		Bounds bounds = aTextNode.getLayoutBounds();
-		aTextNode.setText(BLANK);
-		double leading = aTextNode.getLayoutBounds().getMaxY();
-		return new Dimension((int) Math.round(bounds.getWidth()), (int) Math.round(bounds.getHeight() - leading));
-	}
-} 
\ No newline at end of file
+	Dimension getDimension(String pString);
+} 
@@ -25,18 +25,32 @@ import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
 
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
 import javafx.scene.paint.Paint;
 
 /**
  * A grid to which points and rectangles can be "snapped". The
  * snapping operation moves a point to the nearest grid point.
+ * 
+ * The grid is drawn by filling the area with a pattern made of a single
+ * tile of the size of a grid cell, instead of stroking each line. The tile 
+ * is created the first time the grid is drawn and is reused as long as the 
+ * line width does not change. The tile is not synchronized, so the grid
+ * must only be drawn on the JavaFX application thread, like the canvas 
+ * it is drawn on.
  */
 public final class Grid
 {
 	private static final Color GRID_COLOR = Color.rgb(220, 220, 220);
 	private static final double GRID_SIZE = 10;
 	
+	private static Image aTile; 
+	private static double aTileLineWidth = -1; // The line width for which aTile was created
+	
 	private Grid() {}
 	
 	/**
@@ -46,21 +60,37 @@ public final class Grid
      */
 	public static void draw(GraphicsContext pGraphics, Rectangle pBounds)
 	{
-		Paint oldStroke = pGraphics.getStroke();
-		pGraphics.setStroke(GRID_COLOR);
-		int x1 = pBounds.getX();
-		int y1 = pBounds.getY();
-		int x2 = pBounds.getMaxX();
-		int y2 = pBounds.getMaxY();
-		for(int x = x1; x < x2; x += GRID_SIZE)
-		{
-			ToolGraphics.strokeSharpLine(pGraphics, x, y1, x, y2);
-		}
-		for(int y = y1; y < y2; y += GRID_SIZE)
+		Paint oldFill = pGraphics.getFill();
+		pGraphics.setFill(new ImagePattern(tile(pGraphics.getLineWidth()), 
+				pBounds.getX(), pBounds.getY(), GRID_SIZE, GRID_SIZE, false));
+		pGraphics.fillRect(pBounds.getX(), pBounds.getY(), pBounds.getWidth(), pBounds.getHeight());
+		pGraphics.setFill(oldFill);
+	}
+	
+	/*
+	 * Returns a tile with a vertical line along its left edge and a horizontal line 
+	 * along its top edge. The lines are one pixel wide, and lines thinner than a pixel 
+	 * are emulated with a transparent color, as they would be when stroked.
+	 */
+	private static Image tile(double pLineWidth)
+	{
+		if( aTile == null || aTileLineWidth != pLineWidth )
 		{
-			ToolGraphics.strokeSharpLine(pGraphics, x1, y, x2, y);
+			int size = (int) GRID_SIZE;
+			Color color = GRID_COLOR.deriveColor(0, 1, 1, Math.min(1, pLineWidth));
+			Color intersection = GRID_COLOR.deriveColor(0, 1, 1, 1 - Math.pow(1 - color.getOpacity(), 2));
+			WritableImage tile = new WritableImage(size, size);
+			PixelWriter writer = tile.getPixelWriter();
+			for( int i = 1; i < size; i++ )
+			{
+				writer.setColor(i, 0, color);
+				writer.setColor(0, i, color);
+			}
+			writer.setColor(0, 0, intersection);
+			aTile = tile;
+			aTileLineWidth = pLineWidth;
 		}
-		pGraphics.setStroke(oldStroke);
+		return aTile;
 	}
 
 	
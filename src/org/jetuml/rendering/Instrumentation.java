@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Records where the time goes when diagrams are rendered: a histogram of the 
+ * duration of each phase of rendering, and counters of the work done.
+ * 
+ * Instrumentation is off unless the system property jetuml.instrumentation is 
+ * true when the application starts. When it is off, start() returns a constant and
+ * stop() and count() return immediately, so the calls can stay in the rendering code.
+ * When it is on, the metrics are published over JMX as an InstrumentationMXBean, 
+ * and a report is printed on the standard error stream when the process exits.
+ * Metrics can be recorded from any thread.
+ * 
+ * To time a phase:
+ * 
+ * long start = Instrumentation.start();
+ * ... 
+ * Instrumentation.stop(Phase.DRAW_NODES, start);
+ */
+public final class Instrumentation
+{
+	/**
+	 * The name of the system property that turns instrumentation on.
+	 */
+	public static final String PROPERTY = "jetuml.instrumentation";
+	
+	/**
+	 * The name under which the metrics are published over JMX.
+	 */
+	public static final String OBJECT_NAME = "org.jetuml:type=Instrumentation";
+	
+	private static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+	private static final double NANOS_PER_MICRO = 1_000;
+	private static final double NANOS_PER_MILLI = 1_000_000;
+	private static final double[] PERCENTILES = {50, 95, 99};
+	
+	/**
+	 * The phases of rendering that are timed.
+	 */
+	public enum Phase
+	{
+		PAINT, DRAW_NODES, DRAW_EDGES, SELECTION_HANDLES, CLASS_LAYOUT, SEQUENCE_LAYOUT, TEXT_MEASUREMENT;
+		
+		private final Histogram aHistogram = new Histogram();
+	}
+	
+	/**
+	 * The events that are counted.
+	 */
+	public enum Counter
+	{
+		ELEMENTS_DRAWN, NODE_BOUNDS_HITS, NODE_BOUNDS_MISSES;
+		
+		private final LongAdder aCount = new LongAdder();
+	}
+	
+	static
+	{
+		if( ENABLED )
+		{
+			try
+			{
+				ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+			}
+			catch(JMException exception)
+			{
+				// The metrics remain available through the report
+			}
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(report())));
+		}
+	}
+	
+	private Instrumentation() {}
+	
+	/**
+	 * @return True if the metrics are recorded.
+	 */
+	public static boolean isEnabled()
+	{
+		return ENABLED;
+	}
+	
+	/**
+	 * @return The start time of a phase, to pass to stop(). 
+	 */
+	public static long start()
+	{
+		if( ENABLED )
+		{
+			return System.nanoTime();
+		}
+		return 0;
+	}
+	
+	/**
+	 * Records the duration of a phase that began at pStart.
+	 * 
+	 * @param pPhase The phase that ended.
+	 * @param pStart The value returned by start() when the phase began.
+	 * @pre pPhase != null
+	 */
+	public static void stop(Phase pPhase, long pStart)
+	{
+		if( ENABLED )
+		{
+			record(pPhase, System.nanoTime() - pStart);
+		}
+	}
+	
+	/**
+	 * Counts one occurrence of pCounter.
+	 * 
+	 * @param pCounter The event that occurred.
+	 * @pre pCounter != null
+	 */
+	public static void count(Counter pCounter)
+	{
+		if( ENABLED )
+		{
+			increment(pCounter);
+		}
+	}
+	
+	/*
+	 * Records pNanos in the histogram of pPhase, whether or not instrumentation is on.
+	 */
+	static void record(Phase pPhase, long pNanos)
+	{
+		assert pPhase != null;
+		pPhase.aHistogram.record(pNanos);
+	}
+	
+	/*
+	 * Increments pCounter, whether or not instrumentation is on.
+	 */
+	static void increment(Counter pCounter)
+	{
+		assert pCounter != null;
+		pCounter.aCount.increment();
+	}
+	
+	/**
+	 * @return A report of the metrics, one line per phase and per counter.
+	 *     The percentiles are upper bounds, within a factor of two.
+	 */
+	public static String report()
+	{
+		StringBuilder report = new StringBuilder();
+		for( Phase phase : Phase.values() )
+		{
+			Histogram histogram = phase.aHistogram;
+			long count = histogram.count();
+			report.append(String.format("%s count=%d total_ms=%.3f mean_us=%.1f", phase.name().toLowerCase(), count, 
+					histogram.totalNanos() / NANOS_PER_MILLI, count == 0 ? 0 : histogram.totalNanos() / NANOS_PER_MICRO / count));
+			for( double percentile : PERCENTILES )
+			{
+				report.append(String.format(" p%d_us=%.1f", (int) percentile, histogram.percentile(percentile) / NANOS_PER_MICRO));
+			}
+			report.append(String.format(" max_us=%.1f%n", histogram.maxNanos() / NANOS_PER_MICRO));
+		}
+		for( Counter counter : Counter.values() )
+		{
+			report.append(counter.name().toLowerCase()).append(' ').append(counter.aCount.sum()).append('\n');
+		}
+		return report.toString();
+	}
+	
+	/**
+	 * Sets all the metrics back to zero.
+	 */
+	public static void reset()
+	{
+		for( Phase phase : Phase.values() )
+		{
+			phase.aHistogram.reset();
+		}
+		for( Counter counter : Counter.values() )
+		{
+			counter.aCount.reset();
+		}
+	}
+	
+	/*
+	 * Durations, in buckets whose limits are powers of two nanoseconds.
+	 */
+	private static final class Histogram
+	{
+		private final AtomicLongArray aBuckets = new AtomicLongArray(Long.SIZE + 1);
+		private final LongAdder aTotalNanos = new LongAdder();
+		private final AtomicLong aMaxNanos = new AtomicLong();
+		
+		void record(long pNanos)
+		{
+			long nanos = Math.max(0, pNanos);
+			aBuckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(nanos)); // Bucket i holds durations below 2^i
+			aTotalNanos.add(nanos);
+			aMaxNanos.accumulateAndGet(nanos, Math::max);
+		}
+		
+		long count()
+		{
+			long count = 0;
+			for( int i = 0; i < aBuckets.length(); i++ )
+			{
+				count += aBuckets.get(i);
+			}
+			return count;
+		}
+		
+		long totalNanos()
+		{
+			return aTotalNanos.sum();
+		}
+		
+		long maxNanos()
+		{
+			return aMaxNanos.get();
+		}
+		
+		/*
+		 * The upper limit of the bucket in which the percentile falls, 
+		 * or the maximum if it is lower.
+		 */
+		long percentile(double pPercentile)
+		{
+			long rank = (long) Math.ceil(count() * pPercentile / 100);
+			if( rank == 0 )
+			{
+				return 0;
+			}
+			long count = 0;
+			int bucket = 0;
+			while( bucket < aBuckets.length() - 1 && count + aBuckets.get(bucket) < rank )
+			{
+				count += aBuckets.get(bucket);
+				bucket++;
+			}
+			long limit = bucket < Long.SIZE - 1 ? 1L << bucket : Long.MAX_VALUE;
+			return Math.min(limit, maxNanos());
+		}
+		
+		void reset()
+		{
+			for( int i = 0; i < aBuckets.length(); i++ )
+			{
+				aBuckets.set(i, 0);
+			}
+			aTotalNanos.reset();
+			aMaxNanos.set(0);
+		}
+	}
+	
+	/*
+	 * The view of the metrics published over JMX.
+	 */
+	static final class Bean implements InstrumentationMXBean
+	{
+		@Override
+		public String getReport()
+		{
+			return report();
+		}
+		
+		@Override
+		public Map<String, Long> getCounters()
+		{
+			Map<String, Long> counters = new LinkedHashMap<>();
+			for( Counter counter : Counter.values() )
+			{
+				counters.put(counter.name().toLowerCase(), counter.aCount.sum());
+			}
+			return counters;
+		}
+		
+		@Override
+		public Map<String, Long> getPhaseCounts()
+		{
+			Map<String, Long> counts = new LinkedHashMap<>();
+			for( Phase phase : Phase.values() )
+			{
+				counts.put(phase.name().toLowerCase(), phase.aHistogram.count());
+			}
+			return counts;
+		}
+		
+		@Override
+		public Map<String, Double> getPhaseTotalMillis()
+		{
+			Map<String, Double> totals = new LinkedHashMap<>();
+			for( Phase phase : Phase.values() )
+			{
+				totals.put(phase.name().toLowerCase(), phase.aHistogram.totalNanos() / NANOS_PER_MILLI);
+			}
+			return totals;
+		}
+		
+		@Override
+		public void reset()
+		{
+			Instrumentation.reset();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import java.util.Map;
+
+/**
+ * The management interface through which the rendering metrics
+ * collected by Instrumentation are published over JMX, under the 
+ * name org.jetuml:type=Instrumentation.
+ */
+public interface InstrumentationMXBean
+{
+	/**
+	 * @return A report of the time spent in each phase of rendering, 
+	 *     and of the counters, one metric per line.
+	 */
+	String getReport();
+	
+	/**
+	 * @return The value of each counter, by name.
+	 */
+	Map<String, Long> getCounters();
+	
+	/**
+	 * @return The number of times each phase was timed, by name.
+	 */
+	Map<String, Long> getPhaseCounts();
+	
+	/**
+	 * @return The total time spent in each phase, in milliseconds, by name.
+	 */
+	Map<String, Double> getPhaseTotalMillis();
+	
+	/**
+	 * Sets all the metrics back to zero.
+	 */
+	void reset();
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+
+import org.jetuml.geom.Dimension;
+
+/**
+ * Measures strings with AWT font metrics, the way they are drawn by a 
+ * Java2DRenderingContext. Does not require the JavaFX toolkit or a display, 
+ * and can be used from any thread.
+ */
+public final class Java2DFontMetrics implements FontMetrics
+{
+	private static final FontRenderContext RENDER_CONTEXT = Java2DRenderingContext.FONT_RENDER_CONTEXT;
+	
+	private final Font aFont;
+	private final double aAscent;
+	private final double aLineHeight;
+
+	/**
+	 * Creates a new FontMetrics object.
+	 * @param pFont The font to use.
+	 */
+	public Java2DFontMetrics(DiagramFont pFont)
+	{
+		assert pFont != null;
+		aFont = Java2DRenderingContext.toFont(pFont);
+		LineMetrics metrics = aFont.getLineMetrics(" ", RENDER_CONTEXT);
+		aAscent = metrics.getAscent();
+		aLineHeight = metrics.getHeight();
+	}
+
+	@Override
+	public Dimension getDimension(String pString)
+	{
+		assert pString != null;
+		String[] lines = pString.split("\n", -1);
+		double width = 0;
+		for( String line : lines )
+		{
+			width = Math.max(width, aFont.getStringBounds(line, RENDER_CONTEXT).getWidth());
+		}
+		double height = aLineHeight * (lines.length - 1) + aAscent;
+		return new Dimension((int) Math.round(width), (int) Math.round(height));
+	}
+}
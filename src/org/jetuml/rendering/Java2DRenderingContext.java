@@ -0,0 +1,388 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import java.awt.BasicStroke;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.geometry.VPos;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.effect.Effect;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.ArcType;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * A rendering context that draws on a Java2D graphics object, for example 
+ * one obtained from a BufferedImage. Does not require the JavaFX toolkit or
+ * a display. Only solid colors are supported as paints, and a drop shadow 
+ * effect is drawn as an offset copy of the filled shape, without blur.
+ */
+public final class Java2DRenderingContext implements RenderingContext
+{
+	/**
+	 * The context used to measure and draw text.
+	 */
+	public static final FontRenderContext FONT_RENDER_CONTEXT = new FontRenderContext(null, true, true);
+	
+	private static final Map<DiagramFont, Font> FONTS = new ConcurrentHashMap<>();
+	private static final float MITER_LIMIT = 10;
+	
+	private final Graphics2D aGraphics;
+	private final Path2D aPath = new Path2D.Double();
+	private Paint aFill = Color.BLACK;
+	private Paint aStroke = Color.BLACK;
+	private double aLineWidth = 1;
+	private double[] aLineDashes;
+	private Effect aEffect;
+	private DiagramFont aFont = DiagramFont.DEFAULT;
+	private TextAlignment aTextAlign = TextAlignment.LEFT;
+	private VPos aTextBaseline = VPos.BASELINE;
+	
+	/**
+	 * @param pGraphics The graphics object to draw on.
+	 * @pre pGraphics != null
+	 */
+	public Java2DRenderingContext(Graphics2D pGraphics)
+	{
+		assert pGraphics != null;
+		aGraphics = pGraphics;
+		aGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		aGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		aGraphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+		aGraphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+	}
+	
+	/**
+	 * @param pFont A diagram font.
+	 * @return The AWT font that corresponds to pFont.
+	 * @pre pFont != null
+	 */
+	static Font toFont(DiagramFont pFont)
+	{
+		assert pFont != null;
+		return FONTS.computeIfAbsent(pFont, font -> 
+		{
+			String family = font.getFamily();
+			if( DiagramFont.SYSTEM_FAMILY.equals(family) )
+			{
+				family = Font.SANS_SERIF;
+			}
+			return new Font(family, font.isBold() ? Font.BOLD : Font.PLAIN, 1).deriveFont((float) font.getSize());
+		});
+	}
+
+	@Override
+	public Paint getFill()
+	{
+		return aFill;
+	}
+
+	@Override
+	public void setFill(Paint pFill)
+	{
+		aFill = pFill;
+	}
+
+	@Override
+	public Paint getStroke()
+	{
+		return aStroke;
+	}
+
+	@Override
+	public void setStroke(Paint pStroke)
+	{
+		aStroke = pStroke;
+	}
+
+	@Override
+	public double getLineWidth()
+	{
+		return aLineWidth;
+	}
+
+	@Override
+	public void setLineWidth(double pWidth)
+	{
+		aLineWidth = pWidth;
+	}
+
+	@Override
+	public double[] getLineDashes()
+	{
+		return aLineDashes;
+	}
+
+	@Override
+	public void setLineDashes(double... pDashes)
+	{
+		if( pDashes == null || pDashes.length == 0 )
+		{
+			aLineDashes = null;
+		}
+		else
+		{
+			aLineDashes = pDashes.clone();
+		}
+	}
+
+	@Override
+	public void setEffect(Effect pEffect)
+	{
+		aEffect = pEffect;
+	}
+
+	@Override
+	public DiagramFont getFont()
+	{
+		return aFont;
+	}
+
+	@Override
+	public void setFont(DiagramFont pFont)
+	{
+		aFont = pFont;
+	}
+
+	@Override
+	public TextAlignment getTextAlign()
+	{
+		return aTextAlign;
+	}
+
+	@Override
+	public void setTextAlign(TextAlignment pAlignment)
+	{
+		aTextAlign = pAlignment;
+	}
+
+	@Override
+	public VPos getTextBaseline()
+	{
+		return aTextBaseline;
+	}
+
+	@Override
+	public void setTextBaseline(VPos pBaseline)
+	{
+		aTextBaseline = pBaseline;
+	}
+
+	@Override
+	public void translate(double pX, double pY)
+	{
+		aGraphics.translate(pX, pY);
+	}
+
+	@Override
+	public void scale(double pX, double pY)
+	{
+		aGraphics.scale(pX, pY);
+	}
+
+	@Override
+	public void fillRect(double pX, double pY, double pWidth, double pHeight)
+	{
+		fill(new Rectangle2D.Double(pX, pY, pWidth, pHeight));
+	}
+
+	@Override
+	public void strokeRect(double pX, double pY, double pWidth, double pHeight)
+	{
+		stroke(new Rectangle2D.Double(pX, pY, pWidth, pHeight));
+	}
+
+	@Override
+	public void fillRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight)
+	{
+		fill(new RoundRectangle2D.Double(pX, pY, pWidth, pHeight, pArcWidth, pArcHeight));
+	}
+
+	@Override
+	public void strokeRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight)
+	{
+		stroke(new RoundRectangle2D.Double(pX, pY, pWidth, pHeight, pArcWidth, pArcHeight));
+	}
+
+	@Override
+	public void fillOval(double pX, double pY, double pWidth, double pHeight)
+	{
+		fill(new Ellipse2D.Double(pX, pY, pWidth, pHeight));
+	}
+
+	@Override
+	public void strokeOval(double pX, double pY, double pWidth, double pHeight)
+	{
+		stroke(new Ellipse2D.Double(pX, pY, pWidth, pHeight));
+	}
+
+	@Override
+	public void strokeArc(double pX, double pY, double pWidth, double pHeight, double pStartAngle, double pArcExtent,
+			ArcType pClosure)
+	{
+		int closure = Arc2D.OPEN;
+		if( pClosure == ArcType.CHORD )
+		{
+			closure = Arc2D.CHORD;
+		}
+		else if( pClosure == ArcType.ROUND )
+		{
+			closure = Arc2D.PIE;
+		}
+		stroke(new Arc2D.Double(pX, pY, pWidth, pHeight, pStartAngle, pArcExtent, closure));
+	}
+
+	@Override
+	public void strokeLine(double pX1, double pY1, double pX2, double pY2)
+	{
+		stroke(new Line2D.Double(pX1, pY1, pX2, pY2));
+	}
+
+	@Override
+	public void fillText(String pText, double pX, double pY)
+	{
+		Font font = toFont(aFont);
+		String[] lines = pText.split("\n", -1);
+		LineMetrics metrics = font.getLineMetrics(" ", FONT_RENDER_CONTEXT);
+		double lineHeight = metrics.getHeight();
+		double textHeight = lineHeight * (lines.length - 1) + metrics.getAscent() + metrics.getDescent();
+		double top = pY - metrics.getAscent();
+		if( aTextBaseline == VPos.TOP )
+		{
+			top = pY;
+		}
+		else if( aTextBaseline == VPos.CENTER )
+		{
+			top = pY - textHeight / 2;
+		}
+		else if( aTextBaseline == VPos.BOTTOM )
+		{
+			top = pY - textHeight;
+		}
+		aGraphics.setFont(font);
+		aGraphics.setColor(toColor(aFill));
+		for( int i = 0; i < lines.length; i++ )
+		{
+			double x = pX;
+			if( aTextAlign == TextAlignment.CENTER || aTextAlign == TextAlignment.RIGHT )
+			{
+				double width = font.getStringBounds(lines[i], FONT_RENDER_CONTEXT).getWidth();
+				x -= aTextAlign == TextAlignment.CENTER ? width / 2 : width;
+			}
+			aGraphics.drawString(lines[i], (float) x, (float) (top + metrics.getAscent() + i * lineHeight));
+		}
+	}
+
+	@Override
+	public void beginPath()
+	{
+		aPath.reset();
+	}
+
+	@Override
+	public void moveTo(double pX, double pY)
+	{
+		aPath.moveTo(pX, pY);
+	}
+
+	@Override
+	public void lineTo(double pX, double pY)
+	{
+		aPath.lineTo(pX, pY);
+	}
+
+	@Override
+	public void quadraticCurveTo(double pControlX, double pControlY, double pX, double pY)
+	{
+		aPath.quadTo(pControlX, pControlY, pX, pY);
+	}
+
+	@Override
+	public void stroke()
+	{
+		stroke(aPath);
+	}
+
+	@Override
+	public void fill()
+	{
+		fill(aPath);
+	}
+	
+	private void fill(Shape pShape)
+	{
+		if( aEffect instanceof DropShadow )
+		{
+			DropShadow shadow = (DropShadow) aEffect;
+			AffineTransform transform = aGraphics.getTransform();
+			aGraphics.translate(shadow.getOffsetX(), shadow.getOffsetY());
+			aGraphics.setColor(toColor(shadow.getColor()));
+			aGraphics.fill(pShape);
+			aGraphics.setTransform(transform);
+		}
+		aGraphics.setColor(toColor(aFill));
+		aGraphics.fill(pShape);
+	}
+	
+	private void stroke(Shape pShape)
+	{
+		float[] dashes = null;
+		if( aLineDashes != null )
+		{
+			dashes = new float[aLineDashes.length];
+			for( int i = 0; i < dashes.length; i++ )
+			{
+				dashes[i] = (float) aLineDashes[i];
+			}
+		}
+		aGraphics.setStroke(new BasicStroke((float) aLineWidth, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_MITER, 
+				MITER_LIMIT, dashes, 0));
+		aGraphics.setColor(toColor(aStroke));
+		aGraphics.draw(pShape);
+	}
+	
+	private static java.awt.Color toColor(Paint pPaint)
+	{
+		if( !(pPaint instanceof Color) )
+		{
+			return java.awt.Color.BLACK;
+		}
+		Color color = (Color) pPaint;
+		return new java.awt.Color((float) color.getRed(), (float) color.getGreen(), (float) color.getBlue(), 
+				(float) color.getOpacity());
+	}
+}
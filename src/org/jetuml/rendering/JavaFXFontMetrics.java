@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import org.jetuml.geom.Dimension;
+
+import javafx.geometry.Bounds;
+import javafx.scene.text.Text;
+
+/**
+ * Measures strings with a JavaFX text node, the way they are drawn 
+ * on a JavaFX canvas. Requires the JavaFX toolkit. A text node that is
+ * not part of a scene can be used on any thread, but not on several at 
+ * once, so each thread measures with its own node.
+ * 
+ * A visual diagram for why the bounds values are what they are
+ * (with word "Thy"):   ____________________
+ * getMinY() (ascent)  |*****  *           |
+ *                     |  *    *           |
+ *                     |  *    *****   *  *|
+ *                     |  *    *   *   *  *|
+ *                     |  *    *   *   ****|
+ * (baseline)          |------------------*| x=getWidth()
+ *                     |                  *|
+ *                     |                  *| 
+ * y = 0  (descent)    |                ***|
+ *                     |                   |
+ *                     |                   |
+ * getMaxY() (leading) |-------------------|
+ *
+ * Hence, upon calling getHeight(), to get tight bounds, one should subtract
+ * off the leading value (found by getting the max Y value of a one-lined text
+ * box)
+ */
+public final class JavaFXFontMetrics implements FontMetrics
+{
+	private static final String BLANK = "";
+	private final ThreadLocal<Text> aTextNode;
+
+	/**
+	 * Creates a new FontMetrics object.
+	 * @param pFont The font to use.
+	 */
+	public JavaFXFontMetrics(DiagramFont pFont)
+	{
+		assert pFont != null;
+		aTextNode = ThreadLocal.withInitial(() -> 
+		{
+			Text text = new Text();
+			text.setFont(CanvasRenderingContext.toFont(pFont));
+			return text;
+		});
+	}
+
+	@Override
+	public Dimension getDimension(String pString)
+	{
+		assert pString != null;
+		
+		Text textNode = aTextNode.get();
+		textNode.setText(pString);
+		Bounds bounds = textNode.getLayoutBounds();
+		textNode.setText(BLANK);
+		double leading = textNode.getLayoutBounds().getMaxY();
+		return new Dimension((int) Math.round(bounds.getWidth()), (int) Math.round(bounds.getHeight() - leading));
+	}
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+/**
+ * The graphics toolkits that can measure and draw diagrams. The backend 
+ * used for measuring text is selected once, when the application starts,
+ * with the system property jetuml.rendering. JavaFX is the default and must
+ * be used whenever diagrams are shown on a canvas, so that the measured
+ * strings fit the drawn ones. Java2D does not require the JavaFX toolkit 
+ * or a display, and is meant for rendering diagrams in headless processes.
+ */
+public enum RenderingBackend
+{
+	JAVAFX, JAVA2D;
+	
+	/**
+	 * The name of the system property that selects the backend.
+	 */
+	public static final String PROPERTY = "jetuml.rendering";
+	
+	private static final RenderingBackend SELECTED = parse(System.getProperty(PROPERTY));
+	
+	/**
+	 * @return The backend selected for this process.
+	 */
+	public static RenderingBackend selected()
+	{
+		return SELECTED;
+	}
+	
+	/**
+	 * @param pName The name of a backend, in any case. May be null.
+	 * @return The backend named pName, or JAVAFX if pName does not name a backend.
+	 */
+	static RenderingBackend parse(String pName)
+	{
+		if( pName != null )
+		{
+			for( RenderingBackend backend : values() )
+			{
+				if( backend.name().equalsIgnoreCase(pName.trim()) )
+				{
+					return backend;
+				}
+			}
+		}
+		return JAVAFX;
+	}
+	
+	/**
+	 * @param pFont The font to measure.
+	 * @return An object that measures strings in pFont as this backend draws them.
+	 * @pre pFont != null
+	 */
+	public FontMetrics createFontMetrics(DiagramFont pFont)
+	{
+		assert pFont != null;
+		if( this == JAVA2D )
+		{
+			return new Java2DFontMetrics(pFont);
+		}
+		return new JavaFXFontMetrics(pFont);
+	}
+}
@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import javafx.geometry.VPos;
+import javafx.scene.effect.Effect;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.ArcType;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * The drawing operations that renderers are allowed to use. The operations 
+ * mirror the subset of the JavaFX GraphicsContext API used by the renderers, 
+ * with the same names and semantics, so that diagrams can be drawn on 
+ * other surfaces than a JavaFX canvas, for example into an SVG document.
+ */
+public interface RenderingContext
+{
+	/**
+	 * @return The current fill paint.
+	 */
+	Paint getFill();
+	
+	/**
+	 * @param pFill The new fill paint.
+	 */
+	void setFill(Paint pFill);
+	
+	/**
+	 * @return The current stroke paint.
+	 */
+	Paint getStroke();
+	
+	/**
+	 * @param pStroke The new stroke paint.
+	 */
+	void setStroke(Paint pStroke);
+	
+	/**
+	 * @return The current line width.
+	 */
+	double getLineWidth();
+	
+	/**
+	 * @param pWidth The new line width.
+	 */
+	void setLineWidth(double pWidth);
+	
+	/**
+	 * @return The current line dashes, or null if lines are solid.
+	 */
+	double[] getLineDashes();
+	
+	/**
+	 * @param pDashes The new line dashes. Null or empty for solid lines.
+	 */
+	void setLineDashes(double... pDashes);
+	
+	/**
+	 * @param pEffect The effect to apply to subsequent fill operations, or null for none.
+	 */
+	void setEffect(Effect pEffect);
+	
+	/**
+	 * @return The current font.
+	 */
+	DiagramFont getFont();
+	
+	/**
+	 * @param pFont The new font.
+	 */
+	void setFont(DiagramFont pFont);
+	
+	/**
+	 * @return The current text alignment.
+	 */
+	TextAlignment getTextAlign();
+	
+	/**
+	 * @param pAlignment The new text alignment.
+	 */
+	void setTextAlign(TextAlignment pAlignment);
+	
+	/**
+	 * @return The current text baseline.
+	 */
+	VPos getTextBaseline();
+	
+	/**
+	 * @param pBaseline The new text baseline.
+	 */
+	void setTextBaseline(VPos pBaseline);
+	
+	/**
+	 * Translates the origin of subsequent drawing operations.
+	 * 
+	 * @param pX The x translation.
+	 * @param pY The y translation.
+	 */
+	void translate(double pX, double pY);
+	
+	/**
+	 * Scales subsequent drawing operations.
+	 * 
+	 * @param pX The horizontal scale factor.
+	 * @param pY The vertical scale factor.
+	 */
+	void scale(double pX, double pY);
+	
+	/**
+	 * Fills a rectangle with the current fill paint.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner.
+	 * @param pY The y-coordinate of the top-left corner.
+	 * @param pWidth The width of the rectangle.
+	 * @param pHeight The height of the rectangle.
+	 */
+	void fillRect(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Strokes a rectangle with the current stroke paint.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner.
+	 * @param pY The y-coordinate of the top-left corner.
+	 * @param pWidth The width of the rectangle.
+	 * @param pHeight The height of the rectangle.
+	 */
+	void strokeRect(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Fills a rectangle with rounded corners.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner.
+	 * @param pY The y-coordinate of the top-left corner.
+	 * @param pWidth The width of the rectangle.
+	 * @param pHeight The height of the rectangle.
+	 * @param pArcWidth The width of the corner arcs.
+	 * @param pArcHeight The height of the corner arcs.
+	 */
+	void fillRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight);
+	
+	/**
+	 * Strokes a rectangle with rounded corners.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner.
+	 * @param pY The y-coordinate of the top-left corner.
+	 * @param pWidth The width of the rectangle.
+	 * @param pHeight The height of the rectangle.
+	 * @param pArcWidth The width of the corner arcs.
+	 * @param pArcHeight The height of the corner arcs.
+	 */
+	void strokeRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight);
+	
+	/**
+	 * Fills the oval inscribed in a rectangle.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner of the bounds.
+	 * @param pY The y-coordinate of the top-left corner of the bounds.
+	 * @param pWidth The width of the oval.
+	 * @param pHeight The height of the oval.
+	 */
+	void fillOval(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Strokes the oval inscribed in a rectangle.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner of the bounds.
+	 * @param pY The y-coordinate of the top-left corner of the bounds.
+	 * @param pWidth The width of the oval.
+	 * @param pHeight The height of the oval.
+	 */
+	void strokeOval(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Strokes an arc of the oval inscribed in a rectangle.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner of the bounds.
+	 * @param pY The y-coordinate of the top-left corner of the bounds.
+	 * @param pWidth The width of the oval.
+	 * @param pHeight The height of the oval.
+	 * @param pStartAngle The start angle of the arc, in degrees.
+	 * @param pArcExtent The angular extent of the arc, in degrees.
+	 * @param pClosure How the arc is closed.
+	 */
+	void strokeArc(double pX, double pY, double pWidth, double pHeight, double pStartAngle, double pArcExtent, 
+			ArcType pClosure);
+	
+	/**
+	 * Strokes a line segment.
+	 * 
+	 * @param pX1 The x-coordinate of the start point.
+	 * @param pY1 The y-coordinate of the start point.
+	 * @param pX2 The x-coordinate of the end point.
+	 * @param pY2 The y-coordinate of the end point.
+	 */
+	void strokeLine(double pX1, double pY1, double pX2, double pY2);
+	
+	/**
+	 * Fills a string with the current font, fill, alignment, and baseline.
+	 * 
+	 * @param pText The text to draw.
+	 * @param pX The x-coordinate of the text anchor.
+	 * @param pY The y-coordinate of the text anchor.
+	 */
+	void fillText(String pText, double pX, double pY);
+	
+	/**
+	 * Starts a new path.
+	 */
+	void beginPath();
+	
+	/**
+	 * Starts a new sub-path of the current path.
+	 * 
+	 * @param pX The x-coordinate of the point.
+	 * @param pY The y-coordinate of the point.
+	 */
+	void moveTo(double pX, double pY);
+	
+	/**
+	 * Adds a line segment to the current path.
+	 * 
+	 * @param pX The x-coordinate of the end point.
+	 * @param pY The y-coordinate of the end point.
+	 */
+	void lineTo(double pX, double pY);
+	
+	/**
+	 * Adds a quadratic Bezier segment to the current path.
+	 * 
+	 * @param pControlX The x-coordinate of the control point.
+	 * @param pControlY The y-coordinate of the control point.
+	 * @param pX The x-coordinate of the end point.
+	 * @param pY The y-coordinate of the end point.
+	 */
+	void quadraticCurveTo(double pControlX, double pControlY, double pX, double pY);
+	
+	/**
+	 * Strokes the current path.
+	 */
+	void stroke();
+	
+	/**
+	 * Fills the current path.
+	 */
+	void fill();
+}
@@ -22,11 +22,9 @@ package org.jetuml.rendering;
 
 import org.jetuml.geom.Rectangle;
 
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
-import javafx.scene.text.Font;
 
 /**
  * A collection of utility methods to draw shapes on the canvas.
@@ -55,7 +53,7 @@ public final class RenderingUtils
 	 * @param pDiameter The diameter of the circle.
 	 * @param pShadow True to include a drop shadow.
 	 */
-	public static void drawCircle(GraphicsContext pGraphics, int pX, int pY, int pDiameter, Paint pFill, boolean pShadow)
+	public static void drawCircle(RenderingContext pGraphics, int pX, int pY, int pDiameter, Paint pFill, boolean pShadow)
 	{
 		drawOval( pGraphics, pX, pY, pDiameter, pDiameter, pFill, pShadow);
 	}
@@ -71,7 +69,7 @@ public final class RenderingUtils
 	 * @param pHeight The height of the oval to draw.
 	 * @param pShadow True to include a drop shadow.
 	 */
-	public static void drawOval(GraphicsContext pGraphics, int pX, int pY, int pWidth, int pHeight, Paint pFill, boolean pShadow)
+	public static void drawOval(RenderingContext pGraphics, int pX, int pY, int pWidth, int pHeight, Paint pFill, boolean pShadow)
 	{
 		assert pWidth > 0 && pHeight > 0 && pFill != null && pGraphics != null;
 		Paint oldFill = pGraphics.getFill();
@@ -92,7 +90,7 @@ public final class RenderingUtils
 	 * @param pGraphics The graphics context.
 	 * @param pRectangle The rectangle to draw.
 	 */
-	public static void drawRoundedRectangle(GraphicsContext pGraphics, Rectangle pRectangle)
+	public static void drawRoundedRectangle(RenderingContext pGraphics, Rectangle pRectangle)
 	{
 		assert pGraphics != null && pRectangle != null;
 		pGraphics.setEffect(DROP_SHADOW);
@@ -116,7 +114,7 @@ public final class RenderingUtils
 	 * @param pWidth The width.
 	 * @param pHeight The height.
 	 */
-	public static void drawRectangle(GraphicsContext pGraphics, Paint pStroke, Paint pFill, 
+	public static void drawRectangle(RenderingContext pGraphics, Paint pStroke, Paint pFill, 
 			int pX, int pY, int pWidth, int pHeight)
 	{
 		Paint oldFill = pGraphics.getFill();
@@ -135,7 +133,7 @@ public final class RenderingUtils
 	 * @param pGraphics The graphics context on which to draw the rectangle.
 	 * @param pRectangle The rectangle to draw.
 	 */
-	public static void drawRectangle( GraphicsContext pGraphics, Rectangle pRectangle)
+	public static void drawRectangle( RenderingContext pGraphics, Rectangle pRectangle)
 	{
 		assert pGraphics != null && pRectangle != null;
 		pGraphics.setEffect(DROP_SHADOW);
@@ -154,7 +152,7 @@ public final class RenderingUtils
 	 * @param pY2 The y-coordinate of the second point
 	 * @param pStyle The line style for the path.
 	 */
-	public static void drawLine(GraphicsContext pGraphics, int pX1, int pY1, int pX2, int pY2, LineStyle pStyle)
+	public static void drawLine(RenderingContext pGraphics, int pX1, int pY1, int pX2, int pY2, LineStyle pStyle)
 	{
 		double[] oldDash = pGraphics.getLineDashes();
 		pGraphics.setLineDashes(pStyle.getLineDashes());
@@ -171,9 +169,9 @@ public final class RenderingUtils
 	 * @param pText The text to draw.
 	 * @param pFont The font to use.
 	 */
-	public static void drawText(GraphicsContext pGraphics, int pX, int pY, String pText, Font pFont)
+	public static void drawText(RenderingContext pGraphics, int pX, int pY, String pText, DiagramFont pFont)
 	{
-		Font font = pGraphics.getFont();
+		DiagramFont font = pGraphics.getFont();
 		pGraphics.setFont(pFont);
 		pGraphics.setFill(Color.BLACK);
 		pGraphics.fillText(pText, pX + 0.5, pY + 0.5);
@@ -41,6 +41,7 @@ import org.jetuml.diagram.nodes.CallNode;
 import org.jetuml.diagram.nodes.ImplicitParameterNode;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.Instrumentation.Phase;
 import org.jetuml.rendering.StringRenderer.Alignment;
 import org.jetuml.rendering.StringRenderer.TextDecoration;
 import org.jetuml.rendering.edges.CallEdgeRenderer;
@@ -48,7 +49,6 @@ import org.jetuml.rendering.edges.ReturnEdgeRenderer;
 import org.jetuml.rendering.nodes.CallNodeRenderer;
 import org.jetuml.rendering.nodes.ImplicitParameterNodeRenderer;
 
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * The renderer for sequence diagrams.
@@ -90,18 +90,27 @@ public final class SequenceDiagramRenderer extends AbstractDiagramRenderer
 	}
 	
 	@Override
-	public void draw(GraphicsContext pGraphics)
+	public void draw(RenderingContext pGraphics)
 	{
 		layout();
 		super.draw(pGraphics); 
 	}
 	
+	@Override
+	public void drawOverview(RenderingContext pGraphics)
+	{
+		layout();
+		super.drawOverview(pGraphics); 
+	}
+	
 	/*
 	 * Computes the position of the nodes in the sequence diagram, except the note nodes.
 	 */
 	private void layout()
 	{
+		long start = Instrumentation.start();
 		computeYPositions();
+		Instrumentation.stop(Phase.SEQUENCE_LAYOUT, start);
 	}
 	
 	/**
@@ -135,7 +144,7 @@ public final class SequenceDiagramRenderer extends AbstractDiagramRenderer
 	{
 		assert pNode != null && pNode instanceof ImplicitParameterNode;
 		assert pPoint != null;
-		return ((ImplicitParameterNodeRenderer)rendererFor(pNode.getClass())).
+		return ((ImplicitParameterNodeRenderer)rendererFor(pNode)).
 				getTopRectangle(pNode).contains(pPoint);
 	}
 	
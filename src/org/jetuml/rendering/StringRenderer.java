@@ -22,21 +22,18 @@ package org.jetuml.rendering;
 
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jetuml.annotations.Flyweight;
 import org.jetuml.annotations.Immutable;
 import org.jetuml.application.UserPreferences;
 import org.jetuml.application.UserPreferences.IntegerPreference;
-import org.jetuml.application.UserPreferences.IntegerPreferenceChangeHandler;
 import org.jetuml.geom.Dimension;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.Instrumentation.Phase;
 
 import javafx.geometry.VPos;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
 import javafx.scene.text.TextAlignment;
 
 /**
@@ -44,18 +41,33 @@ import javafx.scene.text.TextAlignment;
  * - underline
  * - bold
  * - different alignments.
+ * 
+ * Instances can be used from any thread. The registry of instances is a 
+ * concurrent map, and the fonts and their metrics are replaced together,
+ * as one immutable object, when the user changes the font size.
  */
 @Immutable 
 @Flyweight
 public final class StringRenderer
 {
-	private static final CanvasFont CANVAS_FONT = new CanvasFont();
-	
 	private static final Dimension EMPTY = new Dimension(0, 0);
 	private static final int DEFAULT_HORIZONTAL_TEXT_PADDING = 7;
 	private static final int DEFAULT_VERTICAL_TEXT_PADDING = 7;
 	
-	private static final Map<Alignment, Map<EnumSet<TextDecoration>, StringRenderer>> STORE = new HashMap<>();
+	private static final Map<Alignment, Map<EnumSet<TextDecoration>, StringRenderer>> STORE = new ConcurrentHashMap<>();
+	
+	private static volatile CanvasFont aCanvasFont = new CanvasFont(fontSizePreference());
+	
+	static
+	{
+		UserPreferences.instance().addIntegerPreferenceChangeHandler(pPreference -> 
+		{
+			if( pPreference == IntegerPreference.fontSize && aCanvasFont.fontSize() != fontSizePreference() )
+			{
+				aCanvasFont = new CanvasFont(fontSizePreference());
+			}
+		});
+	}
 	
 	/**
 	 * How to align the text in this string.
@@ -135,7 +147,7 @@ public final class StringRenderer
 		EnumSet<TextDecoration> decorationSet = EnumSet.noneOf(TextDecoration.class);
 		Collections.addAll(decorationSet, pDecorations);
 		
-		Map<EnumSet<TextDecoration>, StringRenderer> innerMap = STORE.computeIfAbsent(pAlign, k -> new HashMap<>());
+		Map<EnumSet<TextDecoration>, StringRenderer> innerMap = STORE.computeIfAbsent(pAlign, k -> new ConcurrentHashMap<>());
 		return innerMap.computeIfAbsent(decorationSet, k -> new StringRenderer(pAlign, decorationSet));
 	}
 	
@@ -153,7 +165,7 @@ public final class StringRenderer
 		{
 			return EMPTY;
 		}
-		Dimension dimension = CANVAS_FONT.getDimension(pString, aBold);
+		Dimension dimension = aCanvasFont.getDimension(pString, aBold);
 		return new Dimension(Math.round(dimension.width() + aHorizontalPadding*2), 
 				Math.round(dimension.height() + aVerticalPadding*2));
 	}
@@ -224,7 +236,7 @@ public final class StringRenderer
      * @param pGraphics the graphics context
      * @param pRectangle the rectangle into which to place the string
 	 */
-	public void draw(String pString, GraphicsContext pGraphics, Rectangle pRectangle)
+	public void draw(String pString, RenderingContext pGraphics, Rectangle pRectangle)
 	{
 		final VPos oldVPos = pGraphics.getTextBaseline();
 		final TextAlignment oldAlign = pGraphics.getTextAlign();
@@ -250,17 +262,18 @@ public final class StringRenderer
 		}
 		
 		pGraphics.translate(pRectangle.getX(), pRectangle.getY());
-		CANVAS_FONT.drawString(pGraphics, textX, textY, pString.trim(), aBold);
+		CanvasFont font = aCanvasFont;
+		font.drawString(pGraphics, textX, textY, pString.trim(), aBold);
 		
 		if(aUnderlined && pString.trim().length() > 0)
 		{
 			int xOffset = 0;
 			int yOffset = 0;
-			Dimension dimension = CANVAS_FONT.getDimension(pString, aBold);
+			Dimension dimension = font.getDimension(pString, aBold);
 			if( aAlign.isHorizontallyCentered() )
 			{
 				xOffset = dimension.width()/2;
-				yOffset = CANVAS_FONT.fontSize()/2 + 1;
+				yOffset = font.fontSize()/2 + 1;
 			}
 			else if( aAlign.isRight() )
 			{
@@ -275,25 +288,40 @@ public final class StringRenderer
 		pGraphics.setTextAlign(oldAlign);
 	}
 	
+	/**
+	 * @return The size of the font with which strings are currently measured and drawn.
+	 */
+	public static int fontSize()
+	{
+		return aCanvasFont.fontSize();
+	}
+	
+	private static int fontSizePreference()
+	{
+		return UserPreferences.instance().getInteger(IntegerPreference.fontSize);
+	}
+	
 	/**
 	 * Responsible for performing more rudimentary operations involving font,
-	 * as well as being synchronized with the user's current font.
+	 * for one font size. Immutable, so that it can be shared by threads.
 	 */
-	private static final class CanvasFont implements IntegerPreferenceChangeHandler
+	@Immutable
+	private static final class CanvasFont
 	{
+		private final DiagramFont aFont;
+		private final DiagramFont aFontBold;
+		private final FontMetrics aFontMetrics;
+		private final FontMetrics aFontBoldMetrics;
 
-		private Font aFont;
-		private Font aFontBold;
-		private FontMetrics aFontMetrics;
-		private FontMetrics aFontBoldMetrics;
-
-		private CanvasFont()
+		private CanvasFont(int pFontSize)
 		{
-			refreshAttributes();
-			UserPreferences.instance().addIntegerPreferenceChangeHandler(this);
+			aFont = new DiagramFont(DiagramFont.SYSTEM_FAMILY, pFontSize, false);
+			aFontBold = aFont.bold();
+			aFontMetrics = RenderingBackend.selected().createFontMetrics(aFont);
+			aFontBoldMetrics = RenderingBackend.selected().createFontMetrics(aFontBold);
 		}
 
-		private Font getFont(boolean pBold)
+		private DiagramFont getFont(boolean pBold)
 		{
 			if ( pBold )
 			{
@@ -318,7 +346,10 @@ public final class StringRenderer
 		 */
 		public Dimension getDimension(String pString, boolean pBold)
 		{
-			return getFontMetrics(pBold).getDimension(pString);
+			long start = Instrumentation.start();
+			Dimension dimension = getFontMetrics(pBold).getDimension(pString);
+			Instrumentation.stop(Phase.TEXT_MEASUREMENT, start);
+			return dimension;
 		}
 
 		/**
@@ -329,13 +360,13 @@ public final class StringRenderer
 		 * @param pString The canvas on which to draw the string
 		 * @param pBold If the text should be bold
 		 */
-		public void drawString(GraphicsContext pGraphics, int pTextX, int pTextY, String pString, boolean pBold)
+		public void drawString(RenderingContext pGraphics, int pTextX, int pTextY, String pString, boolean pBold)
 		{
 			RenderingUtils.drawText(pGraphics, pTextX, pTextY, pString, getFont(pBold));
 		}
 
 		/**
-		 * Returns the font size the user currently specifies.
+		 * Returns the size of the font.
 		 * @return The font size
 		 */
 		public int fontSize()
@@ -343,23 +374,5 @@ public final class StringRenderer
 			return (int) Math.round(aFont.getSize());
 		}
 
-		@Override
-		public void integerPreferenceChanged(IntegerPreference pPreference) 
-		{
-			if ( pPreference == IntegerPreference.fontSize && aFont.getSize() != UserPreferences.instance().getInteger(pPreference) )
-			{
-				refreshAttributes();
-			}
-
-		}
-
-		private void refreshAttributes()
-		{
-			aFont = Font.font("System", UserPreferences.instance().getInteger(IntegerPreference.fontSize));
-			aFontBold = Font.font(aFont.getFamily(), FontWeight.BOLD, aFont.getSize());
-			aFontMetrics = new FontMetrics(aFont);
-			aFontBoldMetrics = new FontMetrics(aFontBold);
-		}
-
 	}
 }
@@ -0,0 +1,548 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import javafx.geometry.VPos;
+import javafx.scene.effect.Effect;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.ArcType;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * A rendering context that writes the drawing operations as the elements 
+ * of an SVG document. The elements are streamed to the writer as they are
+ * drawn, so the document is never held in memory. Effects are rendered as
+ * a single drop shadow filter, which is the only effect used by the renderers.
+ * Call finish() once the drawing is complete to close the document.
+ */
+public final class SvgRenderingContext implements RenderingContext
+{
+	private static final String SHADOW_FILTER = "shadow";
+	private static final double LINE_SPACING = 1.2;
+	private static final String SANS_SERIF = "sans-serif"; // The generic family closest to the system font
+	
+	private final Writer aWriter;
+	private final StringBuilder aPath = new StringBuilder();
+	private Paint aFill = Color.BLACK;
+	private Paint aStroke = Color.BLACK;
+	private double aLineWidth = 1;
+	private double[] aLineDashes;
+	private Effect aEffect;
+	private DiagramFont aFont = DiagramFont.DEFAULT;
+	private TextAlignment aTextAlign = TextAlignment.LEFT;
+	private VPos aTextBaseline = VPos.BASELINE;
+	private double aScaleX = 1;
+	private double aScaleY = 1;
+	private double aTranslateX = 0;
+	private double aTranslateY = 0;
+	
+	/**
+	 * Starts a new SVG document on pWriter.
+	 * 
+	 * @param pWriter The writer that receives the document.
+	 * @param pWidth The width of the document, in pixels.
+	 * @param pHeight The height of the document, in pixels.
+	 * @pre pWriter != null && pWidth >= 0 && pHeight >= 0
+	 */
+	public SvgRenderingContext(Writer pWriter, int pWidth, int pHeight)
+	{
+		assert pWriter != null && pWidth >= 0 && pHeight >= 0;
+		aWriter = pWriter;
+		write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		write(String.format("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" " + 
+				"viewBox=\"0 0 %d %d\">\n", pWidth, pHeight, pWidth, pHeight));
+		write("<defs><filter id=\"" + SHADOW_FILTER + "\" x=\"-10%\" y=\"-10%\" width=\"130%\" height=\"130%\">" + 
+				"<feDropShadow dx=\"3\" dy=\"3\" stdDeviation=\"1.5\" flood-color=\"#d3d3d3\"/></filter></defs>\n");
+	}
+	
+	/**
+	 * Closes the SVG document and flushes the writer. The writer itself is not closed.
+	 */
+	public void finish()
+	{
+		write("</svg>\n");
+		try
+		{
+			aWriter.flush();
+		}
+		catch( IOException exception )
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	@Override
+	public Paint getFill()
+	{
+		return aFill;
+	}
+
+	@Override
+	public void setFill(Paint pFill)
+	{
+		aFill = pFill;
+	}
+
+	@Override
+	public Paint getStroke()
+	{
+		return aStroke;
+	}
+
+	@Override
+	public void setStroke(Paint pStroke)
+	{
+		aStroke = pStroke;
+	}
+
+	@Override
+	public double getLineWidth()
+	{
+		return aLineWidth;
+	}
+
+	@Override
+	public void setLineWidth(double pWidth)
+	{
+		aLineWidth = pWidth;
+	}
+
+	@Override
+	public double[] getLineDashes()
+	{
+		return aLineDashes;
+	}
+
+	@Override
+	public void setLineDashes(double... pDashes)
+	{
+		if( pDashes == null || pDashes.length == 0 )
+		{
+			aLineDashes = null;
+		}
+		else
+		{
+			aLineDashes = pDashes.clone();
+		}
+	}
+
+	@Override
+	public void setEffect(Effect pEffect)
+	{
+		aEffect = pEffect;
+	}
+
+	@Override
+	public DiagramFont getFont()
+	{
+		return aFont;
+	}
+
+	@Override
+	public void setFont(DiagramFont pFont)
+	{
+		aFont = pFont;
+	}
+
+	@Override
+	public TextAlignment getTextAlign()
+	{
+		return aTextAlign;
+	}
+
+	@Override
+	public void setTextAlign(TextAlignment pAlignment)
+	{
+		aTextAlign = pAlignment;
+	}
+
+	@Override
+	public VPos getTextBaseline()
+	{
+		return aTextBaseline;
+	}
+
+	@Override
+	public void setTextBaseline(VPos pBaseline)
+	{
+		aTextBaseline = pBaseline;
+	}
+
+	@Override
+	public void translate(double pX, double pY)
+	{
+		aTranslateX += pX * aScaleX;
+		aTranslateY += pY * aScaleY;
+	}
+
+	@Override
+	public void scale(double pX, double pY)
+	{
+		aScaleX *= pX;
+		aScaleY *= pY;
+	}
+
+	@Override
+	public void fillRect(double pX, double pY, double pWidth, double pHeight)
+	{
+		rectangle(pX, pY, pWidth, pHeight, 0, 0, fillAttributes());
+	}
+
+	@Override
+	public void strokeRect(double pX, double pY, double pWidth, double pHeight)
+	{
+		rectangle(pX, pY, pWidth, pHeight, 0, 0, strokeAttributes());
+	}
+
+	@Override
+	public void fillRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight)
+	{
+		rectangle(pX, pY, pWidth, pHeight, pArcWidth, pArcHeight, fillAttributes());
+	}
+
+	@Override
+	public void strokeRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight)
+	{
+		rectangle(pX, pY, pWidth, pHeight, pArcWidth, pArcHeight, strokeAttributes());
+	}
+
+	@Override
+	public void fillOval(double pX, double pY, double pWidth, double pHeight)
+	{
+		oval(pX, pY, pWidth, pHeight, fillAttributes());
+	}
+
+	@Override
+	public void strokeOval(double pX, double pY, double pWidth, double pHeight)
+	{
+		oval(pX, pY, pWidth, pHeight, strokeAttributes());
+	}
+
+	@Override
+	public void strokeArc(double pX, double pY, double pWidth, double pHeight, double pStartAngle, double pArcExtent,
+			ArcType pClosure)
+	{
+		if( Math.abs(pArcExtent) >= 360 )
+		{
+			strokeOval(pX, pY, pWidth, pHeight);
+			return;
+		}
+		double radiusX = pWidth / 2;
+		double radiusY = pHeight / 2;
+		double centerX = pX + radiusX;
+		double centerY = pY + radiusY;
+		double start = Math.toRadians(pStartAngle);
+		double end = Math.toRadians(pStartAngle + pArcExtent);
+		// Canvas angles grow counter-clockwise on screen, which is the negative sweep direction in SVG.
+		StringBuilder path = new StringBuilder()
+				.append('M').append(number(centerX + radiusX * Math.cos(start))).append(' ')
+				.append(number(centerY - radiusY * Math.sin(start)))
+				.append(" A").append(number(radiusX)).append(' ').append(number(radiusY)).append(" 0 ")
+				.append(Math.abs(pArcExtent) > 180 ? 1 : 0).append(' ').append(pArcExtent > 0 ? 0 : 1).append(' ')
+				.append(number(centerX + radiusX * Math.cos(end))).append(' ')
+				.append(number(centerY - radiusY * Math.sin(end)));
+		if( pClosure == ArcType.ROUND )
+		{
+			path.append(" L").append(number(centerX)).append(' ').append(number(centerY)).append(" Z");
+		}
+		else if( pClosure == ArcType.CHORD )
+		{
+			path.append(" Z");
+		}
+		write("<path d=\"" + path + "\"" + strokeAttributes() + transform() + "/>\n");
+	}
+
+	@Override
+	public void strokeLine(double pX1, double pY1, double pX2, double pY2)
+	{
+		write("<line x1=\"" + number(pX1) + "\" y1=\"" + number(pY1) + "\" x2=\"" + number(pX2) + 
+				"\" y2=\"" + number(pY2) + "\"" + strokeAttributes() + transform() + "/>\n");
+	}
+
+	@Override
+	public void fillText(String pText, double pX, double pY)
+	{
+		String[] lines = pText.split("\n", -1);
+		double lineHeight = aFont.getSize() * LINE_SPACING;
+		double firstLine = 0;
+		if( aTextBaseline == VPos.CENTER )
+		{
+			firstLine = -lineHeight * (lines.length - 1) / 2;
+		}
+		else if( aTextBaseline == VPos.BOTTOM )
+		{
+			firstLine = -lineHeight * (lines.length - 1);
+		}
+		StringBuilder text = new StringBuilder("<text x=\"").append(number(pX))
+				.append("\" y=\"").append(number(pY + firstLine)).append('"')
+				.append(" font-family=\"").append(escape(fontFamily())).append('"')
+				.append(" font-size=\"").append(number(aFont.getSize())).append('"');
+		if( aFont.isBold() )
+		{
+			text.append(" font-weight=\"bold\"");
+		}
+		text.append(textAnchor()).append(dominantBaseline()).append(paint("fill", aFill)).append(transform()).append('>');
+		if( lines.length == 1 )
+		{
+			text.append(escape(pText));
+		}
+		else
+		{
+			for( int i = 0; i < lines.length; i++ )
+			{
+				text.append("<tspan x=\"").append(number(pX)).append("\" dy=\"")
+					.append(i == 0 ? "0" : number(lineHeight)).append("\">").append(escape(lines[i])).append("</tspan>");
+			}
+		}
+		write(text.append("</text>\n").toString());
+	}
+
+	@Override
+	public void beginPath()
+	{
+		aPath.setLength(0);
+	}
+
+	@Override
+	public void moveTo(double pX, double pY)
+	{
+		aPath.append(" M").append(number(pX)).append(' ').append(number(pY));
+	}
+
+	@Override
+	public void lineTo(double pX, double pY)
+	{
+		aPath.append(" L").append(number(pX)).append(' ').append(number(pY));
+	}
+
+	@Override
+	public void quadraticCurveTo(double pControlX, double pControlY, double pX, double pY)
+	{
+		aPath.append(" Q").append(number(pControlX)).append(' ').append(number(pControlY)).append(' ')
+			.append(number(pX)).append(' ').append(number(pY));
+	}
+
+	@Override
+	public void stroke()
+	{
+		if( aPath.length() > 0 )
+		{
+			write("<path d=\"" + aPath.substring(1) + "\"" + strokeAttributes() + transform() + "/>\n");
+		}
+	}
+
+	@Override
+	public void fill()
+	{
+		if( aPath.length() > 0 )
+		{
+			write("<path d=\"" + aPath.substring(1) + "\"" + fillAttributes() + transform() + "/>\n");
+		}
+	}
+	
+	private void rectangle(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight, 
+			String pAttributes)
+	{
+		StringBuilder rectangle = new StringBuilder("<rect x=\"").append(number(pX)).append("\" y=\"").append(number(pY))
+				.append("\" width=\"").append(number(pWidth)).append("\" height=\"").append(number(pHeight)).append('"');
+		if( pArcWidth > 0 && pArcHeight > 0 )
+		{
+			rectangle.append(" rx=\"").append(number(pArcWidth / 2)).append("\" ry=\"").append(number(pArcHeight / 2)).append('"');
+		}
+		write(rectangle.append(pAttributes).append(transform()).append("/>\n").toString());
+	}
+	
+	private void oval(double pX, double pY, double pWidth, double pHeight, String pAttributes)
+	{
+		write("<ellipse cx=\"" + number(pX + pWidth / 2) + "\" cy=\"" + number(pY + pHeight / 2) + 
+				"\" rx=\"" + number(pWidth / 2) + "\" ry=\"" + number(pHeight / 2) + "\"" + pAttributes + transform() + "/>\n");
+	}
+	
+	private String fillAttributes()
+	{
+		return paint("fill", aFill) + " stroke=\"none\"" + filter();
+	}
+	
+	private String strokeAttributes()
+	{
+		StringBuilder attributes = new StringBuilder(" fill=\"none\"").append(paint("stroke", aStroke))
+				.append(" stroke-width=\"").append(number(aLineWidth)).append('"');
+		if( aLineDashes != null )
+		{
+			attributes.append(" stroke-dasharray=\"");
+			for( int i = 0; i < aLineDashes.length; i++ )
+			{
+				if( i > 0 )
+				{
+					attributes.append(' ');
+				}
+				attributes.append(number(aLineDashes[i]));
+			}
+			attributes.append('"');
+		}
+		return attributes.append(filter()).toString();
+	}
+	
+	private String filter()
+	{
+		if( aEffect == null )
+		{
+			return "";
+		}
+		return " filter=\"url(#" + SHADOW_FILTER + ")\"";
+	}
+	
+	private String transform()
+	{
+		if( aScaleX == 1 && aScaleY == 1 && aTranslateX == 0 && aTranslateY == 0 )
+		{
+			return "";
+		}
+		return " transform=\"matrix(" + number(aScaleX) + " 0 0 " + number(aScaleY) + " " + 
+				number(aTranslateX) + " " + number(aTranslateY) + ")\"";
+	}
+	
+	private String textAnchor()
+	{
+		if( aTextAlign == TextAlignment.CENTER )
+		{
+			return " text-anchor=\"middle\"";
+		}
+		else if( aTextAlign == TextAlignment.RIGHT )
+		{
+			return " text-anchor=\"end\"";
+		}
+		return "";
+	}
+	
+	private String dominantBaseline()
+	{
+		if( aTextBaseline == VPos.TOP )
+		{
+			return " dominant-baseline=\"text-before-edge\"";
+		}
+		else if( aTextBaseline == VPos.CENTER )
+		{
+			return " dominant-baseline=\"central\"";
+		}
+		else if( aTextBaseline == VPos.BOTTOM )
+		{
+			return " dominant-baseline=\"text-after-edge\"";
+		}
+		return "";
+	}
+	
+	/*
+	 * Only plain colors are used by the renderers. Other paints are 
+	 * approximated by black.
+	 */
+	private static String paint(String pAttribute, Paint pPaint)
+	{
+		if( pPaint == null )
+		{
+			return " " + pAttribute + "=\"none\"";
+		}
+		Color color = Color.BLACK;
+		if( pPaint instanceof Color )
+		{
+			color = (Color) pPaint;
+		}
+		String result = String.format(" %s=\"#%02x%02x%02x\"", pAttribute, (int) Math.round(color.getRed() * 255), 
+				(int) Math.round(color.getGreen() * 255), (int) Math.round(color.getBlue() * 255));
+		if( color.getOpacity() < 1 )
+		{
+			result += " " + pAttribute + "-opacity=\"" + number(color.getOpacity()) + "\"";
+		}
+		return result;
+	}
+	
+	/*
+	 * Formats a coordinate with at most two decimals, independently of the locale.
+	 */
+	private static String number(double pValue)
+	{
+		long hundredths = Math.round(pValue * 100);
+		if( hundredths % 100 == 0 )
+		{
+			return Long.toString(hundredths / 100);
+		}
+		return Double.toString(hundredths / 100.0);
+	}
+	
+	/*
+	 * The system font is not a family that SVG viewers know.
+	 */
+	private String fontFamily()
+	{
+		if( DiagramFont.SYSTEM_FAMILY.equals(aFont.getFamily()) )
+		{
+			return SANS_SERIF;
+		}
+		return aFont.getFamily();
+	}
+	
+	private static String escape(String pText)
+	{
+		StringBuilder result = new StringBuilder(pText.length());
+		for( int i = 0; i < pText.length(); i++ )
+		{
+			char character = pText.charAt(i);
+			if( character == '&' )
+			{
+				result.append("&amp;");
+			}
+			else if( character == '<' )
+			{
+				result.append("&lt;");
+			}
+			else if( character == '>' )
+			{
+				result.append("&gt;");
+			}
+			else if( character == '"' )
+			{
+				result.append("&quot;");
+			}
+			else
+			{
+				result.append(character);
+			}
+		}
+		return result.toString();
+	}
+	
+	private void write(String pText)
+	{
+		try
+		{
+			aWriter.write(pText);
+		}
+		catch( IOException exception )
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+}
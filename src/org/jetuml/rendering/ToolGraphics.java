@@ -23,16 +23,11 @@ package org.jetuml.rendering;
 
 import org.jetuml.geom.Line;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
 
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.PathElement;
-import javafx.scene.shape.QuadCurveTo;
 
 /**
  * A utility class to draw various graphics for diagram handling tools.
@@ -44,6 +39,7 @@ public final class ToolGraphics
 	private static final Color SELECTION_FILL_COLOR = Color.rgb(173, 193, 214);
 	private static final Color SELECTION_FILL_TRANSPARENT = Color.rgb(173, 193, 214, 0.75);
 	private static final double LINE_WIDTH = 0.6;
+	private static final double BOUNDS_LINE_WIDTH = 2; // Covers the line and its antialiasing on each side of a path
 	private static final DropShadow DROP_SHADOW = new DropShadow(3, 3, 3, Color.LIGHTGRAY);
 	
 	private ToolGraphics() {}
@@ -56,7 +52,7 @@ public final class ToolGraphics
 	 * @param pX The x-coordinate of the center of the handle.
 	 * @param pY The y-coordinate of the center of the handle.
 	 */
-	private static void drawHandle(GraphicsContext pGraphics, int pX, int pY)
+	private static void drawHandle(RenderingContext pGraphics, int pX, int pY)
 	{
 		Paint oldStroke = pGraphics.getStroke();
 		Paint oldFill = pGraphics.getFill();
@@ -75,7 +71,7 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the handles.
 	 * @param pBounds Defines the four points where to draw the handles
 	 */
-	public static void drawHandles(GraphicsContext pGraphics, Rectangle pBounds)
+	public static void drawHandles(RenderingContext pGraphics, Rectangle pBounds)
 	{
 		drawHandle(pGraphics, pBounds.getX(), pBounds.getY());
 		drawHandle(pGraphics, pBounds.getX(), pBounds.getMaxY());
@@ -90,7 +86,7 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the handles.
 	 * @param pBounds Defines the two points where to draw the handles
 	 */
-	public static void drawHandles(GraphicsContext pGraphics, Line pBounds)
+	public static void drawHandles(RenderingContext pGraphics, Line pBounds)
 	{
 		drawHandle(pGraphics, pBounds.getX1(), pBounds.getY1());
 		drawHandle(pGraphics, pBounds.getX2(), pBounds.getY2());
@@ -103,7 +99,7 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the line.
 	 * @param pLine The line that represents the rubberband.
 	 */
-	public static void drawRubberband(GraphicsContext pGraphics, Line pLine)
+	public static void drawRubberband(RenderingContext pGraphics, Line pLine)
 	{
 		Paint oldStroke = pGraphics.getStroke();
 		pGraphics.setStroke(SELECTION_FILL_COLOR);
@@ -118,7 +114,7 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the lasso.
 	 * @param pRectangle The rectangle that defines the lasso.
 	 */
-	public static void drawLasso(GraphicsContext pGraphics, Rectangle pRectangle)
+	public static void drawLasso(RenderingContext pGraphics, Rectangle pRectangle)
 	{
 		RenderingUtils.drawRectangle(pGraphics, SELECTION_COLOR, SELECTION_FILL_TRANSPARENT, 
 				pRectangle.getX(), pRectangle.getY(), pRectangle.getWidth(), pRectangle.getHeight());
@@ -135,11 +131,25 @@ public final class ToolGraphics
 	 * @param pX2 The x-coordinate of the second point.
 	 * @param pY2 The y-coordinate of the second point.
 	 */
-	public static void strokeSharpLine(GraphicsContext pGraphics, int pX1, int pY1, int pX2, int pY2)
+	public static void strokeSharpLine(RenderingContext pGraphics, int pX1, int pY1, int pX2, int pY2)
 	{
 		pGraphics.strokeLine(pX1 + 0.5, pY1 + 0.5, pX2 + 0.5, pY2 + 0.5);
 	}
 	
+	/**
+	 * Returns the area covered by a path when it is drawn with this class,
+	 * which includes the width of the line around the geometry of the path.
+	 * 
+	 * @param pPath The path.
+	 * @return The bounds of the stroked path.
+	 * @pre pPath != null && !pPath.isEmpty()
+	 */
+	public static Rectangle getStrokeBounds(SegmentPath pPath)
+	{
+		assert pPath != null && !pPath.isEmpty();
+		return pPath.getStrokeBounds(BOUNDS_LINE_WIDTH);
+	}
+	
 	/**
 	 * Strokes a path, by converting the elements to integer coordinates and then
 	 * aligning them to the center of the pixels, so that it aligns precisely
@@ -150,7 +160,7 @@ public final class ToolGraphics
 	 * @param pPath The path to stroke
 	 * @param pStyle The line style for the path.
 	 */
-	public static void strokeSharpPath(GraphicsContext pGraphics, Path pPath, LineStyle pStyle)
+	public static void strokeSharpPath(RenderingContext pGraphics, SegmentPath pPath, LineStyle pStyle)
 	{
 		double[] oldDash = pGraphics.getLineDashes();
 		pGraphics.setLineDashes(pStyle.getLineDashes());
@@ -162,27 +172,28 @@ public final class ToolGraphics
 		pGraphics.setLineWidth(width);
 	}
 	
-	private static void applyPath(GraphicsContext pGraphics, Path pPath)
+	private static void applyPath(RenderingContext pGraphics, SegmentPath pPath)
 	{
 		pGraphics.beginPath();
-		for(PathElement element : pPath.getElements())
+		for( int i = 0; i < pPath.size(); i++ )
 		{
-			if(element instanceof MoveTo)
+			double x = ((int) pPath.getX(i)) + 0.5;
+			double y = ((int) pPath.getY(i)) + 0.5;
+			if( pPath.getOperation(i) == SegmentPath.Operation.MOVE )
 			{
-				pGraphics.moveTo(((int)((MoveTo) element).getX()) + 0.5, ((int)((MoveTo) element).getY()) + 0.5);
+				pGraphics.moveTo(x, y);
 			}
-			else if(element instanceof LineTo)
+			else if( pPath.getOperation(i) == SegmentPath.Operation.LINE )
 			{
-				pGraphics.lineTo(((int)((LineTo) element).getX()) + 0.5, ((int)((LineTo) element).getY()) + 0.5);
+				pGraphics.lineTo(x, y);
 			}
-			else if (element instanceof QuadCurveTo)
+			else
 			{
-				QuadCurveTo curve = (QuadCurveTo) element;
-				pGraphics.quadraticCurveTo(((int)curve.getControlX())+0.5, ((int)curve.getControlY()) + 0.5, 
-						((int) curve.getX()) + 0.5, ((int) curve.getY()) + 0.5);
+				pGraphics.quadraticCurveTo(((int) pPath.getControlX(i)) + 0.5, ((int) pPath.getControlY(i)) + 0.5, x, y);
 			}
 		}
 	}
+	
 	/**
 	 * Strokes and fills a path, by converting the elements to integer coordinates and then
 	 * aligning them to the center of the pixels, so that it aligns precisely
@@ -194,7 +205,7 @@ public final class ToolGraphics
 	 * @param pFill The fill color for the path.
 	 * @param pShadow True to include a drop shadow.
 	 */
-	public static void strokeAndFillSharpPath(GraphicsContext pGraphics, Path pPath, Paint pFill, boolean pShadow)
+	public static void strokeAndFillSharpPath(RenderingContext pGraphics, SegmentPath pPath, Paint pFill, boolean pShadow)
 	{
 		double width = pGraphics.getLineWidth();
 		Paint fill = pGraphics.getFill();
@@ -27,18 +27,13 @@ import org.jetuml.geom.Direction;
 import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
 import org.jetuml.rendering.DiagramRenderer;
+import org.jetuml.rendering.RenderingContext;
 import org.jetuml.rendering.StringRenderer;
 import org.jetuml.rendering.ToolGraphics;
 import org.jetuml.rendering.StringRenderer.Alignment;
 
-import javafx.geometry.Bounds;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.Shape;
-
 /**
  * Provides shared services for viewing an edge.
  */
@@ -53,6 +48,7 @@ public abstract class AbstractEdgeRenderer implements EdgeRenderer
 	private static final int DEGREES_180 = 180;
 	
 	private final DiagramRenderer aParent;
+	private final SegmentPath aShape = new SegmentPath();
 	
 	protected AbstractEdgeRenderer(DiagramRenderer pParent)
 	{
@@ -65,22 +61,36 @@ public abstract class AbstractEdgeRenderer implements EdgeRenderer
 	}
 	
 	/**
-	 * The default behavior is to draw a straight line between
-	 * the connections points oriented in the direction of each 
-	 * other node.
+	 * Gets the shape of an edge. The path returned is owned by this renderer
+	 * and rebuilt by every call, so that drawing and hit-testing edges does not
+	 * allocate. It must be used before the next call to this method.
 	 * 
 	 * @param pEdge The edge whose shape we want
 	 * @return The shape. 
 	 * @pre pEdge != null
 	 */
-	protected Shape getShape(Edge pEdge)
+	protected final SegmentPath getShape(Edge pEdge)
 	{
 		assert pEdge != null;
+		aShape.clear();
+		buildShape(pEdge, aShape);
+		return aShape;
+	}
+	
+	/**
+	 * Adds the shape of an edge to a path. The default behavior is to 
+	 * draw a straight line between the connections points oriented 
+	 * in the direction of each other node.
+	 * 
+	 * @param pEdge The edge whose shape we want
+	 * @param pPath The path to add the shape to.
+	 * @pre pEdge != null && pPath != null
+	 */
+	protected void buildShape(Edge pEdge, SegmentPath pPath)
+	{
 		Line endPoints = getConnectionPoints(pEdge);
-		Path path = new Path();
-		path.getElements().addAll(new MoveTo(endPoints.getX1(), endPoints.getY1()), 
-				new LineTo(endPoints.getX2(), endPoints.getY2()));
-		return path;
+		pPath.moveTo(endPoints.getX1(), endPoints.getY1())
+			.lineTo(endPoints.getX2(), endPoints.getY2());
 	}
 	
 	/**
@@ -103,16 +113,13 @@ public abstract class AbstractEdgeRenderer implements EdgeRenderer
 			return false;
 		}
 
-		Shape fatPath = getShape(edge);
-		fatPath.setStrokeWidth(2 * MAX_DISTANCE);
-		return fatPath.contains(pPoint.getX(), pPoint.getY());
+		return getShape(edge).isNear(pPoint, MAX_DISTANCE);
 	}
 	
 	@Override
 	public Rectangle getBounds(DiagramElement pElement)
 	{
-		Bounds bounds = getShape((Edge)pElement).getBoundsInLocal();
-		return new Rectangle((int)bounds.getMinX(), (int)bounds.getMinY(), (int)bounds.getWidth(), (int)bounds.getHeight());
+		return ToolGraphics.getStrokeBounds(getShape((Edge)pElement));
 	}
 	
 	/*
@@ -135,7 +142,7 @@ public abstract class AbstractEdgeRenderer implements EdgeRenderer
 	}
 
 	@Override
-	public void drawSelectionHandles(DiagramElement pElement, GraphicsContext pGraphics)
+	public void drawSelectionHandles(DiagramElement pElement, RenderingContext pGraphics)
 	{
 		ToolGraphics.drawHandles(pGraphics, getConnectionPoints((Edge)pElement));		
 	}
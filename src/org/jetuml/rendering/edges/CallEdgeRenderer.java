@@ -29,27 +29,24 @@ import org.jetuml.diagram.Node;
 import org.jetuml.diagram.edges.CallEdge;
 import org.jetuml.diagram.edges.ConstructorEdge;
 import org.jetuml.diagram.nodes.CallNode;
-import org.jetuml.geom.Conversions;
 import org.jetuml.geom.Dimension;
 import org.jetuml.geom.Direction;
 import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
 import org.jetuml.rendering.ArrowHead;
 import org.jetuml.rendering.ArrowHeadViewer;
+import org.jetuml.rendering.CanvasRenderingContext;
 import org.jetuml.rendering.DiagramRenderer;
 import org.jetuml.rendering.LineStyle;
+import org.jetuml.rendering.RenderingContext;
 import org.jetuml.rendering.StringRenderer;
 import org.jetuml.rendering.ToolGraphics;
 import org.jetuml.rendering.StringRenderer.Alignment;
 import org.jetuml.rendering.StringRenderer.TextDecoration;
 
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.Shape;
 
 /**
  * A viewer to show call edges in a sequence diagrams. These are labeled
@@ -69,20 +66,16 @@ public final class CallEdgeRenderer extends AbstractEdgeRenderer
 	}
 	
 	@Override
-	protected Shape getShape(Edge pEdge)
+	protected void buildShape(Edge pEdge, SegmentPath pPath)
 	{
 		Point[] points = getPoints(pEdge);
-		Path path = new Path();
 		Point point = points[points.length - 1];
-		MoveTo moveTo = new MoveTo(point.getX(), point.getY());
-		path.getElements().add(moveTo);
+		pPath.moveTo(point.getX(), point.getY());
 		for(int i = points.length - 2; i >= 0; i--)
 		{
 			point = points[i];
-			LineTo lineTo = new LineTo(point.getX(), point.getY());
-			path.getElements().add(lineTo);
+			pPath.lineTo(point.getX(), point.getY());
 		}
-		return path;
 	}
 	
 	@Override
@@ -111,8 +104,8 @@ public final class CallEdgeRenderer extends AbstractEdgeRenderer
 		Rectangle bounds = super.getBounds(pElement);
 		Edge edge = (Edge) pElement;
 		Line connectionPoints = getConnectionPoints(edge);
-		bounds = bounds.add(Conversions.toRectangle(getArrowHeadView((CallEdge)edge).getPath(connectionPoints.getPoint1(), 
-					connectionPoints.getPoint2()).getBoundsInLocal()));
+		bounds = bounds.add(getArrowHeadView((CallEdge)edge).getBounds(connectionPoints.getPoint1(), 
+					connectionPoints.getPoint2()));
 		final String label = ((CallEdge)edge).getMiddleLabel();
 		if( label.length() > 0 )
 		{
@@ -122,10 +115,10 @@ public final class CallEdgeRenderer extends AbstractEdgeRenderer
 	}
 
 	@Override
-	public void draw(DiagramElement pElement, GraphicsContext pGraphics)
+	public void draw(DiagramElement pElement, RenderingContext pGraphics)
 	{
 		Edge edge = (Edge) pElement;
-		ToolGraphics.strokeSharpPath(pGraphics, (Path) getShape(edge), LineStyle.SOLID);
+		ToolGraphics.strokeSharpPath(pGraphics, getShape(edge), LineStyle.SOLID);
 		
 		Point[] points = getPoints(edge); // TODO already called by getShape(), find a way to avoid having to do 2 calls.
 		getArrowHeadView((CallEdge)edge).draw(pGraphics, points[points.length - 2], points[points.length - 1]);
@@ -156,7 +149,7 @@ public final class CallEdgeRenderer extends AbstractEdgeRenderer
 		}
 	}
 
-	private void drawLabel(CallEdge pEdge, GraphicsContext pGraphics, String pLabel)
+	private void drawLabel(CallEdge pEdge, RenderingContext pGraphics, String pLabel)
 	{
 		if( pEdge.isSelfEdge() )
 		{
@@ -219,10 +212,9 @@ public final class CallEdgeRenderer extends AbstractEdgeRenderer
 		final float scale = 0.6f;
 		final int offset = 15;
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		RenderingContext graphics = new CanvasRenderingContext(canvas.getGraphicsContext2D());
 		canvas.getGraphicsContext2D().scale(scale, scale);
-		Path path = new Path();
-		path.getElements().addAll(new MoveTo(1, offset), new LineTo(BUTTON_SIZE*(1/scale)-1, offset));
+		SegmentPath path = new SegmentPath().moveTo(1, offset).lineTo(BUTTON_SIZE*(1/scale)-1, offset);
 		ToolGraphics.strokeSharpPath(graphics, path, LineStyle.SOLID);
 		ArrowHead.V.view().draw(graphics, new Point(1, offset), new Point((int)(BUTTON_SIZE*(1/scale)-1), offset));
 		return canvas;
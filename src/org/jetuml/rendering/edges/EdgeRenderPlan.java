@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering.edges;
+
+import org.jetuml.geom.EdgePath;
+import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
+import org.jetuml.rendering.ArrowHead;
+import org.jetuml.rendering.LineStyle;
+import org.jetuml.rendering.RenderingContext;
+import org.jetuml.rendering.StringRenderer;
+
+/**
+ * Everything needed to draw, bound, and hit-test a stored edge, computed
+ * from its EdgePath. A plan is kept in EdgeStorage alongside the path it was
+ * computed from, and is valid as long as neither the path, the diagram, nor the
+ * font size with which its labels were wrapped and measured changes.
+ * As for Diagram.snapshot(), changes made to an edge without going through its
+ * properties are not detected.
+ */
+public final class EdgeRenderPlan
+{
+	private final EdgePath aPath;
+	private final long aModificationCount;
+	private final int aFontSize;
+	private final SegmentPath aShape;
+	private final LineStyle aLineStyle;
+	private final ArrowHead aArrowStart;
+	private final ArrowHead aArrowEnd;
+	private final Label aStartLabel;
+	private final Label aMiddleLabel;
+	private final Label aEndLabel;
+	private final Rectangle aBounds;
+	
+	/**
+	 * A label wrapped and positioned along a segment of the edge.
+	 */
+	static final class Label
+	{
+		private final String aText;
+		private final StringRenderer aRenderer;
+		private final Rectangle aBounds;
+		
+		/**
+		 * @param pText The wrapped text of the label, possibly empty.
+		 * @param pRenderer The renderer that draws the text.
+		 * @param pBounds The area where the text is drawn.
+		 */
+		Label(String pText, StringRenderer pRenderer, Rectangle pBounds)
+		{
+			aText = pText;
+			aRenderer = pRenderer;
+			aBounds = pBounds;
+		}
+		
+		Rectangle bounds()
+		{
+			return aBounds;
+		}
+		
+		void draw(RenderingContext pGraphics)
+		{
+			if( !aText.isEmpty() )
+			{
+				aRenderer.draw(aText, pGraphics, aBounds);
+			}
+		}
+	}
+	
+	EdgeRenderPlan(EdgePath pPath, long pModificationCount, int pFontSize, SegmentPath pShape, LineStyle pLineStyle, 
+			ArrowHead pArrowStart, ArrowHead pArrowEnd, Label pStartLabel, Label pMiddleLabel, Label pEndLabel, 
+			Rectangle pBounds)
+	{
+		aPath = pPath;
+		aModificationCount = pModificationCount;
+		aFontSize = pFontSize;
+		aShape = pShape;
+		aLineStyle = pLineStyle;
+		aArrowStart = pArrowStart;
+		aArrowEnd = pArrowEnd;
+		aStartLabel = pStartLabel;
+		aMiddleLabel = pMiddleLabel;
+		aEndLabel = pEndLabel;
+		aBounds = pBounds;
+	}
+	
+	/**
+	 * @param pPath The current path of the edge.
+	 * @param pModificationCount The current modification count of the diagram.
+	 * @param pFontSize The current font size.
+	 * @return True if this plan was computed for pPath and pFontSize, and the diagram did not change since.
+	 */
+	boolean isFor(EdgePath pPath, long pModificationCount, int pFontSize)
+	{
+		return aModificationCount == pModificationCount && aFontSize == pFontSize && aPath.equals(pPath);
+	}
+	
+	EdgePath path()
+	{
+		return aPath;
+	}
+	
+	SegmentPath shape()
+	{
+		return aShape;
+	}
+	
+	LineStyle lineStyle()
+	{
+		return aLineStyle;
+	}
+	
+	ArrowHead arrowStart()
+	{
+		return aArrowStart;
+	}
+	
+	ArrowHead arrowEnd()
+	{
+		return aArrowEnd;
+	}
+	
+	Label startLabel()
+	{
+		return aStartLabel;
+	}
+	
+	Label middleLabel()
+	{
+		return aMiddleLabel;
+	}
+	
+	Label endLabel()
+	{
+		return aEndLabel;
+	}
+	
+	/**
+	 * @return The bounds of the path and labels of the edge.
+	 */
+	Rectangle bounds()
+	{
+		return aBounds;
+	}
+}
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.jetuml.diagram.Edge;
@@ -32,11 +33,15 @@ import org.jetuml.geom.EdgePath;
 import org.jetuml.geom.Point;
 
 /**
- * Stores the EdgePaths of Edges for class diagrams.
+ * Stores the EdgePaths of Edges for class diagrams, and the render plans
+ * computed from them. Render plans survive clearing the storage, so that
+ * an edge laid out along the same path can reuse its plan.
  */
 public class EdgeStorage
 {
 	private Map<Edge, EdgePath> aEdgePaths = new IdentityHashMap<>();
+	private Map<Edge, EdgeRenderPlan> aRenderPlans = new IdentityHashMap<>();
+	private Map<Edge, EdgeRenderPlan> aPreviousRenderPlans = new IdentityHashMap<>();
  	
  	/**
  	 * Adds pEdge and pEdgePath into storage.
@@ -49,6 +54,38 @@ public class EdgeStorage
  	{
  		assert pEdge!=null && pEdgePath!=null;
  		aEdgePaths.put(pEdge, pEdgePath);
+ 		EdgeRenderPlan previous = aPreviousRenderPlans.remove(pEdge);
+ 		if( previous != null )
+ 		{
+ 			aRenderPlans.put(pEdge, previous);
+ 		}
+ 	}
+ 	
+ 	/**
+ 	 * Stores the render plan of a stored edge, replacing any previous plan.
+ 	 * @param pEdge the stored edge
+ 	 * @param pPlan the render plan computed from the EdgePath of pEdge
+ 	 * @pre pEdge!=null && pPlan!=null
+ 	 * @pre this.contains(pEdge)
+ 	 */
+ 	public void storeRenderPlan(Edge pEdge, EdgeRenderPlan pPlan)
+ 	{
+ 		assert pEdge!=null && pPlan!=null;
+ 		assert contains(pEdge);
+ 		aRenderPlans.put(pEdge, pPlan);
+ 	}
+ 	
+ 	/**
+ 	 * Returns the last render plan stored for pEdge. The plan may have been computed
+ 	 * for a different path or state of the diagram, see EdgeRenderPlan.isFor.
+ 	 * @param pEdge the stored edge of interest
+ 	 * @return the render plan of pEdge, if any
+ 	 * @pre pEdge!=null
+ 	 */
+ 	public Optional<EdgeRenderPlan> getRenderPlan(Edge pEdge)
+ 	{
+ 		assert pEdge!=null;
+ 		return Optional.ofNullable(aRenderPlans.get(pEdge));
  	}
  
  	
@@ -143,10 +180,15 @@ public class EdgeStorage
 	}
 	
 	/**
-	 * Clears edge storage.
+	 * Clears edge storage. The render plans of the cleared edges become available 
+	 * again if the edges are stored again before the next call to this method.
 	 */
 	public void clearStorage()
 	{
 		aEdgePaths.clear();
+		Map<Edge, EdgeRenderPlan> previous = aPreviousRenderPlans;
+		aPreviousRenderPlans = aRenderPlans;
+		aRenderPlans = previous;
+		aRenderPlans.clear();
 	}
 }
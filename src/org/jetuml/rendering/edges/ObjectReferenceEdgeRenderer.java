@@ -27,18 +27,15 @@ import org.jetuml.geom.Direction;
 import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
 import org.jetuml.rendering.ArrowHead;
+import org.jetuml.rendering.CanvasRenderingContext;
 import org.jetuml.rendering.DiagramRenderer;
 import org.jetuml.rendering.LineStyle;
+import org.jetuml.rendering.RenderingContext;
 import org.jetuml.rendering.ToolGraphics;
 
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.QuadCurveTo;
-import javafx.scene.shape.Shape;
 
 /**
  * A viewer for an S- or C-shaped edge with an arrowhead.
@@ -53,19 +50,19 @@ public final class ObjectReferenceEdgeRenderer extends AbstractEdgeRenderer
 	}
 	
 	@Override
-	protected Shape getShape(Edge pEdge)
+	protected void buildShape(Edge pEdge, SegmentPath pPath)
 	{
 		if(isSShaped(pEdge))
 		{
-			return getSShape(getConnectionPoints(pEdge));
+			addSShape(getConnectionPoints(pEdge), pPath);
 		}
 		else
 		{
-			return getCShape(getConnectionPoints(pEdge));
+			addCShape(getConnectionPoints(pEdge), pPath);
 		}			
 	}
 	
-	private static Path getSShape(Line pConnectionPoints)
+	private static void addSShape(Line pConnectionPoints, SegmentPath pPath)
 	{
 		final int x1 = pConnectionPoints.getX1() + ENDSIZE;
 		final int y1 = pConnectionPoints.getY1();
@@ -74,18 +71,14 @@ public final class ObjectReferenceEdgeRenderer extends AbstractEdgeRenderer
 		final int xmid = (pConnectionPoints.getX1() + pConnectionPoints.getX2()) / 2;
 		final int ymid = (pConnectionPoints.getY1() + pConnectionPoints.getY2()) / 2;
      
-		MoveTo moveTo = new MoveTo(pConnectionPoints.getX1(), y1);
-		LineTo lineTo1 = new LineTo(x1, y1);
-		QuadCurveTo quadTo1 = new QuadCurveTo((x1 + xmid) / 2, y1, xmid, ymid);
-		QuadCurveTo quadTo2 = new QuadCurveTo((x2 + xmid) / 2, y2, x2, y2);
-		LineTo lineTo2 = new LineTo(pConnectionPoints.getX2(), y2);
-		
-		Path path = new Path();
-		path.getElements().addAll(moveTo, lineTo1, quadTo1, quadTo2, lineTo2);
-		return path;
+		pPath.moveTo(pConnectionPoints.getX1(), y1)
+			.lineTo(x1, y1)
+			.quadTo((x1 + xmid) / 2, y1, xmid, ymid)
+			.quadTo((x2 + xmid) / 2, y2, x2, y2)
+			.lineTo(pConnectionPoints.getX2(), y2);
 	}
 	
-	private static Path getCShape(Line pConnectionPoints)
+	private static void addCShape(Line pConnectionPoints, SegmentPath pPath)
 	{
 		final int x1 = Math.max(pConnectionPoints.getX1(), pConnectionPoints.getX2()) + ENDSIZE;
 		final int y1 = pConnectionPoints.getY1();
@@ -93,15 +86,11 @@ public final class ObjectReferenceEdgeRenderer extends AbstractEdgeRenderer
 		final int y2 = pConnectionPoints.getY2();
 		final int ymid = (pConnectionPoints.getY1() + pConnectionPoints.getY2()) / 2;
 		
-		MoveTo moveTo = new MoveTo(pConnectionPoints.getX1(), y1);
-		LineTo lineTo1 = new LineTo(x1, y1);
-		QuadCurveTo quadTo1 = new QuadCurveTo(x2, y1, x2, ymid);
-		QuadCurveTo quadTo2 = new QuadCurveTo(x2, y2, x1, y2);
-		LineTo lineTo2 = new LineTo(pConnectionPoints.getX2(), y2);
-		
-		Path path = new Path();
-		path.getElements().addAll(moveTo, lineTo1, quadTo1, quadTo2, lineTo2);
-		return path;
+		pPath.moveTo(pConnectionPoints.getX1(), y1)
+			.lineTo(x1, y1)
+			.quadTo(x2, y1, x2, ymid)
+			.quadTo(x2, y2, x1, y2)
+			.lineTo(pConnectionPoints.getX2(), y2);
 	}
 	
 	/**
@@ -116,10 +105,10 @@ public final class ObjectReferenceEdgeRenderer extends AbstractEdgeRenderer
 	}
 
 	@Override
-	public void draw(DiagramElement pElement, GraphicsContext pGraphics)
+	public void draw(DiagramElement pElement, RenderingContext pGraphics)
 	{
 		Edge edge = (Edge) pElement;
-		ToolGraphics.strokeSharpPath(pGraphics, (Path) getShape(edge), LineStyle.SOLID);
+		ToolGraphics.strokeSharpPath(pGraphics, getShape(edge), LineStyle.SOLID);
 		Line connectionPoints = getConnectionPoints(edge);
 		
 		if(isSShaped(edge))
@@ -154,9 +143,10 @@ public final class ObjectReferenceEdgeRenderer extends AbstractEdgeRenderer
 	public Canvas createIcon(DiagramType pType, DiagramElement pElement)
 	{   //CSOFF: Magic numbers
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		RenderingContext graphics = new CanvasRenderingContext(canvas.getGraphicsContext2D());
 		graphics.scale(0.6, 0.6);
-		Path path = getCShape(new Line(new Point(5, 5), new Point(15,25)));
+		SegmentPath path = new SegmentPath();
+		addCShape(new Line(new Point(5, 5), new Point(15,25)), path);
 		ToolGraphics.strokeSharpPath(graphics, path, LineStyle.SOLID);
 		ArrowHead.BLACK_TRIANGLE.view().draw(graphics, new Point(20,25), new Point(15, 25));
 		return canvas;
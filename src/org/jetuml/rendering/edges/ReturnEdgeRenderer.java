@@ -28,16 +28,15 @@ import org.jetuml.diagram.nodes.PointNode;
 import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
 import org.jetuml.rendering.ArrowHead;
+import org.jetuml.rendering.CanvasRenderingContext;
 import org.jetuml.rendering.DiagramRenderer;
 import org.jetuml.rendering.LineStyle;
+import org.jetuml.rendering.RenderingContext;
 import org.jetuml.rendering.ToolGraphics;
 
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
 
 /**
  * Viewer for a labeled, straight edge with customized code to
@@ -79,10 +78,9 @@ public final class ReturnEdgeRenderer extends LabeledStraightEdgeRenderer
 		final float scale = 0.6f;
 		final int offset = 25;
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		RenderingContext graphics = new CanvasRenderingContext(canvas.getGraphicsContext2D());
 		canvas.getGraphicsContext2D().scale(scale, scale);
-		Path path = new Path();
-		path.getElements().addAll(new MoveTo(1, offset), new LineTo(BUTTON_SIZE*(1/scale)-1, offset));
+		SegmentPath path = new SegmentPath().moveTo(1, offset).lineTo(BUTTON_SIZE*(1/scale)-1, offset);
 		ToolGraphics.strokeSharpPath(graphics, path, LineStyle.DOTTED);
 		ArrowHead.V.view().draw(graphics, new Point((int)(BUTTON_SIZE*(1/scale)-1), offset), new Point(1, offset));
 		return canvas;
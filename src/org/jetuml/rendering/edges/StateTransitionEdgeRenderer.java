@@ -30,9 +30,12 @@ import org.jetuml.geom.Direction;
 import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
 import org.jetuml.rendering.ArrowHead;
+import org.jetuml.rendering.CanvasRenderingContext;
 import org.jetuml.rendering.DiagramRenderer;
 import org.jetuml.rendering.LineStyle;
+import org.jetuml.rendering.RenderingContext;
 import org.jetuml.rendering.StringRenderer;
 import org.jetuml.rendering.ToolGraphics;
 import org.jetuml.rendering.StringRenderer.Alignment;
@@ -40,14 +43,8 @@ import org.jetuml.rendering.StringRenderer.Alignment;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Arc;
 import javafx.scene.shape.ArcType;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.QuadCurveTo;
-import javafx.scene.shape.Shape;
 
 /**
  * An edge view specialized for state transitions.
@@ -59,6 +56,7 @@ public final class StateTransitionEdgeRenderer extends AbstractEdgeRenderer
 	private static final int DEGREES_10 = 10;
 	private static final int DEGREES_20 = 20;
 	private static final int DEGREES_270 = 270;
+	private static final int ARC_SEGMENTS = 6; // Quadratic curves that approximate the arc of a self-edge
 	private static final double LINE_WIDTH = 0.6;
 	
 	private static final int RADIANS_TO_PIXELS = 7;
@@ -74,7 +72,7 @@ public final class StateTransitionEdgeRenderer extends AbstractEdgeRenderer
 	}
 	
 	@Override
-	public void draw(DiagramElement pElement, GraphicsContext pGraphics)
+	public void draw(DiagramElement pElement, RenderingContext pGraphics)
 	{
 		Edge edge = (Edge) pElement;
 		if(isSelfEdge(edge))
@@ -84,13 +82,13 @@ public final class StateTransitionEdgeRenderer extends AbstractEdgeRenderer
 		}
 		else 
 		{
-			ToolGraphics.strokeSharpPath(pGraphics, (Path) getShape(edge), LineStyle.SOLID);
+			ToolGraphics.strokeSharpPath(pGraphics, getShape(edge), LineStyle.SOLID);
 		}
 		drawLabel((StateTransitionEdge)edge, pGraphics);
 		drawArrowHead(edge, pGraphics);
 	}
 	
-	private void drawArrowHead(Edge pEdge, GraphicsContext pGraphics)
+	private void drawArrowHead(Edge pEdge, RenderingContext pGraphics)
 	{
 		if( isSelfEdge(pEdge) )
 		{
@@ -116,7 +114,7 @@ public final class StateTransitionEdgeRenderer extends AbstractEdgeRenderer
 	 *  Draws the label.
 	 *  @param pGraphics2D the graphics context
 	 */
-	private void drawLabel(StateTransitionEdge pEdge, GraphicsContext pGraphics)
+	private void drawLabel(StateTransitionEdge pEdge, RenderingContext pGraphics)
 	{
 		String label = wrapLabel(pEdge);
 		Rectangle2D labelBounds = getLabelBounds(pEdge);
@@ -126,13 +124,13 @@ public final class StateTransitionEdgeRenderer extends AbstractEdgeRenderer
 		STRING_VIEWER.draw(label, pGraphics, drawingRectangle);
 	}
 	
-	private void drawSelfEdge(Edge pEdge, GraphicsContext pGraphics)
+	private void drawSelfEdge(Edge pEdge, RenderingContext pGraphics)
 	{
-		Arc arc = (Arc) getShape(pEdge);
+		Point center = getSelfEdgeCenter(pEdge);
 		double width = pGraphics.getLineWidth();
 		pGraphics.setLineWidth(LINE_WIDTH);
-		pGraphics.strokeArc(arc.getCenterX(), arc.getCenterY(), arc.getRadiusX(), arc.getRadiusY(), arc.getStartAngle(), 
-				arc.getLength(), arc.getType());
+		pGraphics.strokeArc(center.getX(), center.getY(), SELF_EDGE_OFFSET*2, SELF_EDGE_OFFSET*2, 
+				getSelfEdgeStartAngle(pEdge), DEGREES_270, ArcType.OPEN);
 		pGraphics.setLineWidth(width);
 	}
 	
@@ -260,15 +258,15 @@ public final class StateTransitionEdgeRenderer extends AbstractEdgeRenderer
 	}
 
 	@Override
-	protected Shape getShape(Edge pEdge)
+	protected void buildShape(Edge pEdge, SegmentPath pPath)
 	{
 		if( isSelfEdge(pEdge) )
 		{
-			return getSelfEdgeShape(pEdge);
+			addSelfEdgeShape(pEdge, pPath);
 		}
 		else
 		{
-			return getNormalEdgeShape(pEdge);
+			addNormalEdgeShape(pEdge, pPath);
 		}
 	}
 	
@@ -277,41 +275,62 @@ public final class StateTransitionEdgeRenderer extends AbstractEdgeRenderer
 		return pEdge.getStart() == pEdge.getEnd();
 	}
 	
-	private Shape getSelfEdgeShape(Edge pEdge)
+	/*
+	 * The arc of the self-edge approximated by quadratic curves, each tangent 
+	 * to the arc at both ends. Angles are counter-clockwise, as for JavaFX arcs.
+	 */
+	private void addSelfEdgeShape(Edge pEdge, SegmentPath pPath)
+	{
+		Point center = getSelfEdgeCenter(pEdge);
+		final double radius = SELF_EDGE_OFFSET*2;
+		final double step = Math.toRadians(DEGREES_270) / ARC_SEGMENTS;
+		final double controlRadius = radius / Math.cos(step / 2);
+		double angle = Math.toRadians(getSelfEdgeStartAngle(pEdge));
+		pPath.moveTo(center.getX() + radius * Math.cos(angle), center.getY() - radius * Math.sin(angle));
+		for( int i = 0; i < ARC_SEGMENTS; i++ )
+		{
+			pPath.quadTo(center.getX() + controlRadius * Math.cos(angle + step / 2), 
+					center.getY() - controlRadius * Math.sin(angle + step / 2),
+					center.getX() + radius * Math.cos(angle + step), center.getY() - radius * Math.sin(angle + step));
+			angle += step;
+		}
+	}
+	
+	private Point getSelfEdgeCenter(Edge pEdge)
 	{
 		Line line = getSelfEdgeConnectionPoints(pEdge);
-		Arc arc = new Arc();
-		arc.setRadiusX(SELF_EDGE_OFFSET*2);
-		arc.setRadiusY(SELF_EDGE_OFFSET*2);
-		arc.setLength(DEGREES_270);
-		arc.setType(ArcType.OPEN);
 		if( getPosition(pEdge) == 1 )
 		{
-			arc.setCenterX(line.getX1());
-			arc.setCenterY(line.getY1()-SELF_EDGE_OFFSET);
-			arc.setStartAngle(DEGREES_270);
+			return new Point(line.getX1(), line.getY1()-SELF_EDGE_OFFSET);
 		}
 		else
-		{		
-			arc.setCenterX(line.getX1()-SELF_EDGE_OFFSET);
-			arc.setCenterY(line.getY1()-SELF_EDGE_OFFSET*2);
-			arc.setStartAngle(1);
+		{
+			return new Point(line.getX1()-SELF_EDGE_OFFSET, line.getY1()-SELF_EDGE_OFFSET*2);
+		}
+	}
+	
+	private static int getSelfEdgeStartAngle(Edge pEdge)
+	{
+		if( getPosition(pEdge) == 1 )
+		{
+			return DEGREES_270;
+		}
+		else
+		{
+			return 1;
 		}
-		return arc;
 	}
 	
 	@Override
 	public boolean contains(DiagramElement pElement, Point pPoint)
 	{
-		boolean result = super.contains(pElement, pPoint);
-		if (getShape((Edge)pElement) instanceof Arc)
+		Edge edge = (Edge) pElement;
+		if( isSelfEdge(edge) )
 		{
-			Arc arc = (Arc) getShape((Edge)pElement);
-			arc.setRadiusX(arc.getRadiusX() + 2 * MAX_DISTANCE);
-			arc.setRadiusY(arc.getRadiusY() + 2 * MAX_DISTANCE);
-			result = arc.contains(pPoint.getX(), pPoint.getY());
+			// The loop formed by the self-edge can be selected from anywhere inside it
+			return pPoint.distance(getSelfEdgeCenter(edge)) <= SELF_EDGE_OFFSET*2 + 2 * MAX_DISTANCE;
 		}
-		return result;
+		return super.contains(pElement, pPoint);
 	}
 	
 	/** 
@@ -362,15 +381,12 @@ public final class StateTransitionEdgeRenderer extends AbstractEdgeRenderer
 		}
 	}
 	
-	private Shape getNormalEdgeShape(Edge pEdge)
+	private void addNormalEdgeShape(Edge pEdge, SegmentPath pPath)
 	{
 		Line line = getConnectionPoints(pEdge);
-		Path path = new Path();
-		MoveTo moveTo = new MoveTo(line.getPoint1().getX(), line.getPoint1().getY());
-		QuadCurveTo curveTo = new QuadCurveTo(getControlPoint(pEdge).getX(), getControlPoint(pEdge).getY(), 
-				line.getPoint2().getX(), line.getPoint2().getY());
-		path.getElements().addAll(moveTo, curveTo);
-		return path;
+		Point2D control = getControlPoint(pEdge);
+		pPath.moveTo(line.getPoint1().getX(), line.getPoint1().getY())
+			.quadTo(control.getX(), control.getY(), line.getPoint2().getX(), line.getPoint2().getY());
 	}
 	
 	
@@ -435,7 +451,7 @@ public final class StateTransitionEdgeRenderer extends AbstractEdgeRenderer
 	public Canvas createIcon(DiagramType pDiagramType, DiagramElement pElement)
 	{   //CSOFF: Magic numbers
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		RenderingContext graphics = new CanvasRenderingContext(canvas.getGraphicsContext2D());
 		graphics.scale(0.6, 0.6);
 		Line line = new Line(new Point(2,2), new Point(40,40));
 		final double tangent = Math.tan(Math.toRadians(DEGREES_10));
@@ -444,10 +460,8 @@ public final class StateTransitionEdgeRenderer extends AbstractEdgeRenderer
 		Point control = new Point((int)((line.getX1() + line.getX2()) / 2 + tangent * dy), 
 				(int)((line.getY1() + line.getY2()) / 2 - tangent * dx));         
 		
-		Path path = new Path();
-		MoveTo moveTo = new MoveTo(line.getPoint1().getX(), line.getPoint1().getY());
-		QuadCurveTo curveTo = new QuadCurveTo(control.getX(), control.getY(), line.getPoint2().getX(), line.getPoint2().getY());
-		path.getElements().addAll(moveTo, curveTo);
+		SegmentPath path = new SegmentPath().moveTo(line.getPoint1().getX(), line.getPoint1().getY())
+			.quadTo(control.getX(), control.getY(), line.getPoint2().getX(), line.getPoint2().getY());
 		
 		ToolGraphics.strokeSharpPath(graphics, path, LineStyle.SOLID);
 		ArrowHead.V.view().draw(graphics, control, new Point(40, 40));
@@ -40,22 +40,19 @@ import org.jetuml.geom.EdgePath;
 import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
 import org.jetuml.rendering.ArrowHead;
+import org.jetuml.rendering.CanvasRenderingContext;
 import org.jetuml.rendering.ClassDiagramRenderer;
 import org.jetuml.rendering.DiagramRenderer;
 import org.jetuml.rendering.EdgePriority;
 import org.jetuml.rendering.LineStyle;
+import org.jetuml.rendering.RenderingContext;
 import org.jetuml.rendering.StringRenderer;
 import org.jetuml.rendering.ToolGraphics;
 import org.jetuml.rendering.StringRenderer.Alignment;
 
-import javafx.geometry.Bounds;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.Shape;
 
 /**
  * Renders the path of stored class diagram edges using EdgeStorage.
@@ -172,70 +169,69 @@ public class StoredEdgeRenderer extends AbstractEdgeRenderer
 	}
 
 	/**
-	 * Uses the stored EdgePath of pEdge to create Path representation of its trajectory. 
+	 * Uses the stored EdgePath of pEdge to build the path of its trajectory. 
 	 * @param pEdge the edge of interest
-	 * @return a Path representing the path of pEdge
+	 * @param pPath the path to add the trajectory of pEdge to
 	 * @pre pEdge!=null;
 	 */
-	private Path getSegmentPath(Edge pEdge) 
+	@Override
+	protected void buildShape(Edge pEdge, SegmentPath pPath) 
 	{
 		assert pEdge != null;
 		assert pEdge.getDiagram().getType() == DiagramType.CLASS;
-		Path shape = new Path();
 		EdgePath path = getStoredEdgePath(pEdge);
-		shape.getElements().add(new MoveTo(path.getStartPoint().getX(), path.getStartPoint().getY()));
+		pPath.moveTo(path.getStartPoint().getX(), path.getStartPoint().getY());
 		for (int i = 1; i < path.size(); i++)
 		{
 			Point point = path.getPointByIndex(i);
-			shape.getElements().add(new LineTo(point.getX(), point.getY()));
+			pPath.lineTo(point.getX(), point.getY());
 		}
-		return shape;
 	}
 
 	/**
-	 * Returns whether an edge is segmented and is a step up. 
-	 * @param pEdge the edge of interest
-	 * @return true if edge is a step up, false otherwise.
+	 * Returns whether an edge path is segmented and is a step up. 
+	 * @param pPath the path of the edge of interest
+	 * @return true if the path is a step up, false otherwise.
 	 */
-	private boolean isStepUp(Edge pEdge) 
+	private static boolean isStepUp(EdgePath pPath) 
 	{
-		Point point1 = getStoredEdgePath(pEdge).getStartPoint();
-		Point point2 = getStoredEdgePath(pEdge).getEndPoint();
+		Point point1 = pPath.getStartPoint();
+		Point point2 = pPath.getEndPoint();
 		return point1.getX() < point2.getX() && point1.getY() > point2.getY() || 
 				point1.getX() > point2.getX() && point1.getY() < point2.getY();
 	}
 	
 	/**
-	 * Draws a string.
-	 * @param pGraphics the graphics context
+	 * Wraps and positions a string along a segment of an edge.
 	 * @param pEndPoint1 an endpoint of the segment along which to draw the string
 	 * @param pEndPoint2 the other endpoint of the segment along which to draw the string
 	 * @param pString the string to draw 
 	 * @param pCenter true if the string should be centered along the segment
+	 * @return the label to draw
 	 */
-	private void drawString(GraphicsContext pGraphics, Point pEndPoint1, Point pEndPoint2, 
+	private EdgeRenderPlan.Label createLabel(Point pEndPoint1, Point pEndPoint2, 
 			ArrowHead pArrowHead, String pString, boolean pCenter, boolean pIsStepUp)
 	{
-		if (pString == null || pString.length() == 0)
+		String label = "";
+		if( pString != null && pString.length() > 0 )
 		{
-			return;
+			label = wrapLabel(pString, pEndPoint1, pEndPoint2);
 		}
-		String label = wrapLabel(pString, pEndPoint1, pEndPoint2);
 		Rectangle bounds = getStringBounds(pEndPoint1, pEndPoint2, pArrowHead, label, pCenter, pIsStepUp);
 		if(pCenter) 
 		{
 			if ( pEndPoint2.getY() >= pEndPoint1.getY() )
 			{
-				TOP_CENTERED_STRING_VIEWER.draw(label, pGraphics, bounds);
+				return new EdgeRenderPlan.Label(label, TOP_CENTERED_STRING_VIEWER, bounds);
 			}
 			else
 			{
-				BOTTOM_CENTERED_STRING_VIEWER.draw(label, pGraphics, bounds);
+				return new EdgeRenderPlan.Label(label, BOTTOM_CENTERED_STRING_VIEWER, bounds);
 			}
 		}
 		else
 		{
-			LEFT_JUSTIFIED_STRING_VIEWER.draw(label, pGraphics, bounds);
+			return new EdgeRenderPlan.Label(label, LEFT_JUSTIFIED_STRING_VIEWER, bounds);
 		}
 	}
 	
@@ -330,14 +326,14 @@ public class StoredEdgeRenderer extends AbstractEdgeRenderer
 			}
 			if(pArrow != null && pArrow != ArrowHead.NONE)
 			{
-				Bounds arrowBounds = pArrow.view().getPath(pEndPoint1, pEndPoint2).getBoundsInLocal();
+				Rectangle arrowBounds = pArrow.view().getBounds(pEndPoint1, pEndPoint2);
 				if(pEndPoint1.getY() == pEndPoint2.getY())
 				{
-					yoff -= arrowBounds.getHeight() / 2;
+					yoff -= arrowBounds.getHeight() / 2.0;
 				}
 				else if(pEndPoint1.getX() == pEndPoint2.getX())
 				{
-					xoff += arrowBounds.getWidth() / 2;
+					xoff += arrowBounds.getWidth() / 2.0;
 				}
 			}
 		}
@@ -409,43 +405,67 @@ public class StoredEdgeRenderer extends AbstractEdgeRenderer
 		}
 	}
 
-	@Override
-	public Rectangle getBounds(DiagramElement pElement) 
+	/**
+	 * Gets the render plan of pEdge, computing it if the plan stored
+	 * for pEdge is out of date.
+	 * @param pEdge the edge of interest
+	 * @return the render plan of pEdge
+	 */
+	private EdgeRenderPlan getRenderPlan(Edge pEdge)
+	{
+		ClassDiagramRenderer parent = (ClassDiagramRenderer) parent();
+		EdgePath path = getStoredEdgePath(pEdge);
+		long modificationCount = pEdge.getDiagram().modificationCount();
+		int fontSize = StringRenderer.fontSize();
+		Optional<EdgeRenderPlan> plan = parent.getRenderPlan(pEdge);
+		if( plan.isPresent() && plan.get().isFor(path, modificationCount, fontSize) )
+		{
+			return plan.get();
+		}
+		EdgeRenderPlan newPlan = createRenderPlan(pEdge, path, modificationCount, fontSize);
+		parent.storeRenderPlan(pEdge, newPlan);
+		return newPlan;
+	}
+	
+	private EdgeRenderPlan createRenderPlan(Edge pEdge, EdgePath pPath, long pModificationCount, int pFontSize)
 	{
-		Edge edge = (Edge) pElement;
-		EdgePath path = getStoredEdgePath(edge);
-		Rectangle bounds = super.getBounds(edge);
-		bounds = bounds.add(getStringBounds(path.getPointByIndex(1), path.getStartPoint(), 
-				getArrowStart(edge), getStartLabel(edge), false, isStepUp(edge)));
-		bounds = bounds.add(getStringBounds(path.getPointByIndex(path.size() / 2 - 1), 
-				path.getPointByIndex(path.size() / 2), null, getMiddleLabel(edge), true, isStepUp(edge)));
-		bounds = bounds.add(getStringBounds(path.getPointByIndex(path.size() - 2), path.getEndPoint(), 
-				getArrowEnd(edge), getEndLabel(edge), false, isStepUp(edge)));
-		return bounds;
+		SegmentPath shape = new SegmentPath();
+		buildShape(pEdge, shape);
+		ArrowHead arrowStart = getArrowStart(pEdge);
+		ArrowHead arrowEnd = getArrowEnd(pEdge);
+		boolean isStepUp = isStepUp(pPath);
+		EdgeRenderPlan.Label startLabel = createLabel(pPath.getPointByIndex(1), pPath.getStartPoint(), 
+				arrowStart, getStartLabel(pEdge), false, isStepUp);
+		EdgeRenderPlan.Label middleLabel = createLabel(pPath.getPointByIndex(pPath.size() / 2 - 1), 
+				pPath.getPointByIndex(pPath.size() / 2), null, getMiddleLabel(pEdge), true, isStepUp);
+		EdgeRenderPlan.Label endLabel = createLabel(pPath.getPointByIndex(pPath.size() - 2), pPath.getEndPoint(), 
+				arrowEnd, getEndLabel(pEdge), false, isStepUp);
+		Rectangle bounds = ToolGraphics.getStrokeBounds(shape)
+				.add(startLabel.bounds())
+				.add(middleLabel.bounds())
+				.add(endLabel.bounds());
+		return new EdgeRenderPlan(pPath, pModificationCount, pFontSize, shape, getLineStyle(pEdge), arrowStart, arrowEnd, 
+				startLabel, middleLabel, endLabel, bounds);
 	}
 
 	@Override
-	protected Shape getShape(Edge pEdge) 
+	public Rectangle getBounds(DiagramElement pElement) 
 	{
-		assert pEdge != null;
-		return getSegmentPath(pEdge);
+		return getRenderPlan((Edge) pElement).bounds();
 	}
 
 	@Override
-	public void draw(DiagramElement pElement, GraphicsContext pGraphics) 
+	public void draw(DiagramElement pElement, RenderingContext pGraphics) 
 	{
 		assert pElement !=null && pGraphics != null;
-		Edge edge = (Edge) pElement;
-		EdgePath path = getStoredEdgePath(edge);
-		ToolGraphics.strokeSharpPath(pGraphics, getSegmentPath(edge), getLineStyle(edge));
-		getArrowStart(edge).view().draw(pGraphics, path.getPointByIndex(1), path.getStartPoint());
-		getArrowEnd(edge).view().draw(pGraphics, path.getPointByIndex(path.size()-2), path.getEndPoint());
-		drawString(pGraphics, path.getPointByIndex(1), path.getStartPoint(), getArrowStart(edge), getStartLabel(edge), 
-			false, isStepUp(edge));
-		drawString(pGraphics, path.getPointByIndex(path.size() / 2 - 1) , path.getPointByIndex(path.size() / 2), null, 
-			getMiddleLabel(edge), true, isStepUp(edge));
-		drawString(pGraphics, path.getPointByIndex(path.size()-2), path.getPointByIndex(path.size()-1), 
-			getArrowEnd(edge), getEndLabel(edge), false, isStepUp(edge));
+		EdgeRenderPlan plan = getRenderPlan((Edge) pElement);
+		EdgePath path = plan.path();
+		ToolGraphics.strokeSharpPath(pGraphics, plan.shape(), plan.lineStyle());
+		plan.arrowStart().view().draw(pGraphics, path.getPointByIndex(1), path.getStartPoint());
+		plan.arrowEnd().view().draw(pGraphics, path.getPointByIndex(path.size()-2), path.getEndPoint());
+		plan.startLabel().draw(pGraphics);
+		plan.middleLabel().draw(pGraphics);
+		plan.endLabel().draw(pGraphics);
 	}
 
 	@Override
@@ -453,45 +473,34 @@ public class StoredEdgeRenderer extends AbstractEdgeRenderer
 	{
 		Edge edge = (Edge)pElement;
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		Path path = new Path();
-		path.getElements().addAll(new MoveTo(OFFSET, OFFSET), new LineTo(BUTTON_SIZE-OFFSET, BUTTON_SIZE-OFFSET));
-		ToolGraphics.strokeSharpPath(canvas.getGraphicsContext2D(), path, getLineStyle(edge));
-		getArrowEnd(edge).view().draw(canvas.getGraphicsContext2D(), 
+		RenderingContext graphics = new CanvasRenderingContext(canvas.getGraphicsContext2D());
+		SegmentPath path = new SegmentPath().moveTo(OFFSET, OFFSET).lineTo(BUTTON_SIZE-OFFSET, BUTTON_SIZE-OFFSET);
+		ToolGraphics.strokeSharpPath(graphics, path, getLineStyle(edge));
+		getArrowEnd(edge).view().draw(graphics, 
 				new Point(OFFSET, OFFSET), new Point(BUTTON_SIZE-OFFSET, BUTTON_SIZE - OFFSET));
-		getArrowStart(edge).view().draw(canvas.getGraphicsContext2D(), 
+		getArrowStart(edge).view().draw(graphics, 
 				new Point(BUTTON_SIZE-OFFSET, BUTTON_SIZE - OFFSET), new Point(OFFSET, OFFSET));
 		return canvas;
 	}
 
 	@Override
-	public void drawSelectionHandles(DiagramElement pElement, GraphicsContext pGraphics) 
+	public void drawSelectionHandles(DiagramElement pElement, RenderingContext pGraphics) 
 	{
-		EdgePath path = getStoredEdgePath((Edge)pElement);
-		if (path != null) 
-		{
-			ToolGraphics.drawHandles(pGraphics, new Line(path.getStartPoint(), path.getEndPoint()));
-		}
+		EdgePath path = getRenderPlan((Edge)pElement).path();
+		ToolGraphics.drawHandles(pGraphics, new Line(path.getStartPoint(), path.getEndPoint()));
 	}
 
 	@Override
 	public boolean contains(DiagramElement pElement, Point pPoint) 
 	{
 		// Purposefully does not include the arrow head and labels, which create large bounds.
-		EdgePath path = getStoredEdgePath((Edge)pElement);
-		if (path == null)
+		EdgeRenderPlan plan = getRenderPlan((Edge)pElement);
+		EdgePath path = plan.path();
+		if(pPoint.distance(path.getStartPoint()) <= MAX_DISTANCE || pPoint.distance(path.getEndPoint()) <= MAX_DISTANCE)
 		{
-			return false;
-		}
-		else
-		{
-			if(pPoint.distance(path.getStartPoint()) <= MAX_DISTANCE || pPoint.distance(path.getEndPoint()) <= MAX_DISTANCE)
-			{
-				return true;
-			}
-			Shape fatPath = getShape((Edge)pElement);
-			fatPath.setStrokeWidth(2 * MAX_DISTANCE);
-			return fatPath.contains(pPoint.getX(), pPoint.getY());
+			return true;
 		}
+		return plan.shape().isNear(pPoint, MAX_DISTANCE);
 	}
 
 	@Override
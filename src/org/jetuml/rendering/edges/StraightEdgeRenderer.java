@@ -23,20 +23,18 @@ package org.jetuml.rendering.edges;
 import org.jetuml.diagram.DiagramElement;
 import org.jetuml.diagram.DiagramType;
 import org.jetuml.diagram.Edge;
-import org.jetuml.geom.Conversions;
 import org.jetuml.geom.Line;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
 import org.jetuml.rendering.ArrowHead;
+import org.jetuml.rendering.CanvasRenderingContext;
 import org.jetuml.rendering.DiagramRenderer;
 import org.jetuml.rendering.LineStyle;
+import org.jetuml.rendering.RenderingContext;
 import org.jetuml.rendering.ToolGraphics;
 
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
 
 /**
  * Can draw an edge as a straight line between the connection
@@ -63,11 +61,10 @@ public class StraightEdgeRenderer extends AbstractEdgeRenderer
 	}
 	
 	@Override
-	public void draw(DiagramElement pElement, GraphicsContext pGraphics)
+	public void draw(DiagramElement pElement, RenderingContext pGraphics)
 	{
 		Edge edge = (Edge) pElement;
-		Path shape = (Path) getShape(edge);
-		ToolGraphics.strokeSharpPath(pGraphics, shape, aLineStyle);
+		ToolGraphics.strokeSharpPath(pGraphics, getShape(edge), aLineStyle);
 		Line connectionPoints = getConnectionPoints(edge);
 		aArrowHead.view().draw(pGraphics, connectionPoints.getPoint1(), connectionPoints.getPoint2());
 	}
@@ -80,8 +77,8 @@ public class StraightEdgeRenderer extends AbstractEdgeRenderer
 		if( aArrowHead != ArrowHead.NONE )
 		{
 			Line connectionPoints = getConnectionPoints(edge);
-			bounds = bounds.add(Conversions.toRectangle(aArrowHead.view().getPath(connectionPoints.getPoint1(), 
-					connectionPoints.getPoint2()).getBoundsInLocal()));
+			bounds = bounds.add(aArrowHead.view().getBounds(connectionPoints.getPoint1(), 
+					connectionPoints.getPoint2()));
 		}
 		return bounds;
 	}
@@ -90,10 +87,10 @@ public class StraightEdgeRenderer extends AbstractEdgeRenderer
 	public Canvas createIcon(DiagramType pDiagramType, DiagramElement pElement)
 	{
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		Path path = new Path();
-		path.getElements().addAll(new MoveTo(OFFSET, OFFSET), new LineTo(BUTTON_SIZE-OFFSET, BUTTON_SIZE-OFFSET));
-		ToolGraphics.strokeSharpPath(canvas.getGraphicsContext2D(), path, aLineStyle);
-		aArrowHead.view().draw(canvas.getGraphicsContext2D(), new Point(OFFSET, OFFSET), new Point(BUTTON_SIZE-OFFSET, BUTTON_SIZE - OFFSET));
+		RenderingContext graphics = new CanvasRenderingContext(canvas.getGraphicsContext2D());
+		SegmentPath path = new SegmentPath().moveTo(OFFSET, OFFSET).lineTo(BUTTON_SIZE-OFFSET, BUTTON_SIZE-OFFSET);
+		ToolGraphics.strokeSharpPath(graphics, path, aLineStyle);
+		aArrowHead.view().draw(graphics, new Point(OFFSET, OFFSET), new Point(BUTTON_SIZE-OFFSET, BUTTON_SIZE - OFFSET));
 		return canvas;
 	}
 }
@@ -26,6 +26,7 @@ import org.jetuml.diagram.Edge;
 import org.jetuml.diagram.edges.UseCaseDependencyEdge;
 import org.jetuml.geom.Rectangle;
 import org.jetuml.rendering.ArrowHead;
+import org.jetuml.rendering.CanvasRenderingContext;
 import org.jetuml.rendering.DiagramRenderer;
 import org.jetuml.rendering.LineStyle;
 import org.jetuml.rendering.StringRenderer;
@@ -56,7 +57,7 @@ public final class UseCaseDependencyEdgeRenderer extends LabeledStraightEdgeRend
 		final float scale = 0.75f;
 		canvas.getGraphicsContext2D().scale(scale, scale);
 		StringRenderer.get(Alignment.CENTER_CENTER, TextDecoration.PADDED).draw(getIconTag(edge), 
-				canvas.getGraphicsContext2D(), new Rectangle(1, BUTTON_SIZE, 1, 1));
+				new CanvasRenderingContext(canvas.getGraphicsContext2D()), new Rectangle(1, BUTTON_SIZE, 1, 1));
 		return canvas;
 	}
 
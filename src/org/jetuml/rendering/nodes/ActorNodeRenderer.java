@@ -25,19 +25,15 @@ import org.jetuml.diagram.Node;
 import org.jetuml.diagram.nodes.ActorNode;
 import org.jetuml.geom.Dimension;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
 import org.jetuml.rendering.DiagramRenderer;
 import org.jetuml.rendering.LineStyle;
+import org.jetuml.rendering.RenderingContext;
 import org.jetuml.rendering.StringRenderer;
 import org.jetuml.rendering.ToolGraphics;
 import org.jetuml.rendering.StringRenderer.Alignment;
 import org.jetuml.rendering.StringRenderer.TextDecoration;
 
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.QuadCurveTo;
-
 /**
  * An object to render an actor in a use case diagram.
  */
@@ -53,6 +49,8 @@ public final class ActorNodeRenderer extends AbstractNodeRenderer
 	private static final int WIDTH = ARMS_SIZE * 2;
 	private static final int HEIGHT = HEAD_SIZE + BODY_SIZE + LEG_SIZE + PADDING * 2;
 	
+	private final SegmentPath aPath = new SegmentPath();
+	
 	public ActorNodeRenderer(DiagramRenderer pParent)
 	{
 		super(pParent);
@@ -77,7 +75,7 @@ public final class ActorNodeRenderer extends AbstractNodeRenderer
 	}
 
 	@Override
-	public void draw(DiagramElement pElement, GraphicsContext pGraphics)
+	public void draw(DiagramElement pElement, RenderingContext pGraphics)
 	{
 		Rectangle bounds = getBounds(pElement);
 		Node node = (Node) pElement;
@@ -88,9 +86,9 @@ public final class ActorNodeRenderer extends AbstractNodeRenderer
 		ToolGraphics.strokeSharpPath(pGraphics, createStickManPath(node), LineStyle.SOLID);
 	}
 	
-	private static Path createStickManPath(Node pNode)
+	private SegmentPath createStickManPath(Node pNode)
 	{
-		Path path = new Path();
+		aPath.clear();
 		
 		int neckX = pNode.position().getX() + WIDTH / 2;
 		int neckY = pNode.position().getY() + HEAD_SIZE + PADDING;
@@ -101,18 +99,16 @@ public final class ActorNodeRenderer extends AbstractNodeRenderer
 		float feetX2 = hipX + dx + 1;
 		float feetY  = hipY + dx + 1;
 		
-		path.getElements().addAll(
-				new MoveTo(neckX, neckY),
-				new QuadCurveTo(neckX + HEAD_SIZE / 2, neckY, neckX + HEAD_SIZE / 2, neckY - HEAD_SIZE / 2),
-				new QuadCurveTo(neckX + HEAD_SIZE / 2, neckY - HEAD_SIZE, neckX, neckY - HEAD_SIZE),
-				new QuadCurveTo(neckX - HEAD_SIZE / 2, neckY - HEAD_SIZE, neckX-HEAD_SIZE / 2, neckY - HEAD_SIZE / 2),
-				new QuadCurveTo(neckX - HEAD_SIZE / 2, neckY, neckX, neckY),
-				new LineTo(hipX, hipY),
-				new MoveTo(neckX - ARMS_SIZE / 2, neckY + BODY_SIZE / 3),
-				new LineTo(neckX + ARMS_SIZE / 2, neckY + BODY_SIZE / 3),
-				new MoveTo(feetX1, feetY),
-				new LineTo(hipX, hipY),
-				new LineTo(feetX2, feetY));	
-		return path;
+		return aPath.moveTo(neckX, neckY)
+			.quadTo(neckX + HEAD_SIZE / 2, neckY, neckX + HEAD_SIZE / 2, neckY - HEAD_SIZE / 2)
+			.quadTo(neckX + HEAD_SIZE / 2, neckY - HEAD_SIZE, neckX, neckY - HEAD_SIZE)
+			.quadTo(neckX - HEAD_SIZE / 2, neckY - HEAD_SIZE, neckX-HEAD_SIZE / 2, neckY - HEAD_SIZE / 2)
+			.quadTo(neckX - HEAD_SIZE / 2, neckY, neckX, neckY)
+			.lineTo(hipX, hipY)
+			.moveTo(neckX - ARMS_SIZE / 2, neckY + BODY_SIZE / 3)
+			.lineTo(neckX + ARMS_SIZE / 2, neckY + BODY_SIZE / 3)
+			.moveTo(feetX1, feetY)
+			.lineTo(hipX, hipY)
+			.lineTo(feetX2, feetY);
 	}
 }
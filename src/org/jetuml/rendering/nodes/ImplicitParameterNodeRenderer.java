@@ -30,8 +30,10 @@ import org.jetuml.geom.Dimension;
 import org.jetuml.geom.Direction;
 import org.jetuml.geom.Point;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.CanvasRenderingContext;
 import org.jetuml.rendering.DiagramRenderer;
 import org.jetuml.rendering.LineStyle;
+import org.jetuml.rendering.RenderingContext;
 import org.jetuml.rendering.RenderingUtils;
 import org.jetuml.rendering.SequenceDiagramRenderer;
 import org.jetuml.rendering.StringRenderer;
@@ -39,7 +41,6 @@ import org.jetuml.rendering.StringRenderer.Alignment;
 import org.jetuml.rendering.StringRenderer.TextDecoration;
 
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
 /**
@@ -67,7 +68,7 @@ public final class ImplicitParameterNodeRenderer extends AbstractNodeRenderer
 	}
 	
 	@Override
-	public void draw(DiagramElement pElement, GraphicsContext pGraphics)
+	public void draw(DiagramElement pElement, RenderingContext pGraphics)
 	{
 		Rectangle top = getTopRectangle((Node)pElement);
 		RenderingUtils.drawRectangle(pGraphics, top);
@@ -164,15 +165,15 @@ public final class ImplicitParameterNodeRenderer extends AbstractNodeRenderer
 		double scaleY = (BUTTON_SIZE - OFFSET)/ (double) height;
 		double scale = Math.min(scaleX, scaleY);
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		RenderingContext graphics = new CanvasRenderingContext(canvas.getGraphicsContext2D());
 		graphics.scale(scale, scale);
 		graphics.translate(Math.max((height - width) / 2, 0), Math.max((width - height) / 2, 0));
 		graphics.setFill(Color.WHITE);
 		graphics.setStroke(Color.BLACK);
 		Rectangle top = new Rectangle(0,0, DEFAULT_WIDTH, TOP_HEIGHT);
-		RenderingUtils.drawRectangle(canvas.getGraphicsContext2D(), top);
+		RenderingUtils.drawRectangle(graphics, top);
 		int xmid = DEFAULT_WIDTH/2;
-		RenderingUtils.drawLine(canvas.getGraphicsContext2D(), xmid,  top.getMaxY(), xmid, height, LineStyle.DOTTED);
+		RenderingUtils.drawLine(graphics, xmid,  top.getMaxY(), xmid, height, LineStyle.DOTTED);
 		return canvas;
 	}
 }
@@ -26,6 +26,8 @@ package org.jetuml.rendering.nodes;
 
 import org.jetuml.diagram.Node;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.rendering.Instrumentation;
+import org.jetuml.rendering.Instrumentation.Counter;
 
  /**
   * Stores the bounds of nodes. 
@@ -49,10 +51,12 @@ import org.jetuml.geom.Rectangle;
  		}
  		else if (aIsActivated && aNodeBounds.containsKey(pNode))
  		{
+ 			Instrumentation.count(Counter.NODE_BOUNDS_HITS);
  			return aNodeBounds.get(pNode);
  		}
  		else
  		{
+ 			Instrumentation.count(Counter.NODE_BOUNDS_MISSES);
  			Rectangle computedBounds = pBoundCalculator.apply(pNode);
  			aNodeBounds.put(pNode, computedBounds);
  			return computedBounds;
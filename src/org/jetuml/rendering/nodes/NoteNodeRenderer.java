@@ -25,17 +25,15 @@ import org.jetuml.diagram.Node;
 import org.jetuml.diagram.nodes.NoteNode;
 import org.jetuml.geom.Dimension;
 import org.jetuml.geom.Rectangle;
+import org.jetuml.geom.SegmentPath;
 import org.jetuml.rendering.DiagramRenderer;
+import org.jetuml.rendering.RenderingContext;
 import org.jetuml.rendering.StringRenderer;
 import org.jetuml.rendering.ToolGraphics;
 import org.jetuml.rendering.StringRenderer.Alignment;
 import org.jetuml.rendering.StringRenderer.TextDecoration;
 
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
 
 /**
  * An object to render a NoteNode.
@@ -48,6 +46,8 @@ public final class NoteNodeRenderer extends AbstractNodeRenderer
 	private static final Color NOTE_COLOR = Color.color(0.9f, 0.9f, 0.6f); // Pale yellow
 	private static final StringRenderer NOTE_VIEWER = StringRenderer.get(Alignment.TOP_LEFT, TextDecoration.PADDED);
 	
+	private final SegmentPath aPath = new SegmentPath();
+	
 	public NoteNodeRenderer(DiagramRenderer pParent)
 	{
 		super(pParent);
@@ -60,7 +60,7 @@ public final class NoteNodeRenderer extends AbstractNodeRenderer
 	}
 	
 	@Override
-	public void draw(DiagramElement pElement, GraphicsContext pGraphics)
+	public void draw(DiagramElement pElement, RenderingContext pGraphics)
 	{
 		Node node = (Node) pElement;
 		ToolGraphics.strokeAndFillSharpPath(pGraphics, createNotePath(node), NOTE_COLOR, true);
@@ -69,35 +69,30 @@ public final class NoteNodeRenderer extends AbstractNodeRenderer
 				new Rectangle(node.position().getX(), node.position().getY(), DEFAULT_WIDTH, DEFAULT_HEIGHT));
 	}
 	
-	private Path createNotePath(Node pNode)
+	private SegmentPath createNotePath(Node pNode)
 	{
-		Path path = new Path();
+		aPath.clear();
 		Rectangle bounds = getBounds(pNode);		
-		path.getElements().addAll(
-				new MoveTo(bounds.getX(), bounds.getY()),
-				new LineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY()),
-				new LineTo(bounds.getMaxX(), bounds.getY() + FOLD_LENGTH),
-				new LineTo(bounds.getMaxX(), bounds.getMaxY()),
-				new LineTo(bounds.getX(), bounds.getMaxY()),
-				new LineTo(bounds.getX(), bounds.getY()));
-		return path;
+		return aPath.moveTo(bounds.getX(), bounds.getY())
+			.lineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY())
+			.lineTo(bounds.getMaxX(), bounds.getY() + FOLD_LENGTH)
+			.lineTo(bounds.getMaxX(), bounds.getMaxY())
+			.lineTo(bounds.getX(), bounds.getMaxY())
+			.lineTo(bounds.getX(), bounds.getY());
 	}
 	
 	/**
 	 * Fills in note fold.
-	 * @param pGraphics GraphicsContext in which to fill the fold
+	 * @param pGraphics RenderingContext in which to fill the fold
 	 */
-	private Path createFoldPath(Node pNode)
+	private SegmentPath createFoldPath(Node pNode)
 	{
+		aPath.clear();
 		Rectangle bounds = getBounds(pNode);
-		Path path = new Path();
-		path.getElements().addAll(
-				new MoveTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY()),
-				new LineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY() + FOLD_LENGTH),
-				new LineTo(bounds.getMaxX(), bounds.getY() + FOLD_LENGTH),
-				new LineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY())
-		);
-		return path;
+		return aPath.moveTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY())
+			.lineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY() + FOLD_LENGTH)
+			.lineTo(bounds.getMaxX(), bounds.getY() + FOLD_LENGTH)
+			.lineTo(bounds.getMaxX() - FOLD_LENGTH, bounds.getY());
 	}
 	
 	@Override
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import javax.imageio.ImageIO;
+
+import org.jetuml.BatchExporter.Format;
+import org.jetuml.BatchExporter.Result;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestBatchExporter
+{
+	private static final Path TEST_FILES = Path.of("testdata");
+	
+	@TempDir
+	Path aDirectory;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	private File copy(String pName, Path pDirectory) throws IOException
+	{
+		Files.createDirectories(pDirectory);
+		return Files.copy(TEST_FILES.resolve(pName), pDirectory.resolve(pName)).toFile();
+	}
+	
+	@Test
+	public void testImageFileFor()
+	{
+		File diagram = new File("dir", "diagram.class.jet");
+		assertEquals(new File(new File("dir").getAbsoluteFile(), "diagram.class.png"), 
+				new BatchExporter(Format.PNG, Optional.empty(), 1).imageFileFor(diagram));
+		assertEquals(new File("out", "diagram.class.svg"), 
+				new BatchExporter(Format.SVG, Optional.of(new File("out")), 1).imageFileFor(diagram));
+	}
+	
+	@Test
+	public void testFindDiagrams() throws IOException
+	{
+		File first = copy("testPersistenceService.state.jet", aDirectory);
+		File second = copy("testPersistenceService.class.jet", aDirectory.resolve("sub"));
+		Files.writeString(aDirectory.resolve("notes.txt"), "Not a diagram");
+		File explicit = new File("explicit.txt");
+		assertEquals(List.of(explicit, second, first), 
+				BatchExporter.findDiagrams(List.of(explicit, aDirectory.toFile())));
+	}
+	
+	@Test
+	public void testExportPng() throws Exception
+	{
+		File diagram = copy("testPersistenceService.state.jet", aDirectory);
+		List<Result> reported = new ArrayList<>();
+		List<Result> results = new BatchExporter(Format.PNG, Optional.empty(), 1).export(List.of(diagram), reported::add);
+		assertEquals(results, reported);
+		assertFalse(results.get(0).error().isPresent());
+		BufferedImage image = ImageIO.read(results.get(0).image());
+		assertTrue(image.getWidth() > 8 && image.getHeight() > 8);
+		assertEquals(0xffffffff, image.getRGB(0, 0));
+	}
+	
+	@Test
+	public void testExportSvgToOutputDirectory() throws Exception
+	{
+		File diagram = copy("testPersistenceService.class.jet", aDirectory);
+		File output = aDirectory.resolve("out").toFile();
+		output.mkdirs();
+		List<Result> results = new BatchExporter(Format.SVG, Optional.of(output), 1).export(List.of(diagram), result -> {});
+		assertEquals(new File(output, "testPersistenceService.class.svg"), results.get(0).image());
+		assertTrue(Files.readString(results.get(0).image().toPath(), StandardCharsets.UTF_8).startsWith("<?xml"));
+	}
+	
+	@Test
+	public void testFailureDoesNotStopTheOthers() throws Exception
+	{
+		File broken = aDirectory.resolve("broken.class.jet").toFile();
+		Files.writeString(broken.toPath(), "Not a diagram");
+		File diagram = copy("testPersistenceService.usecase.jet", aDirectory);
+		List<Result> results = new BatchExporter(Format.PNG, Optional.empty(), 2).export(List.of(broken, diagram), result -> {});
+		assertEquals(broken, results.get(0).diagram());
+		assertTrue(results.get(0).error().isPresent());
+		assertFalse(results.get(0).image().exists());
+		assertFalse(results.get(1).error().isPresent());
+		assertTrue(results.get(1).image().exists());
+	}
+	
+	@Test
+	public void testSameImageFile() throws Exception
+	{
+		File first = copy("testPersistenceService.class.jet", aDirectory.resolve("a"));
+		File second = copy("testPersistenceService.class.jet", aDirectory.resolve("b"));
+		Files.writeString(second.toPath(), "Not a diagram");
+		File output = aDirectory.resolve("out").toFile();
+		output.mkdirs();
+		List<Result> results = new BatchExporter(Format.SVG, Optional.of(output), 2).export(List.of(first, second), result -> {});
+		assertFalse(results.get(0).error().isPresent());
+		assertTrue(results.get(1).error().isPresent());
+		assertEquals(results.get(0).image().getAbsoluteFile(), results.get(1).image().getAbsoluteFile());
+		assertTrue(results.get(0).image().exists());
+	}
+	
+	@Test
+	public void testExportWithCache() throws Exception
+	{
+		File diagram = copy("testPersistenceService.class.jet", aDirectory);
+		RenderCache cache = new RenderCache(aDirectory.resolve("cache"), 1024 * 1024);
+		BatchExporter exporter = new BatchExporter(Format.SVG, Optional.empty(), 1, Optional.of(cache));
+		Result first = exporter.export(List.of(diagram), result -> {}).get(0);
+		assertFalse(first.error().isPresent());
+		assertFalse(first.cached());
+		String image = Files.readString(first.image().toPath(), StandardCharsets.UTF_8);
+		assertTrue(cache.size() > 0);
+		
+		Files.delete(first.image().toPath());
+		Result second = exporter.export(List.of(diagram), result -> {}).get(0);
+		assertFalse(second.error().isPresent());
+		assertTrue(second.cached());
+		assertEquals(image, Files.readString(second.image().toPath(), StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.jetuml.BatchExporter.Format;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestRenderCache
+{
+	private static final String DIAGRAM = "{\"diagram\":\"ClassDiagram\"}";
+	private static final String A = RenderCache.key("a", Format.PNG, 1);
+	private static final String B = RenderCache.key("b", Format.PNG, 1);
+	private static final String C = RenderCache.key("c", Format.PNG, 1);
+	
+	@TempDir
+	Path aDirectory;
+	
+	private static byte[] image(int pSize)
+	{
+		byte[] image = new byte[pSize];
+		image[0] = (byte) pSize;
+		return image;
+	}
+	
+	@Test
+	public void testKey()
+	{
+		String key = RenderCache.key(DIAGRAM, Format.PNG, 1);
+		assertEquals(key, RenderCache.key(DIAGRAM, Format.PNG, 1));
+		assertTrue(key.endsWith(".png"));
+		assertNotEquals(key, RenderCache.key(DIAGRAM + " ", Format.PNG, 1));
+		assertNotEquals(key, RenderCache.key(DIAGRAM, Format.SVG, 1));
+		assertNotEquals(key, RenderCache.key(DIAGRAM, Format.PNG, 2));
+	}
+	
+	@Test
+	public void testPutAndGet() throws Exception
+	{
+		RenderCache cache = new RenderCache(aDirectory, 100);
+		String key = RenderCache.key(DIAGRAM, Format.PNG, 1);
+		assertFalse(cache.get(key).isPresent());
+		cache.put(key, image(10));
+		assertArrayEquals(image(10), cache.get(key).get());
+		assertEquals(10, cache.size());
+		cache.put(key, image(20));
+		assertArrayEquals(image(20), cache.get(key).get());
+		assertEquals(20, cache.size());
+	}
+	
+	@Test
+	public void testEvictsLeastRecentlyUsed() throws Exception
+	{
+		RenderCache cache = new RenderCache(aDirectory, 100);
+		cache.put(A, image(40));
+		cache.put(B, image(40));
+		cache.get(A);
+		cache.put(C, image(40));
+		assertTrue(cache.get(A).isPresent());
+		assertFalse(cache.get(B).isPresent());
+		assertFalse(Files.exists(aDirectory.resolve(B)));
+		assertTrue(cache.get(C).isPresent());
+		assertEquals(80, cache.size());
+	}
+	
+	@Test
+	public void testImageLargerThanCapacity() throws Exception
+	{
+		RenderCache cache = new RenderCache(aDirectory, 100);
+		cache.put(A, image(101));
+		assertFalse(cache.get(A).isPresent());
+		assertEquals(0, cache.size());
+	}
+	
+	@Test
+	public void testReopen() throws Exception
+	{
+		RenderCache cache = new RenderCache(aDirectory, 100);
+		cache.put(A, image(40));
+		cache.put(B, image(40));
+		Files.setLastModifiedTime(aDirectory.resolve(A), FileTime.fromMillis(1000));
+		Files.setLastModifiedTime(aDirectory.resolve(B), FileTime.fromMillis(2000));
+		Files.write(aDirectory.resolve(".jetuml-render-cache-1.tmp"), image(10));
+		
+		RenderCache reopened = new RenderCache(aDirectory, 60);
+		assertEquals(40, reopened.size());
+		assertFalse(reopened.get(A).isPresent());
+		assertArrayEquals(image(40), reopened.get(B).get());
+		assertFalse(Files.exists(aDirectory.resolve(".jetuml-render-cache-1.tmp")));
+	}
+	
+	@Test
+	public void testOtherFilesAreKept() throws Exception
+	{
+		Files.write(aDirectory.resolve("notes.txt"), image(100));
+		Files.write(aDirectory.resolve("draft.tmp"), image(100));
+		Files.createDirectory(aDirectory.resolve(B));
+		RenderCache cache = new RenderCache(aDirectory, 50);
+		assertEquals(0, cache.size());
+		cache.put(C, image(40));
+		cache.put(A, image(40));
+		assertEquals(40, cache.size());
+		assertTrue(Files.exists(aDirectory.resolve("notes.txt")));
+		assertTrue(Files.exists(aDirectory.resolve("draft.tmp")));
+		assertTrue(Files.isDirectory(aDirectory.resolve(B)));
+	}
+	
+	@Test
+	public void testIsKey()
+	{
+		assertTrue(RenderCache.isKey(A));
+		assertTrue(RenderCache.isKey(RenderCache.key(DIAGRAM, Format.SVG, 1)));
+		assertFalse(RenderCache.isKey("notes.txt"));
+		assertFalse(RenderCache.isKey(A + ".tmp"));
+		assertFalse(RenderCache.isKey(A.substring(1)));
+	}
+}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestRenderServer
+{
+	private static final Path DIAGRAM = Path.of("testdata", "testPersistenceService.class.jet");
+	
+	private RenderServer aServer;
+	
+	/*
+	 * The status, content type, and body of a response.
+	 */
+	private static final class Response
+	{
+		final int aStatus;
+		final String aContentType;
+		final byte[] aBody;
+		
+		Response(int pStatus, String pContentType, byte[] pBody)
+		{
+			aStatus = pStatus;
+			aContentType = pContentType;
+			aBody = pBody;
+		}
+	}
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup() throws IOException
+	{
+		aServer = new RenderServer(0, 2, 2, 1 << 20);
+		aServer.start();
+	}
+	
+	@AfterEach
+	public void tearDown()
+	{
+		aServer.stop();
+	}
+	
+	private Response request(String pMethod, String pPath, byte[] pBody) throws IOException
+	{
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + aServer.port() + pPath).openConnection();
+		connection.setRequestMethod(pMethod);
+		if( pBody != null )
+		{
+			connection.setDoOutput(true);
+			try( OutputStream output = connection.getOutputStream() )
+			{
+				output.write(pBody);
+			}
+		}
+		int status = connection.getResponseCode();
+		try( InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream() )
+		{
+			return new Response(status, connection.getContentType(), input.readAllBytes());
+		}
+	}
+	
+	private String metric(String pName) throws IOException
+	{
+		for( String line : new String(request("GET", "/metrics", null).aBody, StandardCharsets.UTF_8).split("\n") )
+		{
+			if( line.startsWith(pName + " ") )
+			{
+				return line.substring(pName.length() + 1);
+			}
+		}
+		return "";
+	}
+	
+	@Test
+	public void testRenderPng() throws IOException
+	{
+		Response response = request("POST", "/render?format=png", Files.readAllBytes(DIAGRAM));
+		assertEquals(200, response.aStatus);
+		assertEquals("image/png", response.aContentType);
+		assertTrue(ImageIO.read(new ByteArrayInputStream(response.aBody)).getWidth() > 8);
+	}
+	
+	@Test
+	public void testRenderSvgFromCache() throws IOException
+	{
+		Response first = request("POST", "/render?format=svg", Files.readAllBytes(DIAGRAM));
+		Response second = request("POST", "/render?format=svg", Files.readAllBytes(DIAGRAM));
+		assertEquals(200, second.aStatus);
+		assertEquals("image/svg+xml", second.aContentType);
+		assertArrayEquals(first.aBody, second.aBody);
+		assertTrue(new String(second.aBody, StandardCharsets.UTF_8).startsWith("<?xml"));
+		assertEquals("1", metric("cache_hits"));
+		assertEquals("1", metric("cache_misses"));
+		assertEquals("1", metric("cache_entries"));
+	}
+	
+	@Test
+	public void testBadRequests() throws IOException
+	{
+		assertEquals(400, request("POST", "/render?format=png", "Not a diagram".getBytes(StandardCharsets.UTF_8)).aStatus);
+		assertEquals(400, request("POST", "/render?format=gif", Files.readAllBytes(DIAGRAM)).aStatus);
+		assertEquals(400, request("POST", "/render", Files.readAllBytes(DIAGRAM)).aStatus);
+		assertEquals(405, request("GET", "/render?format=png", null).aStatus);
+		assertEquals(404, request("GET", "/other", null).aStatus);
+		assertEquals("1", metric("errors"));
+		assertEquals("0", metric("cache_entries"));
+	}
+	
+	@Test
+	public void testBodyTooLarge() throws IOException
+	{
+		byte[] body = new byte[RenderServer.MAX_BODY_BYTES + 1];
+		Arrays.fill(body, (byte) ' ');
+		assertEquals(413, request("POST", "/render?format=png", body).aStatus);
+		assertEquals("1", metric("errors"));
+		assertEquals("0", metric("cache_misses"));
+	}
+	
+	@Test
+	public void testConcurrentRequests() throws Exception
+	{
+		String diagram = Files.readString(DIAGRAM);
+		byte[] expected = request("POST", "/render?format=png", diagram.getBytes(StandardCharsets.UTF_8)).aBody;
+		ExecutorService clients = Executors.newFixedThreadPool(8);
+		int rejected = 0;
+		try
+		{
+			List<Future<Response>> responses = new ArrayList<>();
+			for( int i = 0; i < 32; i++ )
+			{
+				// Distinct bodies for the same diagram, so that no request is answered from the cache
+				byte[] body = (diagram + " ".repeat(i + 1)).getBytes(StandardCharsets.UTF_8);
+				responses.add(clients.submit(() -> request("POST", "/render?format=png", body)));
+			}
+			for( Future<Response> response : responses )
+			{
+				// Requests beyond the capacity of the queue are rejected instead of waiting
+				assertTrue(response.get().aStatus == 200 || response.get().aStatus == 503);
+				if( response.get().aStatus == 200 )
+				{
+					assertArrayEquals(expected, response.get().aBody);
+				}
+				else
+				{
+					rejected++;
+				}
+			}
+		}
+		finally
+		{
+			clients.shutdownNow();
+		}
+		assertEquals(Integer.toString(rejected), metric("rejected"));
+		assertEquals("0", metric("cache_hits"));
+		assertEquals(Integer.toString(33 - rejected), metric("cache_misses"));
+	}
+}
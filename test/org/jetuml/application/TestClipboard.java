@@ -164,6 +164,17 @@ public class TestClipboard
 		assertThat(clipboardNodes, doesNotContain, aNode1); // Because it's a clone
 	}
 	
+	@Test
+	void testTranslate()
+	{
+		aNode1.translate(10, 10);
+		aClipboard.copy(Arrays.asList(aNode1));
+		aClipboard.translate(20, 30);
+		assertThat(extract(getClipboardNodes(), Node::position), hasElementsEqualTo, new Point(30,40));
+		assertTrue(((Node)aClipboard.getElements().iterator().next()).position().equals(new Point(30,40)));
+		assertTrue(aNode1.position().equals(new Point(10,10)));
+	}
+	
 	@Test
 	void testCopyTwoNodesOneEdgeFlat()
 	{
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.diagram.nodes.PackageNode;
+import org.jetuml.geom.Point;
+
+/**
+ * Tests the performance of copying and pasting a large selection 
+ * through the clipboard.
+ */
+public final class TestClipboardPerformance
+{
+	private static final int NUMBER_OF_TRIALS = 10;
+	private static final int NUMBER_OF_PACKAGES = 500;
+	private static final int CLASSES_PER_PACKAGE = 2;
+	private static final int NUMBER_OF_CLASSES = 1000;
+	
+	private TestClipboardPerformance() {}
+	
+	/*
+	 * Builds a selection of 5,000 elements: 500 packages with two classes each, 
+	 * 1000 root classes, and 2500 edges between classes. Only the packages, root 
+	 * classes, and edges are selected directly.
+	 */
+	private static List<DiagramElement> createSelection(Diagram pDiagram)
+	{
+		List<DiagramElement> selection = new ArrayList<>();
+		List<Node> classes = new ArrayList<>();
+		for( int i = 0; i < NUMBER_OF_PACKAGES; i++ )
+		{
+			PackageNode packageNode = new PackageNode();
+			packageNode.moveTo(new Point(i * 10, 0));
+			for( int j = 0; j < CLASSES_PER_PACKAGE; j++ )
+			{
+				ClassNode child = new ClassNode();
+				packageNode.addChild(child);
+				classes.add(child);
+			}
+			pDiagram.addRootNode(packageNode);
+			selection.add(packageNode);
+		}
+		for( int i = 0; i < NUMBER_OF_CLASSES; i++ )
+		{
+			ClassNode node = new ClassNode();
+			node.moveTo(new Point(i * 10, 100));
+			pDiagram.addRootNode(node);
+			selection.add(node);
+			classes.add(node);
+		}
+		int numberOfEdges = NUMBER_OF_PACKAGES * (CLASSES_PER_PACKAGE + 1) + NUMBER_OF_CLASSES;
+		for( int i = 0; i < numberOfEdges; i++ )
+		{
+			Edge edge = new DependencyEdge();
+			edge.connect(classes.get(i % classes.size()), classes.get((i + 1) % classes.size()), pDiagram);
+			pDiagram.addEdge(edge);
+			selection.add(edge);
+		}
+		return selection;
+	}
+	
+	/**
+	 * Test method. 
+	 */
+	public static void main(String[] pArgs)
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		List<DiagramElement> selection = createSelection(diagram);
+		Clipboard clipboard = Clipboard.instance();
+		
+		double copyTime = 0.0;
+		double getElementsTime = 0.0;
+		double overlapTime = 0.0;
+		for( int i = 0; i < NUMBER_OF_TRIALS+1; i++ )
+		{
+			Instant start = Instant.now();
+			clipboard.copy(selection);
+			Instant afterCopy = Instant.now();
+			clipboard.getElements();
+			Instant afterGetElements = Instant.now();
+			clipboard.overlapsWithElementOf(diagram);
+			Instant afterOverlap = Instant.now();
+			if( i == 0 )
+			{
+				continue; // Warm-up
+			}
+			copyTime += Duration.between(start, afterCopy).toMillis();
+			getElementsTime += Duration.between(afterCopy, afterGetElements).toMillis();
+			overlapTime += Duration.between(afterGetElements, afterOverlap).toMillis();
+		}
+		
+		System.out.println("Test Clipboard with a selection of " + selection.size() + " elements : ");
+		System.out.println("Average Duration (ms) of copy over " + NUMBER_OF_TRIALS + " trials : " + copyTime / NUMBER_OF_TRIALS);
+		System.out.println("Average Duration (ms) of getElements over " + NUMBER_OF_TRIALS + " trials : " + getElementsTime / NUMBER_OF_TRIALS);
+		System.out.println("Average Duration (ms) of overlapsWithElementOf over " + NUMBER_OF_TRIALS + " trials : " + overlapTime / NUMBER_OF_TRIALS);
+	}
+}
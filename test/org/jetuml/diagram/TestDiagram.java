@@ -28,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -177,4 +178,54 @@ public class TestDiagram
 		diagram.addRootNode(aNode4);
 		assertThat(diagram.allNodes(), hasSetOfElementsEqualsTo, aNode2, aNode3, aNode4);
 	}
+	
+	@Test
+	public void testAllNodes_SharedUntilChange()
+	{
+		aDiagram.addRootNode(aNode2);
+		List<Node> nodes = aDiagram.allNodes();
+		assertSame(nodes, aDiagram.allNodes());
+		aNode2.addChild(aNode3);
+		assertThat(aDiagram.allNodes(), hasElementsSameAs, aNode2, aNode3);
+		aNode2.removeChild(aNode3);
+		assertThat(aDiagram.allNodes(), hasElementsSameAs, aNode2);
+		aDiagram.addRootNode(aNode1);
+		assertThat(aDiagram.allNodes(), hasElementsSameAs, aNode2, aNode1);
+		aDiagram.removeRootNode(aNode2);
+		assertThat(aDiagram.allNodes(), hasElementsSameAs, aNode1);
+	}
+	
+	@Test
+	public void testAllNodes_ChildAddedToUnattachedParent()
+	{
+		aDiagram.addRootNode(aNode4);
+		aNode4.addChild(aNode2);
+		assertThat(aDiagram.allNodes(), hasElementsSameAs, aNode4, aNode2);
+		aNode2.addChild(aNode3);
+		assertThat(aDiagram.allNodes(), hasElementsSameAs, aNode4, aNode2, aNode3);
+	}
+	
+	@Test
+	public void testAllNodes_PlaceOnTop()
+	{
+		aNode4.addChild(aNode2);
+		aNode4.addChild(aNode3);
+		aDiagram.addRootNode(aNode4);
+		aDiagram.addRootNode(aNode1);
+		assertThat(aDiagram.allNodes(), hasElementsSameAs, aNode4, aNode2, aNode3, aNode1);
+		aDiagram.placeOnTop(aNode2);
+		assertThat(aDiagram.allNodes(), hasElementsSameAs, aNode1, aNode4, aNode3, aNode2);
+	}
+	
+	@Test
+	public void testForEachNode()
+	{
+		aNode4.addChild(aNode2);
+		aNode2.addChild(aNode3);
+		aDiagram.addRootNode(aNode4);
+		aDiagram.addRootNode(aNode1);
+		List<Node> visited = new ArrayList<>();
+		aDiagram.forEachNode(visited::add);
+		assertThat(visited, hasElementsSameAs, aNode4, aNode2, aNode3, aNode1);
+	}
 }
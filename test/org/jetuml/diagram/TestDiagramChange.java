@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.diagram;
+
+import static org.jetuml.testutils.CollectionAssertions.assertThat;
+import static org.jetuml.testutils.CollectionAssertions.hasElementsSameAs;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetuml.diagram.DiagramChange.Kind;
+import org.jetuml.diagram.builder.CompoundOperation;
+import org.jetuml.diagram.builder.DiagramOperationProcessor;
+import org.jetuml.diagram.builder.SimpleOperation;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.diagram.nodes.PackageNode;
+import org.jetuml.geom.Point;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestDiagramChange
+{
+	private Diagram aDiagram;
+	private List<DiagramChange> aChanges;
+	private ClassNode aClass1;
+	private ClassNode aClass2;
+	private PackageNode aPackage;
+	
+	@BeforeEach
+	public void setup()
+	{
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aChanges = new ArrayList<>();
+		aClass1 = new ClassNode();
+		aClass2 = new ClassNode();
+		aPackage = new PackageNode();
+	}
+	
+	private void listen()
+	{
+		aDiagram.addChangeHandler(aChanges::add);
+	}
+	
+	@Test
+	public void testAddAndRemoveRootNode()
+	{
+		listen();
+		aDiagram.addRootNode(aClass1);
+		aDiagram.removeRootNode(aClass1);
+		assertEquals(2, aChanges.size());
+		assertTrue(aChanges.get(0).affects(aClass1, Kind.NODE_ADDED));
+		assertFalse(aChanges.get(0).affects(aClass1, Kind.NODE_REMOVED));
+		assertTrue(aChanges.get(1).affects(aClass1, Kind.NODE_REMOVED));
+		assertTrue(aChanges.get(1).isStructural());
+	}
+	
+	@Test
+	public void testAddAndRemoveEdge()
+	{
+		aDiagram.addRootNode(aClass1);
+		aDiagram.addRootNode(aClass2);
+		listen();
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(aClass1, aClass2, aDiagram);
+		aDiagram.addEdge(edge);
+		aDiagram.removeEdge(edge);
+		aDiagram.addEdge(0, edge);
+		assertEquals(3, aChanges.size());
+		assertThat(aChanges.get(0).elements(Kind.EDGE_ADDED), hasElementsSameAs, edge);
+		assertThat(aChanges.get(1).elements(Kind.EDGE_REMOVED), hasElementsSameAs, edge);
+		assertThat(aChanges.get(2).elements(Kind.EDGE_ADDED), hasElementsSameAs, edge);
+	}
+	
+	@Test
+	public void testNodeMoved()
+	{
+		aDiagram.addRootNode(aClass1);
+		listen();
+		aClass1.translate(10, 10);
+		aClass1.moveTo(new Point(0, 0));
+		assertEquals(2, aChanges.size());
+		assertTrue(aChanges.get(0).affects(aClass1, Kind.NODE_MOVED));
+		assertFalse(aChanges.get(0).isStructural());
+		assertTrue(aChanges.get(1).affects(aClass1, Kind.NODE_MOVED));
+	}
+	
+	@Test
+	public void testNodeNotInDiagramMoved()
+	{
+		listen();
+		aClass1.translate(10, 10);
+		assertTrue(aChanges.isEmpty());
+	}
+	
+	@Test
+	public void testPropertyChanged()
+	{
+		aDiagram.addRootNode(aClass1);
+		listen();
+		aClass1.properties().get(PropertyName.NAME).set("Foo");
+		assertEquals(1, aChanges.size());
+		assertThat(aChanges.get(0).elements(Kind.PROPERTY_CHANGED), hasElementsSameAs, aClass1);
+	}
+	
+	@Test
+	public void testChildAddedAndRemoved()
+	{
+		aDiagram.addRootNode(aPackage);
+		listen();
+		aPackage.addChild(aClass1);
+		aPackage.removeChild(aClass1);
+		assertEquals(2, aChanges.size());
+		assertTrue(aChanges.get(0).affects(aClass1, Kind.NODE_ADDED));
+		assertTrue(aChanges.get(1).affects(aClass1, Kind.NODE_REMOVED));
+	}
+	
+	@Test
+	public void testPlaceOnTopIsOneChange()
+	{
+		aPackage.addChild(aClass1);
+		aPackage.addChild(aClass2);
+		aDiagram.addRootNode(aPackage);
+		listen();
+		aDiagram.placeOnTop(aClass1);
+		assertEquals(1, aChanges.size());
+		assertTrue(aChanges.get(0).affects(aPackage, Kind.CHILDREN_REORDERED));
+		assertThat(aPackage.getChildren(), hasElementsSameAs, aClass2, aClass1);
+	}
+	
+	@Test
+	public void testBatch()
+	{
+		listen();
+		aDiagram.startBatch();
+		aDiagram.addRootNode(aClass1);
+		aDiagram.startBatch();
+		aDiagram.addRootNode(aClass2);
+		aClass1.translate(5, 5);
+		aDiagram.endBatch();
+		assertTrue(aChanges.isEmpty());
+		aClass1.translate(5, 5);
+		aDiagram.endBatch();
+		assertEquals(1, aChanges.size());
+		DiagramChange change = aChanges.get(0);
+		assertThat(change.elements(Kind.NODE_ADDED), hasElementsSameAs, aClass1, aClass2);
+		assertThat(change.elements(Kind.NODE_MOVED), hasElementsSameAs, aClass1);
+		assertFalse(change.contains(Kind.EDGE_ADDED));
+	}
+	
+	@Test
+	public void testEmptyBatch()
+	{
+		listen();
+		aDiagram.startBatch();
+		aDiagram.endBatch();
+		assertTrue(aChanges.isEmpty());
+	}
+	
+	@Test
+	public void testRemoveChangeHandler()
+	{
+		DiagramChangeHandler handler = aChanges::add;
+		aDiagram.addChangeHandler(handler);
+		aDiagram.removeChangeHandler(handler);
+		aDiagram.addRootNode(aClass1);
+		assertTrue(aChanges.isEmpty());
+	}
+	
+	@Test
+	public void testCompoundOperationIsOneChange()
+	{
+		listen();
+		DiagramOperationProcessor processor = new DiagramOperationProcessor(aDiagram);
+		CompoundOperation operation = new CompoundOperation();
+		operation.add(new SimpleOperation(()-> aDiagram.addRootNode(aClass1), ()-> aDiagram.removeRootNode(aClass1)));
+		operation.add(new SimpleOperation(()-> aDiagram.addRootNode(aClass2), ()-> aDiagram.removeRootNode(aClass2)));
+		processor.executeNewOperation(operation);
+		assertEquals(1, aChanges.size());
+		assertThat(aChanges.get(0).elements(Kind.NODE_ADDED), hasElementsSameAs, aClass1, aClass2);
+		processor.undoLastExecutedOperation();
+		assertEquals(2, aChanges.size());
+		assertThat(aChanges.get(1).elements(Kind.NODE_REMOVED), hasElementsSameAs, aClass2, aClass1);
+		processor.redoLastUndoneOperation();
+		assertEquals(3, aChanges.size());
+	}
+	
+	@Test
+	public void testFailedOperationEndsBatch()
+	{
+		listen();
+		DiagramOperationProcessor processor = new DiagramOperationProcessor(aDiagram);
+		SimpleOperation failing = new SimpleOperation(()-> 
+		{
+			aDiagram.addRootNode(aClass1);
+			throw new IllegalStateException();
+		}, ()-> {});
+		assertThrows(IllegalStateException.class, () -> processor.executeNewOperation(failing));
+		assertEquals(1, aChanges.size());
+		aDiagram.addRootNode(aClass2);
+		assertEquals(2, aChanges.size());
+	}
+}
@@ -27,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import org.jetuml.diagram.edges.DependencyEdge;
 import org.jetuml.diagram.nodes.ClassNode;
 import org.jetuml.diagram.nodes.PackageNode;
+import org.jetuml.geom.Point;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -145,4 +146,57 @@ public class TestDiagramDuplicate
 		assertSame(copy, n2Copy.getDiagram().get());
 		assertSame(copy, edgeCopy.getDiagram());
 	}
+	
+	@Test
+	public void test_edgeToNestedNode()
+	{
+		PackageNode p1 = new PackageNode();
+		PackageNode p2 = new PackageNode();
+		ClassNode n1 = new ClassNode();
+		ClassNode n2 = new ClassNode();
+		aClassDiagram.addRootNode(p1);
+		aClassDiagram.addRootNode(n2);
+		p1.addChild(p2);
+		p2.addChild(n1);
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(n2, n1, aClassDiagram);
+		aClassDiagram.addEdge(edge);
+		Diagram copy = aClassDiagram.duplicate();
+		Node n1Copy = copy.rootNodes().get(0).getChildren().get(0).getChildren().get(0);
+		assertNotSame(n1, n1Copy);
+		assertSame(copy.rootNodes().get(1), copy.edges().get(0).getStart());
+		assertSame(n1Copy, copy.edges().get(0).getEnd());
+		assertSame(copy, n1Copy.getDiagram().get());
+	}
+	
+	@Test
+	public void test_snapshotOfUnchangedDiagram()
+	{
+		aClassDiagram.addRootNode(new ClassNode());
+		Diagram snapshot = aClassDiagram.snapshot();
+		assertNotSame(aClassDiagram.rootNodes().get(0), snapshot.rootNodes().get(0));
+		assertSame(snapshot, aClassDiagram.snapshot());
+	}
+	
+	@Test
+	public void test_snapshotAfterChanges()
+	{
+		ClassNode node = new ClassNode();
+		aClassDiagram.addRootNode(node);
+		Diagram snapshot1 = aClassDiagram.snapshot();
+		node.translate(10, 20);
+		Diagram snapshot2 = aClassDiagram.snapshot();
+		assertNotSame(snapshot1, snapshot2);
+		assertEquals(new Point(0, 0), snapshot1.rootNodes().get(0).position());
+		assertEquals(new Point(10, 20), snapshot2.rootNodes().get(0).position());
+		
+		node.properties().get(PropertyName.NAME).set("Foo");
+		Diagram snapshot3 = aClassDiagram.snapshot();
+		assertNotSame(snapshot2, snapshot3);
+		assertEquals("Foo", ((ClassNode) snapshot3.rootNodes().get(0)).getName());
+		
+		aClassDiagram.addRootNode(new ClassNode());
+		assertEquals(2, aClassDiagram.snapshot().rootNodes().size());
+		assertEquals(1, snapshot3.rootNodes().size());
+	}
 }
@@ -20,10 +20,13 @@
  *******************************************************************************/
 package org.jetuml.diagram;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.jetuml.JavaFXLoader;
+import org.jetuml.diagram.nodes.ClassNode;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -56,4 +59,20 @@ public class TestDiagramType
 	{
 		assertThrows(IllegalArgumentException.class, () -> DiagramType.fromName(null)); 
 	}
+	
+	@Test
+	public void testTypeIds()
+	{
+		for( DiagramType type : DiagramType.values() )
+		{
+			for( DiagramElement prototype : type.getPrototypes() )
+			{
+				assertEquals(DiagramType.typeIdOf(prototype.getClass()), prototype.typeId());
+				assertTrue(prototype.typeId() >= 0 && prototype.typeId() < DiagramType.numberOfElementTypes());
+			}
+		}
+		ClassNode node = new ClassNode();
+		assertEquals(DiagramType.typeIdOf(ClassNode.class), node.clone().typeId());
+		assertTrue(DiagramType.typeIdOf(ClassNode.class) != DiagramType.typeIdOf(Prototypes.NOTE.getClass()));
+	}
 }
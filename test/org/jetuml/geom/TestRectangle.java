@@ -81,6 +81,18 @@ public class TestRectangle
 		assertFalse(RECTANGLE_1.contains(new Point(0,41)));
 	}
 	
+	@Test
+	void testIntersects()
+	{
+		assertTrue(RECTANGLE_1.intersects(RECTANGLE_1));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(10,10,5,5)));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(-10,-10,200,200)));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(60,40,10,10)));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(-10,-10,10,10)));
+		assertFalse(RECTANGLE_1.intersects(new Rectangle(61,0,10,10)));
+		assertFalse(RECTANGLE_1.intersects(new Rectangle(0,-11,10,10)));
+	}
+	
 	@Test
 	void testGetCenter()
 	{
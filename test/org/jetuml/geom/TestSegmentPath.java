@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.geom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.jetuml.geom.SegmentPath.Operation;
+import org.junit.jupiter.api.Test;
+
+public class TestSegmentPath
+{
+	private static final double DELTA = 0.0001;
+	
+	@Test
+	void testEmpty()
+	{
+		SegmentPath path = new SegmentPath();
+		assertTrue(path.isEmpty());
+		assertEquals(Double.POSITIVE_INFINITY, path.distance(0, 0));
+	}
+	
+	@Test
+	void testOperations()
+	{
+		SegmentPath path = new SegmentPath().moveTo(1, 2).lineTo(3, 4).quadTo(5, 6, 7, 8);
+		assertEquals(3, path.size());
+		assertEquals(Operation.MOVE, path.getOperation(0));
+		assertEquals(Operation.LINE, path.getOperation(1));
+		assertEquals(Operation.QUAD, path.getOperation(2));
+		assertEquals(3, path.getX(1), DELTA);
+		assertEquals(4, path.getY(1), DELTA);
+		assertEquals(5, path.getControlX(2), DELTA);
+		assertEquals(6, path.getControlY(2), DELTA);
+		assertEquals(7, path.getX(2), DELTA);
+		assertEquals(8, path.getY(2), DELTA);
+	}
+	
+	@Test
+	void testGrowsBeyondInitialCapacity()
+	{
+		SegmentPath path = new SegmentPath().moveTo(0, 0);
+		for( int i = 1; i <= 100; i++ )
+		{
+			path.lineTo(i, i % 2);
+		}
+		assertEquals(101, path.size());
+		assertEquals(new Rectangle(0, 0, 100, 1), path.getBounds());
+	}
+	
+	@Test
+	void testClearAndReuse()
+	{
+		SegmentPath path = new SegmentPath().moveTo(0, 0);
+		for( int i = 1; i <= 20; i++ )
+		{
+			path.lineTo(i, i);
+		}
+		path.clear();
+		assertTrue(path.isEmpty());
+		path.moveTo(5, 5).quadTo(10, 5, 10, 10);
+		assertEquals(2, path.size());
+		assertEquals(Operation.QUAD, path.getOperation(1));
+		assertEquals(new Rectangle(5, 5, 5, 5), path.getBounds());
+	}
+	
+	@Test
+	void testDistanceToPolyline()
+	{
+		SegmentPath path = new SegmentPath().moveTo(0, 0).lineTo(100, 0).lineTo(100, 50);
+		assertEquals(0, path.distance(50, 0), DELTA);
+		assertEquals(3, path.distance(50, 3), DELTA);
+		assertEquals(5, path.distance(105, 25), DELTA);
+		assertEquals(5, path.distance(-3, 4), DELTA); // Beyond the start point
+		assertTrue(path.isNear(new Point(97, 25), 3));
+		assertFalse(path.isNear(new Point(96, 25), 3));
+	}
+	
+	@Test
+	void testDistanceBetweenSubPaths()
+	{
+		SegmentPath path = new SegmentPath().moveTo(0, 0).lineTo(10, 0).moveTo(0, 20).lineTo(10, 20);
+		assertEquals(10, path.distance(5, 10), DELTA);
+		assertEquals(2, path.distance(5, 18), DELTA);
+	}
+	
+	@Test
+	void testDistanceToCurve()
+	{
+		// The curve passes through (50, 25) at its apex
+		SegmentPath path = new SegmentPath().moveTo(0, 0).quadTo(50, 50, 100, 0);
+		assertEquals(0, path.distance(50, 25), DELTA);
+		assertEquals(5, path.distance(50, 30), DELTA);
+		assertEquals(0, path.distance(0, 0), DELTA);
+		// Not near the control point, which is not on the curve
+		assertFalse(path.isNear(new Point(50, 50), 3));
+	}
+	
+	@Test
+	void testDistanceToStraightCurve()
+	{
+		SegmentPath path = new SegmentPath().moveTo(0, 0).quadTo(50, 0, 100, 0);
+		assertEquals(4, path.distance(30, 4), DELTA);
+		assertEquals(5, path.distance(104, 3), DELTA);
+	}
+	
+	@Test
+	void testBoundsOfCurve()
+	{
+		assertEquals(new Rectangle(0, 0, 100, 25), new SegmentPath().moveTo(0, 0).quadTo(50, 50, 100, 0).getBounds());
+		assertEquals(new Rectangle(0, -25, 100, 25), new SegmentPath().moveTo(0, 0).quadTo(50, -50, 100, 0).getBounds());
+	}
+	
+	@Test
+	void testBoundsRoundOutwards()
+	{
+		assertEquals(new Rectangle(-1, 0, 12, 4), new SegmentPath().moveTo(-0.5, 0.2).lineTo(10.1, 3.9).getBounds());
+	}
+	
+	@Test
+	void testStrokeBounds()
+	{
+		assertEquals(new Rectangle(59, 19, 42, 2), new SegmentPath().moveTo(60, 20).lineTo(100, 20).getStrokeBounds(2));
+		// The square ends of a diagonal line extend further than half the line width
+		assertEquals(new Rectangle(58, 25, 62, 15), new SegmentPath().moveTo(60, 27).lineTo(120, 40).getStrokeBounds(2));
+		assertEquals(new Rectangle(9, 9, 2, 2), new SegmentPath().moveTo(10, 10).getStrokeBounds(2));
+		assertEquals(new Rectangle(-1, -1, 102, 27), new SegmentPath().moveTo(0, 0).quadTo(50, 50, 100, 0).getStrokeBounds(2));
+	}
+	
+	@Test
+	void testSolveCubic()
+	{
+		double[] roots = new double[3];
+		// (t - 1)(t - 2)(t - 3)
+		assertEquals(3, SegmentPath.solveCubic(1, -6, 11, -6, roots));
+		Arrays.sort(roots);
+		assertEquals(1, roots[0], DELTA);
+		assertEquals(2, roots[1], DELTA);
+		assertEquals(3, roots[2], DELTA);
+		// t^2 - 4 as a degenerate cubic
+		assertEquals(2, SegmentPath.solveCubic(0, 1, 0, -4, roots));
+		assertEquals(4, roots[0] * roots[1] * -1, DELTA);
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.geom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestSpatialIndex
+{
+	private static final Rectangle SMALL = new Rectangle(10, 10, 20, 20);
+	private static final Rectangle LARGE = new Rectangle(50, 50, 300, 200);
+	private static final Rectangle NEGATIVE = new Rectangle(-150, -30, 20, 20);
+	
+	private SpatialIndex<String> aIndex;
+	
+	@BeforeEach
+	void setup()
+	{
+		aIndex = new SpatialIndex<>(100);
+		aIndex.add("small", SMALL);
+		aIndex.add("large", LARGE);
+		aIndex.add("negative", NEGATIVE);
+	}
+	
+	private List<String> query(Rectangle pRectangle)
+	{
+		List<String> result = new ArrayList<>();
+		aIndex.forEachIntersecting(pRectangle, result::add);
+		return result;
+	}
+	
+	@Test
+	void testSizeAndBounds()
+	{
+		assertEquals(3, aIndex.size());
+		assertSame(LARGE, aIndex.boundsOf("large"));
+	}
+	
+	@Test
+	void testQueryNothing()
+	{
+		assertTrue(query(new Rectangle(400, 400, 10, 10)).isEmpty());
+		assertTrue(query(new Rectangle(31, 31, 10, 10)).isEmpty());
+	}
+	
+	@Test
+	void testQuerySameCellWithoutIntersection()
+	{
+		assertTrue(query(new Rectangle(0, 0, 5, 5)).isEmpty());
+	}
+	
+	@Test
+	void testQueryBoundary()
+	{
+		assertEquals(List.of("small"), query(new Rectangle(30, 30, 5, 5)));
+	}
+	
+	@Test
+	void testQueryLargeObjectReportedOnce()
+	{
+		assertEquals(List.of("large"), query(new Rectangle(60, 60, 280, 180)));
+	}
+	
+	@Test
+	void testQueryNegativeCoordinates()
+	{
+		assertEquals(List.of("negative"), query(new Rectangle(-140, -20, 1, 1)));
+	}
+	
+	@Test
+	void testQueryAll()
+	{
+		List<String> result = query(new Rectangle(-200, -200, 1000, 1000));
+		assertEquals(3, result.size());
+		assertTrue(result.containsAll(List.of("small", "large", "negative")));
+	}
+}
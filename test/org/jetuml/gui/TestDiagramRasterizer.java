@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.jetuml.JavaFXLoader;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javafx.application.Platform;
+
+public class TestDiagramRasterizer
+{
+	private static final int WHITE = 0xFFFFFFFF;
+	
+	private final Diagram aDiagram = new Diagram(DiagramType.CLASS);
+	private final List<Double> aProgress = new ArrayList<>();
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	/*
+	 * Creates the rasterizer on the JavaFX application thread, as required.
+	 */
+	private DiagramRasterizer createRasterizer() throws Exception
+	{
+		return createRasterizer(1);
+	}
+	
+	private DiagramRasterizer createRasterizer(double pScale) throws Exception
+	{
+		FutureTask<DiagramRasterizer> task = new FutureTask<>(() -> new DiagramRasterizer(aDiagram, pScale));
+		Platform.runLater(task);
+		return task.get(5, TimeUnit.SECONDS);
+	}
+	
+	@Test
+	void testSingleTile() throws Exception
+	{
+		aDiagram.addRootNode(new ClassNode());
+		DiagramRasterizer rasterizer = createRasterizer();
+		BufferedImage image = rasterizer.rasterize(aProgress::add);
+		assertEquals(rasterizer.width(), image.getWidth());
+		assertEquals(rasterizer.height(), image.getHeight());
+		assertEquals(List.of(1.0), aProgress);
+		assertEquals(WHITE, image.getRGB(0, 0));
+		assertNotEquals(WHITE, image.getRGB(4, image.getHeight() / 2)); // Left side of the node
+	}
+	
+	@Test
+	void testSeveralTiles() throws Exception
+	{
+		ClassNode node = new ClassNode();
+		aDiagram.addRootNode(node);
+		ClassNode farNode = new ClassNode();
+		farNode.translate(1500, 1200);
+		aDiagram.addRootNode(farNode);
+		DiagramRasterizer rasterizer = createRasterizer();
+		BufferedImage image = rasterizer.rasterize(aProgress::add);
+		assertEquals(List.of(0.25, 0.5, 0.75, 1.0), aProgress);
+		assertEquals(WHITE, image.getRGB(1000, 1000));
+		assertNotEquals(WHITE, image.getRGB(1504, 1230)); // Left side of the far node, in the last tile
+	}
+	
+	@Test
+	void testDiagramChangedAfterCreation() throws Exception
+	{
+		ClassNode node = new ClassNode();
+		aDiagram.addRootNode(node);
+		DiagramRasterizer rasterizer = createRasterizer();
+		node.translate(100, 100);
+		BufferedImage image = rasterizer.rasterize(aProgress::add);
+		assertNotEquals(WHITE, image.getRGB(4, image.getHeight() / 2));
+	}
+	
+	@Test
+	void testScale() throws Exception
+	{
+		aDiagram.addRootNode(new ClassNode());
+		DiagramRasterizer rasterizer = createRasterizer();
+		DiagramRasterizer scaled = createRasterizer(2.5);
+		assertEquals((int) Math.ceil(rasterizer.width() * 2.5), scaled.width());
+		assertEquals((int) Math.ceil(rasterizer.height() * 2.5), scaled.height());
+		BufferedImage image = scaled.rasterize(aProgress::add);
+		assertEquals(WHITE, image.getRGB(5, image.getHeight() / 2));
+		assertNotEquals(WHITE, image.getRGB(10, image.getHeight() / 2)); // Left side of the node
+	}
+	
+	@Test
+	void testBands() throws Exception
+	{
+		ClassNode farNode = new ClassNode();
+		farNode.translate(0, 1500);
+		aDiagram.addRootNode(new ClassNode());
+		aDiagram.addRootNode(farNode);
+		DiagramRasterizer rasterizer = createRasterizer();
+		List<Integer> bands = new ArrayList<>();
+		rasterizer.rasterize((pPixels, pY, pHeight) -> 
+		{
+			assertEquals(WHITE, pPixels[0]);
+			bands.add(pY);
+			bands.add(pHeight);
+		}, aProgress::add);
+		assertEquals(List.of(0, 1024, 1024, rasterizer.height() - 1024), bands);
+	}
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.function.Function;
+
+import org.jetuml.JavaFXLoader;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.geom.Rectangle;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javafx.scene.image.WritableImage;
+
+public class TestDragPreview
+{
+	// A stub that returns a 40x60 rectangle with origin at the node's position
+	private static final Function<DiagramElement, Rectangle> BOUND_CALCULATOR_STUB =
+			(element) -> new Rectangle(((Node)element).position().getX(), ((Node)element).position().getY(), 40, 60);
+	
+	private Diagram aDiagram;
+	private ClassNode aNode;
+	private DragPreview aPreview;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	void setup()
+	{
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aNode = new ClassNode();
+		aNode.translate(100, 200);
+		aDiagram.addRootNode(aNode);
+		SelectionModel selection = new SelectionModel(aDiagram);
+		selection.add(aNode);
+		aPreview = new DragPreview(new WritableImage(10, 10), new Rectangle(0, 0, 10, 10), aDiagram, selection, 
+				BOUND_CALCULATOR_STUB, BOUND_CALCULATOR_STUB.apply(aNode));
+	}
+	
+	@Test
+	void testInitialState()
+	{
+		assertEquals(0, aPreview.offsetX());
+		assertEquals(0, aPreview.offsetY());
+		assertEquals(new Rectangle(100, 200, 40, 60), aPreview.originalBounds());
+		assertEquals(new Rectangle(100, 200, 40, 60), aPreview.bounds());
+		assertEquals(new Rectangle(0, 0, 10, 10), aPreview.backgroundBounds());
+	}
+	
+	@Test
+	void testSetOffsetDoesNotMoveNodes()
+	{
+		aPreview.setOffset(15, -20);
+		assertEquals(15, aPreview.offsetX());
+		assertEquals(-20, aPreview.offsetY());
+		assertEquals(new Rectangle(100, 200, 40, 60), aPreview.originalBounds());
+		assertEquals(new Rectangle(115, 180, 40, 60), aPreview.bounds());
+		assertEquals(100, aNode.position().getX());
+		assertEquals(200, aNode.position().getY());
+	}
+	
+	@Test
+	void testSetBackground()
+	{
+		aPreview.setBackground(new WritableImage(20, 30), new Rectangle(50, 60, 20, 30));
+		assertEquals(new Rectangle(50, 60, 20, 30), aPreview.backgroundBounds());
+		assertEquals(new Rectangle(100, 200, 40, 60), aPreview.originalBounds());
+	}
+}
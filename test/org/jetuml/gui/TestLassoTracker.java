@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Node;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.diagram.nodes.PackageNode;
+import org.jetuml.geom.Rectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestLassoTracker
+{
+	// A stub that returns a 40x60 rectangle with origin at the node's position, 
+	// and the bounds of the start and end nodes for edges.
+	private static final Function<DiagramElement, Rectangle> BOUND_CALCULATOR_STUB = TestLassoTracker::bounds;
+	
+	private Diagram aDiagram = new Diagram(DiagramType.CLASS);
+	private ClassNode aNode1;
+	private ClassNode aNode2;
+	private PackageNode aPackage;
+	private ClassNode aChild;
+	private DependencyEdge aEdge;
+	private LassoTracker aTracker;
+	private List<DiagramElement> aEntered = new ArrayList<>();
+	private List<DiagramElement> aExited = new ArrayList<>();
+	
+	private static Rectangle bounds(DiagramElement pElement)
+	{
+		if( pElement instanceof Node )
+		{
+			Node node = (Node) pElement;
+			return new Rectangle(node.position().getX(), node.position().getY(), 40, 60);
+		}
+		DependencyEdge edge = (DependencyEdge) pElement;
+		return bounds(edge.getStart()).add(bounds(edge.getEnd()));
+	}
+	
+	@BeforeEach
+	void setup()
+	{
+		aNode1 = new ClassNode();
+		aNode1.translate(100, 100);
+		aNode2 = new ClassNode();
+		aNode2.translate(200, 100);
+		aPackage = new PackageNode();
+		aPackage.translate(500, 500);
+		aChild = new ClassNode();
+		aChild.translate(510, 510);
+		aPackage.addChild(aChild);
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addRootNode(aPackage);
+		aEdge = new DependencyEdge();
+		aEdge.connect(aNode1, aNode2, aDiagram);
+		aDiagram.addEdge(aEdge);
+		aTracker = new LassoTracker(aDiagram, BOUND_CALCULATOR_STUB);
+	}
+	
+	private void update(Rectangle pLasso)
+	{
+		aEntered.clear();
+		aExited.clear();
+		aTracker.update(pLasso, aEntered::add, aExited::add);
+	}
+	
+	@Test
+	void testFirstUpdate()
+	{
+		update(new Rectangle(90, 90, 60, 80));
+		assertEquals(List.of(aNode1), aEntered);
+		assertTrue(aExited.isEmpty());
+		assertTrue(aTracker.isInside(aNode1));
+		assertFalse(aTracker.isInside(aNode2));
+	}
+	
+	@Test
+	void testGrowAndShrink()
+	{
+		update(new Rectangle(90, 90, 60, 80));
+		update(new Rectangle(90, 90, 160, 80));
+		assertEquals(2, aEntered.size());
+		assertTrue(aEntered.contains(aNode2));
+		assertTrue(aEntered.contains(aEdge));
+		assertTrue(aExited.isEmpty());
+		
+		update(new Rectangle(90, 90, 160, 80));
+		assertTrue(aEntered.isEmpty());
+		assertTrue(aExited.isEmpty());
+		
+		update(new Rectangle(90, 90, 60, 80));
+		assertTrue(aEntered.isEmpty());
+		assertEquals(2, aExited.size());
+		assertTrue(aExited.contains(aNode2));
+		assertTrue(aExited.contains(aEdge));
+		assertTrue(aTracker.isInside(aNode1));
+	}
+	
+	@Test
+	void testBoundary()
+	{
+		update(new Rectangle(100, 100, 40, 60));
+		assertEquals(List.of(aNode1), aEntered);
+		update(new Rectangle(100, 100, 40, 59));
+		assertEquals(List.of(aNode1), aExited);
+	}
+	
+	@Test
+	void testJump()
+	{
+		update(new Rectangle(90, 90, 60, 80));
+		update(new Rectangle(505, 505, 100, 100));
+		assertEquals(List.of(aChild), aEntered);
+		assertEquals(List.of(aNode1), aExited);
+	}
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.jetuml.geom.Line;
+import org.jetuml.geom.Rectangle;
+import org.junit.jupiter.api.Test;
+
+public class TestMinimapRaster
+{
+	// 100 x 50 pixels, at a tenth of the scale of the diagram
+	private MinimapRaster aRaster = new MinimapRaster(100, 50, 0.1);
+	
+	@Test
+	void testInitiallyBlank()
+	{
+		assertEquals(MinimapRaster.BACKGROUND, aRaster.pixel(0, 0));
+		assertEquals(MinimapRaster.BACKGROUND, aRaster.pixel(99, 49));
+	}
+	
+	@Test
+	void testToRaster()
+	{
+		assertEquals(new Rectangle(10, 5, 11, 6), aRaster.toRaster(new Rectangle(100, 50, 100, 50)));
+		assertEquals(new Rectangle(95, 0, 5, 1), aRaster.toRaster(new Rectangle(950, -100, 500, 105)));
+		assertEquals(0, aRaster.toRaster(new Rectangle(2000, 0, 100, 100)).getWidth());
+	}
+	
+	@Test
+	void testPaintBox()
+	{
+		aRaster.paint(new Rectangle(0, 0, 1000, 500), List.of(new Rectangle(100, 100, 100, 100)), List.of());
+		assertEquals(MinimapRaster.NODE_BORDER, aRaster.pixel(10, 10));
+		assertEquals(MinimapRaster.NODE_BORDER, aRaster.pixel(20, 15));
+		assertEquals(MinimapRaster.NODE_FILL, aRaster.pixel(15, 15));
+		assertEquals(MinimapRaster.BACKGROUND, aRaster.pixel(21, 15));
+		assertEquals(MinimapRaster.BACKGROUND, aRaster.pixel(9, 15));
+	}
+	
+	@Test
+	void testPaintLine()
+	{
+		aRaster.paint(new Rectangle(0, 0, 1000, 500), List.of(), List.of(new Line(0, 0, 300, 300)));
+		for( int i = 0; i <= 30; i++ )
+		{
+			assertEquals(MinimapRaster.EDGE, aRaster.pixel(i, i));
+		}
+		assertEquals(MinimapRaster.BACKGROUND, aRaster.pixel(31, 31));
+		assertEquals(MinimapRaster.BACKGROUND, aRaster.pixel(1, 0));
+	}
+	
+	@Test
+	void testPaintClipsToRegion()
+	{
+		aRaster.paint(new Rectangle(0, 0, 1000, 500), List.of(new Rectangle(0, 0, 600, 200)), List.of());
+		aRaster.paint(new Rectangle(300, 0, 100, 100), List.of(), List.of(new Line(0, 50, 900, 50)));
+		// Outside the region, the box and the line are unchanged
+		assertEquals(MinimapRaster.NODE_FILL, aRaster.pixel(20, 5));
+		assertEquals(MinimapRaster.NODE_FILL, aRaster.pixel(45, 5));
+		assertEquals(MinimapRaster.BACKGROUND, aRaster.pixel(80, 5));
+		// Inside the region, the box was erased and only the line was painted
+		assertEquals(MinimapRaster.EDGE, aRaster.pixel(35, 5));
+		assertEquals(MinimapRaster.BACKGROUND, aRaster.pixel(35, 6));
+		assertEquals(MinimapRaster.BACKGROUND, aRaster.pixel(35, 10));
+		assertEquals(MinimapRaster.NODE_FILL, aRaster.pixel(35, 11));
+	}
+}
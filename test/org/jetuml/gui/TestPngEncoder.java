@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+public class TestPngEncoder
+{
+	private static BufferedImage decode(ByteArrayOutputStream pOutput) throws IOException
+	{
+		return ImageIO.read(new ByteArrayInputStream(pOutput.toByteArray()));
+	}
+	
+	private static void assertPixels(int[] pExpected, BufferedImage pImage)
+	{
+		for( int y = 0; y < pImage.getHeight(); y++ )
+		{
+			for( int x = 0; x < pImage.getWidth(); x++ )
+			{
+				assertEquals(pExpected[y * pImage.getWidth() + x], pImage.getRGB(x, y));
+			}
+		}
+	}
+	
+	@Test
+	void testSingleCall() throws IOException
+	{
+		int[] pixels = {0xFFFF0000, 0xFF00FF00, 0xFF0000FF, 0x80FFFFFF, 0x00000000, 0xFF123456};
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		PngEncoder encoder = new PngEncoder(output, 3, 2);
+		encoder.writeRows(pixels, 2);
+		encoder.finish();
+		BufferedImage image = decode(output);
+		assertEquals(3, image.getWidth());
+		assertEquals(2, image.getHeight());
+		assertPixels(pixels, image);
+	}
+	
+	@Test
+	void testSeveralBandsAndChunks() throws IOException
+	{
+		// Random pixels do not compress, so the data spans several chunks
+		int width = 200;
+		int height = 300;
+		int[] pixels = new int[width * height];
+		Random random = new Random(1);
+		for( int i = 0; i < pixels.length; i++ )
+		{
+			pixels[i] = random.nextInt() | 0xFF000000;
+		}
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		PngEncoder encoder = new PngEncoder(output, width, height);
+		encoder.writeRows(Arrays.copyOfRange(pixels, 0, width * 100), 100);
+		encoder.writeRows(Arrays.copyOfRange(pixels, width * 100, width * 250), 150);
+		encoder.writeRows(Arrays.copyOfRange(pixels, width * 250, width * 300), 50);
+		encoder.finish();
+		assertPixels(pixels, decode(output));
+	}
+}
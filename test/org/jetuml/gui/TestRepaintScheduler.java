@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jetuml.JavaFXLoader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javafx.application.Platform;
+
+public class TestRepaintScheduler
+{
+	private int aRenderings;
+	private RepaintScheduler aScheduler;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	void setup()
+	{
+		aRenderings = 0;
+		aScheduler = new RepaintScheduler(() -> aRenderings++);
+	}
+	
+	/*
+	 * Runs pTest on the JavaFX application thread, so that no pulse 
+	 * can be handled by the scheduler while the test runs.
+	 */
+	private static void runOnFxThread(Runnable pTest) throws InterruptedException
+	{
+		CountDownLatch done = new CountDownLatch(1);
+		AssertionError[] failure = new AssertionError[1];
+		Platform.runLater(() -> 
+		{
+			try
+			{
+				pTest.run();
+			}
+			catch( AssertionError error )
+			{
+				failure[0] = error;
+			}
+			done.countDown();
+		});
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		if( failure[0] != null )
+		{
+			throw failure[0];
+		}
+	}
+	
+	@Test
+	void testNoRequest() throws InterruptedException
+	{
+		runOnFxThread(() ->
+		{
+			aScheduler.pulse();
+			assertEquals(0, aRenderings);
+			assertEquals(0, aScheduler.requestedFrames());
+			assertEquals(0, aScheduler.renderedFrames());
+		});
+	}
+	
+	@Test
+	void testRequestsCoalesced() throws InterruptedException
+	{
+		runOnFxThread(() ->
+		{
+			aScheduler.requestRepaint();
+			aScheduler.requestRepaint();
+			aScheduler.requestRepaint();
+			assertEquals(0, aRenderings);
+			aScheduler.pulse();
+			aScheduler.pulse();
+			assertEquals(1, aRenderings);
+			assertEquals(3, aScheduler.requestedFrames());
+			assertEquals(1, aScheduler.renderedFrames());
+		});
+	}
+	
+	@Test
+	void testRequestAfterPulse() throws InterruptedException
+	{
+		runOnFxThread(() ->
+		{
+			aScheduler.requestRepaint();
+			aScheduler.pulse();
+			aScheduler.requestRepaint();
+			aScheduler.pulse();
+			assertEquals(2, aRenderings);
+			assertEquals(2, aScheduler.requestedFrames());
+			assertEquals(2, aScheduler.renderedFrames());
+		});
+	}
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.diagram.nodes.PackageNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestSelectionModel
+{
+	private Diagram aDiagram;
+	private SelectionModel aSelection;
+	private ClassNode aNode1;
+	private ClassNode aNode2;
+	private PackageNode aPackage;
+	private ClassNode aChild;
+	private DependencyEdge aEdge;
+	
+	@BeforeEach
+	void setup()
+	{
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aSelection = new SelectionModel(aDiagram);
+		aNode1 = new ClassNode();
+		aNode2 = new ClassNode();
+		aPackage = new PackageNode();
+		aChild = new ClassNode();
+		aPackage.addChild(aChild);
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addRootNode(aPackage);
+		aEdge = new DependencyEdge();
+		aEdge.connect(aNode1, aNode2, aDiagram);
+		aDiagram.addEdge(aEdge);
+	}
+	
+	private List<DiagramElement> selected()
+	{
+		List<DiagramElement> result = new ArrayList<>();
+		aSelection.forEach(result::add);
+		return result;
+	}
+	
+	@Test
+	void testEmpty()
+	{
+		assertTrue(aSelection.isEmpty());
+		assertTrue(aSelection.getLastSelected().isEmpty());
+		assertTrue(aSelection.getSelectedNodes().isEmpty());
+		assertTrue(aSelection.getSelectedEdges().isEmpty());
+	}
+	
+	@Test
+	void testAddPreservesOrder()
+	{
+		aSelection.add(aNode2);
+		aSelection.add(aEdge);
+		aSelection.add(aNode1);
+		assertEquals(List.of(aNode2, aEdge, aNode1), selected());
+		assertSame(aNode1, aSelection.getLastSelected().get());
+		assertEquals(List.of(aNode2, aNode1), aSelection.getSelectedNodes());
+		assertEquals(List.of(aEdge), aSelection.getSelectedEdges());
+	}
+	
+	@Test
+	void testAddAgainMakesLast()
+	{
+		aSelection.add(aNode1);
+		aSelection.add(aNode2);
+		aSelection.add(aNode1);
+		assertEquals(2, aSelection.size());
+		assertSame(aNode1, aSelection.getLastSelected().get());
+		assertEquals(List.of(aNode2, aNode1), aSelection.getSelectedNodes());
+	}
+	
+	@Test
+	void testAddChildOfSelectedParent()
+	{
+		aSelection.add(aPackage);
+		aSelection.add(aChild);
+		assertEquals(List.of(aPackage), selected());
+	}
+	
+	@Test
+	void testAddParentOfSelectedChild()
+	{
+		aSelection.add(aChild);
+		aSelection.add(aNode1);
+		aSelection.add(aPackage);
+		assertEquals(List.of(aNode1, aPackage), selected());
+	}
+	
+	@Test
+	void testSetAndClear()
+	{
+		aSelection.add(aNode1);
+		aSelection.add(aEdge);
+		aSelection.set(aNode2);
+		assertEquals(List.of(aNode2), selected());
+		aSelection.clear();
+		assertTrue(aSelection.isEmpty());
+		assertTrue(aSelection.getSelectedNodes().isEmpty());
+	}
+	
+	@Test
+	void testRemove()
+	{
+		aSelection.add(aNode1);
+		aSelection.add(aNode2);
+		aSelection.remove(aNode1);
+		aSelection.remove(aEdge);
+		assertFalse(aSelection.contains(aNode1));
+		assertEquals(List.of(aNode2), aSelection.getSelectedNodes());
+	}
+	
+	@Test
+	void testRemovedFromDiagram()
+	{
+		aSelection.add(aNode1);
+		aSelection.add(aEdge);
+		aSelection.add(aChild);
+		aDiagram.removeEdge(aEdge);
+		assertEquals(List.of(aNode1, aChild), selected());
+		aDiagram.removeRootNode(aPackage);
+		assertEquals(List.of(aNode1), selected());
+		aDiagram.removeRootNode(aNode2);
+		assertEquals(List.of(aNode1), selected());
+	}
+	
+	@Test
+	void testRemovedFromParent()
+	{
+		aSelection.add(aNode1);
+		aSelection.add(aChild);
+		aPackage.removeChild(aChild);
+		assertEquals(List.of(aNode1), selected());
+	}
+	
+	@Test
+	void testMovedOutOfParentInBatch()
+	{
+		aSelection.add(aChild);
+		aDiagram.startBatch();
+		aPackage.removeChild(aChild);
+		aDiagram.addRootNode(aChild);
+		aDiagram.endBatch();
+		assertEquals(List.of(aChild), selected());
+	}
+}
@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jetuml.JavaFXLoader;
+import org.jetuml.application.Clipboard;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramElement;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.edges.DependencyEdge;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.jetuml.persistence.JsonEncoder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javafx.application.Platform;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.DataFormat;
+
+public class TestSystemClipboard
+{
+	private static final String FRAGMENT_MIME_TYPE = "application/x-jetuml-fragment";
+	
+	private final SystemClipboard aSystemClipboard = SystemClipboard.instance();
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	/*
+	 * Runs pTest on the JavaFX application thread, which is the only 
+	 * thread allowed to access the system clipboard.
+	 */
+	private static void runOnFxThread(Runnable pTest) throws InterruptedException
+	{
+		CountDownLatch done = new CountDownLatch(1);
+		AssertionError[] failure = new AssertionError[1];
+		Platform.runLater(() -> 
+		{
+			try
+			{
+				pTest.run();
+			}
+			catch( AssertionError error )
+			{
+				failure[0] = error;
+			}
+			catch( RuntimeException exception )
+			{
+				failure[0] = new AssertionError(exception);
+			}
+			done.countDown();
+		});
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		if( failure[0] != null )
+		{
+			throw failure[0];
+		}
+	}
+	
+	/*
+	 * Places pFragment in the system clipboard, as another instance of JetUML would.
+	 */
+	private static void putForeignFragment(String pFragment)
+	{
+		ClipboardContent content = new ClipboardContent();
+		content.put(DataFormat.lookupMimeType(FRAGMENT_MIME_TYPE), pFragment);
+		javafx.scene.input.Clipboard.getSystemClipboard().setContent(content);
+	}
+	
+	private static String systemFragment()
+	{
+		return (String) javafx.scene.input.Clipboard.getSystemClipboard().getContent(DataFormat.lookupMimeType(FRAGMENT_MIME_TYPE));
+	}
+	
+	private static ClassNode classNode(String pName)
+	{
+		ClassNode node = new ClassNode();
+		node.setName(pName);
+		return node;
+	}
+	
+	/*
+	 * Copies into the application clipboard two classes with the names 
+	 * pName1 and pName2, and a dependency between them.
+	 */
+	private static void copyTwoClasses(String pName1, String pName2)
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		ClassNode node1 = classNode(pName1);
+		ClassNode node2 = classNode(pName2);
+		node2.translate(200, 0);
+		diagram.addRootNode(node1);
+		diagram.addRootNode(node2);
+		Edge edge = new DependencyEdge();
+		edge.connect(node1, node2, diagram);
+		diagram.addEdge(edge);
+		Clipboard.instance().copy(List.of(node1, node2, edge));
+	}
+	
+	/*
+	 * Returns a fragment published by another instance, containing a single class named pName.
+	 */
+	private static String foreignFragment(String pName)
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		diagram.addRootNode(classNode(pName));
+		return JsonEncoder.encode(diagram).toString();
+	}
+	
+	private static List<DiagramElement> clipboardElements()
+	{
+		List<DiagramElement> elements = new ArrayList<>();
+		Clipboard.instance().getElements().forEach(elements::add);
+		return elements;
+	}
+	
+	private static String nameOf(DiagramElement pElement)
+	{
+		return ((ClassNode) pElement).getName();
+	}
+	
+	@Test
+	void testRoundTrip() throws InterruptedException
+	{
+		runOnFxThread(() ->
+		{
+			copyTwoClasses("RoundTrip1", "RoundTrip2");
+			aSystemClipboard.publish(DiagramType.CLASS);
+			Clipboard.instance().copy(List.of(classNode("Other")));
+			// Another instance publishes the same elements
+			putForeignFragment(systemFragment() + " ");
+			aSystemClipboard.importFragment();
+			List<DiagramElement> elements = clipboardElements();
+			assertEquals(3, elements.size());
+			Edge edge = (Edge) elements.stream().filter(Edge.class::isInstance).findFirst().get();
+			assertSame(DependencyEdge.class, edge.getClass());
+			assertEquals("RoundTrip1", nameOf(edge.getStart()));
+			assertEquals("RoundTrip2", nameOf(edge.getEnd()));
+			assertTrue(elements.contains(edge.getStart()));
+			assertTrue(elements.contains(edge.getEnd()));
+		});
+	}
+	
+	@Test
+	void testOwnFragmentNotDecoded() throws InterruptedException
+	{
+		runOnFxThread(() ->
+		{
+			copyTwoClasses("Own1", "Own2");
+			aSystemClipboard.publish(DiagramType.CLASS);
+			Clipboard.instance().copy(List.of(classNode("Local")));
+			aSystemClipboard.importFragment();
+			List<DiagramElement> elements = clipboardElements();
+			assertEquals(1, elements.size());
+			assertEquals("Local", nameOf(elements.get(0)));
+		});
+	}
+	
+	@Test
+	void testForeignFragmentDecodedOnce() throws InterruptedException
+	{
+		runOnFxThread(() ->
+		{
+			putForeignFragment(foreignFragment("Foreign"));
+			aSystemClipboard.importFragment();
+			List<DiagramElement> elements = clipboardElements();
+			assertEquals(1, elements.size());
+			assertEquals("Foreign", nameOf(elements.get(0)));
+			
+			// Copying locally after the import is not undone by importing the same fragment again
+			Clipboard.instance().copy(List.of(classNode("Local")));
+			aSystemClipboard.importFragment();
+			elements = clipboardElements();
+			assertEquals(1, elements.size());
+			assertEquals("Local", nameOf(elements.get(0)));
+		});
+	}
+	
+	@Test
+	void testUndecodableContentIgnored() throws InterruptedException
+	{
+		runOnFxThread(() ->
+		{
+			Clipboard.instance().copy(List.of(classNode("Local")));
+			putForeignFragment("Not JSON");
+			aSystemClipboard.importFragment();
+			putForeignFragment("{\"diagram\": \"Unknown\"}");
+			aSystemClipboard.importFragment();
+			List<DiagramElement> elements = clipboardElements();
+			assertEquals(1, elements.size());
+			assertEquals("Local", nameOf(elements.get(0)));
+		});
+	}
+}
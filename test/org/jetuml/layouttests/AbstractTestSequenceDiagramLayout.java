@@ -21,23 +21,18 @@
 package org.jetuml.layouttests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.nio.file.Path;
-import java.util.IdentityHashMap;
 
 import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.DiagramType;
 import org.jetuml.diagram.Node;
 import org.jetuml.diagram.nodes.ImplicitParameterNode;
 import org.jetuml.geom.Rectangle;
-import org.jetuml.rendering.AbstractDiagramRenderer;
 import org.jetuml.rendering.SequenceDiagramRenderer;
 import org.jetuml.rendering.nodes.CallNodeRenderer;
 import org.jetuml.rendering.nodes.ImplicitParameterNodeRenderer;
-import org.jetuml.rendering.nodes.NodeRenderer;
 
 /**
  * Superclass for classes that test the layout of a sequence diagram.
@@ -67,21 +62,7 @@ public abstract class AbstractTestSequenceDiagramLayout extends AbstractTestDiag
 	
 	private static ImplicitParameterNodeRenderer getInstanceOfImplicitParameterNodeViewer(Node pImplicitParameterNode)
 	{
-		try
-		{
-			Field nodeViewers = AbstractDiagramRenderer.class.getDeclaredField("aRenderers");
-			nodeViewers.setAccessible(true);
-			@SuppressWarnings("unchecked")
-			ImplicitParameterNodeRenderer instanceOfImplicitParameterNodeViewer = 
-					(ImplicitParameterNodeRenderer)((IdentityHashMap<Class<? extends Node>, NodeRenderer>)nodeViewers.get(
-							new SequenceDiagramRenderer(new Diagram(DiagramType.SEQUENCE)))).get(ImplicitParameterNode.class);
-			return instanceOfImplicitParameterNodeViewer;
-		}
-		catch (ReflectiveOperationException e)
-		{
-			assert false;
-			fail();
-			return null;
-		}
+		return (ImplicitParameterNodeRenderer) new SequenceDiagramRenderer(new Diagram(DiagramType.SEQUENCE))
+				.rendererFor(ImplicitParameterNode.class);
 	}
 }
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.Edge;
+import org.jetuml.persistence.PersistenceService;
+
+import com.sun.management.ThreadMXBean;
+
+import javafx.geometry.VPos;
+import javafx.scene.effect.Effect;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.ArcType;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Tests the memory allocated by drawing a diagram. The diagram is drawn
+ * on a context that discards all drawing commands, so that only the 
+ * allocations of the renderers are measured.
+ */
+public final class TestAllocationPerformance
+{
+	private static final int NUMBER_OF_WARMUP_TRIALS = 100;
+	private static final int NUMBER_OF_TRIALS = 300;
+	private static final double BYTES_PER_KILOBYTE = 1024.0;
+	
+	private TestAllocationPerformance() {}
+	
+	/**
+	 * Test method. 
+	 */
+	public static void main(String[] pArgs) throws Exception
+	{
+		ThreadMXBean bean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		Diagram diagram = PersistenceService.read(Path.of("testdata", "performanceDiagram.class.jet").toFile()).diagram();
+		DiagramRenderer renderer = DiagramType.newRendererInstanceFor(diagram);
+		RenderingContext context = new NullRenderingContext();
+		
+		for( int i = 0; i < NUMBER_OF_WARMUP_TRIALS; i++ )
+		{
+			renderer.draw(context);
+		}
+		
+		long before = bean.getThreadAllocatedBytes(thread);
+		for( int i = 0; i < NUMBER_OF_TRIALS; i++ )
+		{
+			renderer.draw(context);
+		}
+		long diagramBytes = bean.getThreadAllocatedBytes(thread) - before;
+		
+		before = bean.getThreadAllocatedBytes(thread);
+		for( int i = 0; i < NUMBER_OF_TRIALS; i++ )
+		{
+			for( Edge edge : diagram.edges() )
+			{
+				renderer.draw(edge, context);
+			}
+		}
+		long edgeBytes = bean.getThreadAllocatedBytes(thread) - before;
+
+		System.out.println("Test DiagramRenderer.draw(diagram) with " + diagram.edges().size() + " edges : ");
+		System.out.println("Average allocation (KB) of " + NUMBER_OF_TRIALS + " trials : " + 
+				diagramBytes / BYTES_PER_KILOBYTE / NUMBER_OF_TRIALS);
+		System.out.println("Average allocation (KB) of drawing the edges only : " + 
+				edgeBytes / BYTES_PER_KILOBYTE / NUMBER_OF_TRIALS);
+	}
+	
+	/*
+	 * Discards all drawing commands and only remembers the state of the context.
+	 */
+	private static final class NullRenderingContext implements RenderingContext
+	{
+		private Paint aFill = Color.BLACK;
+		private Paint aStroke = Color.BLACK;
+		private double aLineWidth = 1;
+		private double[] aLineDashes = new double[0];
+		private DiagramFont aFont = DiagramFont.DEFAULT;
+		private TextAlignment aTextAlignment = TextAlignment.LEFT;
+		private VPos aTextBaseline = VPos.BASELINE;
+		
+		@Override
+		public Paint getFill()
+		{
+			return aFill;
+		}
+
+		@Override
+		public void setFill(Paint pFill)
+		{
+			aFill = pFill;
+		}
+
+		@Override
+		public Paint getStroke()
+		{
+			return aStroke;
+		}
+
+		@Override
+		public void setStroke(Paint pStroke)
+		{
+			aStroke = pStroke;
+		}
+
+		@Override
+		public double getLineWidth()
+		{
+			return aLineWidth;
+		}
+
+		@Override
+		public void setLineWidth(double pWidth)
+		{
+			aLineWidth = pWidth;
+		}
+
+		@Override
+		public double[] getLineDashes()
+		{
+			return aLineDashes;
+		}
+
+		@Override
+		public void setLineDashes(double... pDashes)
+		{
+			aLineDashes = pDashes;
+		}
+
+		@Override
+		public void setEffect(Effect pEffect) {}
+
+		@Override
+		public DiagramFont getFont()
+		{
+			return aFont;
+		}
+
+		@Override
+		public void setFont(DiagramFont pFont)
+		{
+			aFont = pFont;
+		}
+
+		@Override
+		public TextAlignment getTextAlign()
+		{
+			return aTextAlignment;
+		}
+
+		@Override
+		public void setTextAlign(TextAlignment pAlignment)
+		{
+			aTextAlignment = pAlignment;
+		}
+
+		@Override
+		public VPos getTextBaseline()
+		{
+			return aTextBaseline;
+		}
+
+		@Override
+		public void setTextBaseline(VPos pBaseline)
+		{
+			aTextBaseline = pBaseline;
+		}
+
+		@Override
+		public void translate(double pX, double pY) {}
+
+		@Override
+		public void scale(double pX, double pY) {}
+
+		@Override
+		public void fillRect(double pX, double pY, double pWidth, double pHeight) {}
+
+		@Override
+		public void strokeRect(double pX, double pY, double pWidth, double pHeight) {}
+
+		@Override
+		public void fillRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight) {}
+
+		@Override
+		public void strokeRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight) {}
+
+		@Override
+		public void fillOval(double pX, double pY, double pWidth, double pHeight) {}
+
+		@Override
+		public void strokeOval(double pX, double pY, double pWidth, double pHeight) {}
+
+		@Override
+		public void strokeArc(double pX, double pY, double pWidth, double pHeight, double pStartAngle, double pArcExtent,
+				ArcType pClosure) {}
+
+		@Override
+		public void strokeLine(double pX1, double pY1, double pX2, double pY2) {}
+
+		@Override
+		public void fillText(String pText, double pX, double pY) {}
+
+		@Override
+		public void beginPath() {}
+
+		@Override
+		public void moveTo(double pX, double pY) {}
+
+		@Override
+		public void lineTo(double pX, double pY) {}
+
+		@Override
+		public void quadraticCurveTo(double pControlX, double pControlY, double pX, double pY) {}
+
+		@Override
+		public void stroke() {}
+
+		@Override
+		public void fill() {}
+	}
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jetuml.JavaFXLoader;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.geom.Dimension;
+import org.jetuml.geom.Direction;
+import org.jetuml.gui.SvgExporter;
+import org.jetuml.persistence.PersistenceService;
+import org.jetuml.rendering.StringRenderer.Alignment;
+import org.jetuml.rendering.StringRenderer.TextDecoration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/*
+ * Renders the same diagram from many threads at once, each thread with
+ * its own renderer, and checks that every thread produces the same 
+ * document as a single thread.
+ */
+public class TestConcurrentRendering
+{
+	private static final int THREADS = 8;
+	private static final int ITERATIONS = 5;
+	
+	private ExecutorService aExecutor;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aExecutor = Executors.newFixedThreadPool(THREADS);
+	}
+	
+	@AfterEach
+	public void tearDown()
+	{
+		aExecutor.shutdownNow();
+	}
+	
+	private static String export(Diagram pDiagram)
+	{
+		StringWriter writer = new StringWriter();
+		SvgExporter.export(pDiagram, writer);
+		return writer.toString();
+	}
+	
+	/*
+	 * Runs pTask on all the threads at once and returns the results.
+	 */
+	private <T> List<T> runOnAllThreads(Callable<T> pTask) throws Exception
+	{
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<T>> futures = new ArrayList<>();
+		for( int i = 0; i < THREADS; i++ )
+		{
+			futures.add(aExecutor.submit(() -> 
+			{
+				start.await();
+				return pTask.call();
+			}));
+		}
+		start.countDown();
+		List<T> results = new ArrayList<>();
+		for( Future<T> future : futures )
+		{
+			results.add(future.get());
+		}
+		return results;
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = {"testPersistenceService.class.jet", "testPersistenceService.object.jet",
+			"testPersistenceService.sequence.jet", "testPersistenceService.state.jet", 
+			"testPersistenceService.usecase.jet", "performanceDiagram.class.jet"})
+	public void testSameOutputOnAllThreads(String pFileName) throws Exception
+	{
+		Diagram diagram = PersistenceService.read(new File("testdata", pFileName)).diagram();
+		String expected = export(diagram);
+		for( String output : runOnAllThreads(() -> 
+		{
+			String result = "";
+			for( int i = 0; i < ITERATIONS; i++ )
+			{
+				result = export(diagram);
+			}
+			return result;
+		}))
+		{
+			assertEquals(expected, output);
+		}
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = {"Single", "Multi\nLine\nString"})
+	public void testSameDimensionOnAllThreads(String pString) throws Exception
+	{
+		StringRenderer renderer = StringRenderer.get(Alignment.TOP_LEFT, TextDecoration.BOLD, TextDecoration.PADDED);
+		assertSame(renderer, StringRenderer.get(Alignment.TOP_LEFT, TextDecoration.PADDED, TextDecoration.BOLD));
+		assertSame(Direction.EAST, Direction.fromAngle(90));
+		for( Dimension dimension : runOnAllThreads(() -> renderer.getDimension(pString)) )
+		{
+			assertEquals(renderer.getDimension(pString), dimension);
+		}
+	}
+}
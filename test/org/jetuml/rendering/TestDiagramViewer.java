@@ -20,21 +20,54 @@
  *******************************************************************************/
 package org.jetuml.rendering;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.jetuml.JavaFXLoader;
 import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.edges.DependencyEdge;
 import org.jetuml.diagram.nodes.ClassNode;
 import org.jetuml.diagram.nodes.PackageNode;
+import org.jetuml.geom.EdgePath;
 import org.jetuml.geom.Point;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import javafx.scene.canvas.Canvas;
+
 public class TestDiagramViewer
 {
 	private Diagram aDiagram = new Diagram(DiagramType.CLASS);
 	private DiagramRenderer aRenderer = new ClassDiagramRenderer(aDiagram);
 	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@Test
+	void testDrawOverview_LaysOutEdgesOfChangedDiagram()
+	{
+		ClassNode start = new ClassNode();
+		ClassNode end = new ClassNode();
+		end.translate(300, 0);
+		aDiagram.addRootNode(start);
+		aDiagram.addRootNode(end);
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(start, end, aDiagram);
+		aDiagram.addEdge(edge);
+		RenderingContext context = new CanvasRenderingContext(new Canvas(500, 500).getGraphicsContext2D());
+		
+		aRenderer.drawOverview(context);
+		EdgePath path = ((ClassDiagramRenderer)aRenderer).getStoredEdgePath(edge).get();
+		end.translate(0, 200);
+		aRenderer.drawOverview(context);
+		assertNotEquals(path, ((ClassDiagramRenderer)aRenderer).getStoredEdgePath(edge).get());
+	}
+	
 	@Test
 	void testNodeAt_NoneShallow()
 	{
@@ -33,11 +33,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
-import javafx.scene.text.Font;
-
 public class TestFontMetrics {
 
-	private static final FontMetrics aMetrics = new FontMetrics(Font.font("System", DEFAULT_FONT_SIZE));
+	private static final FontMetrics aMetrics = new JavaFXFontMetrics(new DiagramFont(DiagramFont.SYSTEM_FAMILY, DEFAULT_FONT_SIZE, false));
 	// Ensures there is no caching of sorts when reusing the same Text object
 	@ParameterizedTest
 	@MethodSource("stringPairParameters")
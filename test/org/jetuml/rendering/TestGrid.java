@@ -21,12 +21,35 @@
 package org.jetuml.rendering;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import org.jetuml.JavaFXLoader;
 import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
 public class TestGrid
 {
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@Test
+	void testDrawRestoresFill()
+	{
+		GraphicsContext context = new Canvas(100, 100).getGraphicsContext2D();
+		context.setFill(Color.RED);
+		Grid.draw(context, new Rectangle(0, 0, 100, 100));
+		assertSame(Color.RED, context.getFill());
+	}
+	
 	@Test
 	void testSnappedHorizontally()
 	{
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.jetuml.rendering.Instrumentation.Counter;
+import org.jetuml.rendering.Instrumentation.Phase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class TestInstrumentation
+{
+	@AfterEach
+	public void tearDown()
+	{
+		Instrumentation.reset();
+	}
+	
+	@Test
+	public void testDisabledByDefault()
+	{
+		assertFalse(Instrumentation.isEnabled());
+		assertEquals(0, Instrumentation.start());
+		Instrumentation.stop(Phase.PAINT, 0);
+		Instrumentation.count(Counter.ELEMENTS_DRAWN);
+		assertTrue(Instrumentation.report().contains("paint count=0 "));
+		assertTrue(Instrumentation.report().contains("elements_drawn 0\n"));
+	}
+	
+	@Test
+	public void testReport()
+	{
+		Instrumentation.record(Phase.TEXT_MEASUREMENT, 1_000);
+		Instrumentation.record(Phase.TEXT_MEASUREMENT, 3_000);
+		Instrumentation.record(Phase.TEXT_MEASUREMENT, 1_000_000);
+		Instrumentation.increment(Counter.NODE_BOUNDS_HITS);
+		Instrumentation.increment(Counter.NODE_BOUNDS_HITS);
+		String report = Instrumentation.report();
+		assertTrue(report.contains("text_measurement count=3 total_ms=1.004 mean_us=334.7 p50_us=4.1 p95_us=1000.0 " +
+				"p99_us=1000.0 max_us=1000.0\n"), report);
+		assertTrue(report.contains("draw_nodes count=0 total_ms=0.000 mean_us=0.0 p50_us=0.0"), report);
+		assertTrue(report.contains("node_bounds_hits 2\n"), report);
+	}
+	
+	@Test
+	public void testReset()
+	{
+		Instrumentation.record(Phase.CLASS_LAYOUT, 500);
+		Instrumentation.increment(Counter.ELEMENTS_DRAWN);
+		Instrumentation.reset();
+		Instrumentation.Bean bean = new Instrumentation.Bean();
+		assertEquals(0, bean.getPhaseCounts().get("class_layout"));
+		assertEquals(0, bean.getCounters().get("elements_drawn"));
+	}
+	
+	@Test
+	public void testMXBean() throws Exception
+	{
+		Instrumentation.record(Phase.SEQUENCE_LAYOUT, 2_000_000);
+		Instrumentation.increment(Counter.ELEMENTS_DRAWN);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("org.jetuml:type=TestInstrumentation");
+		server.registerMBean(new Instrumentation.Bean(), name);
+		try
+		{
+			assertEquals(Instrumentation.report(), server.getAttribute(name, "Report"));
+			TabularData counters = (TabularData) server.getAttribute(name, "Counters");
+			CompositeData elementsDrawn = counters.get(new Object[] {"elements_drawn"});
+			assertEquals(1L, elementsDrawn.get("value"));
+			TabularData totals = (TabularData) server.getAttribute(name, "PhaseTotalMillis");
+			assertEquals(2.0, totals.get(new Object[] {"sequence_layout"}).get("value"));
+			server.invoke(name, "reset", new Object[0], new String[0]);
+			assertTrue(Instrumentation.report().contains("sequence_layout count=0 "));
+		}
+		finally
+		{
+			server.unregisterMBean(name);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.jetuml.geom.Dimension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javafx.geometry.VPos;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.paint.Color;
+
+public class TestJava2DRenderingContext
+{
+	private static final int WHITE = 0xffffffff;
+	private static final int BLACK = 0xff000000;
+	
+	private BufferedImage aImage;
+	private Graphics2D aGraphics;
+	private Java2DRenderingContext aContext;
+	
+	@BeforeEach
+	public void setup()
+	{
+		aImage = new BufferedImage(100, 50, BufferedImage.TYPE_INT_ARGB);
+		aGraphics = aImage.createGraphics();
+		aGraphics.setColor(java.awt.Color.WHITE);
+		aGraphics.fillRect(0, 0, 100, 50);
+		aContext = new Java2DRenderingContext(aGraphics);
+	}
+	
+	@AfterEach
+	public void tearDown()
+	{
+		aGraphics.dispose();
+	}
+	
+	private boolean isBlank(int pX, int pY, int pWidth, int pHeight)
+	{
+		for( int x = pX; x < pX + pWidth; x++ )
+		{
+			for( int y = pY; y < pY + pHeight; y++ )
+			{
+				if( aImage.getRGB(x, y) != WHITE )
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	@Test
+	public void testFillRectWithTransform()
+	{
+		aContext.translate(10, 5);
+		aContext.scale(2, 2);
+		aContext.setFill(Color.BLACK);
+		aContext.fillRect(0, 0, 5, 5);
+		assertEquals(BLACK, aImage.getRGB(10, 5));
+		assertEquals(BLACK, aImage.getRGB(19, 14));
+		assertEquals(WHITE, aImage.getRGB(20, 15));
+		assertEquals(WHITE, aImage.getRGB(9, 4));
+	}
+	
+	@Test
+	public void testDropShadowDrawnAtOffset()
+	{
+		aContext.setEffect(new DropShadow(3, 3, 3, Color.BLACK));
+		aContext.setFill(Color.RED);
+		aContext.fillRect(10, 10, 10, 10);
+		assertEquals(0xffff0000, aImage.getRGB(15, 15));
+		assertEquals(BLACK, aImage.getRGB(21, 21));
+		aContext.setEffect(null);
+		aContext.fillRect(50, 10, 10, 10);
+		assertEquals(WHITE, aImage.getRGB(61, 21));
+	}
+	
+	@Test
+	public void testStrokePath()
+	{
+		aContext.setStroke(Color.BLACK);
+		aContext.beginPath();
+		aContext.moveTo(10.5, 10.5);
+		aContext.lineTo(90.5, 10.5);
+		aContext.stroke();
+		assertEquals(BLACK, aImage.getRGB(50, 10));
+		assertTrue(isBlank(0, 20, 100, 30));
+		aContext.beginPath();
+		aContext.stroke();
+		assertTrue(isBlank(0, 20, 100, 30));
+	}
+	
+	@Test
+	public void testDashedLine()
+	{
+		aContext.setStroke(Color.BLACK);
+		aContext.setLineDashes(4, 4);
+		aContext.strokeLine(0.5, 10.5, 99.5, 10.5);
+		assertEquals(BLACK, aImage.getRGB(1, 10));
+		assertEquals(WHITE, aImage.getRGB(7, 10));
+		assertEquals(BLACK, aImage.getRGB(9, 10));
+	}
+	
+	@Test
+	public void testFillTextWithinMeasuredBounds()
+	{
+		DiagramFont font = new DiagramFont(DiagramFont.SYSTEM_FAMILY, 12, false);
+		Dimension dimension = new Java2DFontMetrics(font).getDimension("XXX");
+		assertTrue(dimension.width() > 0 && dimension.height() > 0);
+		aContext.setFont(font);
+		aContext.setFill(Color.BLACK);
+		aContext.setTextBaseline(VPos.TOP);
+		aContext.fillText("XXX", 10, 10);
+		assertFalse(isBlank(10, 10, dimension.width(), dimension.height()));
+		assertTrue(isBlank(0, 0, 100, 9));
+		assertTrue(isBlank(12 + dimension.width(), 0, 88 - dimension.width(), 50));
+	}
+	
+	@Test
+	public void testMultiLineTextTallerThanSingleLine()
+	{
+		Java2DFontMetrics metrics = new Java2DFontMetrics(DiagramFont.DEFAULT);
+		Dimension single = metrics.getDimension("XX");
+		Dimension multiple = metrics.getDimension("XX\nXX");
+		assertEquals(single.width(), multiple.width());
+		assertTrue(multiple.height() > single.height());
+		assertEquals(0, metrics.getDimension("").width());
+	}
+	
+	@Test
+	public void testBoldTextIsWider()
+	{
+		assertTrue(new Java2DFontMetrics(DiagramFont.DEFAULT.bold()).getDimension("Bold text").width() > 
+			new Java2DFontMetrics(DiagramFont.DEFAULT).getDimension("Bold text").width());
+	}
+	
+	@Test
+	public void testSelectBackend()
+	{
+		assertEquals(RenderingBackend.JAVAFX, RenderingBackend.parse(null));
+		assertEquals(RenderingBackend.JAVAFX, RenderingBackend.parse("opengl"));
+		assertEquals(RenderingBackend.JAVA2D, RenderingBackend.parse(" Java2D "));
+		assertTrue(RenderingBackend.JAVA2D.createFontMetrics(DiagramFont.DEFAULT) instanceof Java2DFontMetrics);
+	}
+}
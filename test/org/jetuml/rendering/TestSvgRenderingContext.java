@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2022 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ ******************************************************************************/
+package org.jetuml.rendering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.jetuml.JavaFXLoader;
+import org.jetuml.diagram.Diagram;
+import org.jetuml.diagram.DiagramType;
+import org.jetuml.diagram.nodes.ClassNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javafx.geometry.VPos;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.ArcType;
+import javafx.scene.text.TextAlignment;
+
+public class TestSvgRenderingContext
+{
+	private StringWriter aWriter;
+	private SvgRenderingContext aContext;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aWriter = new StringWriter();
+		aContext = new SvgRenderingContext(aWriter, 100, 50);
+	}
+	
+	private Document finish() throws Exception
+	{
+		aContext.finish();
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(new ByteArrayInputStream(aWriter.toString().getBytes(StandardCharsets.UTF_8)));
+	}
+	
+	private static Element element(Document pDocument, String pName)
+	{
+		return (Element) pDocument.getElementsByTagName(pName).item(0);
+	}
+	
+	@Test
+	public void testEmptyDocument() throws Exception
+	{
+		Document document = finish();
+		Element root = document.getDocumentElement();
+		assertEquals("svg", root.getTagName());
+		assertEquals("100", root.getAttribute("width"));
+		assertEquals("50", root.getAttribute("height"));
+	}
+	
+	@Test
+	public void testStrokeRectWithTransform() throws Exception
+	{
+		aContext.setStroke(Color.RED);
+		aContext.setLineWidth(0.5);
+		aContext.setLineDashes(3, 3);
+		aContext.translate(10, 5);
+		aContext.scale(2, 2);
+		aContext.strokeRect(1.5, 2, 20, 10);
+		Element rect = element(finish(), "rect");
+		assertEquals("1.5", rect.getAttribute("x"));
+		assertEquals("2", rect.getAttribute("y"));
+		assertEquals("none", rect.getAttribute("fill"));
+		assertEquals("#ff0000", rect.getAttribute("stroke"));
+		assertEquals("0.5", rect.getAttribute("stroke-width"));
+		assertEquals("3 3", rect.getAttribute("stroke-dasharray"));
+		assertEquals("matrix(2 0 0 2 10 5)", rect.getAttribute("transform"));
+	}
+	
+	@Test
+	public void testFillWithShadowAndOpacity() throws Exception
+	{
+		aContext.setFill(Color.rgb(0, 0, 255, 0.5));
+		aContext.setEffect(new DropShadow());
+		aContext.fillOval(0, 0, 10, 20);
+		aContext.setEffect(null);
+		aContext.fillRoundRect(0, 0, 10, 10, 4, 4);
+		Document document = finish();
+		Element ellipse = element(document, "ellipse");
+		assertEquals("5", ellipse.getAttribute("cx"));
+		assertEquals("10", ellipse.getAttribute("ry"));
+		assertEquals("#0000ff", ellipse.getAttribute("fill"));
+		assertEquals("0.5", ellipse.getAttribute("fill-opacity"));
+		assertEquals("url(#shadow)", ellipse.getAttribute("filter"));
+		Element rect = element(document, "rect");
+		assertEquals("2", rect.getAttribute("rx"));
+		assertFalse(rect.hasAttribute("filter"));
+	}
+	
+	@Test
+	public void testPath() throws Exception
+	{
+		aContext.beginPath();
+		aContext.moveTo(0, 0);
+		aContext.lineTo(10, 0);
+		aContext.quadraticCurveTo(15, 5, 10, 10);
+		aContext.stroke();
+		assertEquals("M0 0 L10 0 Q15 5 10 10", element(finish(), "path").getAttribute("d"));
+	}
+	
+	@Test
+	public void testArc() throws Exception
+	{
+		aContext.strokeArc(0, 0, 20, 20, 0, 90, ArcType.OPEN);
+		// From the right of the circle to its top, counter-clockwise on screen
+		assertEquals("M20 10 A10 10 0 0 0 10 0", element(finish(), "path").getAttribute("d"));
+	}
+	
+	@Test
+	public void testTextIsEscaped() throws Exception
+	{
+		aContext.setTextAlign(TextAlignment.CENTER);
+		aContext.setTextBaseline(VPos.TOP);
+		aContext.fillText("List<String> & \"more\"", 5, 6);
+		Element text = element(finish(), "text");
+		assertEquals("List<String> & \"more\"", text.getTextContent());
+		assertEquals("middle", text.getAttribute("text-anchor"));
+		assertEquals("text-before-edge", text.getAttribute("dominant-baseline"));
+	}
+	
+	@Test
+	public void testFontFamily() throws Exception
+	{
+		aContext.setFont(new DiagramFont(DiagramFont.SYSTEM_FAMILY, 12, true));
+		aContext.fillText("system", 5, 6);
+		aContext.setFont(new DiagramFont("Serif", 10, false));
+		aContext.fillText("serif", 5, 20);
+		Document document = finish();
+		Element system = (Element) document.getElementsByTagName("text").item(0);
+		assertEquals("sans-serif", system.getAttribute("font-family"));
+		assertEquals("12", system.getAttribute("font-size"));
+		assertEquals("bold", system.getAttribute("font-weight"));
+		assertEquals("Serif", ((Element) document.getElementsByTagName("text").item(1)).getAttribute("font-family"));
+	}
+	
+	@Test
+	public void testMultiLineText() throws Exception
+	{
+		aContext.fillText("first\nsecond", 5, 6);
+		Document document = finish();
+		assertEquals(2, document.getElementsByTagName("tspan").getLength());
+		assertEquals("second", document.getElementsByTagName("tspan").item(1).getTextContent());
+	}
+	
+	@Test
+	public void testDrawDiagram() throws Exception
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		ClassNode node = new ClassNode();
+		node.setName("Foo<T>");
+		diagram.addRootNode(node);
+		DiagramType.newRendererInstanceFor(diagram).draw(aContext);
+		Document document = finish();
+		assertTrue(document.getElementsByTagName("rect").getLength() > 0);
+		assertEquals("Foo<T>", element(document, "text").getTextContent());
+	}
+}
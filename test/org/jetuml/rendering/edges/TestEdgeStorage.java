@@ -164,5 +164,25 @@ public class TestEdgeStorage
 		assertFalse(aEdgeStorage.contains(edge3));
 	}
 	
-	
+	@Test
+	public void testRenderPlanKeptForEdgesStoredAgain()
+	{
+		EdgeRenderPlan plan1 = new EdgeRenderPlan(path1, 0, 12, null, null, null, null, null, null, null, null);
+		EdgeRenderPlan plan2 = new EdgeRenderPlan(path2, 0, 12, null, null, null, null, null, null, null, null);
+		aEdgeStorage.store(edge1, path1);
+		aEdgeStorage.store(edge2, path2);
+		aEdgeStorage.storeRenderPlan(edge1, plan1);
+		aEdgeStorage.storeRenderPlan(edge2, plan2);
+		assertSame(plan1, aEdgeStorage.getRenderPlan(edge1).get());
+		
+		aEdgeStorage.clearStorage();
+		assertTrue(aEdgeStorage.getRenderPlan(edge1).isEmpty());
+		aEdgeStorage.store(edge1, path1);
+		assertSame(plan1, aEdgeStorage.getRenderPlan(edge1).get());
+		
+		// edge2 was not stored again before the next layout
+		aEdgeStorage.clearStorage();
+		aEdgeStorage.store(edge2, path2);
+		assertTrue(aEdgeStorage.getRenderPlan(edge2).isEmpty());
+	}
 }
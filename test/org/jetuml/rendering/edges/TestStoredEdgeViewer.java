@@ -22,15 +22,20 @@ package org.jetuml.rendering.edges;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
+import org.jetuml.application.UserPreferences;
+import org.jetuml.application.UserPreferences.IntegerPreference;
 import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.DiagramType;
 import org.jetuml.diagram.Edge;
+import org.jetuml.diagram.PropertyName;
 import org.jetuml.diagram.edges.AggregationEdge;
 import org.jetuml.diagram.edges.AssociationEdge;
 import org.jetuml.diagram.edges.AssociationEdge.Directionality;
@@ -39,6 +44,7 @@ import org.jetuml.diagram.edges.GeneralizationEdge;
 import org.jetuml.diagram.nodes.ClassNode;
 import org.jetuml.geom.EdgePath;
 import org.jetuml.geom.Point;
+import org.jetuml.geom.Rectangle;
 import org.jetuml.rendering.ArrowHead;
 import org.jetuml.rendering.ClassDiagramRenderer;
 import org.jetuml.rendering.LineStyle;
@@ -230,6 +236,69 @@ public class TestStoredEdgeViewer
 		assertEquals(new EdgePath(new Point(0, 0), new Point(0, 100)), getStoredEdgePath(aDependencyEdge));
 	}
 	
+	@Test
+	public void testRenderPlanReused()
+	{
+		aDependencyEdge.connect(aNodeB, aNodeA, aDiagram);
+		aDiagram.addEdge(aDependencyEdge);
+		store(aDependencyEdge, new EdgePath(new Point(0, 0), new Point(0, 100)));
+		Rectangle bounds = aStoredEdgeViewer.getBounds(aDependencyEdge);
+		EdgeRenderPlan plan = aRenderer.getRenderPlan(aDependencyEdge).get();
+		assertTrue(aStoredEdgeViewer.contains(aDependencyEdge, new Point(0, 50)));
+		assertEquals(bounds, aStoredEdgeViewer.getBounds(aDependencyEdge));
+		assertSame(plan, aRenderer.getRenderPlan(aDependencyEdge).get());
+		
+		// Laying out the edge along the same path keeps the plan
+		store(aDependencyEdge, new EdgePath(new Point(0, 0), new Point(0, 100)));
+		aStoredEdgeViewer.getBounds(aDependencyEdge);
+		assertSame(plan, aRenderer.getRenderPlan(aDependencyEdge).get());
+	}
+	
+	@Test
+	public void testRenderPlanInvalidated()
+	{
+		aDependencyEdge.connect(aNodeB, aNodeA, aDiagram);
+		aDiagram.addEdge(aDependencyEdge);
+		store(aDependencyEdge, new EdgePath(new Point(0, 0), new Point(0, 100)));
+		Rectangle bounds = aStoredEdgeViewer.getBounds(aDependencyEdge);
+		EdgeRenderPlan plan = aRenderer.getRenderPlan(aDependencyEdge).get();
+		
+		aDependencyEdge.properties().get(PropertyName.MIDDLE_LABEL).set("label");
+		assertTrue(bounds.getWidth() < aStoredEdgeViewer.getBounds(aDependencyEdge).getWidth());
+		assertNotSame(plan, aRenderer.getRenderPlan(aDependencyEdge).get());
+		
+		plan = aRenderer.getRenderPlan(aDependencyEdge).get();
+		store(aDependencyEdge, new EdgePath(new Point(0, 0), new Point(0, 50)));
+		assertEquals(new Point(0, 50), aStoredEdgeViewer.getConnectionPoints(aDependencyEdge).getPoint2());
+		assertFalse(aStoredEdgeViewer.contains(aDependencyEdge, new Point(0, 75)));
+		assertNotSame(plan, aRenderer.getRenderPlan(aDependencyEdge).get());
+	}
+	
+	@Test
+	public void testRenderPlanInvalidatedByFontSize()
+	{
+		aDependencyEdge.connect(aNodeB, aNodeA, aDiagram);
+		aDiagram.addEdge(aDependencyEdge);
+		aDependencyEdge.properties().get(PropertyName.MIDDLE_LABEL).set("label");
+		store(aDependencyEdge, new EdgePath(new Point(0, 0), new Point(0, 100)));
+		Rectangle bounds = aStoredEdgeViewer.getBounds(aDependencyEdge);
+		EdgeRenderPlan plan = aRenderer.getRenderPlan(aDependencyEdge).get();
+		
+		int fontSize = UserPreferences.instance().getInteger(IntegerPreference.fontSize);
+		try
+		{
+			// Neither the path nor the diagram changes
+			UserPreferences.instance().setInteger(IntegerPreference.fontSize, fontSize + 10);
+			assertTrue(bounds.getWidth() < aStoredEdgeViewer.getBounds(aDependencyEdge).getWidth());
+			assertNotSame(plan, aRenderer.getRenderPlan(aDependencyEdge).get());
+		}
+		finally
+		{
+			UserPreferences.instance().setInteger(IntegerPreference.fontSize, fontSize);
+		}
+		assertEquals(bounds, aStoredEdgeViewer.getBounds(aDependencyEdge));
+	}
+	
 	
 	
 	
@@ -27,10 +27,11 @@ import java.time.Instant;
 import org.jetuml.diagram.Diagram;
 import org.jetuml.diagram.DiagramType;
 import org.jetuml.persistence.PersistenceService;
+import org.jetuml.rendering.CanvasRenderingContext;
 import org.jetuml.rendering.DiagramRenderer;
+import org.jetuml.rendering.RenderingContext;
 
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 
  /**
   * Tests the performance of drawing a diagram. 
@@ -47,7 +48,7 @@ import javafx.scene.canvas.GraphicsContext;
  	public static void main(String[] pArgs) throws Exception
  	{
  		Canvas canvas = new Canvas();
- 		GraphicsContext graphicContext = canvas.getGraphicsContext2D();
+ 		RenderingContext graphicContext = new CanvasRenderingContext(canvas.getGraphicsContext2D());
  		Diagram diagram = PersistenceService.read(Path.of("testdata", "performanceDiagram.class.jet").toFile()).diagram();
  		DiagramRenderer renderer = DiagramType.newRendererInstanceFor(diagram);
 